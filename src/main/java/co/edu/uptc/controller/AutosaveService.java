@@ -0,0 +1,235 @@
+package co.edu.uptc.controller;
+
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.GraphData;
+import co.edu.uptc.model.Node;
+import co.edu.uptc.persistence.GraphJournal;
+import co.edu.uptc.persistence.JournalRecord;
+import co.edu.uptc.persistence.RouteDAO;
+
+import java.io.IOException;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Guardado automático del grafo en segundo plano, con diario de cambios.
+ *
+ * <p>Cada cambio notificado por {@link GraphController} se añade al diario del archivo
+ * de trabajo ({@link GraphJournal}): una escritura pequeña, independiente del tamaño
+ * del grafo. Cuando el diario alcanza {@code compactThreshold} cambios, se compacta:
+ * se toma una copia del grafo en el hilo propietario (el de JavaFX en la aplicación),
+ * se escribe como checkpoint completo y el diario se vacía.</p>
+ *
+ * <p>Todo el acceso a disco ocurre en un único hilo propio, en el mismo orden en que
+ * se hicieron los cambios; la edición nunca espera a la escritura. El checkpoint lo
+ * escribe el {@link RouteDAO} con temporal, {@code fsync} y renombrado atómico, y el
+ * diario descarta los cambios que ya estén en un checkpoint más reciente, de modo que
+ * un corte en cualquier punto deja un estado recuperable.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class AutosaveService implements GraphListener, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(AutosaveService.class.getName());
+
+    /** Cambios acumulados en el diario antes de compactarlo en un checkpoint */
+    public static final int DEFAULT_COMPACT_THRESHOLD = 500;
+
+    private final GraphController graph;
+    private final RouteDAO dao;
+    private final Executor ownerThread;
+    private final int compactThreshold;
+
+    /** Un solo hilo para diario y checkpoints, siempre en el orden de los cambios */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "graph-autosave");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile String target;
+
+    /** Diario abierto; solo se usa desde {@link #executor} */
+    private GraphJournal journal;
+
+    /** Cambios en el diario (escrito por {@link #executor}, leído desde cualquier hilo) */
+    private volatile int journalSize;
+    private volatile boolean compactionRequested;
+
+    /**
+     * @param graph Grafo a guardar
+     * @param dao DAO usado para escribir los checkpoints
+     * @param ownerThread Ejecutor del hilo que modifica el grafo (para tomar las copias)
+     * @param compactThreshold Cambios en el diario que provocan una compactación
+     */
+    public AutosaveService(GraphController graph, RouteDAO dao, Executor ownerThread, int compactThreshold) {
+        this.graph = graph;
+        this.dao = dao;
+        this.ownerThread = ownerThread;
+        this.compactThreshold = compactThreshold;
+    }
+
+    /**
+     * Cambia el archivo de trabajo y abre su diario. Con null se desactiva el guardado
+     * automático. El grafo actual debe corresponder al archivo más su diario (recién
+     * cargado con {@link GraphController#replaceGraph} o recién guardado).
+     */
+    public void setTarget(String path) {
+        target = path;
+        executor.execute(() -> {
+            closeJournal();
+            if (path == null) return;
+            try {
+                journal = GraphJournal.open(path);
+                journalSize = journal.size();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "No se pudo abrir el diario de " + path + ": " + e.getMessage(), e);
+            }
+        });
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * @return {@code true} si hay cambios que aún no están en el checkpoint
+     */
+    public boolean isDirty() {
+        return target != null && journalSize > 0;
+    }
+
+    // ---- Cambios del grafo ----
+
+    @Override public void nodeAdded(Node node) { record(JournalRecord.addNode(node)); }
+    @Override public void nodeUpdated(Node node) { record(JournalRecord.editNode(node)); }
+    @Override public void nodeRemoved(String nodeId) { record(JournalRecord.deleteNode(nodeId)); }
+    @Override public void edgeAdded(Edge edge) { record(JournalRecord.addEdge(edge)); }
+    @Override public void edgeUpdated(Edge edge) { record(JournalRecord.editEdge(edge)); }
+    @Override public void edgeRemoved(Edge edge) { record(JournalRecord.deleteEdge(edge)); }
+
+    /**
+     * El grafo se reemplazó: el diario del archivo anterior ya no le corresponde.
+     * Quien cargó el grafo nuevo debe llamar a {@link #setTarget}.
+     */
+    @Override
+    public void graphReloaded() {
+        setTarget(null);
+    }
+
+    /**
+     * Cambio que el diario no puede expresar (por ejemplo, una conexión de un solo
+     * sentido aplicada por {@link GraphController#applyDiff}): se escribe un checkpoint.
+     */
+    @Override
+    public void graphChanged() {
+        if (target != null && !compactionRequested) {
+            compactionRequested = true;
+            compact();
+        }
+    }
+
+    /**
+     * Encola el cambio; los valores ya están copiados en el registro. Se decide en el
+     * hilo de escritura si hay diario, porque un guardado en curso puede abrirlo.
+     */
+    private void record(JournalRecord change) {
+        executor.execute(() -> {
+            if (journal == null) return;
+            try {
+                journal.append(change);
+                journalSize = journal.size();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "No se pudo escribir en el diario: " + e.getMessage(), e);
+            }
+            if (journalSize >= compactThreshold && !compactionRequested) {
+                compactionRequested = true;
+                ownerThread.execute(this::compact);
+            }
+        });
+    }
+
+    // ---- Checkpoints ----
+
+    /**
+     * Guarda el grafo completo en {@code path} sin bloquear: la copia se toma ahora
+     * (debe llamarse en el hilo propietario) y la escritura ocurre en segundo plano.
+     *
+     * <p>Si la escritura tiene éxito, {@code path} pasa a ser el archivo de trabajo con
+     * un diario vacío. Los cambios hechos después de la copia van a ese diario.</p>
+     *
+     * @return Futuro que termina al completar la escritura (o con su error)
+     */
+    public CompletableFuture<Void> saveNow(String path) {
+        GraphData snapshot = graph.snapshot();
+        return CompletableFuture.runAsync(() -> {
+            try {
+                // Si falla, se conserva el archivo de trabajo anterior con su diario
+                dao.save(snapshot, path);
+                closeJournal();
+                journal = GraphJournal.reset(path);
+                journalSize = 0;
+                target = path;
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            } finally {
+                compactionRequested = false;
+            }
+        }, executor);
+    }
+
+    /** Ejecutado en el hilo propietario cuando el diario supera el umbral */
+    private void compact() {
+        String path = target;
+        if (path == null) {
+            compactionRequested = false;
+            return;
+        }
+        saveNow(path).whenComplete((ok, error) -> {
+            if (error != null) {
+                LOGGER.log(Level.WARNING, "Error compactando el diario de " + path + ": " + error.getMessage(), error);
+            } else {
+                LOGGER.fine("Diario compactado en " + path);
+            }
+        });
+    }
+
+    /**
+     * Compacta los cambios pendientes y espera a que termine (para el cierre de la
+     * aplicación), de modo que el archivo queda al día por sí solo. Debe llamarse en
+     * el hilo propietario.
+     */
+    @Override
+    public void close() {
+        try {
+            awaitPendingWrites();
+            if (isDirty()) {
+                saveNow(target).get(30, TimeUnit.SECONDS);
+            }
+            executor.submit(this::closeJournal).get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error en el guardado final: " + e.getMessage(), e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /** Espera a que se escriban los cambios ya encolados */
+    void awaitPendingWrites() throws Exception {
+        executor.submit(() -> { }).get(30, TimeUnit.SECONDS);
+    }
+
+    private void closeJournal() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error cerrando el diario: " + e.getMessage(), e);
+        }
+        journal = null;
+        journalSize = 0;
+    }
+}
@@ -0,0 +1,207 @@
+package co.edu.uptc.controller;
+
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.GraphData;
+import co.edu.uptc.model.Node;
+import co.edu.uptc.persistence.JdbcRouteDAO;
+import co.edu.uptc.persistence.JournalRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Mantiene una base de datos ({@link JdbcRouteDAO}) al día con los cambios del grafo,
+ * fila a fila.
+ *
+ * <p>Cada cambio notificado por {@link GraphController} se copia en un
+ * {@link JournalRecord} y se encola. Un único hilo propio aplica los cambios
+ * acumulados en una sola transacción con {@link JdbcRouteDAO#apply}: una ráfaga de
+ * ediciones cuesta una transacción, y el coste depende de las filas cambiadas, no del
+ * tamaño de la red. Si la transacción falla, los cambios se conservan y se reintentan
+ * con los siguientes. Tras {@link #MAX_ATTEMPTS} fallos seguidos se descartan y se
+ * reescribe la base completa con {@link #saveNow}, tomando la copia en el hilo
+ * propietario; así un cambio que la base rechaza siempre no bloquea a los demás.</p>
+ *
+ * <p>Como {@link AutosaveService}, deja de sincronizar cuando el grafo se reemplaza:
+ * quien cargue el grafo nuevo debe llamar a {@link #setTarget} o {@link #saveNow}.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class DatabaseSyncService implements GraphListener, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(DatabaseSyncService.class.getName());
+
+    /** Transacciones fallidas seguidas antes de descartar los cambios y reescribir la base */
+    static final int MAX_ATTEMPTS = 3;
+
+    private final GraphController graph;
+    private final JdbcRouteDAO dao;
+    private final Executor ownerThread;
+
+    /** Un solo hilo: los cambios llegan a la base en el orden en que se hicieron */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "graph-db-sync");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ConcurrentLinkedQueue<JournalRecord> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /** Cambios de una transacción fallida; solo se usa desde {@link #executor} */
+    private final List<JournalRecord> retry = new ArrayList<>();
+
+    /** Fallos seguidos de {@link #retry}; solo se usa desde {@link #executor} */
+    private int failedAttempts;
+
+    private volatile String target;
+
+    /**
+     * @param graph Grafo a sincronizar
+     * @param dao DAO de la base de datos
+     * @param ownerThread Ejecutor del hilo que modifica el grafo (para tomar las copias)
+     */
+    public DatabaseSyncService(GraphController graph, JdbcRouteDAO dao, Executor ownerThread) {
+        this.graph = graph;
+        this.dao = dao;
+        this.ownerThread = ownerThread;
+    }
+
+    /**
+     * Cambia la base de datos de trabajo. Con null se desactiva la sincronización. El
+     * grafo actual debe corresponder al contenido de la base.
+     */
+    public void setTarget(String path) {
+        target = path;
+        pending.clear();
+        executor.execute(this::dropRetry);
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * Escribe el grafo completo en la base sin bloquear y la convierte en la base de
+     * trabajo. La copia se toma ahora (debe llamarse en el hilo propietario).
+     *
+     * @return Futuro que termina al completar la escritura (o con su error)
+     */
+    public CompletableFuture<Void> saveNow(String path) {
+        GraphData snapshot = graph.snapshot();
+        pending.clear();
+        return CompletableFuture.runAsync(() -> {
+            dropRetry();
+            dao.save(snapshot, path);
+            target = path;
+        }, executor);
+    }
+
+    // ---- Cambios del grafo ----
+
+    @Override public void nodeAdded(Node node) { record(JournalRecord.addNode(node)); }
+    @Override public void nodeUpdated(Node node) { record(JournalRecord.editNode(node)); }
+    @Override public void nodeRemoved(String nodeId) { record(JournalRecord.deleteNode(nodeId)); }
+    @Override public void edgeAdded(Edge edge) { record(JournalRecord.addEdge(edge)); }
+    @Override public void edgeUpdated(Edge edge) { record(JournalRecord.editEdge(edge)); }
+    @Override public void edgeRemoved(Edge edge) { record(JournalRecord.deleteEdge(edge)); }
+
+    /** El grafo se reemplazó: la base ya no le corresponde */
+    @Override
+    public void graphReloaded() {
+        setTarget(null);
+    }
+
+    /**
+     * Cambio que no llega como operación de edición (por ejemplo, una conexión de un
+     * solo sentido aplicada por {@link GraphController#applyDiff}): se reescribe la base.
+     */
+    @Override
+    public void graphChanged() {
+        String path = target;
+        if (path != null) resync(path);
+    }
+
+    /** Reescribe la base completa; debe llamarse en el hilo propietario */
+    private void resync(String path) {
+        // La base de trabajo pudo cambiar mientras se esperaba al hilo propietario
+        if (!path.equals(target)) return;
+        saveNow(path).whenComplete((ok, error) -> {
+            if (error != null) {
+                LOGGER.log(Level.WARNING, "Error reescribiendo la base " + path + ": " + error.getMessage(), error);
+            }
+        });
+    }
+
+    private void record(JournalRecord change) {
+        if (target == null) return;
+        pending.add(change);
+        if (flushScheduled.compareAndSet(false, true)) {
+            executor.execute(this::flush);
+        }
+    }
+
+    /** Aplica en una transacción todo lo encolado hasta el momento */
+    private void flush() {
+        flushScheduled.set(false);
+        for (JournalRecord r; (r = pending.poll()) != null; ) {
+            retry.add(r);
+        }
+        String path = target;
+        if (retry.isEmpty() || path == null) return;
+        try {
+            dao.apply(path, retry);
+            dropRetry();
+        } catch (RuntimeException e) {
+            if (++failedAttempts < MAX_ATTEMPTS) {
+                LOGGER.log(Level.WARNING, "No se pudieron aplicar " + retry.size() + " cambios en la base; "
+                        + "se reintentarán con los siguientes: " + e.getMessage(), e);
+                return;
+            }
+            LOGGER.log(Level.WARNING, retry.size() + " cambios descartados tras " + failedAttempts
+                    + " intentos; se reescribe la base completa: " + e.getMessage(), e);
+            dropRetry();
+            ownerThread.execute(() -> resync(path));
+        }
+    }
+
+    private void dropRetry() {
+        retry.clear();
+        failedAttempts = 0;
+    }
+
+    /**
+     * @return Cambios que aún no están en la base
+     */
+    public int pendingChanges() throws Exception {
+        return executor.submit(() -> retry.size() + pending.size()).get(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Aplica los cambios pendientes y detiene el hilo de sincronización.
+     */
+    @Override
+    public void close() {
+        try {
+            executor.submit(this::flush).get(30, TimeUnit.SECONDS);
+            if (!retry.isEmpty()) {
+                LOGGER.severe(retry.size() + " cambios no llegaron a la base " + target);
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error en la sincronización final: " + e.getMessage(), e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -1,12 +1,36 @@
 package co.edu.uptc.controller;
 
+import co.edu.uptc.geo.ClusterIndex;
+import co.edu.uptc.geo.NetworkGeometry;
+import co.edu.uptc.geo.SpatialIndex;
 import co.edu.uptc.model.Edge;
 import co.edu.uptc.model.GraphData;
 import co.edu.uptc.model.Node;
+import co.edu.uptc.persistence.GraphJournal;
+import co.edu.uptc.persistence.JournalRecord;
+import co.edu.uptc.persistence.LoadProgress;
+import co.edu.uptc.persistence.MappedGraph;
+import co.edu.uptc.persistence.PersistenceException;
 import co.edu.uptc.persistence.PersistenceManager;
 import co.edu.uptc.persistence.RouteDAO;
+import co.edu.uptc.persistence.ShardManifest;
+import co.edu.uptc.persistence.StreamOrder;
+import co.edu.uptc.search.StationSearchIndex;
+import co.edu.uptc.validation.GraphIssue;
+import co.edu.uptc.validation.GraphReport;
+import co.edu.uptc.validation.GraphValidator;
+import co.edu.uptc.validation.StationIndex;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 /**
  * GraphController singleton que expone exactamente la API usada por los view-controllers.
@@ -15,10 +39,49 @@ public class GraphController {
 
     private static GraphController instance;
 
-    private final Map<String, Node> nodes = new HashMap<>();
+    private Map<String, Node> nodes = new HashMap<>();
+    private SpatialIndex spatialIndex = new SpatialIndex();
+
+    /** IDs y nombres sin distinguir mayúsculas, para validar formularios */
+    private StationIndex stationIndex = new StationIndex();
+
+    /** Búsqueda por ID y nombre; en modo de solo lectura se crea al usarla por primera vez */
+    private StationSearchIndex searchIndex = new StationSearchIndex();
     private final RouteDAO routeDAO;
     private double defaultSpeed = 10.0; // km/h
 
+    /** Contador de modificaciones; permite a las cachés derivadas detectar que están obsoletas */
+    private long version = 0;
+
+    private ClusterIndex clusterIndex;
+    private long clusterIndexVersion = -1;
+
+    private NetworkGeometry networkGeometry;
+    private long networkGeometryVersion = -1;
+
+    private final List<GraphListener> listeners = new CopyOnWriteArrayList<>();
+
+    /** Suspende las notificaciones mientras se reproduce el diario */
+    private boolean muted = false;
+
+    /** Grafo proyectado en memoria (modo de solo lectura), o null */
+    private MappedGraph mapped;
+
+    /** Conexiones que salen de la zona cargada con {@link #readRegion} */
+    private List<Edge> boundaryEdges = List.of();
+
+    private final GraphValidator validator = new GraphValidator();
+
+    /**
+     * Corrige al cargar lo que {@link GraphValidator} sabe arreglar. Desactivado por
+     * defecto: corregir cambia el grafo en memoria y, al guardar, el archivo del usuario,
+     * así que solo se hace si se pide; si no, los problemas solo se informan.
+     */
+    private boolean repairOnLoad = false;
+
+    /** Informe de integridad del último grafo instalado, o null */
+    private GraphReport lastReport;
+
     private GraphController() {
         this.routeDAO = PersistenceManager.getInstance().getRouteDAO();
     }
@@ -30,50 +93,203 @@ public class GraphController {
 
     // ---- NODES ----
     public boolean addNode(Node node) {
+        if (mapped != null) return false;
         if (node == null || node.getId() == null || node.getId().isBlank()) return false;
         if (nodes.containsKey(node.getId())) return false;
         nodes.put(node.getId(), node);
+        spatialIndex.insert(node);
+        stationIndex.add(node);
+        searchIndex.add(node);
+        version++;
+        fire(l -> l.nodeAdded(node));
         return true;
     }
 
     public boolean existsNode(String id) {
+        if (mapped != null) return mapped.indexOf(id) >= 0;
         return nodes.containsKey(id);
     }
 
+    /**
+     * En modo de solo lectura devuelve una copia creada desde el archivo proyectado.
+     */
     public Node getNode(String id) {
+        if (mapped != null) {
+            int idx = mapped.indexOf(id);
+            return idx < 0 ? null : mapped.node(idx);
+        }
         return nodes.get(id);
     }
 
+    /**
+     * Índice de IDs y nombres del grafo actual, para {@link co.edu.uptc.validation.StationValidator}.
+     * Se mantiene al editar; no debe modificarse desde fuera.
+     */
+    public StationIndex getStationIndex() {
+        return stationIndex;
+    }
+
+    /**
+     * Busca estaciones por ID o nombre, sin distinguir mayúsculas ni acentos
+     * ({@link StationSearchIndex}).
+     *
+     * @param query Texto buscado; vacío para las primeras estaciones por ID
+     * @param limit Número máximo de resultados
+     * @return Estaciones de más a menos relevante
+     */
+    public List<Node> searchNodes(String query, int limit) {
+        return toNodes(searchNodeIds(query, limit));
+    }
+
+    /**
+     * Como {@link #searchNodes(String, int)}, pero con todas las coincidencias (para
+     * filtrar tablas).
+     */
+    public List<Node> searchNodes(String query) {
+        return toNodes(searchNodeIds(query));
+    }
+
+    /**
+     * Como {@link #searchNodes(String, int)}, pero solo los IDs (para selectores).
+     */
+    public List<String> searchNodeIds(String query, int limit) {
+        return indexForSearch().search(query, limit);
+    }
+
+    /**
+     * IDs de todas las estaciones que coinciden con la consulta, de más a menos relevante.
+     */
+    public List<String> searchNodeIds(String query) {
+        return indexForSearch().searchAll(query);
+    }
+
+    private StationSearchIndex indexForSearch() {
+        if (searchIndex == null) searchIndex = StationSearchIndex.of(nodeValues());
+        return searchIndex;
+    }
+
+    private List<Node> toNodes(List<String> ids) {
+        List<Node> found = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Node n = getNode(id);
+            if (n != null) found.add(n);
+        }
+        return found;
+    }
+
     public List<Node> getAllNodes() {
-        return new ArrayList<>(nodes.values());
+        return new ArrayList<>(nodeValues());
+    }
+
+    /** Estaciones actuales; en modo de solo lectura, copias de todas las del archivo */
+    private Collection<Node> nodeValues() {
+        if (mapped == null) return nodes.values();
+        List<Node> all = new ArrayList<>(mapped.nodeCount());
+        for (int i = 0; i < mapped.nodeCount(); i++) {
+            all.add(mapped.node(i));
+        }
+        return all;
     }
 
     public boolean editNode(String id, String newName, Double lat, Double lng) {
+        if (mapped != null) return false;
         Node n = nodes.get(id);
         if (n == null) return false;
         n.setName(newName);
         n.setLatitude(lat);
         n.setLongitude(lng);
+        spatialIndex.insert(n);
+        stationIndex.add(n);
+        searchIndex.add(n);
+        version++;
+        fire(l -> l.nodeUpdated(n));
         return true;
     }
 
     public boolean deleteNode(String id) {
+        if (mapped != null) return false;
         Node removed = nodes.remove(id);
         if (removed == null) return false;
+        spatialIndex.remove(id);
+        stationIndex.remove(id);
+        searchIndex.remove(id);
         // eliminar aristas que apunten a este nodo
         for (Node n : nodes.values()) {
             n.removeEdgeTo(id);
         }
+        version++;
+        fire(l -> l.nodeRemoved(id));
         return true;
     }
 
+    /**
+     * Obtiene las estaciones con coordenadas más cercanas a un punto.
+     *
+     * @param lat Latitud del punto
+     * @param lng Longitud del punto
+     * @param k Número máximo de estaciones
+     * @return Estaciones ordenadas por distancia creciente
+     */
+    public List<Node> findNearestNodes(double lat, double lng, int k) {
+        if (mapped != null) return mappedNodes(mapped.nearest(lat, lng, k));
+        return spatialIndex.nearest(lat, lng, k);
+    }
+
+    /**
+     * Obtiene las estaciones contenidas en un rectángulo geográfico.
+     *
+     * @return Estaciones con coordenadas dentro de los límites (orden no definido)
+     */
+    public List<Node> findNodesInBounds(double south, double west, double north, double east) {
+        if (mapped != null) return mappedNodes(mapped.withinBounds(south, west, north, east));
+        return spatialIndex.withinBounds(south, west, north, east);
+    }
+
+    private List<Node> mappedNodes(int[] indexes) {
+        List<Node> result = new ArrayList<>(indexes.length);
+        for (int idx : indexes) {
+            result.add(mapped.node(idx));
+        }
+        return result;
+    }
+
+    /**
+     * Obtiene el índice de agrupación de estaciones por zoom para el mapa.
+     *
+     * <p>Se construye bajo demanda y se reutiliza mientras el grafo no cambie.</p>
+     *
+     * @return Índice de agrupación actualizado
+     */
+    public ClusterIndex getClusterIndex() {
+        if (clusterIndex == null || clusterIndexVersion != version) {
+            clusterIndex = ClusterIndex.build(nodeValues());
+            clusterIndexVersion = version;
+        }
+        return clusterIndex;
+    }
+
+    /**
+     * Obtiene la geometría de las conexiones (cadenas simplificables) para el mapa.
+     *
+     * <p>Se construye bajo demanda y se reutiliza mientras el grafo no cambie.</p>
+     *
+     * @return Geometría de la red actualizada
+     */
+    public NetworkGeometry getNetworkGeometry() {
+        if (networkGeometry == null || networkGeometryVersion != version) {
+            networkGeometry = NetworkGeometry.build(nodeValues());
+            networkGeometryVersion = version;
+        }
+        return networkGeometry;
+    }
+
     // ---- EDGES ----
     /**
      * Añade una arista bidireccional a partir de un objeto Edge.
      * Si los nodos no existen, falla.
      */
     public boolean addEdge(Edge e) {
-        if (e == null) return false;
+        if (e == null || mapped != null) return false;
         Node from = nodes.get(e.getFromId());
         Node to = nodes.get(e.getToId());
         if (from == null || to == null) return false;
@@ -81,6 +297,8 @@ public class GraphController {
         // Añadir arista bidireccional
         from.addEdge(to.getId(), e.getDistance());
         to.addEdge(from.getId(), e.getDistance());
+        version++;
+        fire(l -> l.edgeAdded(e));
         return true;
     }
 
@@ -88,19 +306,23 @@ public class GraphController {
      * Elimina la arista bidireccional representada por 'e' (busca por from->to).
      */
     public boolean deleteEdge(Edge e) {
-        if (e == null) return false;
+        if (e == null || mapped != null) return false;
         Node from = nodes.get(e.getFromId());
         Node to = nodes.get(e.getToId());
         if (from == null || to == null) return false;
         boolean r1 = from.removeEdgeTo(e.getToId());
         boolean r2 = to.removeEdgeTo(e.getFromId());
+        if (r1 || r2) {
+            version++;
+            fire(l -> l.edgeRemoved(e));
+        }
         return r1 && r2;
     }
 
     public List<Edge> getAllEdges() {
         List<Edge> edges = new ArrayList<>();
         Set<String> seen = new HashSet<>();
-        for (Node n : nodes.values()) {
+        for (Node n : nodeValues()) {
             for (Edge e : n.getEdges()) {
                 String key = e.getFromId() + "->" + e.getToId();
                 String rev = e.getToId() + "->" + e.getFromId();
@@ -113,7 +335,7 @@ public class GraphController {
     }
 
     public Edge getEdge(String fromId, String toId) {
-        Node from = nodes.get(fromId);
+        Node from = getNode(fromId);
         if (from == null) return null;
 
         for (Edge e : from.getEdges()) {
@@ -125,6 +347,7 @@ public class GraphController {
     }
 
     public boolean editEdge(String fromId, String toId, double newDistance) {
+        if (mapped != null) return false;
         Edge e1 = getEdge(fromId, toId);
         Edge e2 = getEdge(toId, fromId);
 
@@ -134,43 +357,47 @@ public class GraphController {
         e1.setDistance(newDistance);
         e2.setDistance(newDistance);
 
+        version++;
+        fire(l -> l.edgeUpdated(e1));
         return true;
     }
 
 
     // ---- Persistencia ----
+
+    /**
+     * Guarda el grafo con las estaciones en {@link StreamOrder}, para que leer una zona
+     * del archivo aparte pocas aristas.
+     */
     public void saveGraph(String path) {
-        GraphData gd = new GraphData(new ArrayList<>(nodes.values()));
+        GraphData gd = new GraphData(StreamOrder.of(nodeValues()));
         routeDAO.save(gd, path);
     }
 
+    /**
+     * Copia el grafo actual en estructuras independientes, para serializarlo en otro
+     * hilo mientras se sigue editando.
+     *
+     * @return Copia de todas las estaciones con sus aristas, en {@link StreamOrder}
+     */
+    public GraphData snapshot() {
+        // Las estaciones del archivo proyectado ya son copias
+        if (mapped != null) return new GraphData(StreamOrder.of(nodeValues()));
+        List<Node> copy = new ArrayList<>(nodes.size());
+        for (Node n : nodes.values()) {
+            copy.add(n.copy());
+        }
+        return new GraphData(StreamOrder.of(copy));
+    }
+
     public void loadGraph(String path) {
         try {
-            GraphData data = routeDAO.load(path);
-            if (data == null || data.getNodes() == null) {
+            LoadedGraph loaded = readGraph(path, LoadProgress.NONE);
+            if (loaded == null) {
                 System.err.println("No se pudo cargar el grafo: datos nulos");
                 return;
             }
-            
-            // Limpiar grafo actual
-            nodes.clear();
-            
-            // Cargar nodos
-            for (Node n : data.getNodes()) {
-                if (n != null && n.getId() != null) {
-                    nodes.put(n.getId(), n);
-                }
-            }
-            
-            System.out.println("✅ Grafo cargado: " + nodes.size() + " nodos");
-            
-            // Contar aristas
-            int totalEdges = 0;
-            for (Node n : nodes.values()) {
-                totalEdges += n.getEdges().size();
-            }
-            System.out.println("✅ Total de aristas: " + totalEdges);
-            
+            replaceGraph(loaded);
         } catch (Exception e) {
             System.err.println("❌ Error al cargar grafo: " + e.getMessage());
             e.printStackTrace();
@@ -178,12 +405,752 @@ public class GraphController {
         }
     }
 
+    /**
+     * Grafo leído de un archivo y con su índice espacial ya construido, listo para
+     * instalarse con {@link #replaceGraph}. Incluye los cambios del diario que
+     * quedaron pendientes sobre ese archivo.
+     */
+    public static final class LoadedGraph {
+        private final Map<String, Node> nodes;
+        private final SpatialIndex spatialIndex;
+        private final StationIndex stationIndex;
+        private final StationSearchIndex searchIndex;
+        private final List<JournalRecord> journal;
+        private final List<Edge> boundaryEdges;
+        private GraphReport report;
+
+        private LoadedGraph(Map<String, Node> nodes, SpatialIndex spatialIndex, List<JournalRecord> journal,
+                            List<Edge> boundaryEdges) {
+            this.nodes = nodes;
+            this.spatialIndex = spatialIndex;
+            this.stationIndex = StationIndex.of(nodes.values());
+            this.searchIndex = StationSearchIndex.of(nodes.values());
+            this.journal = journal;
+            this.boundaryEdges = boundaryEdges;
+        }
+
+        /**
+         * Prepara un grafo construido fuera de un archivo (por ejemplo, por un
+         * importador), con su índice espacial y sin diario.
+         *
+         * @param nodes Estaciones con sus aristas
+         */
+        public static LoadedGraph of(Collection<Node> nodes) {
+            Map<String, Node> byId = new HashMap<>(nodes.size() * 2);
+            SpatialIndex index = new SpatialIndex();
+            for (Node n : nodes) {
+                if (n != null && n.getId() != null && byId.putIfAbsent(n.getId(), n) == null) {
+                    index.insert(n);
+                }
+            }
+            return new LoadedGraph(byId, index, List.of(), List.of());
+        }
+
+        public int nodeCount() {
+            return nodes.size();
+        }
+
+        /**
+         * @return Conexiones desde la zona hacia estaciones que no se cargaron (vacía si
+         *         se cargó el grafo completo)
+         */
+        public List<Edge> boundaryEdges() {
+            return boundaryEdges;
+        }
+
+        /** @return Informe de {@link GraphController#validateLoaded}, o null si no se validó */
+        public GraphReport report() {
+            return report;
+        }
+    }
+
+    /**
+     * Comprueba la integridad de un grafo aún no instalado y, si está activado
+     * {@link #setRepairOnLoad}, corrige lo que tiene arreglo seguro. Puede ejecutarse en
+     * un hilo de fondo: el grafo todavía no lo usa nadie.
+     *
+     * @return Informe, que {@link #replaceGraph} deja en {@link #getLastReport()}
+     */
+    public GraphReport validateLoaded(LoadedGraph loaded) {
+        GraphReport report = validator.validate(loaded.nodes, repairOnLoad);
+        if (report.getRepaired() > 0 && report.count(GraphIssue.Type.COORDINATE_OUT_OF_RANGE) > 0) {
+            // Las estaciones sin coordenadas válidas salen del índice
+            loaded.spatialIndex.clear();
+            loaded.nodes.values().forEach(loaded.spatialIndex::insert);
+        }
+        loaded.report = report;
+        return report;
+    }
+
+    /**
+     * Comprueba la integridad del grafo actual sin modificarlo.
+     *
+     * @throws IllegalStateException en modo de solo lectura
+     */
+    public GraphReport validateGraph() {
+        if (mapped != null) throw new IllegalStateException("El grafo proyectado es de solo lectura");
+        return validator.validate(nodes, false);
+    }
+
+    public GraphReport getLastReport() { return lastReport; }
+
+    public boolean isRepairOnLoad() { return repairOnLoad; }
+
+    public void setRepairOnLoad(boolean repairOnLoad) { this.repairOnLoad = repairOnLoad; }
+
+    /**
+     * Lee un grafo en estructuras nuevas sin tocar el grafo actual.
+     *
+     * <p>Puede ejecutarse en un hilo de fondo: solo usa el DAO y lo que construye.</p>
+     *
+     * @param path Archivo a leer
+     * @param progress Receptor del avance y de la cancelación
+     * @return Grafo preparado, o null si el archivo no existe o no tiene datos
+     * @throws java.util.concurrent.CancellationException si la carga se cancela
+     */
+    public LoadedGraph readGraph(String path, LoadProgress progress) {
+        Map<String, Node> fresh = new HashMap<>();
+        SpatialIndex freshIndex = new SpatialIndex();
+        // Cada estación entra al grafo nuevo según se lee, sin lista intermedia
+        boolean found = routeDAO.load(path, progress, n -> {
+            if (n != null && n.getId() != null) {
+                fresh.put(n.getId(), n);
+                freshIndex.insert(n);
+            }
+        });
+        if (!found) return null;
+        LoadedGraph loaded = new LoadedGraph(fresh, freshIndex, GraphJournal.read(path), List.of());
+        validateLoaded(loaded);
+        return loaded;
+    }
+
+    /**
+     * Lee solo una zona de la red, sin tocar el grafo actual.
+     *
+     * <p>El archivo se recorre en flujo y solo se conservan las estaciones de la zona,
+     * y las demás se descartan en cuanto se leen. En los archivos v3 el lector aparta
+     * además el sentido de vuelta de cada conexión hasta leer su segunda estación; como
+     * {@link #saveGraph} escribe las estaciones en {@link StreamOrder}, lo apartado se
+     * limita a las conexiones que cruzan el punto de lectura, no a la red entera. Los
+     * archivos v2 antiguos se leen completos antes de filtrar, hasta que se vuelven a
+     * guardar.</p>
+     *
+     * <p>Las conexiones entre estaciones de la zona quedan en el grafo; las que salen
+     * hacia estaciones no cargadas se apartan en {@link LoadedGraph#boundaryEdges()}.</p>
+     *
+     * <p>Con {@link Region#around} se siguen las conexiones salientes y el archivo se
+     * recorre hasta {@code hops + 1} veces (menos si la zona deja de crecer). El diario
+     * del archivo no se aplica: sus cambios pueden tocar estaciones fuera de la zona, y
+     * guardar el grafo resultante escribe solo la zona.</p>
+     *
+     * @return Zona preparada para {@link #replaceGraph}, o null si el archivo no existe
+     * @throws java.util.concurrent.CancellationException si la carga se cancela
+     */
+    public LoadedGraph readRegion(String path, Region region, LoadProgress progress) {
+        Map<String, Node> kept = new HashMap<>();
+        boolean found;
+        if (region.isBounds()) {
+            found = routeDAO.load(path, progress, n -> {
+                if (n != null && n.getId() != null && region.contains(n.getLatitude(), n.getLongitude())) {
+                    kept.putIfAbsent(n.getId(), n);
+                }
+            });
+        } else {
+            found = readAround(path, region, progress, kept);
+        }
+        if (!found) return null;
+
+        List<Edge> boundary = new ArrayList<>();
+        SpatialIndex freshIndex = new SpatialIndex();
+        for (Node n : kept.values()) {
+            List<Edge> inside = new ArrayList<>(n.getEdges().size());
+            for (Edge e : n.getEdges()) {
+                (kept.containsKey(e.getToId()) ? inside : boundary).add(e);
+            }
+            if (inside.size() != n.getEdges().size()) n.setEdges(inside);
+            freshIndex.insert(n);
+        }
+        LoadedGraph loaded = new LoadedGraph(kept, freshIndex, List.of(), boundary);
+        validateLoaded(loaded);
+        return loaded;
+    }
+
+    /**
+     * Carga una zona de la red y sustituye el grafo actual por ella.
+     */
+    public void loadRegion(String path, Region region) {
+        LoadedGraph loaded = readRegion(path, region, LoadProgress.NONE);
+        if (loaded == null) {
+            System.err.println("No se pudo cargar la zona: el archivo no existe");
+            return;
+        }
+        replaceGraph(loaded);
+        System.out.println("✅ Zona cargada: " + loaded.boundaryEdges().size() + " conexiones de borde");
+    }
+
+    /**
+     * Recorre el archivo por pasadas. En cada una se guardan las estaciones ya
+     * alcanzadas y se marcan sus vecinas; las vecinas que aparecen después en el
+     * archivo entran en la misma pasada, las anteriores en la siguiente.
+     */
+    private boolean readAround(String path, Region region, LoadProgress progress, Map<String, Node> kept) {
+        Map<String, Integer> hops = new HashMap<>();
+        for (String id : region.seeds()) {
+            hops.put(id, 0);
+        }
+        for (int pass = 0; pass <= region.hops(); pass++) {
+            int before = kept.size();
+            boolean found = routeDAO.load(path, progress, n -> {
+                if (n == null || n.getId() == null || kept.containsKey(n.getId())) return;
+                Integer hop = hops.get(n.getId());
+                if (hop == null) return;
+                kept.put(n.getId(), n);
+                expand(n, hop, region.hops(), hops, kept);
+            });
+            if (!found) return false;
+            if (kept.size() == before || kept.size() == hops.size()) break;
+        }
+        return true;
+    }
+
+    /**
+     * Marca las vecinas de una estación con su número de saltos. Si se encuentra un
+     * camino más corto a una estación ya guardada, se vuelve a expandir desde ella.
+     */
+    private static void expand(Node n, int hop, int maxHops, Map<String, Integer> hops, Map<String, Node> kept) {
+        if (hop >= maxHops) return;
+        for (Edge e : n.getEdges()) {
+            Integer known = hops.get(e.getToId());
+            if (known != null && known <= hop + 1) continue;
+            hops.put(e.getToId(), hop + 1);
+            Node target = kept.get(e.getToId());
+            if (target != null) expand(target, hop + 1, maxHops, hops, kept);
+        }
+    }
+
+    /**
+     * Sustituye el grafo actual por uno ya leído, en un solo paso.
+     *
+     * <p>Quien consulte el grafo ve el anterior o el nuevo completo, nunca uno a medio
+     * cargar. Los cambios del diario se aplican antes de notificar, con una única
+     * notificación {@code graphReloaded} al final. Debe llamarse en el hilo que usa el
+     * grafo (el de JavaFX en la aplicación).</p>
+     */
+    public void replaceGraph(LoadedGraph loaded) {
+        mapped = null;
+        nodes = loaded.nodes;
+        boundaryEdges = loaded.boundaryEdges;
+        spatialIndex = loaded.spatialIndex;
+        stationIndex = loaded.stationIndex;
+        searchIndex = loaded.searchIndex;
+        lastReport = loaded.report;
+        version++;
+
+        if (!loaded.journal.isEmpty()) {
+            muted = true;
+            try {
+                for (JournalRecord r : loaded.journal) {
+                    apply(r);
+                }
+            } finally {
+                muted = false;
+            }
+            System.out.println("✅ Diario aplicado: " + loaded.journal.size() + " cambios");
+        }
+
+        System.out.println("✅ Grafo cargado: " + nodes.size() + " nodos");
+
+        // Contar aristas
+        int totalEdges = 0;
+        for (Node n : nodes.values()) {
+            totalEdges += n.getEdges().size();
+        }
+        System.out.println("✅ Total de aristas: " + totalEdges);
+        if (lastReport != null && !lastReport.isClean()) {
+            System.out.println("⚠️ Integridad: " + lastReport);
+        }
+        fire(GraphListener::graphReloaded);
+    }
+
+    /**
+     * Lee una red repartida en varios archivos ({@link ShardManifest}) sin tocar el
+     * grafo actual.
+     *
+     * <p>Los archivos se leen a la vez en {@code parallelism} hilos, cada uno en su
+     * propia lista. Los IDs se comparten entre archivos: una estación y las aristas que
+     * llegan a ella desde otros archivos usan la misma cadena. Después se combinan en el
+     * orden del manifiesto:</p>
+     * <ul>
+     *   <li>Si dos archivos definen la misma estación, prevalecen los datos del primero y
+     *       se le añaden las aristas que solo tenía el segundo.</li>
+     *   <li>Se añaden las aristas que un archivo describe pero no pudo añadir porque su
+     *       origen está en otro archivo ({@link RouteDAO#load(String, LoadProgress,
+     *       java.util.function.Consumer, java.util.function.Consumer)}): el sentido de
+     *       vuelta de una conexión v2 no dirigida hacia otro archivo. Las conexiones
+     *       dirigidas entre archivos se mantienen dirigidas.</li>
+     * </ul>
+     *
+     * <p>El resultado se instala con una sola llamada a {@link #replaceGraph}, con los
+     * diarios pendientes de todos los archivos.</p>
+     *
+     * @return Red completa, o null si el manifiesto no existe
+     * @throws PersistenceException si falta un archivo del manifiesto o no se puede leer
+     * @throws CancellationException si la carga se cancela
+     */
+    public LoadedGraph readShards(String manifestPath, LoadProgress progress, int parallelism) {
+        ShardManifest manifest = ShardManifest.read(manifestPath);
+        if (manifest == null) return null;
+        List<String> shards = manifest.getShards();
+        int threads = Math.max(1, Math.min(parallelism, shards.size()));
+        Map<String, String> ids = new ConcurrentHashMap<>();
+        ShardProgress shared = new ShardProgress(progress, shards.size());
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "graph-shard-load");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<ShardPart>> parts = new ArrayList<>(shards.size());
+            for (int i = 0; i < shards.size(); i++) {
+                String shard = shards.get(i);
+                LoadProgress shardProgress = shared.forShard(i);
+                parts.add(pool.submit(() -> readShard(shard, shardProgress, ids)));
+            }
+
+            Map<String, Node> merged = new HashMap<>();
+            List<Edge> openEdges = new ArrayList<>();
+            int duplicates = 0;
+            for (int i = 0; i < shards.size(); i++) {
+                ShardPart part = awaitShard(parts.get(i), shards.get(i));
+                openEdges.addAll(part.openEdges());
+                for (Node n : part.nodes()) {
+                    Node existing = merged.putIfAbsent(n.getId(), n);
+                    if (existing == null) continue;
+                    duplicates++;
+                    for (Edge e : n.getEdges()) {
+                        if (existing.getEdgeTo(e.getToId()) == null) existing.addEdge(new Edge(existing.getId(), e.getToId(), e.getDistance()));
+                    }
+                }
+            }
+            int stitched = stitchShards(merged, openEdges);
+
+            SpatialIndex freshIndex = new SpatialIndex();
+            merged.values().forEach(freshIndex::insert);
+            List<JournalRecord> journal = new ArrayList<>();
+            for (String shard : shards) {
+                journal.addAll(GraphJournal.read(shard));
+            }
+            System.out.println("✅ Red leída de " + shards.size() + " archivos: " + merged.size() + " nodos, "
+                    + stitched + " conexiones entre archivos cosidas"
+                    + (duplicates > 0 ? ", " + duplicates + " estaciones repetidas" : ""));
+            LoadedGraph loaded = new LoadedGraph(merged, freshIndex, journal, List.of());
+            validateLoaded(loaded);
+            return loaded;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Carga una red repartida en varios archivos, con un hilo por núcleo, y sustituye
+     * el grafo actual por ella.
+     */
+    public void loadShards(String manifestPath) {
+        LoadedGraph loaded = readShards(manifestPath, LoadProgress.NONE, Runtime.getRuntime().availableProcessors());
+        if (loaded == null) {
+            System.err.println("No se pudo cargar la red: el manifiesto no existe");
+            return;
+        }
+        replaceGraph(loaded);
+    }
+
+    /** Estaciones de un archivo de la red y las aristas que no pudo añadir */
+    private record ShardPart(List<Node> nodes, List<Edge> openEdges) { }
+
+    /** Lee un archivo de la red con los IDs compartidos */
+    private ShardPart readShard(String path, LoadProgress progress, Map<String, String> ids) {
+        List<Node> part = new ArrayList<>();
+        List<Edge> open = new ArrayList<>();
+        boolean found = routeDAO.load(path, progress, n -> {
+            if (n == null || n.getId() == null) return;
+            n.setId(ids.computeIfAbsent(n.getId(), id -> id));
+            for (Edge e : n.getEdges()) {
+                e.setFromId(n.getId());
+                e.setToId(ids.computeIfAbsent(e.getToId(), id -> id));
+            }
+            // Reconstruye el mapa de aristas con las claves compartidas
+            n.setEdges(n.getEdges());
+            part.add(n);
+        }, e -> {
+            e.setFromId(ids.computeIfAbsent(e.getFromId(), id -> id));
+            e.setToId(ids.computeIfAbsent(e.getToId(), id -> id));
+            open.add(e);
+        });
+        if (!found) throw new PersistenceException("No existe el archivo de la red: " + path);
+        return new ShardPart(part, open);
+    }
+
+    private static ShardPart awaitShard(Future<ShardPart> part, String path) {
+        try {
+            return part.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Carga cancelada");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CancellationException ce) throw ce;
+            if (cause instanceof PersistenceException pe) throw pe;
+            throw new PersistenceException("Error leyendo " + path + ": " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Añade a su estación las aristas que los archivos no pudieron añadir porque su origen
+     * estaba en otro archivo. Las que salen de estaciones que no están en ningún archivo
+     * se descartan, igual que al leer un archivo suelto.
+     *
+     * @return Aristas añadidas
+     */
+    private static int stitchShards(Map<String, Node> merged, List<Edge> openEdges) {
+        int stitched = 0;
+        for (Edge e : openEdges) {
+            Node origin = merged.get(e.getFromId());
+            if (origin == null || origin.getEdgeTo(e.getToId()) != null) continue;
+            origin.addEdge(new Edge(origin.getId(), e.getToId(), e.getDistance()));
+            stitched++;
+        }
+        return stitched;
+    }
+
+    /**
+     * Suma el avance de todos los archivos de una red en un único receptor.
+     */
+    private static final class ShardProgress {
+        private final LoadProgress target;
+        private final long[] nodes;
+        private final long[] bytes;
+        private final long[] totals;
+
+        ShardProgress(LoadProgress target, int shards) {
+            this.target = target;
+            this.nodes = new long[shards];
+            this.bytes = new long[shards];
+            this.totals = new long[shards];
+            Arrays.fill(totals, -1);
+        }
+
+        LoadProgress forShard(int shard) {
+            return new LoadProgress() {
+                @Override
+                public void update(long nodesRead, long bytesRead, long totalBytes) {
+                    report(shard, nodesRead, bytesRead, totalBytes);
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return target.isCancelled() || Thread.currentThread().isInterrupted();
+                }
+            };
+        }
+
+        private synchronized void report(int shard, long nodesRead, long bytesRead, long totalBytes) {
+            nodes[shard] = nodesRead;
+            bytes[shard] = bytesRead;
+            totals[shard] = totalBytes;
+            long sumNodes = 0;
+            long sumBytes = 0;
+            long sumTotal = 0;
+            for (int i = 0; i < nodes.length; i++) {
+                sumNodes += nodes[i];
+                sumBytes += Math.max(bytes[i], 0);
+                sumTotal = sumTotal < 0 || totals[i] < 0 ? -1 : sumTotal + totals[i];
+            }
+            target.update(sumNodes, sumBytes, sumTotal);
+        }
+    }
+
+    /**
+     * Compara un archivo con el grafo actual en una sola pasada, sin construir el grafo
+     * del archivo: cada estación leída se compara con la actual y se descarta si no
+     * cambió, de modo que solo se conservan las diferencias.
+     *
+     * <p>Debe llamarse en el hilo que usa el grafo, porque lee las estaciones actuales
+     * mientras recorre el archivo.</p>
+     *
+     * @return Diferencias, o null si el archivo no existe
+     * @throws IllegalStateException si el grafo actual es un archivo proyectado
+     * @throws java.util.concurrent.CancellationException si la carga se cancela
+     */
+    public GraphDiff diffGraph(String path, LoadProgress progress) {
+        if (mapped != null) throw new IllegalStateException("El grafo proyectado es de solo lectura");
+        GraphDiff diff = new GraphDiff();
+        Set<String> seen = new HashSet<>();
+        boolean found = routeDAO.load(path, progress, n -> {
+            if (n == null || n.getId() == null || !seen.add(n.getId())) return;
+            Node current = nodes.get(n.getId());
+            if (current == null) {
+                diff.addNode(new Node(n.getId(), n.getName(), n.getLatitude(), n.getLongitude()));
+                n.getEdges().forEach(diff::addEdge);
+                return;
+            }
+            if (!Objects.equals(current.getName(), n.getName())
+                    || !Objects.equals(current.getLatitude(), n.getLatitude())
+                    || !Objects.equals(current.getLongitude(), n.getLongitude())) {
+                diff.changeNode(new Node(n.getId(), n.getName(), n.getLatitude(), n.getLongitude()));
+            }
+            for (Edge e : n.getEdges()) {
+                Edge old = current.getEdgeTo(e.getToId());
+                if (old == null) diff.addEdge(e);
+                else if (old.getDistance() != e.getDistance()) diff.changeEdge(e);
+            }
+            for (Edge old : current.getEdges()) {
+                if (n.getEdgeTo(old.getToId()) == null) diff.removeEdge(old);
+            }
+        });
+        if (!found) return null;
+        for (String id : nodes.keySet()) {
+            if (!seen.contains(id)) diff.removeNode(id);
+        }
+        return diff;
+    }
+
+    /**
+     * Aplica unas diferencias con las operaciones de edición normales, de modo que los
+     * índices se actualizan de forma incremental y los receptores reciben un evento por
+     * cambio en lugar de {@code graphReloaded}.
+     *
+     * <p>Las conexiones que quedan iguales en ambos sentidos (o desaparecen en ambos)
+     * se aplican con {@link #addEdge}, {@link #editEdge} y {@link #deleteEdge}. Las que
+     * quedan en un solo sentido o con distancias distintas no tienen operación de edición:
+     * se cambian directamente en las estaciones y se notifica al final un único
+     * {@code graphChanged}.</p>
+     */
+    public void applyDiff(GraphDiff diff) {
+        if (mapped != null) throw new IllegalStateException("El grafo proyectado es de solo lectura");
+        for (String id : diff.getRemovedNodes()) {
+            deleteNode(id);
+        }
+        for (Node n : diff.getAddedNodes()) {
+            addNode(new Node(n.getId(), n.getName(), n.getLatitude(), n.getLongitude()));
+        }
+        for (Node n : diff.getChangedNodes()) {
+            editNode(n.getId(), n.getName(), n.getLatitude(), n.getLongitude());
+        }
+
+        // Distancia final de cada sentido que cambia (null si se elimina), agrupada por conexión
+        Map<String, Map<String, Double>> wanted = new HashMap<>();
+        Set<List<String>> pairs = new LinkedHashSet<>();
+        for (Edge e : diff.getAddedEdges()) {
+            want(wanted, pairs, e, e.getDistance());
+        }
+        for (Edge e : diff.getChangedEdges()) {
+            want(wanted, pairs, e, e.getDistance());
+        }
+        for (Edge e : diff.getRemovedEdges()) {
+            want(wanted, pairs, e, null);
+        }
+
+        boolean direct = false;
+        for (List<String> pair : pairs) {
+            String a = pair.get(0);
+            String b = pair.get(1);
+            Node na = nodes.get(a);
+            Node nb = nodes.get(b);
+            Double currentAB = distance(na, b);
+            Double currentBA = distance(nb, a);
+            Double newAB = finalDistance(wanted, a, b, currentAB);
+            Double newBA = finalDistance(wanted, b, a, currentBA);
+            if (Objects.equals(currentAB, newAB) && Objects.equals(currentBA, newBA)) continue;
+
+            if (na != null && nb != null && !a.equals(b) && Objects.equals(newAB, newBA)) {
+                if (newAB == null) {
+                    deleteEdge(new Edge(a, b, currentAB != null ? currentAB : currentBA));
+                } else if (currentAB == null || currentBA == null) {
+                    addEdge(new Edge(a, b, newAB));
+                } else {
+                    editEdge(a, b, newAB);
+                }
+            } else {
+                setDirectedEdge(na, b, newAB);
+                if (!a.equals(b)) setDirectedEdge(nb, a, newBA);
+                direct = true;
+            }
+        }
+        if (direct) {
+            version++;
+            fire(GraphListener::graphChanged);
+        }
+    }
+
+    /**
+     * Combina un archivo con el grafo actual: aplica solo las diferencias
+     * ({@link #diffGraph} y {@link #applyDiff}) y después el diario pendiente del
+     * archivo. Como en {@link #replaceGraph}, el diario se aplica sin notificar cada
+     * cambio; si tenía cambios, los receptores reciben al final un solo
+     * {@code graphChanged}. Las estructuras derivadas que se actualizan de forma
+     * incremental no se reconstruyen. Con un grafo proyectado, carga el archivo completo.
+     *
+     * @return Diferencias aplicadas, o null si no se pudo combinar
+     */
+    public GraphDiff mergeGraph(String path) {
+        if (mapped != null) {
+            loadGraph(path);
+            return null;
+        }
+        GraphDiff diff = diffGraph(path, LoadProgress.NONE);
+        if (diff == null) {
+            System.err.println("No se pudo combinar el grafo: el archivo no existe");
+            return null;
+        }
+        applyDiff(diff);
+        List<JournalRecord> journal = GraphJournal.read(path);
+        if (!journal.isEmpty()) {
+            muted = true;
+            try {
+                journal.forEach(this::apply);
+            } finally {
+                muted = false;
+            }
+            fire(GraphListener::graphChanged);
+        }
+        System.out.println("✅ Grafo combinado: " + diff + (journal.isEmpty() ? "" : ", diario: " + journal.size()));
+        return diff;
+    }
+
+    private static void want(Map<String, Map<String, Double>> wanted, Set<List<String>> pairs,
+                             Edge e, Double distance) {
+        wanted.computeIfAbsent(e.getFromId(), k -> new HashMap<>()).put(e.getToId(), distance);
+        pairs.add(e.getFromId().compareTo(e.getToId()) <= 0
+                ? List.of(e.getFromId(), e.getToId()) : List.of(e.getToId(), e.getFromId()));
+    }
+
+    private static Double distance(Node from, String toId) {
+        if (from == null) return null;
+        Edge e = from.getEdgeTo(toId);
+        return e == null ? null : e.getDistance();
+    }
+
+    private static Double finalDistance(Map<String, Map<String, Double>> wanted, String from, String to,
+                                        Double current) {
+        Map<String, Double> byTarget = wanted.get(from);
+        return byTarget != null && byTarget.containsKey(to) ? byTarget.get(to) : current;
+    }
+
+    private static void setDirectedEdge(Node from, String toId, Double distance) {
+        if (from == null) return;
+        if (distance == null) from.removeEdgeTo(toId);
+        else from.addEdge(new Edge(from.getId(), toId, distance));
+    }
+
+    /**
+     * Sustituye el grafo actual por un archivo binario proyectado en memoria, en modo
+     * de solo lectura.
+     *
+     * <p>Las consultas y el cálculo de rutas se sirven desde el mapeo sin cargar la red
+     * en el heap; las operaciones de edición devuelven {@code false} hasta que se cargue
+     * otro grafo con {@link #replaceGraph} o se vacíe con {@link #clearGraph}.</p>
+     *
+     * @param path Archivo en el formato de {@link co.edu.uptc.persistence.BinaryRouteDAO}
+     * @throws PersistenceException si el archivo no se puede proyectar
+     */
+    public void mapGraph(String path) {
+        MappedGraph graph;
+        try {
+            graph = MappedGraph.open(path);
+        } catch (IOException e) {
+            throw new PersistenceException("No se pudo proyectar el grafo " + path + ": " + e.getMessage(), e);
+        }
+        mapped = graph;
+        nodes = new HashMap<>();
+        boundaryEdges = List.of();
+        lastReport = null;
+        spatialIndex = new SpatialIndex();
+        stationIndex = new StationIndex();
+        searchIndex = null;
+        version++;
+        System.out.println("✅ Grafo proyectado: " + graph.nodeCount() + " nodos, "
+                + graph.edgeCount() + " aristas (solo lectura)");
+        fire(GraphListener::graphReloaded);
+    }
+
+    /**
+     * @return {@code true} si el grafo actual es un archivo proyectado de solo lectura
+     */
+    public boolean isReadOnly() {
+        return mapped != null;
+    }
+
+    /**
+     * @return Grafo proyectado actual, o null si el grafo está en memoria
+     */
+    public MappedGraph getMappedGraph() {
+        return mapped;
+    }
+
+    /**
+     * @return Conexiones desde el grafo actual hacia estaciones que no se cargaron
+     *         (vacía salvo tras cargar una zona con {@link #readRegion})
+     */
+    public List<Edge> getBoundaryEdges() {
+        return Collections.unmodifiableList(boundaryEdges);
+    }
+
+    /**
+     * @return Contador que cambia con cada modificación del grafo
+     */
+    public long getVersion() { return version; }
+
+    // ---- Notificaciones ----
+
+    /**
+     * Registra un receptor de cambios del grafo.
+     */
+    public void addGraphListener(GraphListener listener) {
+        if (listener != null && !listeners.contains(listener)) listeners.add(listener);
+    }
+
+    public void removeGraphListener(GraphListener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Aplica un cambio registrado en el diario con las mismas reglas que la edición normal */
+    private void apply(JournalRecord r) {
+        switch (r.op()) {
+            case ADD_NODE -> addNode(new Node(r.id(), r.name(), r.latitude(), r.longitude()));
+            case EDIT_NODE -> editNode(r.id(), r.name(), r.latitude(), r.longitude());
+            case DELETE_NODE -> deleteNode(r.id());
+            case ADD_EDGE -> addEdge(new Edge(r.id(), r.toId(), r.distance()));
+            case EDIT_EDGE -> editEdge(r.id(), r.toId(), r.distance());
+            case DELETE_EDGE -> deleteEdge(new Edge(r.id(), r.toId(), r.distance()));
+        }
+    }
+
+    /** Notifica a cada receptor; un receptor que falla no impide notificar a los demás */
+    private void fire(Consumer<GraphListener> event) {
+        if (muted) return;
+        for (GraphListener l : listeners) {
+            try {
+                event.accept(l);
+            } catch (RuntimeException ex) {
+                System.err.println("❌ Error notificando cambio del grafo: " + ex.getMessage());
+            }
+        }
+    }
+
     // ---- Config ----
     public double getDefaultSpeed() { return defaultSpeed; }
     public void setDefaultSpeed(double defaultSpeed) { this.defaultSpeed = defaultSpeed; }
     
     // ---- Clear ----
     public void clearGraph() {
+        mapped = null;
+        boundaryEdges = List.of();
+        lastReport = null;
         nodes.clear();
+        spatialIndex.clear();
+        stationIndex.clear();
+        searchIndex = new StationSearchIndex();
+        version++;
+        fire(GraphListener::graphReloaded);
     }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package co.edu.uptc.controller;
+
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Diferencias entre el grafo actual y un archivo, calculadas por
+ * {@link GraphController#diffGraph}.
+ *
+ * <p>Las estaciones añadidas y modificadas se guardan con los valores del archivo (las
+ * añadidas, sin aristas). Las aristas se comparan en cada sentido: una conexión
+ * bidireccional que cambia aparece dos veces, una por sentido. Las aristas que salen de
+ * estaciones eliminadas no se listan: desaparecen con la estación.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public final class GraphDiff {
+
+    private final List<Node> addedNodes = new ArrayList<>();
+    private final List<Node> changedNodes = new ArrayList<>();
+    private final List<String> removedNodes = new ArrayList<>();
+    private final List<Edge> addedEdges = new ArrayList<>();
+    private final List<Edge> changedEdges = new ArrayList<>();
+    private final List<Edge> removedEdges = new ArrayList<>();
+
+    GraphDiff() { }
+
+    public List<Node> getAddedNodes() { return Collections.unmodifiableList(addedNodes); }
+
+    public List<Node> getChangedNodes() { return Collections.unmodifiableList(changedNodes); }
+
+    public List<String> getRemovedNodes() { return Collections.unmodifiableList(removedNodes); }
+
+    public List<Edge> getAddedEdges() { return Collections.unmodifiableList(addedEdges); }
+
+    public List<Edge> getChangedEdges() { return Collections.unmodifiableList(changedEdges); }
+
+    public List<Edge> getRemovedEdges() { return Collections.unmodifiableList(removedEdges); }
+
+    /** @return Número total de diferencias */
+    public int size() {
+        return addedNodes.size() + changedNodes.size() + removedNodes.size()
+                + addedEdges.size() + changedEdges.size() + removedEdges.size();
+    }
+
+    /** @return {@code true} si el archivo coincide con el grafo actual */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    void addNode(Node n) { addedNodes.add(n); }
+
+    void changeNode(Node n) { changedNodes.add(n); }
+
+    void removeNode(String id) { removedNodes.add(id); }
+
+    void addEdge(Edge e) { addedEdges.add(e); }
+
+    void changeEdge(Edge e) { changedEdges.add(e); }
+
+    void removeEdge(Edge e) { removedEdges.add(e); }
+
+    @Override
+    public String toString() {
+        return String.format("GraphDiff[estaciones +%d ~%d -%d, aristas +%d ~%d -%d]",
+                addedNodes.size(), changedNodes.size(), removedNodes.size(),
+                addedEdges.size(), changedEdges.size(), removedEdges.size());
+    }
+}
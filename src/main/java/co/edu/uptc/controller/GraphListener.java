@@ -0,0 +1,46 @@
+package co.edu.uptc.controller;
+
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.Node;
+
+/**
+ * Receptor de los cambios del grafo notificados por {@link GraphController}.
+ *
+ * <p>Todos los métodos tienen una implementación por defecto que delega en
+ * {@link #graphChanged()}, de modo que una vista que solo necesita "volver a leer
+ * el grafo" implementa ese único método, y una vista más selectiva sobrescribe
+ * solo los eventos que le afectan.</p>
+ *
+ * <p>Las notificaciones se emiten en el hilo que modificó el grafo (el de JavaFX
+ * en la aplicación).</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public interface GraphListener {
+
+    /** Se añadió una estación */
+    default void nodeAdded(Node node) { graphChanged(); }
+
+    /** Cambió el nombre o las coordenadas de una estación */
+    default void nodeUpdated(Node node) { graphChanged(); }
+
+    /** Se eliminó una estación (y las conexiones que llegaban a ella) */
+    default void nodeRemoved(String nodeId) { graphChanged(); }
+
+    /** Se añadió una conexión bidireccional */
+    default void edgeAdded(Edge edge) { graphChanged(); }
+
+    /** Cambió la distancia de una conexión */
+    default void edgeUpdated(Edge edge) { graphChanged(); }
+
+    /** Se eliminó una conexión bidireccional */
+    default void edgeRemoved(Edge edge) { graphChanged(); }
+
+    /** El grafo se reemplazó por completo (carga de archivo o limpieza) */
+    default void graphReloaded() { graphChanged(); }
+
+    /** Cualquier cambio no tratado de forma específica */
+    default void graphChanged() { }
+}
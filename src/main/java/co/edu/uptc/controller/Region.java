@@ -0,0 +1,68 @@
+package co.edu.uptc.controller;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Zona de la red que se carga con {@link GraphController#readRegion}: un rectángulo de
+ * coordenadas, o un conjunto de estaciones con las que están a un número de saltos.
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public final class Region {
+
+    private final double south;
+    private final double west;
+    private final double north;
+    private final double east;
+    private final Set<String> seeds;
+    private final int hops;
+
+    private Region(double south, double west, double north, double east, Set<String> seeds, int hops) {
+        this.south = south;
+        this.west = west;
+        this.north = north;
+        this.east = east;
+        this.seeds = seeds;
+        this.hops = hops;
+    }
+
+    /**
+     * Estaciones con coordenadas dentro del rectángulo (bordes incluidos).
+     */
+    public static Region bounds(double south, double west, double north, double east) {
+        if (south > north || west > east) {
+            throw new IllegalArgumentException("Rectángulo inválido: sur > norte u oeste > este");
+        }
+        return new Region(south, west, north, east, null, 0);
+    }
+
+    /**
+     * Estaciones indicadas y las alcanzables desde ellas en como máximo {@code hops}
+     * conexiones.
+     */
+    public static Region around(Collection<String> ids, int hops) {
+        if (hops < 0) throw new IllegalArgumentException("hops debe ser >= 0");
+        return new Region(0, 0, 0, 0, Set.copyOf(ids), hops);
+    }
+
+    /** @return {@code true} si la zona es un rectángulo de coordenadas */
+    public boolean isBounds() {
+        return seeds == null;
+    }
+
+    boolean contains(Double lat, Double lng) {
+        return lat != null && lng != null
+                && lat >= south && lat <= north && lng >= west && lng <= east;
+    }
+
+    Set<String> seeds() {
+        return seeds;
+    }
+
+    int hops() {
+        return hops;
+    }
+}
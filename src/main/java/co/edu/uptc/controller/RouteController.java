@@ -1,8 +1,10 @@
 package co.edu.uptc.controller;
 
+import co.edu.uptc.geo.GeoUtils;
 import co.edu.uptc.model.Edge;
 import co.edu.uptc.model.Node;
 import co.edu.uptc.model.RouteResult;
+import co.edu.uptc.persistence.MappedGraph;
 
 import java.util.*;
 
@@ -12,6 +14,13 @@ import java.util.*;
 public class RouteController {
 
     private static RouteController instance;
+
+    /** Número de estaciones candidatas alrededor de cada coordenada */
+    public static final int SNAP_CANDIDATES = 5;
+
+    /** Velocidad a pie para los tramos de acceso y salida (km/h) */
+    public static final double WALKING_SPEED = 5.0;
+
     private final GraphController graphController;
 
     private RouteController(GraphController graphController) {
@@ -24,13 +33,122 @@ public class RouteController {
     }
 
     public RouteResult findShortestByDistance(String fromId, String toId) {
+        MappedGraph mapped = graphController.getMappedGraph();
+        if (mapped != null) return searchMapped(mapped, fromId, toId, Criterion.DISTANCE);
         return dijkstra(fromId, toId, false);
     }
 
     public RouteResult findShortestByTime(String fromId, String toId) {
+        MappedGraph mapped = graphController.getMappedGraph();
+        if (mapped != null) return searchMapped(mapped, fromId, toId, Criterion.TIME);
         return dijkstra(fromId, toId, true);
     }
 
+    /**
+     * Calcula la mejor ruta entre dos coordenadas arbitrarias.
+     *
+     * <p>Cada coordenada se ajusta a sus {@link #SNAP_CANDIDATES} estaciones más cercanas.
+     * En lugar de lanzar una búsqueda por cada par origen/destino, se ejecuta un único
+     * Dijkstra multi-origen: todas las estaciones de origen entran a la cola con el coste
+     * de caminar hasta ellas, y cada estación de destino se cierra sumando el coste de
+     * caminar desde ella. La búsqueda termina cuando ninguna etiqueta pendiente puede
+     * mejorar la mejor llegada encontrada.</p>
+     *
+     * @param originLat Latitud de origen
+     * @param originLng Longitud de origen
+     * @param destLat Latitud de destino
+     * @param destLng Longitud de destino
+     * @param useTime {@code true} para minimizar tiempo, {@code false} para distancia
+     * @return Ruta con tramos a pie incluidos, ruta vacía si no hay conexión,
+     *         o {@code null} si no hay estaciones con coordenadas
+     */
+    public RouteResult findRouteBetweenCoordinates(double originLat, double originLng,
+                                                   double destLat, double destLng, boolean useTime) {
+        List<Node> origins = graphController.findNearestNodes(originLat, originLng, SNAP_CANDIDATES);
+        List<Node> targets = graphController.findNearestNodes(destLat, destLng, SNAP_CANDIDATES);
+        if (origins.isEmpty() || targets.isEmpty()) return null;
+
+        double speed = graphController.getDefaultSpeed();
+        Map<String, Double> cost = new HashMap<>();
+        Map<String, Double> dist = new HashMap<>();
+        Map<String, Double> timeMap = new HashMap<>();
+        Map<String, String> prev = new HashMap<>();
+        Map<String, Double> accessKm = new HashMap<>();
+        Map<String, Double> egressKm = new HashMap<>();
+        PriorityQueue<QueueEntry> pq = new PriorityQueue<>(Comparator.comparingDouble(QueueEntry::cost));
+
+        for (Node o : origins) {
+            double walk = GeoUtils.haversineKm(originLat, originLng, o.getLatitude(), o.getLongitude());
+            double c = useTime ? walk / WALKING_SPEED : walk;
+            if (c < cost.getOrDefault(o.getId(), Double.POSITIVE_INFINITY)) {
+                cost.put(o.getId(), c);
+                dist.put(o.getId(), walk);
+                timeMap.put(o.getId(), walk / WALKING_SPEED);
+                accessKm.put(o.getId(), walk);
+                pq.add(new QueueEntry(o.getId(), c));
+            }
+        }
+        for (Node t : targets) {
+            egressKm.put(t.getId(), GeoUtils.haversineKm(destLat, destLng, t.getLatitude(), t.getLongitude()));
+        }
+
+        String bestTarget = null;
+        double bestCost = Double.POSITIVE_INFINITY;
+
+        while (!pq.isEmpty()) {
+            QueueEntry entry = pq.poll();
+            String curId = entry.id();
+            if (entry.cost() > cost.get(curId)) continue; // entrada obsoleta
+            if (entry.cost() >= bestCost) break;          // nada pendiente puede mejorar
+
+            Double egress = egressKm.get(curId);
+            if (egress != null) {
+                double total = entry.cost() + (useTime ? egress / WALKING_SPEED : egress);
+                if (total < bestCost) {
+                    bestCost = total;
+                    bestTarget = curId;
+                }
+            }
+
+            Node cur = graphController.getNode(curId);
+            if (cur == null) continue;
+            for (Edge e : cur.getEdges()) {
+                String nb = e.getToId();
+                double edgeTime = e.getDistance() / speed;
+                double alt = entry.cost() + (useTime ? edgeTime : e.getDistance());
+                if (alt < cost.getOrDefault(nb, Double.POSITIVE_INFINITY)) {
+                    cost.put(nb, alt);
+                    dist.put(nb, dist.get(curId) + e.getDistance());
+                    timeMap.put(nb, timeMap.get(curId) + edgeTime);
+                    prev.put(nb, curId);
+                    accessKm.remove(nb); // ya no es un punto de entrada
+                    pq.add(new QueueEntry(nb, alt));
+                }
+            }
+        }
+
+        if (bestTarget == null) {
+            return new RouteResult(Collections.emptyList(), 0.0, -1, -1.0);
+        }
+
+        List<Node> path = new ArrayList<>();
+        String at = bestTarget;
+        while (at != null) {
+            Node n = graphController.getNode(at);
+            if (n != null) path.add(n);
+            at = prev.get(at);
+        }
+        Collections.reverse(path);
+
+        double access = accessKm.getOrDefault(path.get(0).getId(), 0.0);
+        double egress = egressKm.get(bestTarget);
+        double totalDistance = dist.get(bestTarget) + egress;
+        double totalTime = timeMap.get(bestTarget) + egress / WALKING_SPEED;
+        int transfers = Math.max(0, path.size() - 1);
+
+        return new RouteResult(path, totalDistance, transfers, totalTime, access, egress);
+    }
+
     private RouteResult dijkstra(String fromId, String toId, boolean useTime) {
         Node start = graphController.getNode(fromId);
         Node end = graphController.getNode(toId);
@@ -101,6 +219,9 @@ public class RouteController {
     }
 
     public RouteResult findFewestTransfers(String fromId, String toId) {
+        MappedGraph mapped = graphController.getMappedGraph();
+        if (mapped != null) return searchMapped(mapped, fromId, toId, Criterion.TRANSFERS);
+
         Node start = graphController.getNode(fromId);
         Node end = graphController.getNode(toId);
         if (start == null || end == null) return null;
@@ -168,4 +289,79 @@ public class RouteController {
         int transfers = Math.max(0, path.size() - 1);
         return new RouteResult(path, totalDistance, transfers, totalTime);
     }
+
+    /** Criterio que minimiza {@link #searchMapped} */
+    private enum Criterion { DISTANCE, TIME, TRANSFERS }
+
+    /**
+     * Dijkstra sobre un grafo proyectado en memoria ({@link MappedGraph}).
+     *
+     * <p>Trabaja con índices de estación: los costes van en arreglos y la adyacencia se
+     * lee del mapeo, sin crear objetos {@link Node} salvo los de la ruta final. Con
+     * {@link Criterion#TRANSFERS} cada conexión cuesta 1, lo que equivale a la búsqueda
+     * en anchura de {@link #findFewestTransfers}.</p>
+     */
+    private RouteResult searchMapped(MappedGraph graph, String fromId, String toId, Criterion criterion) {
+        int start = graph.indexOf(fromId);
+        int end = graph.indexOf(toId);
+        if (start < 0 || end < 0) return null;
+
+        int n = graph.nodeCount();
+        double[] cost = new double[n];
+        double[] dist = new double[n];
+        double[] time = new double[n];
+        int[] prev = new int[n];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, -1);
+
+        double speed = graphController.getDefaultSpeed();
+        PriorityQueue<IndexEntry> pq = new PriorityQueue<>(Comparator.comparingDouble(IndexEntry::cost));
+        cost[start] = 0.0;
+        pq.add(new IndexEntry(start, 0.0));
+
+        while (!pq.isEmpty()) {
+            IndexEntry entry = pq.poll();
+            int cur = entry.node();
+            if (entry.cost() > cost[cur]) continue; // entrada obsoleta
+            if (cur == end) break;
+
+            for (int k = graph.edgeStart(cur); k < graph.edgeEnd(cur); k++) {
+                int nb = graph.edgeTarget(k);
+                if (nb < 0) continue; // destino fuera del grafo
+                double edgeDist = graph.edgeDistance(k);
+                double edgeTime = edgeDist / speed;
+                double alt = cost[cur] + switch (criterion) {
+                    case DISTANCE -> edgeDist;
+                    case TIME -> edgeTime;
+                    case TRANSFERS -> 1.0;
+                };
+                if (alt < cost[nb]) {
+                    cost[nb] = alt;
+                    dist[nb] = dist[cur] + edgeDist;
+                    time[nb] = time[cur] + edgeTime;
+                    prev[nb] = cur;
+                    pq.add(new IndexEntry(nb, alt));
+                }
+            }
+        }
+
+        if (Double.isInfinite(cost[end])) {
+            return new RouteResult(Collections.emptyList(), 0.0, -1, -1.0);
+        }
+
+        List<Node> path = new ArrayList<>();
+        for (int at = end; at >= 0; at = prev[at]) {
+            path.add(graph.node(at));
+        }
+        Collections.reverse(path);
+
+        int transfers = Math.max(0, path.size() - 1);
+        return new RouteResult(path, dist[end], transfers, time[end]);
+    }
+
+    /** Entrada de la cola de prioridad con borrado perezoso */
+    private record QueueEntry(String id, double cost) { }
+
+    /** Entrada de la cola de prioridad por índice de estación */
+    private record IndexEntry(int node, double cost) { }
 }
@@ -0,0 +1,169 @@
+package co.edu.uptc.geo;
+
+import co.edu.uptc.model.Node;
+
+import java.util.*;
+
+/**
+ * Índice jerárquico de agrupación (clustering) de estaciones por nivel de zoom.
+ *
+ * <p>Para cada zoom de 0 a {@link #MAX_CLUSTER_ZOOM} las estaciones se agrupan en
+ * celdas cuadradas de {@link #CELL_PIXELS} píxeles en proyección Web Mercator
+ * (la misma que usa Leaflet). Como el mundo duplica su tamaño en píxeles en cada
+ * nivel, la celda {@code (x, y)} del zoom {@code z} contiene exactamente las celdas
+ * {@code (2x..2x+1, 2y..2y+1)} del zoom {@code z + 1}; por eso el índice se construye
+ * una sola vez en el nivel más fino y se agrega hacia arriba en O(n).</p>
+ *
+ * <p>El índice es inmutable: se reconstruye cuando cambia el grafo.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class ClusterIndex {
+
+    /** Zoom máximo con agrupación; por encima se muestran estaciones individuales */
+    public static final int MAX_CLUSTER_ZOOM = 15;
+
+    /** Lado de cada celda de agrupación en píxeles de pantalla */
+    public static final int CELL_PIXELS = 64;
+
+    /** Latitud máxima representable en Web Mercator */
+    private static final double MAX_MERCATOR_LAT = 85.05112878;
+
+    /**
+     * Grupo de estaciones de una celda. Si {@code count == 1}, {@code station}
+     * contiene la estación y {@code key} es su ID.
+     */
+    public record Cluster(String key, double latitude, double longitude, int count, Node station) {
+        public boolean isSingle() {
+            return count == 1;
+        }
+    }
+
+    /** Acumulador mutable usado solo durante la construcción */
+    private static final class Cell {
+        double sumLat, sumLng;
+        int count;
+        Node single;
+
+        void add(double lat, double lng, int n, Node station) {
+            sumLat += lat * n;
+            sumLng += lng * n;
+            count += n;
+            single = count == 1 ? station : null;
+        }
+    }
+
+    /** Un mapa por nivel de zoom: clave de celda -> grupo */
+    private final List<Map<Long, Cluster>> levels;
+
+    private ClusterIndex(List<Map<Long, Cluster>> levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * Construye el índice a partir de las estaciones (se ignoran las que no tienen coordenadas).
+     *
+     * @param nodes Estaciones del grafo
+     * @return Índice listo para consultar
+     */
+    public static ClusterIndex build(Collection<Node> nodes) {
+        List<Map<Long, Cluster>> levels = new ArrayList<>(Collections.nCopies(MAX_CLUSTER_ZOOM + 1, null));
+
+        // Nivel más fino
+        Map<Long, Cell> cells = new HashMap<>();
+        for (Node n : nodes) {
+            if (n.getLatitude() == null || n.getLongitude() == null) continue;
+            long key = cellKey(cellX(n.getLongitude(), MAX_CLUSTER_ZOOM), cellY(n.getLatitude(), MAX_CLUSTER_ZOOM));
+            cells.computeIfAbsent(key, k -> new Cell()).add(n.getLatitude(), n.getLongitude(), 1, n);
+        }
+
+        for (int z = MAX_CLUSTER_ZOOM; z >= 0; z--) {
+            Map<Long, Cluster> level = new HashMap<>(cells.size() * 2);
+            Map<Long, Cell> parents = new HashMap<>();
+            for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+                long key = entry.getKey();
+                Cell c = entry.getValue();
+                double lat = c.sumLat / c.count;
+                double lng = c.sumLng / c.count;
+                int x = (int) (key >> 32);
+                int y = (int) key;
+                String id = c.single != null ? c.single.getId() : "c" + z + "_" + x + "_" + y;
+                level.put(key, new Cluster(id, lat, lng, c.count, c.single));
+
+                if (z > 0) {
+                    parents.computeIfAbsent(cellKey(x >> 1, y >> 1), k -> new Cell())
+                           .add(lat, lng, c.count, c.single);
+                }
+            }
+            levels.set(z, level);
+            cells = parents;
+        }
+        return new ClusterIndex(levels);
+    }
+
+    /**
+     * Obtiene los grupos visibles en un rectángulo para un nivel de zoom.
+     *
+     * @param zoom Nivel de zoom (se limita a {@code 0..MAX_CLUSTER_ZOOM})
+     * @return Grupos cuyas celdas intersectan el rectángulo
+     */
+    public List<Cluster> query(double south, double west, double north, double east, int zoom) {
+        int z = Math.max(0, Math.min(MAX_CLUSTER_ZOOM, zoom));
+        Map<Long, Cluster> level = levels.get(z);
+        List<Cluster> result = new ArrayList<>();
+
+        int minX = cellX(west, z), maxX = cellX(east, z);
+        int minY = cellY(north, z), maxY = cellY(south, z); // en Mercator la y crece hacia el sur
+        long spanned = (long) (maxX - minX + 1) * (maxY - minY + 1);
+
+        if (spanned > level.size()) {
+            for (Map.Entry<Long, Cluster> entry : level.entrySet()) {
+                int x = (int) (entry.getKey() >> 32);
+                int y = (int) (long) entry.getKey();
+                if (x >= minX && x <= maxX && y >= minY && y <= maxY) result.add(entry.getValue());
+            }
+            return result;
+        }
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                Cluster c = level.get(cellKey(x, y));
+                if (c != null) result.add(c);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Número de grupos en un nivel de zoom
+     */
+    public int size(int zoom) {
+        return levels.get(Math.max(0, Math.min(MAX_CLUSTER_ZOOM, zoom))).size();
+    }
+
+    private static int cellX(double lng, int zoom) {
+        double x = (lng + 180.0) / 360.0;
+        return toCell(x, zoom);
+    }
+
+    private static int cellY(double lat, int zoom) {
+        double clamped = Math.max(-MAX_MERCATOR_LAT, Math.min(MAX_MERCATOR_LAT, lat));
+        double sin = Math.sin(Math.toRadians(clamped));
+        double y = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+        return toCell(y, zoom);
+    }
+
+    /** Convierte una coordenada normalizada [0, 1] en índice de celda para el zoom dado */
+    private static int toCell(double normalized, int zoom) {
+        double cellsPerSide = 256.0 * (1L << zoom) / CELL_PIXELS;
+        int max = (int) cellsPerSide - 1;
+        int cell = (int) Math.floor(normalized * cellsPerSide);
+        return Math.max(0, Math.min(max, cell));
+    }
+
+    private static long cellKey(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+}
@@ -0,0 +1,43 @@
+package co.edu.uptc.geo;
+
+/**
+ * Utilidades geográficas compartidas por los índices espaciales y los algoritmos de rutas.
+ *
+ * <p>Todas las distancias se expresan en kilómetros y las coordenadas en grados
+ * decimales (WGS84).</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public final class GeoUtils {
+
+    /** Radio medio de la Tierra en kilómetros */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    /**
+     * Kilómetros por grado de círculo máximo, con el mismo radio que
+     * {@link #haversineKm}, para que las cotas derivadas no superen la distancia real
+     */
+    public static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180;
+
+    private GeoUtils() { }
+
+    /**
+     * Calcula la distancia de círculo máximo entre dos puntos (fórmula de haversine).
+     *
+     * @param lat1 Latitud del primer punto
+     * @param lng1 Longitud del primer punto
+     * @param lat2 Latitud del segundo punto
+     * @param lng2 Longitud del segundo punto
+     * @return Distancia en kilómetros
+     */
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
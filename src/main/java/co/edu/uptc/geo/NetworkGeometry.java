@@ -0,0 +1,158 @@
+package co.edu.uptc.geo;
+
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.Node;
+
+import java.util.*;
+
+/**
+ * Geometría de la red de conexiones preparada para dibujarse en el mapa.
+ *
+ * <p>Las conexiones se agrupan en cadenas: caminos máximos cuyos nodos intermedios
+ * tienen exactamente dos vecinos. Una línea de metro con 30 estaciones queda así como
+ * una sola polilínea de 30 vértices en lugar de 29 segmentos sueltos, y Douglas–Peucker
+ * puede eliminar vértices redundantes según el zoom. Cada cadena guarda su rectángulo
+ * envolvente para descartar en Java las que quedan fuera de la vista.</p>
+ *
+ * <p>Las conexiones bidireccionales se dibujan una sola vez. Las estaciones sin
+ * coordenadas se omiten (sus conexiones no se dibujan). El índice es inmutable:
+ * se reconstruye cuando cambia el grafo; las versiones simplificadas de cada zoom
+ * se calculan la primera vez que se piden.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class NetworkGeometry {
+
+    /** Cadena de conexiones con su geometría completa y sus versiones simplificadas por zoom */
+    private static final class Chain {
+        final double[] coords;
+        final double[] bounds;
+        final double[][] byZoom = new double[PolylineSimplifier.FULL_DETAIL_ZOOM + 1][];
+
+        Chain(double[] coords) {
+            this.coords = coords;
+            this.bounds = PolylineSimplifier.bounds(coords);
+        }
+
+        double[] forZoom(int zoom) {
+            if (zoom >= PolylineSimplifier.FULL_DETAIL_ZOOM) return coords;
+            int z = Math.max(0, zoom);
+            if (byZoom[z] == null) {
+                byZoom[z] = PolylineSimplifier.simplify(coords, PolylineSimplifier.toleranceForZoom(z));
+            }
+            return byZoom[z];
+        }
+    }
+
+    private final List<Chain> chains;
+
+    private NetworkGeometry(List<Chain> chains) {
+        this.chains = chains;
+    }
+
+    /**
+     * Construye la geometría a partir de las estaciones y sus aristas.
+     *
+     * @param nodes Estaciones del grafo
+     * @return Geometría lista para consultar
+     */
+    public static NetworkGeometry build(Collection<Node> nodes) {
+        Map<String, Node> byId = new HashMap<>();
+        for (Node n : nodes) {
+            if (n.getLatitude() != null && n.getLongitude() != null) byId.put(n.getId(), n);
+        }
+
+        // Adyacencia no dirigida entre estaciones con coordenadas
+        Map<String, Set<String>> adjacency = new HashMap<>();
+        for (Node n : byId.values()) {
+            for (Edge e : n.getEdges()) {
+                if (!byId.containsKey(e.getToId()) || e.getToId().equals(n.getId())) continue;
+                adjacency.computeIfAbsent(n.getId(), k -> new LinkedHashSet<>()).add(e.getToId());
+                adjacency.computeIfAbsent(e.getToId(), k -> new LinkedHashSet<>()).add(n.getId());
+            }
+        }
+
+        Set<String> visitedEdges = new HashSet<>();
+        List<Chain> chains = new ArrayList<>();
+
+        // 1) Cadenas que empiezan en extremos o cruces (grado distinto de 2)
+        for (Map.Entry<String, Set<String>> entry : adjacency.entrySet()) {
+            if (entry.getValue().size() == 2) continue;
+            for (String next : entry.getValue()) {
+                if (!visitedEdges.contains(edgeKey(entry.getKey(), next))) {
+                    chains.add(walk(entry.getKey(), next, adjacency, visitedEdges, byId));
+                }
+            }
+        }
+
+        // 2) Ciclos formados solo por nodos de grado 2
+        for (Map.Entry<String, Set<String>> entry : adjacency.entrySet()) {
+            for (String next : entry.getValue()) {
+                if (!visitedEdges.contains(edgeKey(entry.getKey(), next))) {
+                    chains.add(walk(entry.getKey(), next, adjacency, visitedEdges, byId));
+                }
+            }
+        }
+
+        return new NetworkGeometry(chains);
+    }
+
+    /**
+     * Obtiene las polilíneas visibles en un rectángulo, simplificadas para el zoom dado.
+     *
+     * @return Polilíneas en formato plano {@code [lat, lng, ...]}
+     */
+    public List<double[]> query(double south, double west, double north, double east, int zoom) {
+        List<double[]> result = new ArrayList<>();
+        for (Chain c : chains) {
+            double[] b = c.bounds;
+            if (b[2] < south || b[0] > north || b[3] < west || b[1] > east) continue;
+            result.add(c.forZoom(zoom));
+        }
+        return result;
+    }
+
+    /**
+     * @return Número de cadenas de la red
+     */
+    public int size() {
+        return chains.size();
+    }
+
+    /** Recorre una cadena desde {@code start} en dirección a {@code next} hasta un extremo o cruce */
+    private static Chain walk(String start, String next, Map<String, Set<String>> adjacency,
+                              Set<String> visitedEdges, Map<String, Node> byId) {
+        List<Node> path = new ArrayList<>();
+        path.add(byId.get(start));
+        String prev = start;
+        String cur = next;
+
+        while (true) {
+            visitedEdges.add(edgeKey(prev, cur));
+            path.add(byId.get(cur));
+            Set<String> neighbours = adjacency.get(cur);
+            if (neighbours.size() != 2 || cur.equals(start)) break;
+
+            String following = null;
+            for (String candidate : neighbours) {
+                if (!candidate.equals(prev)) following = candidate;
+            }
+            if (following == null || visitedEdges.contains(edgeKey(cur, following))) break;
+            prev = cur;
+            cur = following;
+        }
+
+        double[] coords = new double[path.size() * 2];
+        for (int i = 0; i < path.size(); i++) {
+            coords[2 * i] = path.get(i).getLatitude();
+            coords[2 * i + 1] = path.get(i).getLongitude();
+        }
+        return new Chain(coords);
+    }
+
+    private static String edgeKey(String a, String b) {
+        return a.compareTo(b) < 0 ? a + '\u0000' + b : b + '\u0000' + a;
+    }
+}
@@ -0,0 +1,130 @@
+package co.edu.uptc.geo;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Simplificación de polilíneas con el algoritmo de Douglas–Peucker.
+ *
+ * <p>Las polilíneas se representan como arreglos planos {@code [lat0, lng0, lat1, lng1, ...]},
+ * el mismo formato compacto que se envía al mapa. La tolerancia se expresa en grados
+ * y normalmente se deriva del tamaño de un píxel para el zoom actual con
+ * {@link #toleranceForZoom(int)}.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public final class PolylineSimplifier {
+
+    /** Zoom a partir del cual ya no se simplifica (cada vértice es visible) */
+    public static final int FULL_DETAIL_ZOOM = 17;
+
+    private PolylineSimplifier() { }
+
+    /**
+     * Tolerancia equivalente a un píxel de pantalla en el zoom dado (256 px por tile).
+     *
+     * @param zoom Nivel de zoom de Leaflet
+     * @return Tolerancia en grados, 0 si el zoom no requiere simplificación
+     */
+    public static double toleranceForZoom(int zoom) {
+        if (zoom >= FULL_DETAIL_ZOOM) return 0.0;
+        return 360.0 / (256.0 * (1L << Math.max(0, zoom)));
+    }
+
+    /**
+     * Simplifica una polilínea conservando sus extremos.
+     *
+     * <p>Implementación iterativa (con pila explícita) para no desbordar la pila
+     * con polilíneas de muchos vértices.</p>
+     *
+     * @param coords Coordenadas planas {@code [lat, lng, ...]}
+     * @param tolerance Distancia perpendicular máxima permitida, en grados
+     * @return Nuevo arreglo simplificado (o el mismo si no hay nada que eliminar)
+     */
+    public static double[] simplify(double[] coords, double tolerance) {
+        int points = coords.length / 2;
+        if (points <= 2 || tolerance <= 0) return coords;
+
+        boolean[] keep = new boolean[points];
+        keep[0] = true;
+        keep[points - 1] = true;
+        double sqTolerance = tolerance * tolerance;
+
+        Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[] {0, points - 1});
+        int kept = 2;
+
+        while (!stack.isEmpty()) {
+            int[] range = stack.pop();
+            int first = range[0], last = range[1];
+            double maxSqDist = 0;
+            int index = -1;
+
+            for (int i = first + 1; i < last; i++) {
+                double d = sqSegmentDistance(coords, i, first, last);
+                if (d > maxSqDist) {
+                    maxSqDist = d;
+                    index = i;
+                }
+            }
+
+            if (index != -1 && maxSqDist > sqTolerance) {
+                keep[index] = true;
+                kept++;
+                stack.push(new int[] {first, index});
+                stack.push(new int[] {index, last});
+            }
+        }
+
+        if (kept == points) return coords;
+        double[] result = new double[kept * 2];
+        int j = 0;
+        for (int i = 0; i < points; i++) {
+            if (keep[i]) {
+                result[j++] = coords[2 * i];
+                result[j++] = coords[2 * i + 1];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calcula el rectángulo envolvente de una polilínea.
+     *
+     * @return {@code [south, west, north, east]}
+     */
+    public static double[] bounds(double[] coords) {
+        double[] b = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                      Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = 0; i + 1 < coords.length; i += 2) {
+            b[0] = Math.min(b[0], coords[i]);
+            b[1] = Math.min(b[1], coords[i + 1]);
+            b[2] = Math.max(b[2], coords[i]);
+            b[3] = Math.max(b[3], coords[i + 1]);
+        }
+        return b;
+    }
+
+    /** Distancia al cuadrado del punto {@code p} al segmento {@code a-b} */
+    private static double sqSegmentDistance(double[] c, int p, int a, int b) {
+        double x = c[2 * a], y = c[2 * a + 1];
+        double dx = c[2 * b] - x, dy = c[2 * b + 1] - y;
+
+        if (dx != 0 || dy != 0) {
+            double t = ((c[2 * p] - x) * dx + (c[2 * p + 1] - y) * dy) / (dx * dx + dy * dy);
+            if (t > 1) {
+                x = c[2 * b];
+                y = c[2 * b + 1];
+            } else if (t > 0) {
+                x += dx * t;
+                y += dy * t;
+            }
+        }
+
+        dx = c[2 * p] - x;
+        dy = c[2 * p + 1] - y;
+        return dx * dx + dy * dy;
+    }
+}
@@ -0,0 +1,229 @@
+package co.edu.uptc.geo;
+
+import co.edu.uptc.model.Node;
+
+import java.util.*;
+
+/**
+ * Índice espacial de rejilla uniforme sobre las estaciones con coordenadas.
+ *
+ * <p>Cada estación se guarda en la celda de {@code cellSize} grados que contiene
+ * su posición. Las consultas de vecinos más cercanos recorren anillos de celdas
+ * alrededor del punto consultado, y las consultas por rectángulo solo visitan
+ * las celdas que lo intersectan, de modo que ninguna de las dos recorre todo el grafo.</p>
+ *
+ * <p>Las estaciones sin coordenadas se ignoran. El índice no contempla el cruce
+ * del antimeridiano.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class SpatialIndex {
+
+    /** Tamaño de celda por defecto en grados (~1.1 km en latitud) */
+    public static final double DEFAULT_CELL_SIZE = 0.01;
+
+    private final double cellSize;
+
+    /** Celdas ocupadas: clave de celda -> estaciones */
+    private final Map<Long, List<Node>> cells = new HashMap<>();
+
+    /** Celda en la que se indexó cada estación, para poder eliminarla aunque cambie de posición */
+    private final Map<String, Long> cellById = new HashMap<>();
+
+    public SpatialIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * @param cellSize Tamaño de celda en grados (mayor que 0)
+     */
+    public SpatialIndex(double cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cellSize debe ser mayor que 0");
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Indexa una estación. Si ya estaba indexada, se reubica.
+     *
+     * @param n Estación a indexar (se ignora si no tiene coordenadas)
+     */
+    public void insert(Node n) {
+        if (n == null || n.getId() == null) return;
+        remove(n.getId());
+        if (n.getLatitude() == null || n.getLongitude() == null) return;
+
+        long key = cellKey(cellX(n.getLongitude()), cellY(n.getLatitude()));
+        cells.computeIfAbsent(key, k -> new ArrayList<>()).add(n);
+        cellById.put(n.getId(), key);
+    }
+
+    /**
+     * Elimina una estación del índice.
+     *
+     * @param id ID de la estación
+     * @return {@code true} si la estación estaba indexada
+     */
+    public boolean remove(String id) {
+        Long key = cellById.remove(id);
+        if (key == null) return false;
+        List<Node> cell = cells.get(key);
+        if (cell != null) {
+            cell.removeIf(n -> id.equals(n.getId()));
+            if (cell.isEmpty()) cells.remove(key);
+        }
+        return true;
+    }
+
+    public void clear() {
+        cells.clear();
+        cellById.clear();
+    }
+
+    /**
+     * @return Número de estaciones indexadas
+     */
+    public int size() {
+        return cellById.size();
+    }
+
+    /**
+     * Obtiene las {@code k} estaciones más cercanas a un punto.
+     *
+     * @param lat Latitud del punto
+     * @param lng Longitud del punto
+     * @param k Número máximo de estaciones a devolver
+     * @return Estaciones ordenadas de la más cercana a la más lejana
+     */
+    public List<Node> nearest(double lat, double lng, int k) {
+        if (k <= 0 || cellById.isEmpty()) return Collections.emptyList();
+
+        // Max-heap con las k mejores candidatas encontradas hasta ahora
+        PriorityQueue<Candidate> best = new PriorityQueue<>(
+                Comparator.comparingDouble(Candidate::distanceKm).reversed());
+
+        int cx = cellX(lng);
+        int cy = cellY(lat);
+        int visited = 0;
+
+        for (int r = 0; ; r++) {
+            // Si el anillo ya es más grande que las celdas ocupadas, es más barato recorrerlas todas
+            long ringCells = r == 0 ? 1 : 8L * r;
+            if (ringCells > cells.size()) {
+                return nearestByScan(lat, lng, k);
+            }
+
+            for (int dx = -r; dx <= r; dx++) {
+                for (int dy = -r; dy <= r; dy++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dy)) != r) continue;
+                    List<Node> cell = cells.get(cellKey(cx + dx, cy + dy));
+                    if (cell == null) continue;
+                    for (Node n : cell) {
+                        offer(best, k, n, GeoUtils.haversineKm(lat, lng, n.getLatitude(), n.getLongitude()));
+                        visited++;
+                    }
+                }
+            }
+
+            if (visited >= cellById.size()) break;
+            if (best.size() == k && best.peek().distanceKm() <= ringLowerBoundKm(lat, r)) break;
+        }
+
+        return drain(best);
+    }
+
+    /**
+     * Obtiene las estaciones contenidas en un rectángulo geográfico.
+     *
+     * @param south Latitud mínima
+     * @param west Longitud mínima
+     * @param north Latitud máxima
+     * @param east Longitud máxima
+     * @return Estaciones dentro del rectángulo (orden no definido)
+     */
+    public List<Node> withinBounds(double south, double west, double north, double east) {
+        List<Node> result = new ArrayList<>();
+        int minX = cellX(west), maxX = cellX(east);
+        int minY = cellY(south), maxY = cellY(north);
+        long spanned = (long) (maxX - minX + 1) * (maxY - minY + 1);
+
+        if (spanned > cells.size()) {
+            // Rectángulo muy grande (zoom lejano): recorrer solo las celdas ocupadas
+            for (List<Node> cell : cells.values()) {
+                collectInside(cell, south, west, north, east, result);
+            }
+            return result;
+        }
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                List<Node> cell = cells.get(cellKey(x, y));
+                if (cell != null) collectInside(cell, south, west, north, east, result);
+            }
+        }
+        return result;
+    }
+
+    private List<Node> nearestByScan(double lat, double lng, int k) {
+        PriorityQueue<Candidate> best = new PriorityQueue<>(
+                Comparator.comparingDouble(Candidate::distanceKm).reversed());
+        for (List<Node> cell : cells.values()) {
+            for (Node n : cell) {
+                offer(best, k, n, GeoUtils.haversineKm(lat, lng, n.getLatitude(), n.getLongitude()));
+            }
+        }
+        return drain(best);
+    }
+
+    /**
+     * Distancia mínima desde el punto hasta cualquier celda fuera del anillo {@code r}.
+     * Se usa el coseno de la latitud más alejada del ecuador para que la cota sea conservadora.
+     */
+    private double ringLowerBoundKm(double lat, int r) {
+        double maxLat = Math.min(89.0, Math.abs(lat) + (r + 1) * cellSize);
+        double degrees = r * cellSize;
+        return degrees * GeoUtils.KM_PER_DEGREE * Math.cos(Math.toRadians(maxLat));
+    }
+
+    private static void offer(PriorityQueue<Candidate> best, int k, Node n, double d) {
+        if (best.size() < k) {
+            best.add(new Candidate(n, d));
+        } else if (d < best.peek().distanceKm()) {
+            best.poll();
+            best.add(new Candidate(n, d));
+        }
+    }
+
+    private static List<Node> drain(PriorityQueue<Candidate> best) {
+        List<Node> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) result.add(best.poll().node());
+        Collections.reverse(result);
+        return result;
+    }
+
+    private static void collectInside(List<Node> cell, double south, double west,
+                                      double north, double east, List<Node> out) {
+        for (Node n : cell) {
+            double la = n.getLatitude();
+            double lo = n.getLongitude();
+            if (la >= south && la <= north && lo >= west && lo <= east) out.add(n);
+        }
+    }
+
+    private int cellX(double lng) {
+        return (int) Math.floor(lng / cellSize);
+    }
+
+    private int cellY(double lat) {
+        return (int) Math.floor(lat / cellSize);
+    }
+
+    private static long cellKey(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    private record Candidate(Node node, double distanceKm) { }
+}
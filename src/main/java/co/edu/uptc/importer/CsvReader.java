@@ -0,0 +1,303 @@
+package co.edu.uptc.importer;
+
+import co.edu.uptc.persistence.PersistenceException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lector CSV (RFC 4180) que no copia los datos al separar los campos.
+ *
+ * <p>El flujo se lee en un búfer de bytes y cada registro se describe con los
+ * desplazamientos de sus campos dentro del búfer; solo se crea un {@link String}
+ * cuando se pide un campo con {@link #get(int)}. Los números y las horas se
+ * interpretan directamente desde los bytes ({@link #getInt}, {@link #getTimeSeconds}).
+ * Admite campos entre comillas (con comillas dobles escapadas), finales de línea
+ * {@code \n} y {@code \r\n}, y la marca BOM de UTF-8 al principio.</p>
+ *
+ * <p>El búfer crece solo si un registro no cabe en él, así que la memoria depende del
+ * registro más largo y no del tamaño del archivo.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public final class CsvReader implements Closeable {
+
+    private static final int INITIAL_BUFFER = 64 * 1024;
+
+    private final InputStream in;
+    private byte[] buf = new byte[INITIAL_BUFFER];
+    private int start = 0;
+    private int limit = 0;
+    private boolean eof = false;
+    private boolean firstFill = true;
+
+    private int fieldCount = 0;
+    private int[] fieldStart = new int[16];
+    private int[] fieldEnd = new int[16];
+    private boolean[] fieldEscaped = new boolean[16];
+
+    private Map<String, Integer> header = Map.of();
+
+    public CsvReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Lee la primera línea como cabecera.
+     *
+     * @return Columnas por nombre
+     */
+    public Map<String, Integer> readHeader() throws IOException {
+        Map<String, Integer> columns = new HashMap<>();
+        if (next()) {
+            for (int i = 0; i < fieldCount; i++) {
+                columns.putIfAbsent(get(i).trim(), i);
+            }
+        }
+        header = columns;
+        return columns;
+    }
+
+    /**
+     * @return Índice de la columna, o -1 si la cabecera no la tiene
+     */
+    public int column(String name) {
+        return header.getOrDefault(name, -1);
+    }
+
+    /**
+     * @return Índice de la columna
+     * @throws PersistenceException si la cabecera no la tiene
+     */
+    public int requireColumn(String name) {
+        int col = column(name);
+        if (col < 0) throw new PersistenceException("Falta la columna obligatoria '" + name + "'");
+        return col;
+    }
+
+    /**
+     * Avanza al siguiente registro, saltando las líneas vacías.
+     *
+     * @return {@code false} al llegar al final del flujo
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            if (start >= limit && eof) return false;
+            int end = start < limit ? scanRecord(start) : -1;
+            if (end < 0) {
+                fill();
+                continue;
+            }
+            start = end;
+            if (fieldCount == 1 && fieldStart[0] == fieldEnd[0] && !fieldEscaped[0]) continue;
+            return true;
+        }
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return Texto del campo (cadena vacía si el registro no tiene esa columna)
+     */
+    public String get(int col) {
+        if (col < 0 || col >= fieldCount) return "";
+        String s = new String(buf, fieldStart[col], fieldEnd[col] - fieldStart[col], StandardCharsets.UTF_8);
+        return fieldEscaped[col] ? s.replace("\"\"", "\"") : s;
+    }
+
+    /**
+     * @return {@code true} si el campo no existe o solo tiene espacios
+     */
+    public boolean isBlank(int col) {
+        if (col < 0 || col >= fieldCount) return true;
+        for (int i = fieldStart[col]; i < fieldEnd[col]; i++) {
+            if (buf[i] != ' ' && buf[i] != '\t') return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code true} si el campo tiene exactamente los bytes indicados
+     */
+    public boolean fieldEquals(int col, byte[] value) {
+        if (col < 0 || col >= fieldCount || fieldEscaped[col]) return false;
+        return Arrays.equals(buf, fieldStart[col], fieldEnd[col], value, 0, value.length);
+    }
+
+    /**
+     * @return Bytes del campo (copia)
+     */
+    public byte[] bytes(int col) {
+        if (col < 0 || col >= fieldCount) return new byte[0];
+        return Arrays.copyOfRange(buf, fieldStart[col], fieldEnd[col]);
+    }
+
+    /**
+     * Interpreta un entero sin signo directamente desde los bytes.
+     *
+     * @return El valor, o {@code defaultValue} si el campo está vacío o no es numérico
+     */
+    public int getInt(int col, int defaultValue) {
+        if (isBlank(col)) return defaultValue;
+        long value = 0;
+        boolean digits = false;
+        for (int i = fieldStart[col]; i < fieldEnd[col]; i++) {
+            byte b = buf[i];
+            if (b == ' ') continue;
+            if (b < '0' || b > '9') return defaultValue;
+            value = value * 10 + (b - '0');
+            if (value > Integer.MAX_VALUE) return defaultValue;
+            digits = true;
+        }
+        return digits ? (int) value : defaultValue;
+    }
+
+    /**
+     * @return El valor, o {@code NaN} si el campo está vacío o no es numérico
+     */
+    public double getDouble(int col) {
+        if (isBlank(col)) return Double.NaN;
+        try {
+            return Double.parseDouble(get(col).trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Interpreta una hora GTFS {@code H:MM:SS} (puede pasar de 24 h) desde los bytes.
+     *
+     * @return Segundos desde el inicio del día de servicio, o -1 si está vacía o no es válida
+     */
+    public int getTimeSeconds(int col) {
+        if (isBlank(col)) return -1;
+        int total = 0;
+        int part = 0;
+        int parts = 0;
+        boolean digits = false;
+        for (int i = fieldStart[col]; i <= fieldEnd[col]; i++) {
+            byte b = i < fieldEnd[col] ? buf[i] : (byte) ':';
+            if (b == ' ') continue;
+            if (b == ':') {
+                if (!digits) return -1;
+                total = total * 60 + part;
+                part = 0;
+                parts++;
+                digits = false;
+            } else if (b >= '0' && b <= '9') {
+                part = part * 10 + (b - '0');
+                digits = true;
+            } else {
+                return -1;
+            }
+        }
+        return parts == 3 ? total : -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // ---- Análisis ----
+
+    /**
+     * Separa los campos del registro que empieza en {@code pos}.
+     *
+     * @return Posición siguiente al registro, o -1 si el registro no está completo en el búfer
+     */
+    private int scanRecord(int pos) {
+        fieldCount = 0;
+        int i = pos;
+        int fs = pos;
+        boolean inQuotes = false;
+        boolean quoted = false;
+        boolean escaped = false;
+        while (i < limit) {
+            byte b = buf[i];
+            if (inQuotes) {
+                if (b == '"') {
+                    if (i + 1 >= limit && !eof) return -1;
+                    if (i + 1 < limit && buf[i + 1] == '"') {
+                        escaped = true;
+                        i += 2;
+                        continue;
+                    }
+                    inQuotes = false;
+                }
+                i++;
+                continue;
+            }
+            if (b == '"' && i == fs) {
+                inQuotes = true;
+                quoted = true;
+                i++;
+            } else if (b == ',') {
+                addField(fs, i, quoted, escaped);
+                fs = ++i;
+                quoted = false;
+                escaped = false;
+            } else if (b == '\n' || b == '\r') {
+                if (b == '\r' && i + 1 >= limit && !eof) return -1;
+                addField(fs, i, quoted, escaped);
+                if (b == '\r' && i + 1 < limit && buf[i + 1] == '\n') i++;
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        if (!eof) return -1;
+        addField(fs, i, quoted, escaped); // último registro sin salto de línea
+        return i;
+    }
+
+    private void addField(int from, int to, boolean quoted, boolean escaped) {
+        if (fieldCount == fieldStart.length) {
+            int size = fieldCount * 2;
+            fieldStart = Arrays.copyOf(fieldStart, size);
+            fieldEnd = Arrays.copyOf(fieldEnd, size);
+            fieldEscaped = Arrays.copyOf(fieldEscaped, size);
+        }
+        if (quoted) {
+            from++;
+            // La comilla de cierre va justo antes del separador
+            if (to > from && buf[to - 1] == '"') to--;
+        }
+        fieldStart[fieldCount] = from;
+        fieldEnd[fieldCount] = to;
+        fieldEscaped[fieldCount] = escaped;
+        fieldCount++;
+    }
+
+    private void fill() throws IOException {
+        if (start > 0) {
+            System.arraycopy(buf, start, buf, 0, limit - start);
+            limit -= start;
+            start = 0;
+        }
+        if (limit == buf.length) {
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+        int n = in.read(buf, limit, buf.length - limit);
+        if (n < 0) {
+            eof = true;
+            return;
+        }
+        limit += n;
+        if (firstFill && limit >= 3) {
+            firstFill = false;
+            if ((buf[0] & 0xFF) == 0xEF && (buf[1] & 0xFF) == 0xBB && (buf[2] & 0xFF) == 0xBF) {
+                start = 3;
+            }
+        }
+    }
+}
@@ -0,0 +1,486 @@
+package co.edu.uptc.importer;
+
+import co.edu.uptc.controller.GraphController;
+import co.edu.uptc.controller.GraphController.LoadedGraph;
+import co.edu.uptc.geo.GeoUtils;
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.Node;
+import co.edu.uptc.persistence.PersistenceException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Importa una red desde un feed GTFS comprimido en zip.
+ *
+ * <p>Lee {@code stops.txt}, {@code stop_times.txt} y, si se filtran rutas,
+ * {@code trips.txt} en flujo con {@link CsvReader}, sin descomprimir el zip ni cargar
+ * ningún archivo completo:</p>
+ * <ul>
+ *   <li>Cada parada (con {@code location_type} 0 o vacío) se convierte en una estación.</li>
+ *   <li>Cada par de paradas consecutivas de un viaje se convierte en una arista dirigida
+ *       con la distancia de círculo máximo entre ellas. La velocidad media del tramo se
+ *       calcula con los horarios de todos los viajes que lo recorren.</li>
+ * </ul>
+ *
+ * <p>{@code stop_times.txt} suele tener millones de filas. El hilo que llama lo lee y
+ * agrupa las filas por viaje (el feed las trae agrupadas por {@code trip_id}); los
+ * viajes se reparten por lotes entre varios hilos que acumulan los tramos en mapas
+ * propios, combinados al final. La cola de lotes está acotada, así que la memoria
+ * depende del número de paradas, viajes y tramos distintos, no del número de filas.</p>
+ *
+ * <p>Si un viaje aparece en varios bloques no contiguos, cada bloque se trata como un
+ * viaje aparte (se pierde el tramo entre ellos).</p>
+ *
+ * <p>El resultado se instala con {@link GraphController#replaceGraph}, que sustituye el
+ * grafo en un solo paso con una única notificación. La importación puede hacerse en un
+ * hilo de fondo y se cancela interrumpiendo ese hilo.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class GtfsImporter {
+
+    private static final Logger LOGGER = Logger.getLogger(GtfsImporter.class.getName());
+
+    /** Viajes por lote enviado a los hilos de trabajo */
+    static final int TRIPS_PER_BATCH = 256;
+
+    /** Filas leídas entre comprobaciones de cancelación */
+    private static final int CANCEL_CHECK_ROWS = 16 * 1024;
+
+    /** Distancia mínima de una arista (paradas con las mismas coordenadas) */
+    private static final double MIN_DISTANCE_KM = 0.001;
+
+    /** Marca de fin de la cola de lotes */
+    private static final List<Trip> END = List.of();
+
+    private final int threads;
+    private final Set<String> routeIds;
+
+    /**
+     * Importador que usa todos los núcleos e importa todas las rutas.
+     */
+    public GtfsImporter() {
+        this(Runtime.getRuntime().availableProcessors(), Set.of());
+    }
+
+    /**
+     * @param threads Hilos que procesan los viajes
+     * @param routeIds Rutas ({@code route_id}) a importar; vacío para todas
+     */
+    public GtfsImporter(int threads, Set<String> routeIds) {
+        if (threads < 1) throw new IllegalArgumentException("threads debe ser >= 1");
+        this.threads = threads;
+        this.routeIds = Set.copyOf(routeIds);
+    }
+
+    /**
+     * Resultado de una importación.
+     *
+     * @param graph Grafo listo para {@link GraphController#replaceGraph}
+     * @param stops Estaciones creadas
+     * @param trips Viajes procesados
+     * @param stopTimes Filas de {@code stop_times.txt} usadas
+     * @param segments Aristas creadas (tramos distintos)
+     * @param averageSpeedKmh Velocidad media de la red en km/h, o {@code NaN} si el feed no
+     *                        tiene horarios utilizables
+     */
+    public record Result(LoadedGraph graph, int stops, int trips, long stopTimes,
+                         int segments, double averageSpeedKmh) { }
+
+    /**
+     * Importa un feed e instala el grafo en el controlador. Si el feed tiene horarios,
+     * su velocidad media pasa a ser la velocidad por defecto usada en los tiempos de ruta.
+     *
+     * <p>Debe llamarse en el hilo que usa el grafo; para importar en segundo plano, use
+     * {@link #read}, {@link GraphController#validateLoaded} y luego
+     * {@link GraphController#replaceGraph}.</p>
+     */
+    public Result importInto(GraphController controller, Path zip) {
+        Result result = read(zip);
+        controller.validateLoaded(result.graph());
+        controller.replaceGraph(result.graph());
+        if (!Double.isNaN(result.averageSpeedKmh())) {
+            controller.setDefaultSpeed(Math.round(result.averageSpeedKmh() * 10) / 10.0);
+        }
+        return result;
+    }
+
+    /**
+     * Lee un feed sin tocar el grafo actual.
+     *
+     * @param zip Archivo zip del feed
+     * @throws PersistenceException si el archivo no se puede leer o le faltan datos obligatorios
+     * @throws CancellationException si el hilo se interrumpe
+     */
+    public Result read(Path zip) {
+        long started = System.nanoTime();
+        try (ZipFile feed = new ZipFile(zip.toFile())) {
+            Stops stops = readStops(feed);
+            Set<String> trips = routeIds.isEmpty() ? null : readTrips(feed);
+            TripStats stats = new TripStats();
+            Map<Long, Segment> segments = readStopTimes(feed, stops, trips, stats);
+            Result result = buildGraph(stops, segments, stats);
+            LOGGER.info(String.format("GTFS importado de %s: %d paradas, %d viajes, %d tramos en %d ms",
+                    zip.getFileName(), result.stops(), result.trips(), result.segments(),
+                    (System.nanoTime() - started) / 1_000_000));
+            return result;
+        } catch (IOException e) {
+            throw new PersistenceException("Error leyendo el feed GTFS " + zip + ": " + e.getMessage(), e);
+        }
+    }
+
+    // ---- stops.txt ----
+
+    /** Paradas indexadas por posición */
+    private static final class Stops {
+        final Map<String, Integer> index = new HashMap<>();
+        final List<String> ids = new ArrayList<>();
+        final List<String> names = new ArrayList<>();
+        double[] lat = new double[1024];
+        double[] lon = new double[1024];
+
+        void add(String id, String name, double latitude, double longitude) {
+            int i = ids.size();
+            if (i == lat.length) {
+                lat = Arrays.copyOf(lat, i * 2);
+                lon = Arrays.copyOf(lon, i * 2);
+            }
+            index.put(id, i);
+            ids.add(id);
+            names.add(name);
+            lat[i] = latitude;
+            lon[i] = longitude;
+        }
+
+        int size() {
+            return ids.size();
+        }
+    }
+
+    private Stops readStops(ZipFile feed) throws IOException {
+        Stops stops = new Stops();
+        try (CsvReader csv = open(feed, "stops.txt")) {
+            csv.readHeader();
+            int idCol = csv.requireColumn("stop_id");
+            int nameCol = csv.column("stop_name");
+            int latCol = csv.requireColumn("stop_lat");
+            int lonCol = csv.requireColumn("stop_lon");
+            int typeCol = csv.column("location_type");
+            while (csv.next()) {
+                // Solo paradas o andenes: estaciones padre, accesos y nodos genéricos no tienen horarios
+                if (csv.getInt(typeCol, 0) != 0 || csv.isBlank(idCol)) continue;
+                double lat = csv.getDouble(latCol);
+                double lon = csv.getDouble(lonCol);
+                if (Double.isNaN(lat) || Double.isNaN(lon)) continue;
+                String id = csv.get(idCol);
+                if (stops.index.containsKey(id)) continue;
+                String name = csv.get(nameCol);
+                stops.add(id, name.isBlank() ? id : name, lat, lon);
+            }
+        }
+        return stops;
+    }
+
+    // ---- trips.txt ----
+
+    /** @return Viajes de las rutas seleccionadas */
+    private Set<String> readTrips(ZipFile feed) throws IOException {
+        Set<String> trips = new HashSet<>();
+        try (CsvReader csv = open(feed, "trips.txt")) {
+            csv.readHeader();
+            int tripCol = csv.requireColumn("trip_id");
+            int routeCol = csv.requireColumn("route_id");
+            while (csv.next()) {
+                if (routeIds.contains(csv.get(routeCol))) trips.add(csv.get(tripCol));
+            }
+        }
+        return trips;
+    }
+
+    // ---- stop_times.txt ----
+
+    /** Paradas de un viaje, en el orden del archivo */
+    private record Trip(int[] stops, int[] sequence, int[] arrival, int[] departure) { }
+
+    /** Contadores del hilo lector */
+    private static final class TripStats {
+        int trips;
+        long stopTimes;
+    }
+
+    /** Tramo entre dos paradas consecutivas, acumulado sobre todos los viajes */
+    private static final class Segment {
+        int timedTrips;
+        long seconds;
+
+        void merge(Segment other) {
+            timedTrips += other.timedTrips;
+            seconds += other.seconds;
+        }
+    }
+
+    /** Filas del viaje en curso */
+    private static final class TripBuffer {
+        int size;
+        int[] stops = new int[64];
+        int[] sequence = new int[64];
+        int[] arrival = new int[64];
+        int[] departure = new int[64];
+
+        void add(int stop, int seq, int arr, int dep) {
+            if (size == stops.length) {
+                int n = size * 2;
+                stops = Arrays.copyOf(stops, n);
+                sequence = Arrays.copyOf(sequence, n);
+                arrival = Arrays.copyOf(arrival, n);
+                departure = Arrays.copyOf(departure, n);
+            }
+            stops[size] = stop;
+            sequence[size] = seq;
+            arrival[size] = arr;
+            departure[size] = dep;
+            size++;
+        }
+
+        Trip take() {
+            Trip trip = new Trip(Arrays.copyOf(stops, size), Arrays.copyOf(sequence, size),
+                    Arrays.copyOf(arrival, size), Arrays.copyOf(departure, size));
+            size = 0;
+            return trip;
+        }
+    }
+
+    private Map<Long, Segment> readStopTimes(ZipFile feed, Stops stops, Set<String> trips, TripStats stats)
+            throws IOException {
+        BlockingQueue<List<Trip>> queue = new ArrayBlockingQueue<>(threads * 2);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "gtfs-import");
+            t.setDaemon(true);
+            return t;
+        });
+        try (CsvReader csv = open(feed, "stop_times.txt")) {
+            List<Future<Map<Long, Segment>>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(pool.submit(() -> aggregate(queue)));
+            }
+
+            csv.readHeader();
+            int tripCol = csv.requireColumn("trip_id");
+            int stopCol = csv.requireColumn("stop_id");
+            int seqCol = csv.requireColumn("stop_sequence");
+            int arrCol = csv.column("arrival_time");
+            int depCol = csv.column("departure_time");
+
+            TripBuffer current = new TripBuffer();
+            byte[] currentTrip = null;
+            boolean accepted = false;
+            List<Trip> batch = new ArrayList<>(TRIPS_PER_BATCH);
+            long rows = 0;
+            while (csv.next()) {
+                if (++rows % CANCEL_CHECK_ROWS == 0 && Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Importación GTFS cancelada");
+                }
+                // Se compara el trip_id en bytes: solo se crea un String al cambiar de viaje
+                if (currentTrip == null || !csv.fieldEquals(tripCol, currentTrip)) {
+                    if (current.size > 0) {
+                        batch.add(current.take());
+                        stats.trips++;
+                        if (batch.size() == TRIPS_PER_BATCH) {
+                            put(queue, batch, workers);
+                            batch = new ArrayList<>(TRIPS_PER_BATCH);
+                        }
+                    }
+                    currentTrip = csv.bytes(tripCol);
+                    accepted = trips == null || trips.contains(csv.get(tripCol));
+                }
+                if (!accepted) continue;
+                Integer stop = stops.index.get(csv.get(stopCol));
+                if (stop == null) continue;
+                int arrival = csv.getTimeSeconds(arrCol);
+                int departure = csv.getTimeSeconds(depCol);
+                current.add(stop, csv.getInt(seqCol, 0),
+                        arrival >= 0 ? arrival : departure, departure >= 0 ? departure : arrival);
+                stats.stopTimes++;
+            }
+            if (current.size > 0) {
+                batch.add(current.take());
+                stats.trips++;
+            }
+            if (!batch.isEmpty()) put(queue, batch, workers);
+            for (int i = 0; i < threads; i++) {
+                put(queue, END, workers);
+            }
+
+            Map<Long, Segment> merged = new HashMap<>();
+            for (Future<Map<Long, Segment>> worker : workers) {
+                for (Map.Entry<Long, Segment> e : result(worker).entrySet()) {
+                    Segment existing = merged.putIfAbsent(e.getKey(), e.getValue());
+                    if (existing != null) existing.merge(e.getValue());
+                }
+            }
+            return merged;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Encola un lote sin bloquearse para siempre si un hilo de trabajo ha fallado.
+     */
+    private static void put(BlockingQueue<List<Trip>> queue, List<Trip> batch,
+                            List<Future<Map<Long, Segment>>> workers) {
+        try {
+            while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+                for (Future<Map<Long, Segment>> worker : workers) {
+                    if (worker.isDone()) result(worker);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Importación GTFS cancelada");
+        }
+    }
+
+    private static Map<Long, Segment> result(Future<Map<Long, Segment>> worker) {
+        try {
+            return worker.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Importación GTFS cancelada");
+        } catch (ExecutionException e) {
+            throw new PersistenceException("Error procesando stop_times.txt: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Bucle de un hilo de trabajo: acumula los tramos de los lotes hasta recibir {@link #END}.
+     */
+    private static Map<Long, Segment> aggregate(BlockingQueue<List<Trip>> queue) throws InterruptedException {
+        Map<Long, Segment> segments = new HashMap<>();
+        for (List<Trip> batch = queue.take(); batch != END; batch = queue.take()) {
+            for (Trip trip : batch) {
+                addTrip(trip, segments);
+            }
+        }
+        return segments;
+    }
+
+    private static void addTrip(Trip trip, Map<Long, Segment> segments) {
+        int[] order = stopOrder(trip.sequence());
+        for (int k = 0; k + 1 < order.length; k++) {
+            int i = order[k];
+            int j = order[k + 1];
+            int from = trip.stops()[i];
+            int to = trip.stops()[j];
+            if (from == to) continue;
+            Segment segment = segments.computeIfAbsent(((long) from << 32) | (to & 0xFFFFFFFFL), key -> new Segment());
+            int departure = trip.departure()[i];
+            int arrival = trip.arrival()[j];
+            if (departure >= 0 && arrival > departure) {
+                segment.timedTrips++;
+                segment.seconds += arrival - departure;
+            }
+        }
+    }
+
+    /**
+     * @return Posiciones de las paradas ordenadas por {@code stop_sequence}
+     */
+    private static int[] stopOrder(int[] sequence) {
+        int n = sequence.length;
+        int[] order = new int[n];
+        boolean sorted = true;
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            if (i > 0 && sequence[i] < sequence[i - 1]) sorted = false;
+        }
+        if (sorted) return order;
+        long[] keyed = new long[n];
+        for (int i = 0; i < n; i++) {
+            keyed[i] = ((long) sequence[i] << 32) | i;
+        }
+        Arrays.sort(keyed);
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) keyed[i];
+        }
+        return order;
+    }
+
+    // ---- Grafo ----
+
+    private static Result buildGraph(Stops stops, Map<Long, Segment> segments, TripStats stats) {
+        List<Node> nodes = new ArrayList<>(stops.size());
+        for (int i = 0; i < stops.size(); i++) {
+            nodes.add(new Node(stops.ids.get(i), stops.names.get(i), stops.lat[i], stops.lon[i]));
+        }
+
+        // Orden fijo de las aristas, independiente del reparto entre hilos
+        long[] keys = new long[segments.size()];
+        int k = 0;
+        for (Long key : segments.keySet()) {
+            keys[k++] = key;
+        }
+        Arrays.sort(keys);
+
+        double timedKm = 0;
+        double timedHours = 0;
+        for (long key : keys) {
+            int from = (int) (key >>> 32);
+            int to = (int) key;
+            double distance = GeoUtils.haversineKm(stops.lat[from], stops.lon[from], stops.lat[to], stops.lon[to]);
+            distance = Math.max(MIN_DISTANCE_KM, Math.round(distance * 1000) / 1000.0);
+            nodes.get(from).addEdge(new Edge(stops.ids.get(from), stops.ids.get(to), distance));
+
+            Segment segment = segments.get(key);
+            timedKm += distance * segment.timedTrips;
+            timedHours += segment.seconds / 3600.0;
+        }
+
+        double averageSpeed = timedHours > 0 ? timedKm / timedHours : Double.NaN;
+        return new Result(LoadedGraph.of(nodes), stops.size(), stats.trips, stats.stopTimes,
+                keys.length, averageSpeed);
+    }
+
+    // ---- Zip ----
+
+    /**
+     * Abre un archivo del feed, en la raíz del zip o en una carpeta (algunos feeds se
+     * comprimen con la carpeta incluida).
+     */
+    private static CsvReader open(ZipFile feed, String name) throws IOException {
+        ZipEntry entry = feed.getEntry(name);
+        if (entry == null) {
+            for (Enumeration<? extends ZipEntry> e = feed.entries(); e.hasMoreElements(); ) {
+                ZipEntry candidate = e.nextElement();
+                if (!candidate.isDirectory() && candidate.getName().endsWith("/" + name)) {
+                    entry = candidate;
+                    break;
+                }
+            }
+        }
+        if (entry == null) throw new PersistenceException("El feed GTFS no contiene " + name);
+        return new CsvReader(feed.getInputStream(entry));
+    }
+}
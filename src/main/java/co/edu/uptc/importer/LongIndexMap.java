@@ -0,0 +1,96 @@
+package co.edu.uptc.importer;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de claves {@code long} a valores {@code int} con direccionamiento abierto.
+ *
+ * <p>Guarda claves y valores en dos arreglos primitivos, sin objetos por entrada: con
+ * millones de IDs de OSM ocupa una fracción de lo que ocuparía un
+ * {@code HashMap<Long, Integer>}. No admite borrados.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+final class LongIndexMap {
+
+    /** Valor devuelto por {@link #get} si la clave no está */
+    static final int MISSING = -1;
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    LongIndexMap() {
+        this(16);
+    }
+
+    LongIndexMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return Valor asociado, o {@link #MISSING}
+     */
+    int get(long key) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+            if (keys[i] == EMPTY) return MISSING;
+        }
+    }
+
+    boolean contains(long key) {
+        return get(key) != MISSING;
+    }
+
+    /**
+     * Asocia un valor a la clave si todavía no tiene uno.
+     *
+     * @return {@code true} si la clave era nueva
+     */
+    boolean putIfAbsent(long key, int value) {
+        if (key == EMPTY) throw new IllegalArgumentException("Clave reservada: " + key);
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            if (keys[i] == key) return false;
+            if (keys[i] == EMPTY) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size * 2 > keys.length) grow();
+                return true;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        values = new int[keys.length];
+        mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == EMPTY) continue;
+            int i = slot(oldKeys[j]);
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package co.edu.uptc.importer;
+
+import co.edu.uptc.controller.GraphController;
+import co.edu.uptc.controller.GraphController.LoadedGraph;
+import co.edu.uptc.geo.GeoUtils;
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.Node;
+import co.edu.uptc.persistence.PersistenceException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Logger;
+
+/**
+ * Importa las paradas y rutas de transporte público de un extracto de OpenStreetMap
+ * en XML ({@code .osm}).
+ *
+ * <p>Los extractos de una ciudad ocupan cientos de MB, así que el archivo se recorre
+ * en flujo con StAX, dos veces:</p>
+ * <ol>
+ *   <li>Relaciones {@code type=route}: se guarda, por cada ruta, la secuencia de IDs de
+ *       sus paradas (miembros de tipo nodo con rol {@code stop*}, o {@code platform*} si
+ *       la ruta no tiene paradas) y el conjunto de nodos que se necesitan.</li>
+ *   <li>Nodos: se guardan las coordenadas y el nombre de los nodos necesarios y de los
+ *       etiquetados {@code public_transport=stop_position} o {@code platform}.</li>
+ * </ol>
+ *
+ * <p>Los IDs de OSM se indexan con {@link LongIndexMap} y las coordenadas en arreglos
+ * primitivos, de modo que solo las estaciones resultantes crean objetos. Cada par de
+ * paradas consecutivas de una ruta se convierte en una arista dirigida con la distancia
+ * de círculo máximo; las paradas que no están en el extracto cortan la secuencia.
+ * Los andenes dibujados como vías o áreas no se importan.</p>
+ *
+ * <p>Las estaciones usan el ID {@code N<id de OSM>} y el nombre de la etiqueta
+ * {@code name} (o {@code ref}). El resultado se instala con
+ * {@link GraphController#replaceGraph} en un solo paso.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class OsmImporter {
+
+    private static final Logger LOGGER = Logger.getLogger(OsmImporter.class.getName());
+
+    private static final int BUFFER_BYTES = 256 * 1024;
+
+    /** Elementos leídos entre comprobaciones de cancelación */
+    private static final int CANCEL_CHECK_ELEMENTS = 64 * 1024;
+
+    /** Distancia mínima de una arista (paradas con las mismas coordenadas) */
+    private static final double MIN_DISTANCE_KM = 0.001;
+
+    /** Prefijo del ID de estación ({@code N} de nodo, como en la notación de OSM) */
+    static final String ID_PREFIX = "N";
+
+    private final XMLInputFactory inputFactory;
+
+    public OsmImporter() {
+        inputFactory = XMLInputFactory.newFactory();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * Resultado de una importación.
+     *
+     * @param graph Grafo listo para {@link GraphController#replaceGraph}
+     * @param stops Estaciones creadas
+     * @param routes Relaciones de ruta leídas
+     * @param segments Aristas creadas (tramos distintos)
+     */
+    public record Result(LoadedGraph graph, int stops, int routes, int segments) { }
+
+    /**
+     * Importa un extracto e instala el grafo en el controlador. Debe llamarse en el hilo
+     * que usa el grafo; para importar en segundo plano, use {@link #read},
+     * {@link GraphController#validateLoaded} y luego {@link GraphController#replaceGraph}.
+     */
+    public Result importInto(GraphController controller, Path osm) {
+        Result result = read(osm);
+        controller.validateLoaded(result.graph());
+        controller.replaceGraph(result.graph());
+        return result;
+    }
+
+    /**
+     * Lee un extracto sin tocar el grafo actual.
+     *
+     * @param osm Archivo {@code .osm}
+     * @throws PersistenceException si el archivo no existe o no es XML de OSM válido
+     * @throws CancellationException si el hilo se interrumpe
+     */
+    public Result read(Path osm) {
+        long started = System.nanoTime();
+        try {
+            Routes routes = new Routes();
+            stream(osm, xml -> readRelations(xml, routes));
+            Stops stops = new Stops();
+            stream(osm, xml -> readNodes(xml, routes.needed, stops));
+            Result result = buildGraph(stops, routes);
+            LOGGER.info(String.format("OSM importado de %s: %d paradas, %d rutas, %d tramos en %d ms",
+                    osm.getFileName(), result.stops(), result.routes(), result.segments(),
+                    (System.nanoTime() - started) / 1_000_000));
+            return result;
+        } catch (NoSuchFileException e) {
+            throw new PersistenceException("No existe el archivo OSM " + osm, e);
+        } catch (IOException | XMLStreamException e) {
+            throw new PersistenceException("Error leyendo el archivo OSM " + osm + ": " + e.getMessage(), e);
+        }
+    }
+
+    // ---- Recorrido ----
+
+    @FunctionalInterface
+    private interface Pass {
+        void run(XMLStreamReader xml) throws XMLStreamException;
+    }
+
+    private void stream(Path osm, Pass pass) throws IOException, XMLStreamException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(osm), BUFFER_BYTES)) {
+            XMLStreamReader xml = inputFactory.createXMLStreamReader(in);
+            try {
+                pass.run(xml);
+            } finally {
+                xml.close();
+            }
+        }
+    }
+
+    private static void checkCancelled(long elements) {
+        if (elements % CANCEL_CHECK_ELEMENTS == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Importación OSM cancelada");
+        }
+    }
+
+    // ---- Primera pasada: relaciones ----
+
+    /** Secuencias de paradas de las rutas y nodos que hacen falta para ellas */
+    private static final class Routes {
+        final List<long[]> sequences = new ArrayList<>();
+        final LongIndexMap needed = new LongIndexMap();
+        int count;
+    }
+
+    private static void readRelations(XMLStreamReader xml, Routes routes) throws XMLStreamException {
+        long[] stops = new long[64];
+        long[] platforms = new long[64];
+        long elements = 0;
+        while (xml.hasNext()) {
+            if (xml.next() != XMLStreamConstants.START_ELEMENT) continue;
+            checkCancelled(++elements);
+            if (!"relation".equals(xml.getLocalName())) continue;
+
+            int stopCount = 0;
+            int platformCount = 0;
+            boolean route = false;
+            while (nextChild(xml)) {
+                switch (xml.getLocalName()) {
+                    case "member" -> {
+                        String role = xml.getAttributeValue(null, "role");
+                        if ("node".equals(xml.getAttributeValue(null, "type")) && role != null) {
+                            long ref = Long.parseLong(xml.getAttributeValue(null, "ref"));
+                            if (role.startsWith("stop")) {
+                                if (stopCount == stops.length) stops = Arrays.copyOf(stops, stopCount * 2);
+                                stops[stopCount++] = ref;
+                            } else if (role.startsWith("platform")) {
+                                if (platformCount == platforms.length) platforms = Arrays.copyOf(platforms, platformCount * 2);
+                                platforms[platformCount++] = ref;
+                            }
+                        }
+                    }
+                    case "tag" -> route |= "type".equals(xml.getAttributeValue(null, "k"))
+                            && "route".equals(xml.getAttributeValue(null, "v"));
+                    default -> { }
+                }
+                skipElement(xml);
+            }
+            if (!route) continue;
+
+            routes.count++;
+            long[] sequence = stopCount > 0 ? Arrays.copyOf(stops, stopCount) : Arrays.copyOf(platforms, platformCount);
+            if (sequence.length < 2) continue;
+            routes.sequences.add(sequence);
+            for (long ref : sequence) {
+                routes.needed.putIfAbsent(ref, 0);
+            }
+        }
+    }
+
+    // ---- Segunda pasada: nodos ----
+
+    /** Nodos guardados, indexados por posición */
+    private static final class Stops {
+        final LongIndexMap index = new LongIndexMap();
+        final List<String> names = new ArrayList<>();
+        long[] ids = new long[1024];
+        double[] lat = new double[1024];
+        double[] lon = new double[1024];
+
+        void add(long id, String name, double latitude, double longitude) {
+            int i = names.size();
+            if (!index.putIfAbsent(id, i)) return;
+            if (i == ids.length) {
+                ids = Arrays.copyOf(ids, i * 2);
+                lat = Arrays.copyOf(lat, i * 2);
+                lon = Arrays.copyOf(lon, i * 2);
+            }
+            names.add(name);
+            ids[i] = id;
+            lat[i] = latitude;
+            lon[i] = longitude;
+        }
+
+        int size() {
+            return names.size();
+        }
+    }
+
+    private static void readNodes(XMLStreamReader xml, LongIndexMap needed, Stops stops) throws XMLStreamException {
+        long elements = 0;
+        while (xml.hasNext()) {
+            if (xml.next() != XMLStreamConstants.START_ELEMENT) continue;
+            checkCancelled(++elements);
+            String element = xml.getLocalName();
+            if ("way".equals(element) || "relation".equals(element)) {
+                // Los nodos van antes que las vías y relaciones en los archivos de OSM
+                return;
+            }
+            if (!"node".equals(element)) continue;
+
+            String lat = xml.getAttributeValue(null, "lat");
+            String lon = xml.getAttributeValue(null, "lon");
+            long id = Long.parseLong(xml.getAttributeValue(null, "id"));
+            boolean isStop = false;
+            String name = null;
+            String ref = null;
+            while (nextChild(xml)) {
+                if ("tag".equals(xml.getLocalName())) {
+                    String k = xml.getAttributeValue(null, "k");
+                    String v = xml.getAttributeValue(null, "v");
+                    if ("public_transport".equals(k)) {
+                        isStop = "stop_position".equals(v) || "platform".equals(v);
+                    } else if ("name".equals(k)) {
+                        name = v;
+                    } else if ("ref".equals(k)) {
+                        ref = v;
+                    }
+                }
+                skipElement(xml);
+            }
+            if (lat == null || lon == null || !(isStop || needed.contains(id))) continue;
+            String label = name != null ? name : ref != null ? ref : ID_PREFIX + id;
+            stops.add(id, label, Double.parseDouble(lat), Double.parseDouble(lon));
+        }
+    }
+
+    // ---- Grafo ----
+
+    private static Result buildGraph(Stops stops, Routes routes) {
+        List<Node> nodes = new ArrayList<>(stops.size());
+        for (int i = 0; i < stops.size(); i++) {
+            nodes.add(new Node(ID_PREFIX + stops.ids[i], stops.names.get(i), stops.lat[i], stops.lon[i]));
+        }
+
+        LongIndexMap seen = new LongIndexMap(stops.size() * 2);
+        int segments = 0;
+        int missing = 0;
+        for (long[] sequence : routes.sequences) {
+            int previous = LongIndexMap.MISSING;
+            for (long ref : sequence) {
+                int current = stops.index.get(ref);
+                if (current == LongIndexMap.MISSING) {
+                    missing++;
+                } else if (previous != LongIndexMap.MISSING && previous != current
+                        && seen.putIfAbsent(((long) previous << 32) | current, 0)) {
+                    double distance = GeoUtils.haversineKm(stops.lat[previous], stops.lon[previous],
+                            stops.lat[current], stops.lon[current]);
+                    distance = Math.max(MIN_DISTANCE_KM, Math.round(distance * 1000) / 1000.0);
+                    Node from = nodes.get(previous);
+                    from.addEdge(new Edge(from.getId(), nodes.get(current).getId(), distance));
+                    segments++;
+                }
+                previous = current;
+            }
+        }
+        if (missing > 0) {
+            LOGGER.warning(missing + " paradas de rutas fuera del extracto; sus tramos se omiten");
+        }
+        return new Result(LoadedGraph.of(nodes), stops.size(), routes.count, segments);
+    }
+
+    // ---- StAX ----
+
+    /**
+     * Avanza al siguiente hijo del elemento actual.
+     *
+     * @return {@code false} si llegó al cierre del elemento actual
+     */
+    private static boolean nextChild(XMLStreamReader xml) throws XMLStreamException {
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) return true;
+            if (event == XMLStreamConstants.END_ELEMENT) return false;
+        }
+        return false;
+    }
+
+    /** Salta el elemento actual con todos sus hijos */
+    private static void skipElement(XMLStreamReader xml) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) depth++;
+            else if (event == XMLStreamConstants.END_ELEMENT) depth--;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package co.edu.uptc.model;
+
+import jakarta.xml.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Conexión entre dos estaciones en los esquemas XML v2 y v3.
+ *
+ * <p>En el esquema v1 cada conexión bidireccional se guarda dos veces, como una
+ * {@link Edge} dentro de cada estación. En v2 y v3 se guarda una sola vez:</p>
+ *
+ * <ul>
+ *   <li>v2 (solo lectura): en la lista {@code <connections>} que sigue a las estaciones,
+ *       {@code <connection from="EST001" to="EST002" distance="5.0"/>}.</li>
+ *   <li>v3: dentro de la estación que aparece primero en el documento, sin {@code from},
+ *       {@code <connection to="EST002" distance="5.0"/>}.</li>
+ * </ul>
+ *
+ * <p>Sin {@code directed} (o con {@code false}) la conexión equivale a las dos aristas
+ * {@code from → to} y {@code to → from}; con {@code directed="true"}, solo a la
+ * primera.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ * @see GraphData
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+public class Connection {
+
+    /** ID de la estación origen */
+    @XmlAttribute(name = "from", required = true)
+    private String from;
+
+    /** ID de la estación destino */
+    @XmlAttribute(name = "to", required = true)
+    private String to;
+
+    /** Distancia en kilómetros */
+    @XmlAttribute(name = "distance", required = true)
+    private double distance;
+
+    /** {@code true} si solo existe el sentido {@code from → to}; se omite si es falso */
+    @XmlAttribute(name = "directed")
+    private Boolean directed;
+
+    /**
+     * Constructor por defecto (requerido por JAXB).
+     */
+    public Connection() { }
+
+    /**
+     * @param from ID de la estación origen
+     * @param to ID de la estación destino
+     * @param distance Distancia en kilómetros
+     * @param directed {@code true} si la conexión solo va de {@code from} a {@code to}
+     */
+    public Connection(String from, String to, double distance, boolean directed) {
+        this.from = from;
+        this.to = to;
+        this.distance = distance;
+        this.directed = directed ? Boolean.TRUE : null;
+    }
+
+    public String getFrom() { return from; }
+
+    public String getTo() { return to; }
+
+    public double getDistance() { return distance; }
+
+    public boolean isDirected() { return Boolean.TRUE.equals(directed); }
+
+    /**
+     * Añade las aristas de esta conexión a las estaciones correspondientes.
+     *
+     * <p>Si la estación destino no existe, solo se añade el sentido {@code from → to}
+     * (igual que una arista v1 hacia una estación desconocida).</p>
+     *
+     * @param nodesById Estaciones del grafo por ID
+     * @return {@code false} si la estación origen no existe y la conexión se descartó
+     */
+    public boolean applyTo(Map<String, Node> nodesById) {
+        return applyTo(nodesById, e -> { });
+    }
+
+    /**
+     * Como {@link #applyTo(Map)}, pero entrega a {@code open} el sentido
+     * {@code to → from} de una conexión no dirigida cuya estación destino no existe, en
+     * lugar de descartarlo en silencio.
+     *
+     * @param nodesById Estaciones del grafo por ID
+     * @param open Recibe los sentidos de vuelta que no tienen estación
+     * @return {@code false} si la estación origen no existe y la conexión se descartó
+     */
+    public boolean applyTo(Map<String, Node> nodesById, Consumer<Edge> open) {
+        Node origin = nodesById.get(from);
+        if (origin == null) return false;
+        origin.addEdge(new Edge(from, to, distance));
+        if (!isDirected() && !from.equals(to)) {
+            Node target = nodesById.get(to);
+            if (target != null) {
+                target.addEdge(new Edge(to, from, distance));
+            } else {
+                open.accept(new Edge(to, from, distance));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Posición de la primera estación con cada ID, en el orden de la lista
+     */
+    public static Map<String, Integer> positions(List<Node> nodes) {
+        Map<String, Integer> positions = new HashMap<>(nodes.size() * 2);
+        for (int i = 0; i < nodes.size(); i++) {
+            Node n = nodes.get(i);
+            if (n != null && n.getId() != null) positions.putIfAbsent(n.getId(), i);
+        }
+        return positions;
+    }
+
+    /**
+     * Agrupa las aristas de una estación en las conexiones v3 que se escriben dentro de
+     * ella.
+     *
+     * <p>Un par de aristas opuestas con la misma distancia es una sola conexión no
+     * dirigida, que va en la estación que aparece primero: así, al leer el documento en
+     * orden, el sentido contrario siempre apunta a una estación que aún no se ha leído.
+     * Cualquier otra arista se guarda como dirigida en su estación de origen.</p>
+     *
+     * @param nodes Estaciones con sus aristas, en el orden del documento
+     * @param positions Resultado de {@link #positions(List)} para esas estaciones
+     * @param node Estación que se está escribiendo
+     * @return Conexiones de la estación, en el orden de sus aristas
+     */
+    public static List<Connection> fromNode(List<Node> nodes, Map<String, Integer> positions, Node node) {
+        String from = node.getId();
+        Integer at = positions.get(from);
+        List<Connection> connections = new ArrayList<>();
+        for (Edge e : node.getEdges()) {
+            String to = e.getToId();
+            Integer targetAt = positions.get(to);
+            Edge reverse = at == null || targetAt == null || from.equals(to)
+                    ? null : nodes.get(targetAt).getEdgeTo(from);
+            if (reverse != null && reverse.getDistance() == e.getDistance()) {
+                if (at < targetAt) {
+                    connections.add(new Connection(from, to, e.getDistance(), false));
+                }
+            } else {
+                connections.add(new Connection(from, to, e.getDistance(), true));
+            }
+        }
+        return connections;
+    }
+}
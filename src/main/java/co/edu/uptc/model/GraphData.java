@@ -1,17 +1,39 @@
 package co.edu.uptc.model;
 
+import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.annotation.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @XmlRootElement(name = "graphData")
 @XmlAccessorType(XmlAccessType.FIELD)
 public class GraphData {
 
+    /** Versión del esquema v2; los archivos v1 no tienen este atributo */
+    public static final int SCHEMA_V2 = 2;
+
+    /** Versión del esquema v3, con las conexiones dentro de cada estación */
+    public static final int SCHEMA_V3 = 3;
+
+    /** Versión del esquema del documento (null en archivos v1) */
+    @XmlAttribute(name = "version")
+    private Integer version;
+
     @XmlElementWrapper(name = "nodes")
     @XmlElement(name = "node")
     private List<Node> nodes = new ArrayList<>();
 
+    /** Conexiones del esquema v2; tras la lectura ya están en las aristas de cada estación */
+    @XmlElementWrapper(name = "connections")
+    @XmlElement(name = "connection")
+    private List<Connection> connections;
+
+    /** Sentidos de vuelta de conexiones v2 hacia estaciones que no están en el documento */
+    @XmlTransient
+    private List<Edge> openEdges;
+
     public GraphData() { }
 
     public GraphData(List<Node> nodes) { this.nodes = nodes; }
@@ -19,4 +41,65 @@ public class GraphData {
     public List<Node> getNodes() { return nodes; }
 
     public void setNodes(List<Node> nodes) { this.nodes = nodes; }
+
+    /**
+     * Aristas que el documento describe pero no pudo añadir: el sentido de vuelta de cada
+     * conexión v2 no dirigida cuyo destino no está en el documento (por ejemplo, una
+     * estación de otro archivo de la red). Su origen es esa estación ausente.
+     *
+     * @return Aristas abiertas tras la lectura (vacía en v1 y v3)
+     */
+    public List<Edge> getOpenEdges() { return openEdges == null ? List.of() : openEdges; }
+
+    /**
+     * Copia para escribir con JAXB en el esquema v3: cada estación lleva sus datos y las
+     * conexiones de {@link Connection#fromNode}, sin aristas.
+     *
+     * @return Documento v3 que comparte los textos con este, no las estaciones
+     */
+    public GraphData toSchemaV3() {
+        List<Node> source = nodes == null ? List.of() : nodes;
+        Map<String, Integer> positions = Connection.positions(source);
+        List<Node> inline = new ArrayList<>(source.size());
+        for (Node n : source) {
+            if (n == null) continue;
+            List<Connection> connections = new ArrayList<>();
+            for (Connection c : Connection.fromNode(source, positions, n)) {
+                connections.add(new Connection(null, c.getTo(), c.getDistance(), c.isDirected()));
+            }
+            inline.add(Node.forWriting(n, connections));
+        }
+        GraphData v3 = new GraphData(inline);
+        v3.version = SCHEMA_V3;
+        return v3;
+    }
+
+    /**
+     * Llamado por JAXB al terminar de leer el documento: si es v2 o v3, reparte las
+     * conexiones entre las aristas de las estaciones, de modo que el resto de la
+     * aplicación ve el mismo modelo que con un archivo v1.
+     *
+     * @throws IllegalArgumentException si una conexión v3 no dirigida no está en la
+     *         primera de sus estaciones ({@link InlineConnections})
+     */
+    void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+        if (nodes == null) return;
+        InlineConnections inline = new InlineConnections();
+        for (Node n : nodes) {
+            if (n != null) inline.apply(n, n.takeConnections());
+        }
+        inline.finish();
+        if (connections != null) {
+            Map<String, Node> byId = new HashMap<>(nodes.size() * 2);
+            for (Node n : nodes) {
+                if (n != null && n.getId() != null) byId.putIfAbsent(n.getId(), n);
+            }
+            List<Edge> open = new ArrayList<>();
+            for (Connection c : connections) {
+                c.applyTo(byId, open::add);
+            }
+            openEdges = open.isEmpty() ? null : open;
+            connections = null;
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package co.edu.uptc.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Convierte en aristas las conexiones del esquema v3, estación a estación y en el orden
+ * del documento.
+ *
+ * <p>En v3 cada conexión no dirigida se escribe una sola vez, dentro de la primera de
+ * sus dos estaciones, así que su destino tiene que aparecer más adelante en el mismo
+ * documento. Al aplicar la conexión se añade el sentido de ida y el de vuelta queda
+ * apartado hasta que llega la estación destino. Las conexiones hacia estaciones que no
+ * están en el archivo (por ejemplo, de otro archivo de la red) deben ser dirigidas.</p>
+ *
+ * <p>Un documento que no cumple la regla se rechaza en {@link #finish()}, porque el
+ * sentido de vuelta no tendría estación a la que añadirse. Los dos lectores XML usan
+ * esta clase, así que construyen el mismo grafo o fallan con el mismo error.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ * @see Connection
+ */
+public final class InlineConnections {
+
+    /** Sentidos de vuelta pendientes, por ID de la estación destino */
+    private final Map<String, List<Edge>> reverse = new HashMap<>();
+
+    /**
+     * Añade a la estación sus aristas pendientes y las de sus conexiones. Debe llamarse
+     * para cada estación, en el orden del documento.
+     *
+     * @param node Estación recién leída
+     * @param connections Conexiones escritas dentro de ella (puede ser null)
+     */
+    public void apply(Node node, List<Connection> connections) {
+        String id = node.getId();
+        if (id == null) return;
+        List<Edge> waiting = reverse.remove(id);
+        if (waiting != null) waiting.forEach(node::addEdge);
+        if (connections == null) return;
+        for (Connection c : connections) {
+            if (c.getTo() == null) continue;
+            node.addEdge(new Edge(id, c.getTo(), c.getDistance()));
+            if (!c.isDirected() && !id.equals(c.getTo())) {
+                reverse.computeIfAbsent(c.getTo(), k -> new ArrayList<>(2)).add(new Edge(c.getTo(), id, c.getDistance()));
+            }
+        }
+    }
+
+    /**
+     * @return Sentidos de vuelta que esperan a una estación posterior
+     */
+    public int pending() {
+        int count = 0;
+        for (List<Edge> edges : reverse.values()) {
+            count += edges.size();
+        }
+        return count;
+    }
+
+    /**
+     * Comprueba que todas las conexiones no dirigidas encontraron su estación destino.
+     *
+     * @throws IllegalArgumentException si alguna apunta a una estación anterior o que no
+     *         está en el documento
+     */
+    public void finish() {
+        if (reverse.isEmpty()) return;
+        Edge first = reverse.values().iterator().next().get(0);
+        throw new IllegalArgumentException("Conexión no dirigida de " + first.getToId() + " a " + first.getFromId()
+                + " (y " + (pending() - 1) + " más): en el esquema v3 va en la estación que aparece primero, "
+                + "y " + first.getFromId() + " no aparece después en el documento");
+    }
+}
@@ -1,5 +1,6 @@
 package co.edu.uptc.model;
 
+import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.annotation.*;
 import java.util.*;
 
@@ -62,6 +63,10 @@ public class Node {
     @XmlElement(name = "edge")
     private List<Edge> edges = new ArrayList<>();
 
+    /** Conexiones del esquema v3 leídas por JAXB; {@link GraphData} las pasa a aristas */
+    @XmlElement(name = "connection")
+    private List<Connection> connections;
+
     /** Mapa interno para acceso rápido a aristas por ID destino */
     @XmlTransient
     private Map<String, Edge> edgesMap = new HashMap<>();
@@ -110,10 +115,14 @@ public class Node {
      * y modificación, use los métodos específicos como {@link #addEdge(String, double)}
      * y {@link #getEdgeTo(String)}.</p>
      * 
-     * @return Lista no modificable de aristas salientes
+     * <p>Es una vista en vivo de solo lectura: refleja las aristas que se añadan o
+     * eliminen después. Quien necesite recorrerla mientras edita este mismo nodo debe
+     * copiarla antes, o obtendrá una {@link ConcurrentModificationException}.</p>
+     * 
+     * @return Vista no modificable de las aristas salientes
      */
     public List<Edge> getEdges() { 
-        return edges; 
+        return Collections.unmodifiableList(edges); 
     }
 
     /**
@@ -124,9 +133,45 @@ public class Node {
      * @param edges Lista de aristas a establecer (puede ser null)
      */
     public void setEdges(List<Edge> edges) {
-        this.edges = edges != null ? edges : new ArrayList<>();
-        edgesMap.clear();
-        for (Edge e : this.edges) {
+        this.edges = edges != null ? new ArrayList<>(edges) : new ArrayList<>();
+        rebuildEdgesMap();
+    }
+
+    /**
+     * Llamado por JAXB al terminar de leer el nodo.
+     * 
+     * <p>JAXB asigna la lista de aristas directamente al campo, sin pasar por
+     * {@link #setEdges(List)}, así que el mapa interno se reconstruye aquí.</p>
+     */
+    @SuppressWarnings("unused")
+    private void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+        if (edges == null) edges = new ArrayList<>();
+        rebuildEdgesMap();
+    }
+
+    /**
+     * @return Conexiones v3 leídas dentro del nodo (o null), que se quitan del nodo
+     */
+    List<Connection> takeConnections() {
+        List<Connection> taken = connections;
+        connections = null;
+        return taken;
+    }
+
+    /**
+     * Estación para escribir en el esquema v3: mismos datos, sin aristas y con las
+     * conexiones indicadas. Solo sirve para pasarla a JAXB.
+     */
+    static Node forWriting(Node n, List<Connection> connections) {
+        Node copy = new Node(n.id, n.name, n.latitude, n.longitude);
+        copy.edges = null;
+        copy.connections = connections.isEmpty() ? null : connections;
+        return copy;
+    }
+
+    private void rebuildEdgesMap() {
+        edgesMap = new HashMap<>(Math.max(4, edges.size() * 2));
+        for (Edge e : edges) {
             if (e.getToId() != null) {
                 edgesMap.put(e.getToId(), e);
             }
@@ -150,9 +195,7 @@ public class Node {
             throw new IllegalArgumentException("distance debe ser mayor que 0");
         }
         
-        Edge e = new Edge(this.id, toId, distance);
-        edgesMap.put(toId, e);
-        edges = new ArrayList<>(edgesMap.values());
+        putEdge(new Edge(this.id, toId, distance));
     }
 
     /**
@@ -163,8 +206,17 @@ public class Node {
      */
     public void addEdge(Edge e) {
         if (e != null && e.getToId() != null) {
-            edgesMap.put(e.getToId(), e);
-            edges = new ArrayList<>(edgesMap.values());
+            putEdge(e);
+        }
+    }
+
+    /** Añade o reemplaza la arista manteniendo lista y mapa sin reconstruirlos */
+    private void putEdge(Edge e) {
+        Edge previous = edgesMap.put(e.getToId(), e);
+        if (previous == null) {
+            edges.add(e);
+        } else {
+            edges.set(edges.indexOf(previous), e);
         }
     }
 
@@ -175,9 +227,29 @@ public class Node {
      * @return {@code true} si se eliminó una arista, {@code false} si no existía
      */
     public boolean removeEdgeTo(String destinationId) {
-        boolean removed = edgesMap.remove(destinationId) != null;
-        edges = new ArrayList<>(edgesMap.values());
-        return removed;
+        Edge removed = edgesMap.remove(destinationId);
+        if (removed == null) return false;
+        edges.remove(removed);
+        return true;
+    }
+
+    /**
+     * Crea una copia independiente de este nodo y de sus aristas.
+     * 
+     * <p>Útil para serializar el estado del grafo en otro hilo mientras el
+     * original se sigue editando.</p>
+     * 
+     * @return Nodo con los mismos datos y aristas copiadas
+     */
+    public Node copy() {
+        Node copy = new Node(id, name, latitude, longitude);
+        List<Edge> copiedEdges = new ArrayList<>(edges.size());
+        for (Edge e : edges) {
+            copiedEdges.add(new Edge(e.getFromId(), e.getToId(), e.getDistance()));
+        }
+        copy.edges = copiedEdges;
+        copy.rebuildEdgesMap();
+        return copy;
     }
 
     /**
@@ -15,6 +15,8 @@ import java.util.List;
  *   <li><b>Distance</b>: Distancia total en kilómetros</li>
  *   <li><b>Time</b>: Tiempo estimado en horas</li>
  *   <li><b>Transfers</b>: Número de transbordos necesarios</li>
+ *   <li><b>Access / Egress</b>: Tramos a pie desde el origen hasta la primera estación
+ *       y desde la última estación hasta el destino (solo en rutas entre coordenadas)</li>
  * </ul>
  * 
  * <h3>Ejemplo de uso:</h3>
@@ -52,6 +54,12 @@ public class RouteResult {
     /** Tiempo estimado en horas */
     private final double time;
 
+    /** Distancia a pie desde el punto de origen hasta la primera estación, en kilómetros */
+    private final double accessDistance;
+
+    /** Distancia a pie desde la última estación hasta el punto de destino, en kilómetros */
+    private final double egressDistance;
+
     /**
      * Constructor simplificado sin tiempo ni transbordos.
      * 
@@ -71,10 +79,29 @@ public class RouteResult {
      * @param time Tiempo estimado en horas (-1.0 si no aplica)
      */
     public RouteResult(List<Node> path, double distance, int transfers, double time) {
+        this(path, distance, transfers, time, 0.0, 0.0);
+    }
+
+    /**
+     * Constructor para rutas entre coordenadas que incluyen tramos a pie.
+     * 
+     * <p>La distancia y el tiempo totales deben incluir ya los tramos de acceso y salida.</p>
+     * 
+     * @param path Lista de estaciones de la ruta (no nula)
+     * @param distance Distancia total en kilómetros
+     * @param transfers Número de transbordos (-1 si no aplica)
+     * @param time Tiempo estimado en horas (-1.0 si no aplica)
+     * @param accessDistance Distancia a pie hasta la primera estación, en kilómetros
+     * @param egressDistance Distancia a pie desde la última estación, en kilómetros
+     */
+    public RouteResult(List<Node> path, double distance, int transfers, double time,
+                       double accessDistance, double egressDistance) {
         this.path = path == null ? Collections.emptyList() : path;
         this.distance = distance;
         this.transfers = transfers;
         this.time = time;
+        this.accessDistance = accessDistance;
+        this.egressDistance = egressDistance;
     }
 
     /**
@@ -112,4 +139,22 @@ public class RouteResult {
     public double getTime() { 
         return time; 
     }
+
+    /**
+     * Obtiene la distancia del tramo a pie hasta la primera estación.
+     * 
+     * @return Distancia en kilómetros (0 si la ruta empieza en una estación)
+     */
+    public double getAccessDistance() {
+        return accessDistance;
+    }
+
+    /**
+     * Obtiene la distancia del tramo a pie desde la última estación.
+     * 
+     * @return Distancia en kilómetros (0 si la ruta termina en una estación)
+     */
+    public double getEgressDistance() {
+        return egressDistance;
+    }
 }
\ No newline at end of file
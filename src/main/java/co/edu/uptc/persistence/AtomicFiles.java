@@ -0,0 +1,86 @@
+package co.edu.uptc.persistence;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Escritura de archivos "todo o nada".
+ *
+ * <p>El contenido se escribe en un archivo temporal del mismo directorio, se fuerza
+ * a disco ({@code fsync}) y solo entonces se renombra sobre el destino. Si el proceso
+ * muere a mitad de la escritura, el destino conserva su versión anterior completa;
+ * como mucho queda un temporal huérfano.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public final class AtomicFiles {
+
+    private static final Logger LOGGER = Logger.getLogger(AtomicFiles.class.getName());
+
+    /** Contenido a escribir en el flujo del archivo temporal */
+    @FunctionalInterface
+    public interface Content {
+        void writeTo(OutputStream out) throws Exception;
+    }
+
+    private AtomicFiles() { }
+
+    /**
+     * Escribe {@code target} de forma atómica.
+     *
+     * @param target Archivo destino (sus directorios se crean si no existen)
+     * @param content Productor del contenido
+     * @throws Exception lo que lance {@code content}, o un {@link IOException} de disco
+     */
+    public static void write(Path target, Content content) throws Exception {
+        Path absolute = target.toAbsolutePath();
+        Path dir = absolute.getParent();
+        Files.createDirectories(dir);
+
+        Path tmp = Files.createTempFile(dir, "." + absolute.getFileName(), ".tmp");
+        try {
+            try (FileOutputStream fos = new FileOutputStream(tmp.toFile())) {
+                content.writeTo(fos);
+                fos.flush();
+                fos.getFD().sync();
+            }
+            copyPermissions(absolute, tmp);
+            try {
+                Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                LOGGER.log(Level.FINE, "Renombrado atómico no soportado en " + dir + "; se reemplaza directamente");
+                Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * El temporal se crea solo legible por el propietario: se le dan los permisos del
+     * destino anterior, o los habituales de un archivo nuevo, para que reemplazarlo no
+     * los cambie.
+     */
+    private static void copyPermissions(Path target, Path tmp) {
+        try {
+            Set<PosixFilePermission> permissions = Files.exists(target)
+                    ? Files.getPosixFilePermissions(target)
+                    : PosixFilePermissions.fromString("rw-r--r--");
+            Files.setPosixFilePermissions(tmp, permissions);
+        } catch (UnsupportedOperationException | IOException e) {
+            // Sistema de archivos sin permisos POSIX: se conservan los del temporal
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package co.edu.uptc.persistence;
+
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.GraphData;
+import co.edu.uptc.model.Node;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * DAO con formato binario compacto ({@value #EXTENSION}) para arranques rápidos.
+ *
+ * <p>El archivo se lee de una vez en un {@link ByteBuffer} y cada sección se copia a
+ * su arreglo con lecturas en bloque, sin analizar texto. Formato (big-endian):</p>
+ * <ol>
+ *   <li>Cabecera: marca {@code TPGB}, versión, número de estaciones ({@code n}),
+ *       de conexiones ({@code m}) y de cadenas ({@code s}), y bytes de las cadenas</li>
+ *   <li>Tabla de cadenas: {@code s + 1} desplazamientos y los bytes UTF-8 de todos
+ *       los IDs y nombres, cada uno una sola vez</li>
+ *   <li>Estaciones: índice del ID, índice del nombre, latitud y longitud en punto
+ *       fijo (grados × 10<sup>7</sup>, precisión de ~1 cm)</li>
+ *   <li>Adyacencia CSR: {@code n + 1} inicios de fila, destino de cada conexión
+ *       (índice de estación) y distancia</li>
+ *   <li>Índice de IDs (desde la versión 2): índices de estación ordenados por los
+ *       bytes UTF-8 de su ID, para buscar por ID con búsqueda binaria sin cargar el
+ *       archivo ({@link MappedGraph})</li>
+ *   <li>CRC32 de todo lo anterior</li>
+ * </ol>
+ *
+ * <p>El origen de cada conexión es la estación de su fila. Un destino que no es una
+ * estación del archivo se guarda como {@code -(índice de cadena) - 1}.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class BinaryRouteDAO implements RouteDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(BinaryRouteDAO.class.getName());
+
+    /** Extensión de los archivos en este formato */
+    public static final String EXTENSION = ".tpg";
+
+    static final int MAGIC = 0x54504742; // "TPGB"
+    static final int FORMAT_VERSION = 2;
+    static final int HEADER_BYTES = 6 * 4;
+
+    static final double COORD_SCALE = 1e7;
+    static final int NO_COORD = Integer.MIN_VALUE;
+    static final int NO_STRING = -1;
+
+    /** Tamaño de cada lectura del archivo, entre las que se informa el avance */
+    private static final int READ_CHUNK = 1 << 20;
+
+    // ---- Escritura ----
+
+    @Override
+    public void save(GraphData tree, String filePath) {
+        if (tree == null) {
+            throw new PersistenceException("RouteTree nulo al intentar guardar.");
+        }
+        try {
+            ByteBuffer buf = encode(tree.getNodes() == null ? List.of() : tree.getNodes());
+            AtomicFiles.write(Paths.get(filePath), out -> out.write(buf.array(), 0, buf.limit()));
+        } catch (PersistenceException p) {
+            throw p;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error guardando grafo binario: " + e.getMessage(), e);
+            throw new PersistenceException("Error guardando grafo binario: " + e.getMessage(), e);
+        }
+    }
+
+    private static ByteBuffer encode(List<Node> source) {
+        List<Node> nodes = new ArrayList<>(source.size());
+        for (Node n : source) {
+            if (n != null) nodes.add(n);
+        }
+        int n = nodes.size();
+
+        // Los IDs de estación ocupan las primeras posiciones de la tabla de cadenas
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        Map<String, Integer> nodeIndex = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            String id = nodes.get(i).getId();
+            strings.putIfAbsent(id, strings.size());
+            nodeIndex.putIfAbsent(id, i);
+        }
+
+        int[] idIdx = new int[n];
+        int[] nameIdx = new int[n];
+        int[] lat = new int[n];
+        int[] lon = new int[n];
+        int[] rowStart = new int[n + 1];
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            Node node = nodes.get(i);
+            idIdx[i] = strings.get(node.getId());
+            nameIdx[i] = intern(strings, node.getName());
+            lat[i] = toFixed(node.getLatitude());
+            lon[i] = toFixed(node.getLongitude());
+            rowStart[i] = m;
+            m += node.getEdges().size();
+        }
+        rowStart[n] = m;
+
+        int[] target = new int[m];
+        double[] distance = new double[m];
+        int k = 0;
+        for (Node node : nodes) {
+            for (Edge e : node.getEdges()) {
+                Integer t = nodeIndex.get(e.getToId());
+                target[k] = t != null ? t : -intern(strings, e.getToId()) - 1;
+                distance[k] = e.getDistance();
+                k++;
+            }
+        }
+
+        byte[][] encoded = new byte[strings.size()][];
+        int[] offsets = new int[strings.size() + 1];
+        long stringBytes = 0;
+        int s = 0;
+        for (String str : strings.keySet()) {
+            encoded[s] = str.getBytes(StandardCharsets.UTF_8);
+            offsets[s] = (int) stringBytes;
+            stringBytes += encoded[s].length;
+            s++;
+        }
+        offsets[s] = (int) stringBytes;
+
+        int[] idOrder = sortedByIdBytes(encoded, idIdx);
+
+        long total = HEADER_BYTES
+                + 4L * offsets.length + stringBytes
+                + 16L * n
+                + 4L * (n + 1) + 12L * m
+                + 4L * n
+                + 4;
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new PersistenceException("Grafo demasiado grande para el formato binario: " + total + " bytes");
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate((int) total);
+        buf.putInt(MAGIC).putInt(FORMAT_VERSION)
+           .putInt(n).putInt(m).putInt(encoded.length).putInt((int) stringBytes);
+
+        buf.asIntBuffer().put(offsets);
+        buf.position(buf.position() + 4 * offsets.length);
+        for (byte[] b : encoded) buf.put(b);
+
+        putInts(buf, idIdx);
+        putInts(buf, nameIdx);
+        putInts(buf, lat);
+        putInts(buf, lon);
+        putInts(buf, rowStart);
+        putInts(buf, target);
+        buf.asDoubleBuffer().put(distance);
+        buf.position(buf.position() + 8 * m);
+        putInts(buf, idOrder);
+
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 0, buf.position());
+        buf.putInt((int) crc.getValue());
+        buf.flip();
+        return buf;
+    }
+
+    /** Índices de estación ordenados por los bytes UTF-8 (sin signo) de su ID */
+    private static int[] sortedByIdBytes(byte[][] encoded, int[] idIdx) {
+        Integer[] order = new Integer[idIdx.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(encoded[idIdx[a]], encoded[idIdx[b]]));
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) result[i] = order[i];
+        return result;
+    }
+
+    private static int intern(Map<String, Integer> strings, String s) {
+        if (s == null) return NO_STRING;
+        Integer idx = strings.putIfAbsent(s, strings.size());
+        return idx != null ? idx : strings.size() - 1;
+    }
+
+    private static int toFixed(Double degrees) {
+        return degrees == null ? NO_COORD : (int) Math.round(degrees * COORD_SCALE);
+    }
+
+    private static Double fromFixed(int fixed) {
+        return fixed == NO_COORD ? null : fixed / COORD_SCALE;
+    }
+
+    private static void putInts(ByteBuffer buf, int[] values) {
+        buf.asIntBuffer().put(values);
+        buf.position(buf.position() + 4 * values.length);
+    }
+
+    private static int[] getInts(ByteBuffer buf, int count) {
+        int[] values = new int[count];
+        buf.asIntBuffer().get(values);
+        buf.position(buf.position() + 4 * count);
+        return values;
+    }
+
+    // ---- Lectura ----
+
+    @Override
+    public GraphData load(String filePath) {
+        return load(filePath, LoadProgress.NONE);
+    }
+
+    @Override
+    public GraphData load(String filePath, LoadProgress progress) {
+        List<Node> nodes = new ArrayList<>();
+        return load(filePath, progress, nodes::add) ? new GraphData(nodes) : null;
+    }
+
+    @Override
+    public boolean load(String filePath, LoadProgress progress, Consumer<Node> sink) {
+        File f = new File(filePath);
+        if (!f.exists()) {
+            LOGGER.log(Level.INFO, "Archivo de persistencia no existe: " + filePath);
+            return false;
+        }
+        try {
+            ByteBuffer buf = readFully(f.toPath(), progress);
+            decode(buf, sink);
+            progress.update(buf.getInt(8), buf.capacity(), buf.capacity());
+            return true;
+        } catch (CancellationException | PersistenceException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error cargando grafo binario: " + e.getMessage(), e);
+            throw new PersistenceException("Error cargando grafo binario: " + e.getMessage(), e);
+        }
+    }
+
+    /** Lee el archivo completo en bloques, informando el avance entre bloques */
+    private static ByteBuffer readFully(Path path, LoadProgress progress) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new PersistenceException("Archivo binario demasiado grande: " + path);
+            }
+            ByteBuffer buf = ByteBuffer.allocate((int) size);
+            while (buf.hasRemaining()) {
+                if (progress.isCancelled()) {
+                    throw new CancellationException("Carga cancelada: " + path);
+                }
+                buf.limit(Math.min(buf.capacity(), buf.position() + READ_CHUNK));
+                if (ch.read(buf) < 0) break;
+                buf.limit(buf.capacity());
+                progress.update(0, buf.position(), size);
+            }
+            buf.flip();
+            return buf;
+        }
+    }
+
+    private static void decode(ByteBuffer buf, Consumer<Node> sink) {
+        int size = buf.limit();
+        if (size < HEADER_BYTES + 4 || buf.getInt(0) != MAGIC) {
+            throw new PersistenceException("No es un archivo de grafo binario válido");
+        }
+        int version = buf.getInt(4);
+        if (version < 1 || version > FORMAT_VERSION) {
+            throw new PersistenceException("Versión de formato binario no soportada: " + version);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 0, size - 4);
+        if ((int) crc.getValue() != buf.getInt(size - 4)) {
+            throw new PersistenceException("Archivo de grafo binario dañado (CRC incorrecto)");
+        }
+
+        buf.position(8);
+        int n = buf.getInt();
+        int m = buf.getInt();
+        int s = buf.getInt();
+        int stringBytes = buf.getInt();
+
+        int[] offsets = getInts(buf, s + 1);
+        String[] strings = new String[s];
+        int base = buf.position();
+        for (int i = 0; i < s; i++) {
+            strings[i] = new String(buf.array(), base + offsets[i], offsets[i + 1] - offsets[i],
+                    StandardCharsets.UTF_8);
+        }
+        buf.position(base + stringBytes);
+
+        int[] idIdx = getInts(buf, n);
+        int[] nameIdx = getInts(buf, n);
+        int[] lat = getInts(buf, n);
+        int[] lon = getInts(buf, n);
+        int[] rowStart = getInts(buf, n + 1);
+        int[] target = getInts(buf, m);
+        double[] distance = new double[m];
+        buf.asDoubleBuffer().get(distance);
+
+        for (int i = 0; i < n; i++) {
+            String id = strings[idIdx[i]];
+            Node node = new Node(id, nameIdx[i] == NO_STRING ? null : strings[nameIdx[i]],
+                    fromFixed(lat[i]), fromFixed(lon[i]));
+
+            List<Edge> edges = new ArrayList<>(rowStart[i + 1] - rowStart[i]);
+            for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                int t = target[k];
+                Edge e = new Edge();
+                e.setFromId(id);
+                e.setToId(t >= 0 ? strings[idIdx[t]] : strings[-t - 1]);
+                e.setDistance(distance[k]);
+                edges.add(e);
+            }
+            node.setEdges(edges);
+            sink.accept(node);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package co.edu.uptc.persistence;
+
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.GraphData;
+import co.edu.uptc.model.Node;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * DAO que elige el formato según la extensión del archivo.
+ *
+ * <p>Cada operación se delega al DAO registrado para la extensión de la ruta; las
+ * rutas sin extensión registrada usan el DAO por defecto.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class ExtensionRouteDAO implements RouteDAO {
+
+    private final RouteDAO fallback;
+    private final Map<String, RouteDAO> byExtension = new LinkedHashMap<>();
+
+    /**
+     * @param fallback DAO para las extensiones no registradas
+     */
+    public ExtensionRouteDAO(RouteDAO fallback) {
+        this.fallback = fallback;
+    }
+
+    /**
+     * Registra el DAO de una extensión (por ejemplo {@code ".tpg"}).
+     *
+     * @return Este mismo objeto, para encadenar registros
+     */
+    public ExtensionRouteDAO register(String extension, RouteDAO dao) {
+        byExtension.put(extension.toLowerCase(Locale.ROOT), dao);
+        return this;
+    }
+
+    /**
+     * @return DAO que corresponde a la extensión de {@code filePath}
+     */
+    public RouteDAO forPath(String filePath) {
+        String lower = filePath.toLowerCase(Locale.ROOT);
+        for (Map.Entry<String, RouteDAO> entry : byExtension.entrySet()) {
+            if (lower.endsWith(entry.getKey())) return entry.getValue();
+        }
+        return fallback;
+    }
+
+    @Override
+    public void save(GraphData tree, String filePath) {
+        forPath(filePath).save(tree, filePath);
+    }
+
+    @Override
+    public GraphData load(String filePath) {
+        return forPath(filePath).load(filePath);
+    }
+
+    @Override
+    public GraphData load(String filePath, LoadProgress progress) {
+        return forPath(filePath).load(filePath, progress);
+    }
+
+    @Override
+    public boolean load(String filePath, LoadProgress progress, Consumer<Node> sink) {
+        return forPath(filePath).load(filePath, progress, sink);
+    }
+
+    @Override
+    public boolean load(String filePath, LoadProgress progress, Consumer<Node> sink, Consumer<Edge> openEdges) {
+        return forPath(filePath).load(filePath, progress, sink, openEdges);
+    }
+}
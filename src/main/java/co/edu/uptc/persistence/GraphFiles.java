@@ -0,0 +1,94 @@
+package co.edu.uptc.persistence;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Apertura de archivos de grafo con compresión gzip transparente.
+ *
+ * <p>Al leer, la compresión se detecta por los bytes mágicos del archivo, no por su
+ * nombre. La descompresión se hace en un hilo propio ({@link ReadAheadInputStream}),
+ * en paralelo con el parser, y el avance se informa en bytes comprimidos (los del
+ * archivo). Al escribir, se comprime si el nombre termina en {@value #GZIP_EXTENSION}.</p>
+ */
+final class GraphFiles {
+
+    /** Sufijo de los archivos que se escriben comprimidos */
+    static final String GZIP_EXTENSION = ".gz";
+
+    /** Tamaño de los búferes de lectura, compresión y descompresión */
+    static final int BUFFER_BYTES = 256 * 1024;
+
+    /** Bloques descomprimidos que pueden esperar al parser */
+    private static final int READ_AHEAD_CHUNKS = 8;
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private GraphFiles() { }
+
+    /**
+     * Abre un archivo de grafo para leerlo, descomprimiéndolo si está en gzip.
+     *
+     * @return Flujo con el contenido (descomprimido) que informa el avance del archivo
+     */
+    static ProgressInputStream openInput(File f, LoadProgress progress) throws IOException {
+        if (!isGzip(f)) {
+            return new ProgressInputStream(new FileInputStream(f), f.length(), progress);
+        }
+        AtomicLong compressedRead = new AtomicLong();
+        InputStream file = new FilterInputStream(new FileInputStream(f)) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) compressedRead.incrementAndGet();
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buf, int off, int len) throws IOException {
+                int n = super.read(buf, off, len);
+                if (n > 0) compressedRead.addAndGet(n);
+                return n;
+            }
+        };
+        InputStream inflated = new ReadAheadInputStream(
+                new GZIPInputStream(new BufferedInputStream(file, BUFFER_BYTES), BUFFER_BYTES),
+                BUFFER_BYTES, READ_AHEAD_CHUNKS, "graph-gunzip");
+        return new ProgressInputStream(inflated, f.length(), progress, compressedRead::get);
+    }
+
+    /**
+     * Escribe un archivo de grafo de forma atómica ({@link AtomicFiles}), comprimido
+     * con gzip si su nombre termina en {@value #GZIP_EXTENSION}.
+     */
+    static void write(Path target, AtomicFiles.Content content) throws Exception {
+        if (!isGzipName(target.toString())) {
+            AtomicFiles.write(target, content);
+            return;
+        }
+        AtomicFiles.write(target, out -> {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_BYTES);
+            OutputStream buffered = new BufferedOutputStream(gzip, BUFFER_BYTES);
+            content.writeTo(buffered);
+            buffered.flush();
+            gzip.finish();
+        });
+    }
+
+    static boolean isGzipName(String filePath) {
+        return filePath.toLowerCase(Locale.ROOT).endsWith(GZIP_EXTENSION);
+    }
+
+    /** @return {@code true} si el archivo empieza con la firma de gzip */
+    static boolean isGzip(File f) throws IOException {
+        try (InputStream in = new FileInputStream(f)) {
+            int b0 = in.read();
+            int b1 = in.read();
+            return b0 >= 0 && b1 >= 0 && ((b1 << 8) | b0) == GZIP_MAGIC;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package co.edu.uptc.persistence;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Diario de cambios (write-ahead log) de un archivo de grafo.
+ *
+ * <p>Vive junto al archivo del grafo ({@code <grafo>.journal}) y guarda, en orden,
+ * cada cambio hecho desde el último guardado completo (el <i>checkpoint</i>). Guardar
+ * un cambio cuesta una escritura pequeña al final del archivo, sin reescribir el grafo.
+ * Al cargar, el checkpoint más el diario reproducen el estado más reciente.</p>
+ *
+ * <p>Formato binario:</p>
+ * <ul>
+ *   <li>Cabecera: marca {@code GJNL}, versión, y tamaño y fecha de modificación del
+ *       checkpoint sobre el que se escribió el diario</li>
+ *   <li>Registros: longitud, contenido y CRC32 del contenido</li>
+ * </ul>
+ *
+ * <p>Si la cabecera no coincide con el checkpoint actual, el diario está obsoleto
+ * (por ejemplo, el proceso terminó después de escribir un checkpoint nuevo y antes
+ * de vaciar el diario, cuyos cambios ya están en el checkpoint) y se descarta.
+ * Un registro incompleto o con CRC incorrecto al final (corte durante una escritura)
+ * se ignora y se trunca al abrir el diario.</p>
+ *
+ * <p>No es seguro para uso concurrente: se escribe desde un único hilo.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public final class GraphJournal implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(GraphJournal.class.getName());
+
+    private static final int MAGIC = 0x474A4E4C; // "GJNL"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 1 + 8 + 8;
+
+    /** Tamaño máximo aceptado para un registro; uno mayor indica datos corruptos */
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private int records;
+
+    private GraphJournal(FileChannel channel, int records) {
+        this.channel = channel;
+        this.records = records;
+    }
+
+    /**
+     * @return Ruta del diario asociado a un archivo de grafo
+     */
+    public static Path pathFor(String graphPath) {
+        return Paths.get(graphPath + ".journal");
+    }
+
+    /**
+     * Lee los cambios válidos del diario de un grafo.
+     *
+     * @return Cambios en orden; lista vacía si no hay diario o si está obsoleto
+     */
+    public static List<JournalRecord> read(String graphPath) {
+        Path path = pathFor(graphPath);
+        if (!Files.isRegularFile(path)) return List.of();
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            Scan scan = scan(ch, fingerprint(graphPath));
+            return scan == null ? List.of() : scan.records;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "No se pudo leer el diario " + path + ": " + e.getMessage(), e);
+            return List.of();
+        }
+    }
+
+    /**
+     * Abre el diario de un grafo para añadir cambios. Conserva los registros válidos
+     * si el diario corresponde al checkpoint actual; si no, empieza uno vacío.
+     */
+    public static GraphJournal open(String graphPath) throws IOException {
+        Path path = pathFor(graphPath);
+        if (Files.isRegularFile(path)) {
+            FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                Scan scan = scan(ch, fingerprint(graphPath));
+                if (scan != null) {
+                    if (scan.validEnd < ch.size()) {
+                        LOGGER.warning("Diario con registro incompleto al final; se trunca " + path);
+                        ch.truncate(scan.validEnd);
+                        ch.force(true);
+                    }
+                    ch.position(scan.validEnd);
+                    return new GraphJournal(ch, scan.records.size());
+                }
+            } catch (IOException e) {
+                ch.close();
+                throw e;
+            }
+            ch.close();
+            LOGGER.info("Diario obsoleto descartado: " + path);
+        }
+        return reset(graphPath);
+    }
+
+    /**
+     * Crea un diario vacío para el checkpoint actual del grafo, reemplazando el anterior
+     * de forma atómica. Se usa justo después de escribir un checkpoint.
+     */
+    public static GraphJournal reset(String graphPath) throws IOException {
+        Path path = pathFor(graphPath);
+        long[] fp = fingerprint(graphPath);
+        try {
+            AtomicFiles.write(path, out -> {
+                DataOutputStream data = new DataOutputStream(out);
+                data.writeInt(MAGIC);
+                data.writeByte(FORMAT_VERSION);
+                data.writeLong(fp[0]);
+                data.writeLong(fp[1]);
+                data.flush();
+            });
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ch.position(ch.size());
+        return new GraphJournal(ch, 0);
+    }
+
+    /**
+     * Añade un cambio y lo fuerza a disco.
+     */
+    public void append(JournalRecord record) throws IOException {
+        byte[] payload = encode(record);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer buf = ByteBuffer.allocate(payload.length + 8);
+        buf.putInt(payload.length).put(payload).putInt((int) crc.getValue()).flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        channel.force(false);
+        records++;
+    }
+
+    /**
+     * @return Número de cambios en el diario
+     */
+    public int size() {
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ---- Lectura ----
+
+    private record Scan(List<JournalRecord> records, long validEnd) { }
+
+    /**
+     * Recorre el diario desde el principio.
+     *
+     * @return Registros válidos y posición donde terminan, o null si la cabecera no
+     *         corresponde al checkpoint indicado
+     */
+    private static Scan scan(FileChannel ch, long[] expected) throws IOException {
+        if (ch.size() < HEADER_BYTES) return null;
+        ch.position(0);
+        // Sin try-with-resources: cerrar el flujo cerraría el canal
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(ch)));
+
+        if (in.readInt() != MAGIC || in.readByte() != FORMAT_VERSION) return null;
+        if (in.readLong() != expected[0] || in.readLong() != expected[1]) return null;
+
+        List<JournalRecord> records = new ArrayList<>();
+        long validEnd = HEADER_BYTES;
+        CRC32 crc = new CRC32();
+        try {
+            while (true) {
+                int length = in.readInt();
+                if (length <= 0 || length > MAX_RECORD_BYTES) break;
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                int storedCrc = in.readInt();
+
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != storedCrc) break;
+
+                records.add(decode(payload));
+                validEnd += length + 8;
+            }
+        } catch (EOFException endOfJournal) {
+            // fin del archivo (posiblemente a mitad de un registro)
+        } catch (IllegalArgumentException corrupt) {
+            LOGGER.warning("Registro de diario no reconocido: " + corrupt.getMessage());
+        }
+        return new Scan(records, validEnd);
+    }
+
+    /** Tamaño y fecha de modificación (ns) del checkpoint, o -1 si no existe */
+    private static long[] fingerprint(String graphPath) throws IOException {
+        Path checkpoint = Paths.get(graphPath);
+        if (!Files.isRegularFile(checkpoint)) return new long[] {-1, -1};
+        return new long[] {
+            Files.size(checkpoint),
+            Files.getLastModifiedTime(checkpoint).to(TimeUnit.NANOSECONDS)
+        };
+    }
+
+    // ---- Codificación ----
+
+    private static byte[] encode(JournalRecord r) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(r.op().code);
+        out.writeUTF(r.id());
+        switch (r.op()) {
+            case ADD_NODE, EDIT_NODE -> {
+                writeNullable(out, r.name());
+                writeNullable(out, r.latitude());
+                writeNullable(out, r.longitude());
+            }
+            case ADD_EDGE, EDIT_EDGE -> {
+                out.writeUTF(r.toId());
+                out.writeDouble(r.distance());
+            }
+            case DELETE_EDGE -> out.writeUTF(r.toId());
+            case DELETE_NODE -> { }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static JournalRecord decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        JournalRecord.Op op = JournalRecord.Op.fromCode(in.readByte());
+        String id = in.readUTF();
+        return switch (op) {
+            case ADD_NODE, EDIT_NODE -> new JournalRecord(op, id, null,
+                    readNullableString(in), readNullableDouble(in), readNullableDouble(in), 0);
+            case ADD_EDGE, EDIT_EDGE -> new JournalRecord(op, id, in.readUTF(), null, null, null, in.readDouble());
+            case DELETE_EDGE -> new JournalRecord(op, id, in.readUTF(), null, null, null, 0);
+            case DELETE_NODE -> new JournalRecord(op, id, null, null, null, null, 0);
+        };
+    }
+
+    private static void writeNullable(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) out.writeUTF(s);
+    }
+
+    private static void writeNullable(DataOutputStream out, Double d) throws IOException {
+        out.writeBoolean(d != null);
+        if (d != null) out.writeDouble(d);
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static Double readNullableDouble(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readDouble() : null;
+    }
+}
@@ -0,0 +1,464 @@
+package co.edu.uptc.persistence;
+
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.GraphData;
+import co.edu.uptc.model.Node;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * DAO de grafos sobre una base de datos embebida (H2 o SQLite en archivo) accedida
+ * por JDBC.
+ *
+ * <p>El grafo se guarda en dos tablas:</p>
+ * <pre>
+ * stations    (id PK, name, latitude, longitude)   índice por (latitude, longitude)
+ * connections (from_id, to_id, distance) PK (from_id, to_id), índice por to_id
+ * </pre>
+ *
+ * <p>A diferencia de los DAO de archivo, no hace falta reescribir la red para guardar
+ * un cambio: {@link #apply} aplica los cambios del editor fila a fila en una sola
+ * transacción, y {@link #loadBounds} y {@link #loadByIds} leen solo una parte de la red
+ * usando los índices. {@link #save} sigue reescribiendo todo, para exportar un grafo
+ * completo.</p>
+ *
+ * <p>La ruta del archivo se convierte en URL JDBC con el prefijo del constructor (por
+ * ejemplo {@link #H2_PREFIX}); una ruta que ya empieza por {@code jdbc:} se usa tal cual.
+ * Con H2 también se acepta la ruta del archivo de la base ({@value #H2_EXTENSION}), que
+ * es la que registra {@link PersistenceManager} para abrir y guardar bases desde la
+ * aplicación. El controlador JDBC debe estar en el classpath (H2 se distribuye con la
+ * aplicación); solo se usa SQL estándar, sin sentencias propias de un motor.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class JdbcRouteDAO implements RouteDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(JdbcRouteDAO.class.getName());
+
+    /** Prefijo de URL para una base H2 en archivo */
+    public static final String H2_PREFIX = "jdbc:h2:file:";
+
+    /** Extensión del archivo de una base H2, que no forma parte de su URL */
+    public static final String H2_EXTENSION = ".mv.db";
+
+    /** Prefijo de URL para una base SQLite en archivo */
+    public static final String SQLITE_PREFIX = "jdbc:sqlite:";
+
+    /** Filas insertadas por lote al guardar */
+    private static final int BATCH_ROWS = 1000;
+
+    /** Parámetros por consulta {@code IN (...)} (SQLite admite 999) */
+    private static final int MAX_IN_PARAMS = 500;
+
+    /** Estaciones leídas entre avisos de avance */
+    private static final int REPORT_NODES = 1000;
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS stations ("
+            + "id VARCHAR(255) NOT NULL PRIMARY KEY, "
+            + "name VARCHAR(1024), "
+            + "latitude DOUBLE PRECISION, "
+            + "longitude DOUBLE PRECISION)",
+        "CREATE INDEX IF NOT EXISTS stations_coord ON stations (latitude, longitude)",
+        "CREATE TABLE IF NOT EXISTS connections ("
+            + "from_id VARCHAR(255) NOT NULL, "
+            + "to_id VARCHAR(255) NOT NULL, "
+            + "distance DOUBLE PRECISION NOT NULL, "
+            + "PRIMARY KEY (from_id, to_id))",
+        "CREATE INDEX IF NOT EXISTS connections_to ON connections (to_id)"
+    };
+
+    private static final String UPDATE_STATION =
+            "UPDATE stations SET name = ?, latitude = ?, longitude = ? WHERE id = ?";
+    private static final String INSERT_STATION =
+            "INSERT INTO stations (name, latitude, longitude, id) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_CONNECTION =
+            "UPDATE connections SET distance = ? WHERE from_id = ? AND to_id = ?";
+    private static final String INSERT_CONNECTION =
+            "INSERT INTO connections (distance, from_id, to_id) VALUES (?, ?, ?)";
+
+    private static final String SELECT_STATIONS = "SELECT id, name, latitude, longitude FROM stations";
+    private static final String SELECT_CONNECTIONS = "SELECT from_id, to_id, distance FROM connections";
+
+    private final String urlPrefix;
+
+    /**
+     * @param urlPrefix Prefijo JDBC que se antepone a la ruta del archivo
+     */
+    public JdbcRouteDAO(String urlPrefix) {
+        this.urlPrefix = urlPrefix;
+    }
+
+    /**
+     * @return URL JDBC de la base de datos guardada en {@code filePath}
+     */
+    public String url(String filePath) {
+        if (filePath.startsWith("jdbc:")) return filePath;
+        if (isH2File(filePath)) {
+            // H2 añade la extensión por su cuenta y solo admite rutas absolutas
+            String base = filePath.substring(0, filePath.length() - H2_EXTENSION.length());
+            return urlPrefix + new File(base).getAbsolutePath();
+        }
+        return urlPrefix + filePath;
+    }
+
+    /** Ruta al archivo de una base H2, con su extensión */
+    private boolean isH2File(String filePath) {
+        return H2_PREFIX.equals(urlPrefix) && filePath.toLowerCase(Locale.ROOT).endsWith(H2_EXTENSION);
+    }
+
+    // ---- Grafo completo ----
+
+    /**
+     * Reemplaza todo el contenido de la base por el grafo, en una transacción.
+     */
+    @Override
+    public void save(GraphData tree, String filePath) {
+        try (Connection db = open(filePath)) {
+            inTransaction(db, () -> {
+                try (Statement st = db.createStatement()) {
+                    st.executeUpdate("DELETE FROM connections");
+                    st.executeUpdate("DELETE FROM stations");
+                }
+                List<Node> nodes = tree.getNodes() == null ? List.of() : tree.getNodes();
+                try (PreparedStatement insert = db.prepareStatement(INSERT_STATION)) {
+                    int rows = 0;
+                    for (Node n : nodes) {
+                        if (n == null || n.getId() == null) continue;
+                        bindStation(insert, n.getId(), n.getName(), n.getLatitude(), n.getLongitude());
+                        insert.addBatch();
+                        if (++rows % BATCH_ROWS == 0) insert.executeBatch();
+                    }
+                    insert.executeBatch();
+                }
+                try (PreparedStatement insert = db.prepareStatement(INSERT_CONNECTION)) {
+                    int rows = 0;
+                    for (Node n : nodes) {
+                        if (n == null || n.getId() == null) continue;
+                        for (Edge e : n.getEdges()) {
+                            bindConnection(insert, n.getId(), e.getToId(), e.getDistance());
+                            insert.addBatch();
+                            if (++rows % BATCH_ROWS == 0) insert.executeBatch();
+                        }
+                    }
+                    insert.executeBatch();
+                }
+            });
+            LOGGER.info("Grafo guardado en " + url(filePath));
+        } catch (SQLException e) {
+            throw new PersistenceException("Error guardando el grafo en " + url(filePath) + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public GraphData load(String filePath) {
+        return load(filePath, LoadProgress.NONE);
+    }
+
+    @Override
+    public GraphData load(String filePath, LoadProgress progress) {
+        List<Node> nodes = new ArrayList<>();
+        return load(filePath, progress, nodes::add) ? new GraphData(nodes) : null;
+    }
+
+    /**
+     * Lee todas las estaciones en flujo: estaciones y conexiones se recorren ordenadas
+     * por ID y se combinan sin cargar ninguna de las dos tablas completa.
+     *
+     * @return {@code false} si la base no existe o no tiene las tablas del grafo
+     */
+    @Override
+    public boolean load(String filePath, LoadProgress progress, Consumer<Node> sink) {
+        // Abrir una base H2 que no existe la crearía vacía
+        if (isH2File(filePath) && !new File(filePath).exists()) {
+            LOGGER.info("Base de datos no existe: " + filePath);
+            return false;
+        }
+        try (Connection db = connect(filePath)) {
+            if (!hasSchema(db)) return false;
+            try (Statement stations = db.createStatement();
+                 Statement connections = db.createStatement();
+                 ResultSet s = stations.executeQuery(SELECT_STATIONS + " ORDER BY id");
+                 ResultSet c = connections.executeQuery(SELECT_CONNECTIONS + " ORDER BY from_id, to_id")) {
+                boolean hasEdge = c.next();
+                long count = 0;
+                while (s.next()) {
+                    Node node = readStation(s);
+                    List<Edge> edges = new ArrayList<>();
+                    // Conexiones de estaciones inexistentes (anteriores en el orden) se descartan
+                    while (hasEdge && c.getString(1).compareTo(node.getId()) < 0) hasEdge = c.next();
+                    while (hasEdge && c.getString(1).equals(node.getId())) {
+                        edges.add(new Edge(node.getId(), c.getString(2), c.getDouble(3)));
+                        hasEdge = c.next();
+                    }
+                    node.setEdges(edges);
+                    sink.accept(node);
+                    if (++count % REPORT_NODES == 0) {
+                        if (progress.isCancelled()) throw new CancellationException("Carga cancelada");
+                        progress.update(count, -1, -1);
+                    }
+                }
+                progress.update(count, -1, -1);
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new PersistenceException("Error cargando el grafo de " + url(filePath) + ": " + e.getMessage(), e);
+        }
+    }
+
+    // ---- Cargas parciales ----
+
+    /**
+     * Lee las estaciones dentro de un rectángulo, con todas sus conexiones salientes
+     * (también las que van a estaciones de fuera). Usa el índice de coordenadas.
+     */
+    public List<Node> loadBounds(String filePath, double south, double west, double north, double east) {
+        try (Connection db = connect(filePath)) {
+            if (!hasSchema(db)) return List.of();
+            Map<String, Node> nodes = new LinkedHashMap<>();
+            String where = " WHERE latitude BETWEEN ? AND ? AND longitude BETWEEN ? AND ?";
+            try (PreparedStatement ps = db.prepareStatement(SELECT_STATIONS + where + " ORDER BY id")) {
+                bindBounds(ps, south, west, north, east);
+                readStations(ps, nodes);
+            }
+            String join = "SELECT c.from_id, c.to_id, c.distance FROM connections c "
+                    + "JOIN stations s ON s.id = c.from_id"
+                    + where.replace("latitude", "s.latitude").replace("longitude", "s.longitude");
+            try (PreparedStatement ps = db.prepareStatement(join)) {
+                bindBounds(ps, south, west, north, east);
+                readConnections(ps, nodes);
+            }
+            return new ArrayList<>(nodes.values());
+        } catch (SQLException e) {
+            throw new PersistenceException("Error leyendo una zona de " + url(filePath) + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lee las estaciones indicadas, con todas sus conexiones salientes. Los IDs que no
+     * existen se ignoran. Usa la clave primaria.
+     */
+    public List<Node> loadByIds(String filePath, Collection<String> ids) {
+        try (Connection db = connect(filePath)) {
+            if (!hasSchema(db) || ids.isEmpty()) return List.of();
+            Map<String, Node> nodes = new LinkedHashMap<>();
+            List<String> all = new ArrayList<>(ids);
+            for (int from = 0; from < all.size(); from += MAX_IN_PARAMS) {
+                List<String> chunk = all.subList(from, Math.min(all.size(), from + MAX_IN_PARAMS));
+                String in = " IN (" + "?, ".repeat(chunk.size() - 1) + "?)";
+                try (PreparedStatement ps = db.prepareStatement(SELECT_STATIONS + " WHERE id" + in)) {
+                    bindAll(ps, chunk);
+                    readStations(ps, nodes);
+                }
+                try (PreparedStatement ps = db.prepareStatement(SELECT_CONNECTIONS + " WHERE from_id" + in)) {
+                    bindAll(ps, chunk);
+                    readConnections(ps, nodes);
+                }
+            }
+            return new ArrayList<>(nodes.values());
+        } catch (SQLException e) {
+            throw new PersistenceException("Error leyendo estaciones de " + url(filePath) + ": " + e.getMessage(), e);
+        }
+    }
+
+    // ---- Cambios incrementales ----
+
+    /**
+     * Aplica cambios del editor fila a fila, en una transacción: o se aplican todos o
+     * ninguno. Las conexiones son bidireccionales, como en {@code GraphController}.
+     *
+     * @param changes Cambios en el orden en que se hicieron
+     */
+    public void apply(String filePath, List<JournalRecord> changes) {
+        if (changes.isEmpty()) return;
+        try (Connection db = open(filePath)) {
+            inTransaction(db, () -> {
+                try (PreparedStatement updateStation = db.prepareStatement(UPDATE_STATION);
+                     PreparedStatement insertStation = db.prepareStatement(INSERT_STATION);
+                     PreparedStatement updateConnection = db.prepareStatement(UPDATE_CONNECTION);
+                     PreparedStatement insertConnection = db.prepareStatement(INSERT_CONNECTION);
+                     PreparedStatement deleteStation = db.prepareStatement("DELETE FROM stations WHERE id = ?");
+                     PreparedStatement deleteConnections = db.prepareStatement(
+                             "DELETE FROM connections WHERE from_id = ? OR to_id = ?");
+                     PreparedStatement deleteConnection = db.prepareStatement(
+                             "DELETE FROM connections WHERE (from_id = ? AND to_id = ?) OR (from_id = ? AND to_id = ?)")) {
+                    for (JournalRecord r : changes) {
+                        switch (r.op()) {
+                            case ADD_NODE, EDIT_NODE -> {
+                                bindStation(updateStation, r.id(), r.name(), r.latitude(), r.longitude());
+                                if (updateStation.executeUpdate() == 0) {
+                                    bindStation(insertStation, r.id(), r.name(), r.latitude(), r.longitude());
+                                    insertStation.executeUpdate();
+                                }
+                            }
+                            case DELETE_NODE -> {
+                                deleteConnections.setString(1, r.id());
+                                deleteConnections.setString(2, r.id());
+                                deleteConnections.executeUpdate();
+                                deleteStation.setString(1, r.id());
+                                deleteStation.executeUpdate();
+                            }
+                            case ADD_EDGE, EDIT_EDGE -> {
+                                upsertConnection(updateConnection, insertConnection, r.id(), r.toId(), r.distance());
+                                upsertConnection(updateConnection, insertConnection, r.toId(), r.id(), r.distance());
+                            }
+                            case DELETE_EDGE -> {
+                                deleteConnection.setString(1, r.id());
+                                deleteConnection.setString(2, r.toId());
+                                deleteConnection.setString(3, r.toId());
+                                deleteConnection.setString(4, r.id());
+                                deleteConnection.executeUpdate();
+                            }
+                        }
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            throw new PersistenceException("Error aplicando " + changes.size() + " cambios en "
+                    + url(filePath) + ": " + e.getMessage(), e);
+        }
+    }
+
+    // ---- Utilidades ----
+
+    @FunctionalInterface
+    private interface SqlWork {
+        void run() throws SQLException;
+    }
+
+    /** Conexión sin tocar el esquema (para leer) */
+    private Connection connect(String filePath) throws SQLException {
+        return DriverManager.getConnection(url(filePath));
+    }
+
+    /** Conexión con el esquema creado si falta (para escribir) */
+    private Connection open(String filePath) throws SQLException {
+        Connection db = connect(filePath);
+        try (Statement st = db.createStatement()) {
+            for (String ddl : SCHEMA) {
+                st.execute(ddl);
+            }
+        } catch (SQLException e) {
+            db.close();
+            throw e;
+        }
+        return db;
+    }
+
+    private static void inTransaction(Connection db, SqlWork work) throws SQLException {
+        boolean autoCommit = db.getAutoCommit();
+        db.setAutoCommit(false);
+        try {
+            work.run();
+            db.commit();
+        } catch (SQLException | RuntimeException e) {
+            db.rollback();
+            throw e;
+        } finally {
+            db.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Comprueba que existan las tablas (algunos motores guardan los nombres en mayúsculas).
+     */
+    private static boolean hasSchema(Connection db) throws SQLException {
+        DatabaseMetaData meta = db.getMetaData();
+        for (String name : new String[] {"stations", "STATIONS"}) {
+            try (ResultSet rs = meta.getTables(null, null, name, null)) {
+                if (rs.next()) return true;
+            }
+        }
+        return false;
+    }
+
+    private static void upsertConnection(PreparedStatement update, PreparedStatement insert,
+                                         String from, String to, double distance) throws SQLException {
+        bindConnection(update, from, to, distance);
+        if (update.executeUpdate() == 0) {
+            bindConnection(insert, from, to, distance);
+            insert.executeUpdate();
+        }
+    }
+
+    /** Enlaza (name, latitude, longitude, id): mismo orden en UPDATE e INSERT */
+    private static void bindStation(PreparedStatement ps, String id, String name, Double lat, Double lng)
+            throws SQLException {
+        ps.setString(1, name);
+        setDouble(ps, 2, lat);
+        setDouble(ps, 3, lng);
+        ps.setString(4, id);
+    }
+
+    /** Enlaza (distance, from_id, to_id): mismo orden en UPDATE e INSERT */
+    private static void bindConnection(PreparedStatement ps, String from, String to, double distance)
+            throws SQLException {
+        ps.setDouble(1, distance);
+        ps.setString(2, from);
+        ps.setString(3, to);
+    }
+
+    private static void bindBounds(PreparedStatement ps, double south, double west, double north, double east)
+            throws SQLException {
+        ps.setDouble(1, south);
+        ps.setDouble(2, north);
+        ps.setDouble(3, west);
+        ps.setDouble(4, east);
+    }
+
+    private static void bindAll(PreparedStatement ps, List<String> values) throws SQLException {
+        for (int i = 0; i < values.size(); i++) {
+            ps.setString(i + 1, values.get(i));
+        }
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value == null) ps.setNull(index, Types.DOUBLE);
+        else ps.setDouble(index, value);
+    }
+
+    private static void readStations(PreparedStatement ps, Map<String, Node> nodes) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                Node n = readStation(rs);
+                nodes.putIfAbsent(n.getId(), n);
+            }
+        }
+    }
+
+    private static void readConnections(PreparedStatement ps, Map<String, Node> nodes) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                Node from = nodes.get(rs.getString(1));
+                if (from != null) from.addEdge(new Edge(from.getId(), rs.getString(2), rs.getDouble(3)));
+            }
+        }
+    }
+
+    private static Node readStation(ResultSet rs) throws SQLException {
+        double lat = rs.getDouble(3);
+        boolean noLat = rs.wasNull();
+        double lng = rs.getDouble(4);
+        boolean noLng = rs.wasNull();
+        return new Node(rs.getString(1), rs.getString(2), noLat ? null : lat, noLng ? null : lng);
+    }
+}
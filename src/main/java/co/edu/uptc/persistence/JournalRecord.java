@@ -0,0 +1,69 @@
+package co.edu.uptc.persistence;
+
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.Node;
+
+/**
+ * Cambio del grafo registrado en el diario ({@link GraphJournal}).
+ *
+ * <p>Guarda los valores del momento del cambio, no referencias a los objetos del
+ * grafo, de modo que puede escribirse en otro hilo aunque la estación o la conexión
+ * se sigan editando.</p>
+ *
+ * @param op Tipo de cambio
+ * @param id ID de la estación, o del origen en cambios de conexiones
+ * @param toId ID del destino (solo conexiones)
+ * @param name Nombre (solo estaciones)
+ * @param latitude Latitud (solo estaciones, puede ser null)
+ * @param longitude Longitud (solo estaciones, puede ser null)
+ * @param distance Distancia en km (solo conexiones)
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public record JournalRecord(Op op, String id, String toId, String name,
+                            Double latitude, Double longitude, double distance) {
+
+    /** Tipos de cambio; el código se escribe en el archivo y no debe cambiar */
+    public enum Op {
+        ADD_NODE(1), EDIT_NODE(2), DELETE_NODE(3), ADD_EDGE(4), EDIT_EDGE(5), DELETE_EDGE(6);
+
+        final int code;
+
+        Op(int code) {
+            this.code = code;
+        }
+
+        static Op fromCode(int code) {
+            for (Op op : values()) {
+                if (op.code == code) return op;
+            }
+            throw new IllegalArgumentException("Tipo de cambio desconocido: " + code);
+        }
+    }
+
+    public static JournalRecord addNode(Node n) {
+        return new JournalRecord(Op.ADD_NODE, n.getId(), null, n.getName(), n.getLatitude(), n.getLongitude(), 0);
+    }
+
+    public static JournalRecord editNode(Node n) {
+        return new JournalRecord(Op.EDIT_NODE, n.getId(), null, n.getName(), n.getLatitude(), n.getLongitude(), 0);
+    }
+
+    public static JournalRecord deleteNode(String id) {
+        return new JournalRecord(Op.DELETE_NODE, id, null, null, null, null, 0);
+    }
+
+    public static JournalRecord addEdge(Edge e) {
+        return new JournalRecord(Op.ADD_EDGE, e.getFromId(), e.getToId(), null, null, null, e.getDistance());
+    }
+
+    public static JournalRecord editEdge(Edge e) {
+        return new JournalRecord(Op.EDIT_EDGE, e.getFromId(), e.getToId(), null, null, null, e.getDistance());
+    }
+
+    public static JournalRecord deleteEdge(Edge e) {
+        return new JournalRecord(Op.DELETE_EDGE, e.getFromId(), e.getToId(), null, null, null, 0);
+    }
+}
@@ -0,0 +1,33 @@
+package co.edu.uptc.persistence;
+
+/**
+ * Receptor del avance de una carga de grafo.
+ *
+ * <p>Los DAO lo invocan desde el hilo que realiza la carga, periódicamente y no
+ * por cada byte. Si {@link #isCancelled()} devuelve {@code true}, la carga se
+ * interrumpe con {@link java.util.concurrent.CancellationException}.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+@FunctionalInterface
+public interface LoadProgress {
+
+    /** Receptor que ignora el avance (cancelable solo interrumpiendo el hilo) */
+    LoadProgress NONE = (nodesRead, bytesRead, totalBytes) -> { };
+
+    /**
+     * @param nodesRead Estaciones leídas hasta el momento
+     * @param bytesRead Bytes del archivo consumidos
+     * @param totalBytes Tamaño del archivo, o -1 si no se conoce
+     */
+    void update(long nodesRead, long bytesRead, long totalBytes);
+
+    /**
+     * @return {@code true} si la carga debe abandonarse
+     */
+    default boolean isCancelled() {
+        return Thread.currentThread().isInterrupted();
+    }
+}
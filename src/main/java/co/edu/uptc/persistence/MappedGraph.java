@@ -0,0 +1,298 @@
+package co.edu.uptc.persistence;
+
+import co.edu.uptc.geo.GeoUtils;
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.Node;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Grafo de solo lectura servido directamente desde un archivo binario
+ * ({@link BinaryRouteDAO}) proyectado en memoria.
+ *
+ * <p>El archivo se proyecta con {@link FileChannel#map} y no se copia al heap: las
+ * estaciones se identifican por su índice y la adyacencia, las coordenadas y los
+ * nombres se leen del mapeo cuando se piden. Abrirlo solo valida la cabecera, por lo
+ * que el coste no depende del tamaño de la red, y el sistema operativo carga las
+ * páginas bajo demanda y las comparte entre todos los procesos que abran el mismo
+ * archivo.</p>
+ *
+ * <p>Requiere la versión 2 del formato (con índice de IDs). Es seguro para lecturas
+ * concurrentes: solo se usan accesos absolutos al búfer.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public final class MappedGraph {
+
+    private final Path path;
+    private final ByteBuffer buf;
+
+    private final int nodeCount;
+    private final int edgeCount;
+    private final int stringCount;
+
+    private final int offsetsPos;
+    private final int stringsPos;
+    private final int idPos;
+    private final int namePos;
+    private final int latPos;
+    private final int lonPos;
+    private final int rowPos;
+    private final int targetPos;
+    private final int distancePos;
+    private final int idOrderPos;
+
+    private MappedGraph(Path path, ByteBuffer buf) {
+        this.path = path;
+        this.buf = buf;
+
+        if (buf.limit() < BinaryRouteDAO.HEADER_BYTES + 4 || buf.getInt(0) != BinaryRouteDAO.MAGIC) {
+            throw new PersistenceException("No es un archivo de grafo binario válido: " + path);
+        }
+        int version = buf.getInt(4);
+        if (version != BinaryRouteDAO.FORMAT_VERSION) {
+            throw new PersistenceException("Versión de formato no proyectable: " + version
+                    + " (se requiere " + BinaryRouteDAO.FORMAT_VERSION + ")");
+        }
+        nodeCount = buf.getInt(8);
+        edgeCount = buf.getInt(12);
+        stringCount = buf.getInt(16);
+        int stringBytes = buf.getInt(20);
+
+        long pos = BinaryRouteDAO.HEADER_BYTES;
+        offsetsPos = (int) pos;  pos += 4L * (stringCount + 1);
+        stringsPos = (int) pos;  pos += stringBytes;
+        idPos = (int) pos;       pos += 4L * nodeCount;
+        namePos = (int) pos;     pos += 4L * nodeCount;
+        latPos = (int) pos;      pos += 4L * nodeCount;
+        lonPos = (int) pos;      pos += 4L * nodeCount;
+        rowPos = (int) pos;      pos += 4L * (nodeCount + 1);
+        targetPos = (int) pos;   pos += 4L * edgeCount;
+        distancePos = (int) pos; pos += 8L * edgeCount;
+        idOrderPos = (int) pos;  pos += 4L * nodeCount;
+        if (pos + 4 != buf.limit()) {
+            throw new PersistenceException("Archivo de grafo binario truncado o inconsistente: " + path);
+        }
+    }
+
+    /**
+     * Proyecta un archivo de grafo binario en memoria.
+     *
+     * @throws IOException si no se puede abrir el archivo
+     * @throws PersistenceException si el archivo no tiene el formato esperado
+     */
+    public static MappedGraph open(String filePath) throws IOException {
+        Path path = Paths.get(filePath);
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) {
+                throw new PersistenceException("Archivo binario demasiado grande: " + path);
+            }
+            // El mapeo sigue siendo válido después de cerrar el canal
+            return new MappedGraph(path, ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    /**
+     * Comprueba el CRC del archivo completo. Recorre todas las páginas, así que no se
+     * hace al abrir.
+     *
+     * @return {@code true} si el contenido está íntegro
+     */
+    public boolean verify() {
+        CRC32 crc = new CRC32();
+        ByteBuffer content = buf.slice(0, buf.limit() - 4);
+        crc.update(content);
+        return (int) crc.getValue() == buf.getInt(buf.limit() - 4);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    // ---- Estaciones ----
+
+    /**
+     * Busca una estación por ID con búsqueda binaria sobre el índice de IDs.
+     *
+     * @return Índice de la estación, o -1 si no existe
+     */
+    public int indexOf(String id) {
+        if (id == null) return -1;
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        int lo = 0;
+        int hi = nodeCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int node = buf.getInt(idOrderPos + 4 * mid);
+            int cmp = compareString(buf.getInt(idPos + 4 * node), key);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return node;
+        }
+        return -1;
+    }
+
+    public String id(int node) {
+        return string(buf.getInt(idPos + 4 * node));
+    }
+
+    public String name(int node) {
+        int idx = buf.getInt(namePos + 4 * node);
+        return idx == BinaryRouteDAO.NO_STRING ? null : string(idx);
+    }
+
+    public boolean hasCoordinates(int node) {
+        return buf.getInt(latPos + 4 * node) != BinaryRouteDAO.NO_COORD
+                && buf.getInt(lonPos + 4 * node) != BinaryRouteDAO.NO_COORD;
+    }
+
+    /** @return Latitud, o {@code NaN} si la estación no tiene coordenadas */
+    public double latitude(int node) {
+        return fromFixed(buf.getInt(latPos + 4 * node));
+    }
+
+    /** @return Longitud, o {@code NaN} si la estación no tiene coordenadas */
+    public double longitude(int node) {
+        return fromFixed(buf.getInt(lonPos + 4 * node));
+    }
+
+    /**
+     * Crea una copia de la estación en el heap, con sus conexiones. La copia no está
+     * ligada al archivo: modificarla no cambia el grafo.
+     */
+    public Node node(int node) {
+        String id = id(node);
+        double lat = latitude(node);
+        double lng = longitude(node);
+        Node n = new Node(id, name(node), Double.isNaN(lat) ? null : lat, Double.isNaN(lng) ? null : lng);
+        List<Edge> edges = new ArrayList<>(edgeEnd(node) - edgeStart(node));
+        for (int k = edgeStart(node); k < edgeEnd(node); k++) {
+            Edge e = new Edge();
+            e.setFromId(id);
+            e.setToId(edgeTargetId(k));
+            e.setDistance(edgeDistance(k));
+            edges.add(e);
+        }
+        n.setEdges(edges);
+        return n;
+    }
+
+    // ---- Adyacencia ----
+
+    /** @return Primera conexión de la estación (índice en las conexiones) */
+    public int edgeStart(int node) {
+        return buf.getInt(rowPos + 4 * node);
+    }
+
+    /** @return Fin (exclusivo) de las conexiones de la estación */
+    public int edgeEnd(int node) {
+        return buf.getInt(rowPos + 4 * (node + 1));
+    }
+
+    /** @return Índice de la estación destino, o un valor negativo si no está en el grafo */
+    public int edgeTarget(int edge) {
+        return buf.getInt(targetPos + 4 * edge);
+    }
+
+    public String edgeTargetId(int edge) {
+        int t = edgeTarget(edge);
+        return t >= 0 ? id(t) : string(-t - 1);
+    }
+
+    public double edgeDistance(int edge) {
+        return buf.getDouble(distancePos + 8 * edge);
+    }
+
+    // ---- Consultas espaciales ----
+
+    /**
+     * Estaciones con coordenadas más cercanas a un punto. Recorre las coordenadas del
+     * mapeo sin crear objetos, en tiempo lineal.
+     *
+     * @return Índices de estación ordenados por distancia creciente
+     */
+    public int[] nearest(double lat, double lng, int k) {
+        if (k <= 0) return new int[0];
+        PriorityQueue<double[]> best = new PriorityQueue<>(Comparator.comparingDouble((double[] e) -> e[1]).reversed());
+        for (int i = 0; i < nodeCount; i++) {
+            if (!hasCoordinates(i)) continue;
+            double d = GeoUtils.haversineKm(lat, lng, latitude(i), longitude(i));
+            if (best.size() < k) {
+                best.add(new double[] {i, d});
+            } else if (d < best.peek()[1]) {
+                best.poll();
+                best.add(new double[] {i, d});
+            }
+        }
+        int[] result = new int[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = (int) best.poll()[0];
+        }
+        return result;
+    }
+
+    /**
+     * @return Índices de las estaciones con coordenadas dentro del rectángulo
+     */
+    public int[] withinBounds(double south, double west, double north, double east) {
+        int[] result = new int[16];
+        int count = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            if (!hasCoordinates(i)) continue;
+            double lat = latitude(i);
+            double lng = longitude(i);
+            if (lat < south || lat > north || lng < west || lng > east) continue;
+            if (count == result.length) result = Arrays.copyOf(result, count * 2);
+            result[count++] = i;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // ---- Cadenas ----
+
+    private String string(int idx) {
+        int start = buf.getInt(offsetsPos + 4 * idx);
+        int end = buf.getInt(offsetsPos + 4 * (idx + 1));
+        byte[] bytes = new byte[end - start];
+        buf.get(stringsPos + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Compara una cadena del mapeo con {@code key} byte a byte, sin signo */
+    private int compareString(int idx, byte[] key) {
+        int start = stringsPos + buf.getInt(offsetsPos + 4 * idx);
+        int length = buf.getInt(offsetsPos + 4 * (idx + 1)) - buf.getInt(offsetsPos + 4 * idx);
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(buf.get(start + i) & 0xFF, key[i] & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private static double fromFixed(int fixed) {
+        return fixed == BinaryRouteDAO.NO_COORD ? Double.NaN : fixed / BinaryRouteDAO.COORD_SCALE;
+    }
+}
@@ -11,11 +11,17 @@ public class PersistenceManager {
 
     private RouteDAO routeDAO;
 
+    private JdbcRouteDAO databaseDAO;
+
     private PersistenceManager() {
         try {
-            this.routeDAO = new XmlRouteDAO();
+            // XML por defecto; el formato binario y las bases H2 se eligen por su extensión
+            this.databaseDAO = new JdbcRouteDAO(JdbcRouteDAO.H2_PREFIX);
+            this.routeDAO = new ExtensionRouteDAO(new StaxRouteDAO())
+                    .register(BinaryRouteDAO.EXTENSION, new BinaryRouteDAO())
+                    .register(JdbcRouteDAO.H2_EXTENSION, databaseDAO);
         } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error inicializando XmlRouteDAO: " + e.getMessage(), e);
+            LOGGER.log(Level.SEVERE, "Error inicializando los DAO: " + e.getMessage(), e);
             this.routeDAO = null;
         }
     }
@@ -31,6 +37,14 @@ public class PersistenceManager {
         return routeDAO;
     }
 
+    /**
+     * @return DAO de las bases H2 ({@value JdbcRouteDAO#H2_EXTENSION}), el mismo que
+     *         usa {@link #getRouteDAO()} para esa extensión
+     */
+    public JdbcRouteDAO getDatabaseDAO() {
+        return databaseDAO;
+    }
+
     public void setRouteDAO(RouteDAO routeDAO) {
         this.routeDAO = routeDAO;
     }
@@ -0,0 +1,101 @@
+package co.edu.uptc.persistence;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.function.LongSupplier;
+
+/**
+ * Flujo que cuenta los bytes leídos, informa el avance a un {@link LoadProgress}
+ * y aborta la lectura si la carga se cancela.
+ *
+ * <p>El avance se informa como máximo cada {@link #REPORT_BYTES} bytes o
+ * {@link #REPORT_NODES} estaciones, para que el receptor no se convierta en el
+ * cuello de botella de la carga.</p>
+ *
+ * <p>Si el flujo es una transformación del archivo (por ejemplo, descompresión), la
+ * posición en el archivo se toma de {@code sourcePosition} en lugar de contar los
+ * bytes entregados.</p>
+ */
+class ProgressInputStream extends FilterInputStream {
+
+    static final long REPORT_BYTES = 256 * 1024;
+    static final long REPORT_NODES = 1000;
+
+    private final LoadProgress progress;
+    private final long totalBytes;
+    private final LongSupplier sourcePosition;
+    private long bytesRead;
+    private long nodesRead;
+    private long lastReportedBytes;
+    private long lastReportedNodes;
+
+    ProgressInputStream(InputStream in, long totalBytes, LoadProgress progress) {
+        this(in, totalBytes, progress, null);
+    }
+
+    /**
+     * @param sourcePosition Bytes del archivo consumidos, o null para contar los leídos
+     */
+    ProgressInputStream(InputStream in, long totalBytes, LoadProgress progress, LongSupplier sourcePosition) {
+        super(in);
+        this.totalBytes = totalBytes;
+        this.progress = progress;
+        this.sourcePosition = sourcePosition;
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkCancelled();
+        int b = super.read();
+        if (b >= 0) advance(1);
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws IOException {
+        checkCancelled();
+        int n = super.read(buf, off, len);
+        if (n > 0) advance(n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        advance(skipped);
+        return skipped;
+    }
+
+    /** Registra una estación leída por el parser */
+    void nodeRead() {
+        nodesRead++;
+        if (nodesRead - lastReportedNodes >= REPORT_NODES) report();
+    }
+
+    /** Informa el estado final (el archivo completo) */
+    void finish() {
+        if (sourcePosition != null) bytesRead = sourcePosition.getAsLong();
+        report();
+    }
+
+    long getNodesRead() {
+        return nodesRead;
+    }
+
+    private void advance(long n) {
+        bytesRead = sourcePosition != null ? sourcePosition.getAsLong() : bytesRead + n;
+        if (bytesRead - lastReportedBytes >= REPORT_BYTES) report();
+    }
+
+    private void report() {
+        lastReportedBytes = bytesRead;
+        lastReportedNodes = nodesRead;
+        progress.update(nodesRead, bytesRead, totalBytes);
+    }
+
+    private void checkCancelled() throws InterruptedIOException {
+        if (progress.isCancelled()) throw new InterruptedIOException("Carga cancelada");
+    }
+}
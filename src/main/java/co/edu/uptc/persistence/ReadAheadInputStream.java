@@ -0,0 +1,122 @@
+package co.edu.uptc.persistence;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Flujo que lee de otro en un hilo propio y entrega los datos por bloques.
+ *
+ * <p>Permite que el trabajo del flujo de origen (por ejemplo, descomprimir) se haga en
+ * paralelo con el del consumidor (el parser): el hilo de lectura llena hasta
+ * {@code depth} bloques por adelantado. Los errores del origen se relanzan en el
+ * consumidor. Cerrar el flujo detiene el hilo de lectura, que cierra el origen.</p>
+ */
+class ReadAheadInputStream extends InputStream {
+
+    /** Marca de fin de datos en la cola */
+    private static final byte[] EOF = new byte[0];
+
+    private final BlockingQueue<byte[]> chunks;
+    private final Thread reader;
+
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    private byte[] current = null;
+    private int pos = 0;
+    private boolean finished = false;
+
+    /**
+     * @param source Flujo de origen (se lee y se cierra en el hilo de lectura)
+     * @param chunkBytes Tamaño de cada bloque
+     * @param depth Bloques que pueden esperar en la cola
+     * @param threadName Nombre del hilo de lectura
+     */
+    ReadAheadInputStream(InputStream source, int chunkBytes, int depth, String threadName) {
+        this.chunks = new ArrayBlockingQueue<>(depth);
+        this.reader = new Thread(() -> pump(source, chunkBytes), threadName);
+        this.reader.setDaemon(true);
+        this.reader.start();
+    }
+
+    private void pump(InputStream source, int chunkBytes) {
+        try (source) {
+            while (!closed) {
+                byte[] buf = new byte[chunkBytes];
+                int filled = 0;
+                int n;
+                while (filled < chunkBytes && (n = source.read(buf, filled, chunkBytes - filled)) > 0) {
+                    filled += n;
+                }
+                if (filled > 0) {
+                    chunks.put(filled == chunkBytes ? buf : Arrays.copyOf(buf, filled));
+                }
+                if (filled < chunkBytes) break; // fin del origen
+            }
+        } catch (InterruptedException e) {
+            return; // el consumidor cerró el flujo
+        } catch (IOException e) {
+            failure = e;
+        } catch (RuntimeException e) {
+            failure = new IOException(e.getMessage(), e);
+        }
+        try {
+            chunks.put(EOF);
+        } catch (InterruptedException ignored) {
+            // el consumidor cerró el flujo
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) return -1;
+        return current[pos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (!ensureData()) return -1;
+        int n = Math.min(len, current.length - pos);
+        System.arraycopy(current, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return current == null ? 0 : current.length - pos;
+    }
+
+    /** @return {@code false} al llegar al final de los datos */
+    private boolean ensureData() throws IOException {
+        if (closed) throw new IOException("Flujo cerrado");
+        while (!finished && (current == null || pos >= current.length)) {
+            try {
+                current = chunks.take();
+            } catch (InterruptedException e) {
+                // Se conserva la interrupción para que quien lee detecte la cancelación
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Lectura interrumpida");
+            }
+            pos = 0;
+            if (current == EOF) {
+                finished = true;
+                if (failure != null) throw failure;
+            }
+        }
+        return !finished;
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        reader.interrupt();
+        chunks.clear();
+    }
+}
@@ -1,10 +1,59 @@
 package co.edu.uptc.persistence;
 
+import co.edu.uptc.model.Edge;
 import co.edu.uptc.model.GraphData;
+import co.edu.uptc.model.Node;
+
+import java.util.function.Consumer;
 
 public interface RouteDAO {
 
     void save(GraphData tree, String filePath);
 
     GraphData load(String filePath);
-}
\ No newline at end of file
+
+    /**
+     * Carga un grafo informando el avance y permitiendo cancelar.
+     *
+     * <p>Por defecto delega en {@link #load(String)} sin informar avance.</p>
+     *
+     * @throws java.util.concurrent.CancellationException si {@code progress} pide cancelar
+     */
+    default GraphData load(String filePath, LoadProgress progress) {
+        return load(filePath);
+    }
+
+    /**
+     * Carga un grafo entregando cada estación (con sus aristas) a {@code sink} a
+     * medida que se lee, sin construir una lista intermedia.
+     *
+     * <p>Por defecto carga el grafo completo y después lo recorre; las
+     * implementaciones que leen en flujo lo sobrescriben.</p>
+     *
+     * @return {@code false} si el archivo no existe o no tiene datos
+     * @throws java.util.concurrent.CancellationException si {@code progress} pide cancelar
+     */
+    default boolean load(String filePath, LoadProgress progress, Consumer<Node> sink) {
+        GraphData data = load(filePath, progress);
+        if (data == null || data.getNodes() == null) return false;
+        data.getNodes().forEach(sink);
+        return true;
+    }
+
+    /**
+     * Como {@link #load(String, LoadProgress, Consumer)}, pero entrega además a
+     * {@code openEdges} las aristas que el archivo describe y no pudo añadir porque su
+     * estación origen no está en él: el sentido de vuelta de una conexión no dirigida
+     * hacia otro archivo de la red ({@link GraphData#getOpenEdges()}).
+     *
+     * <p>Por defecto no hay ninguna: los formatos que guardan cada sentido como una
+     * arista (v1, binario, base de datos) y el esquema v3, que exige que las conexiones
+     * hacia fuera del archivo sean dirigidas, no pierden aristas.</p>
+     *
+     * @return {@code false} si el archivo no existe o no tiene datos
+     * @throws java.util.concurrent.CancellationException si {@code progress} pide cancelar
+     */
+    default boolean load(String filePath, LoadProgress progress, Consumer<Node> sink, Consumer<Edge> openEdges) {
+        return load(filePath, progress, sink);
+    }
+}
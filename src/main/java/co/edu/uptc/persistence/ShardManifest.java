@@ -0,0 +1,88 @@
+package co.edu.uptc.persistence;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Manifiesto de una red repartida en varios archivos (uno por ciudad, por ejemplo).
+ *
+ * <p>Es un archivo de texto con la ruta de un archivo de grafo por línea; las rutas
+ * relativas se resuelven desde la carpeta del manifiesto, y las líneas vacías o que
+ * empiezan por {@code #} se ignoran:</p>
+ * <pre>
+ * # Red nacional
+ * bogota.xml
+ * medellin.xml.gz
+ * /datos/cali.tpg
+ * </pre>
+ *
+ * <p>Cada archivo se lee con el DAO que corresponda a su extensión. El orden del
+ * manifiesto decide qué archivo prevalece si dos definen la misma estación.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public final class ShardManifest {
+
+    /** Extensión habitual de los manifiestos */
+    public static final String EXTENSION = ".shards";
+
+    private final Path path;
+    private final List<String> shards;
+
+    private ShardManifest(Path path, List<String> shards) {
+        this.path = path;
+        this.shards = Collections.unmodifiableList(shards);
+    }
+
+    /**
+     * Lee un manifiesto.
+     *
+     * @return Manifiesto, o null si el archivo no existe
+     * @throws PersistenceException si no se puede leer
+     */
+    public static ShardManifest read(String manifestPath) {
+        Path path = Paths.get(manifestPath).toAbsolutePath();
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new PersistenceException("Error leyendo el manifiesto " + path + ": " + e.getMessage(), e);
+        }
+        List<String> shards = new ArrayList<>();
+        Path base = path.getParent();
+        for (String line : lines) {
+            String entry = line.strip();
+            if (entry.isEmpty() || entry.startsWith("#")) continue;
+            Path shard = Paths.get(entry);
+            shards.add((shard.isAbsolute() || base == null ? shard : base.resolve(shard)).normalize().toString());
+        }
+        return new ShardManifest(path, shards);
+    }
+
+    /**
+     * Escribe un manifiesto con las rutas indicadas, tal cual.
+     */
+    public static void write(String manifestPath, List<String> shards) throws IOException {
+        Files.write(Paths.get(manifestPath), shards, StandardCharsets.UTF_8);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /** @return Rutas absolutas de los archivos, en el orden del manifiesto */
+    public List<String> getShards() {
+        return shards;
+    }
+}
@@ -0,0 +1,369 @@
+package co.edu.uptc.persistence;
+
+import co.edu.uptc.model.Connection;
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.GraphData;
+import co.edu.uptc.model.InlineConnections;
+import co.edu.uptc.model.Node;
+
+import javax.xml.stream.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * DAO XML en flujo basado en StAX ({@code javax.xml.stream}).
+ *
+ * <p>Lee el esquema v1 de {@link XmlRouteDAO} ({@code <graphData><nodes><node>…}
+ * con las aristas dentro de cada estación) sin construir árboles intermedios: cada
+ * {@code <node>} se convierte en un {@link Node} con sus aristas y se entrega de
+ * inmediato al consumidor. La memoria usada es la del propio grafo más un búfer de
+ * tamaño fijo.</p>
+ *
+ * <p>Escribe el esquema v3 ({@code <graphData version="3">}), que guarda cada conexión
+ * una sola vez ({@link Connection}) en lugar de una arista por sentido, dentro de la
+ * estación que aparece primero. Al leer una estación v3 se conocen todas sus aristas
+ * salvo las que vienen de conexiones de estaciones anteriores, que ya se leyeron y
+ * quedaron apartadas para ella; así que también se entrega de inmediato. Solo se
+ * retienen esas aristas pendientes, no las estaciones. Un documento v3 con una conexión
+ * no dirigida que no está en la primera de sus estaciones se rechaza
+ * ({@link InlineConnections}), igual que en {@link XmlRouteDAO}.</p>
+ *
+ * <p>El esquema v2 ({@code <graphData version="2">}), con las conexiones en una lista
+ * {@code <connections>} al final del documento, se sigue leyendo pero no en flujo: las
+ * estaciones se retienen hasta leer las conexiones, así que la memoria es la del grafo
+ * completo aunque el consumidor descarte casi todas (por ejemplo, al cargar una región).
+ * Al volver a guardar, el archivo pasa a v3.</p>
+ *
+ * <p>Los archivos comprimidos con gzip se leen de forma transparente y se escriben
+ * comprimidos si su nombre termina en {@code .gz} ({@link GraphFiles}).</p>
+ *
+ * <p>Los elementos desconocidos se ignoran (con su contenido), de modo que el
+ * lector tolera extensiones del esquema.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class StaxRouteDAO implements RouteDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(StaxRouteDAO.class.getName());
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final String INDENT = "    ";
+
+    private final XMLInputFactory inputFactory;
+    private final XMLOutputFactory outputFactory;
+
+    public StaxRouteDAO() {
+        inputFactory = XMLInputFactory.newFactory();
+        // Sin DTD ni entidades externas: los archivos de red no las usan
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        outputFactory = XMLOutputFactory.newFactory();
+    }
+
+    // ---- Escritura ----
+
+    @Override
+    public void save(GraphData tree, String filePath) {
+        if (tree == null) {
+            throw new PersistenceException("RouteTree nulo al intentar guardar.");
+        }
+        try {
+            GraphFiles.write(Paths.get(filePath), out -> {
+                Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_BYTES);
+                XMLStreamWriter xml = outputFactory.createXMLStreamWriter(w);
+                writeGraph(xml, tree.getNodes() == null ? List.of() : tree.getNodes());
+                xml.close();
+                w.flush();
+            });
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error guardando RouteTree en XML: " + e.getMessage(), e);
+            throw new PersistenceException("Error guardando RouteTree en XML: " + e.getMessage(), e);
+        }
+    }
+
+    private void writeGraph(XMLStreamWriter xml, List<Node> nodes) throws XMLStreamException {
+        xml.writeStartDocument("UTF-8", "1.0");
+        newLine(xml, 0);
+        xml.writeStartElement("graphData");
+        xml.writeAttribute("version", Integer.toString(GraphData.SCHEMA_V3));
+        newLine(xml, 1);
+        xml.writeStartElement("nodes");
+
+        Map<String, Integer> positions = Connection.positions(nodes);
+        for (Node n : nodes) {
+            if (n == null) continue;
+            newLine(xml, 2);
+            xml.writeStartElement("node");
+            writeText(xml, 3, "id", n.getId());
+            writeText(xml, 3, "name", n.getName());
+            if (n.getLatitude() != null) writeText(xml, 3, "latitude", n.getLatitude().toString());
+            if (n.getLongitude() != null) writeText(xml, 3, "longitude", n.getLongitude().toString());
+            for (Connection c : Connection.fromNode(nodes, positions, n)) {
+                newLine(xml, 3);
+                xml.writeEmptyElement("connection");
+                xml.writeAttribute("to", c.getTo());
+                xml.writeAttribute("distance", Double.toString(c.getDistance()));
+                if (c.isDirected()) xml.writeAttribute("directed", "true");
+            }
+            newLine(xml, 2);
+            xml.writeEndElement(); // node
+        }
+
+        newLine(xml, 1);
+        xml.writeEndElement(); // nodes
+        newLine(xml, 0);
+        xml.writeEndElement(); // graphData
+        newLine(xml, 0);
+        xml.writeEndDocument();
+    }
+
+    private static void writeText(XMLStreamWriter xml, int depth, String element, String value)
+            throws XMLStreamException {
+        if (value == null) return;
+        newLine(xml, depth);
+        xml.writeStartElement(element);
+        xml.writeCharacters(value);
+        xml.writeEndElement();
+    }
+
+    /** Sangría con el mismo formato que la salida formateada de JAXB */
+    private static void newLine(XMLStreamWriter xml, int depth) throws XMLStreamException {
+        xml.writeCharacters("\n");
+        for (int i = 0; i < depth; i++) xml.writeCharacters(INDENT);
+    }
+
+    // ---- Lectura ----
+
+    @Override
+    public GraphData load(String filePath) {
+        return load(filePath, LoadProgress.NONE);
+    }
+
+    @Override
+    public GraphData load(String filePath, LoadProgress progress) {
+        List<Node> nodes = new ArrayList<>();
+        return load(filePath, progress, nodes::add) ? new GraphData(nodes) : null;
+    }
+
+    @Override
+    public boolean load(String filePath, LoadProgress progress, Consumer<Node> sink) {
+        return load(filePath, progress, sink, e -> { });
+    }
+
+    @Override
+    public boolean load(String filePath, LoadProgress progress, Consumer<Node> sink, Consumer<Edge> openEdges) {
+        File f = new File(filePath);
+        if (!f.exists()) {
+            LOGGER.log(Level.INFO, "Archivo de persistencia no existe: " + filePath);
+            return false;
+        }
+
+        XMLStreamReader xml = null;
+        try (ProgressInputStream counter = GraphFiles.openInput(f, progress);
+             InputStream in = new BufferedInputStream(counter, BUFFER_BYTES)) {
+            xml = inputFactory.createXMLStreamReader(in);
+            readGraph(xml, counter, sink, openEdges);
+            counter.finish();
+            return true;
+        } catch (Exception e) {
+            if (progress.isCancelled()) {
+                LOGGER.log(Level.INFO, "Carga cancelada: " + filePath);
+                throw new CancellationException("Carga cancelada: " + filePath);
+            }
+            LOGGER.log(Level.SEVERE, "Error cargando RouteTree desde XML: " + e.getMessage(), e);
+            throw new PersistenceException("Error cargando RouteTree desde XML: " + e.getMessage(), e);
+        } finally {
+            if (xml != null) {
+                try {
+                    xml.close();
+                } catch (XMLStreamException ignored) {
+                    // el flujo subyacente ya se cerró
+                }
+            }
+        }
+    }
+
+    private void readGraph(XMLStreamReader xml, ProgressInputStream counter, Consumer<Node> sink,
+                           Consumer<Edge> openEdges) throws XMLStreamException {
+        nextStart(xml);
+        if (!"graphData".equals(xml.getLocalName())) {
+            throw new XMLStreamException("Se esperaba <graphData> y se encontró <" + xml.getLocalName() + ">",
+                    xml.getLocation());
+        }
+        String version = xml.getAttributeValue(null, "version");
+        // En v2 las conexiones llegan después de las estaciones: se retienen hasta el final
+        Map<String, Node> pending = Integer.toString(GraphData.SCHEMA_V2).equals(version)
+                ? new LinkedHashMap<>() : null;
+        InlineConnections inline = new InlineConnections();
+
+        while (nextChild(xml)) {
+            switch (xml.getLocalName()) {
+                case "nodes" -> {
+                    while (nextChild(xml)) {
+                        if (!"node".equals(xml.getLocalName())) {
+                            skipElement(xml);
+                            continue;
+                        }
+                        Node node = readNode(xml, inline);
+                        if (pending == null) {
+                            sink.accept(node);
+                        } else if (node.getId() != null) {
+                            pending.putIfAbsent(node.getId(), node);
+                        }
+                        counter.nodeRead();
+                    }
+                }
+                case "connections" -> {
+                    if (pending == null) {
+                        LOGGER.warning("<connections> fuera de un documento v2; se ignora");
+                        skipElement(xml);
+                    } else {
+                        readConnections(xml, pending, openEdges);
+                    }
+                }
+                default -> skipElement(xml);
+            }
+        }
+        if (pending != null) {
+            pending.values().forEach(sink);
+        }
+        inline.finish();
+    }
+
+    private void readConnections(XMLStreamReader xml, Map<String, Node> nodes, Consumer<Edge> openEdges)
+            throws XMLStreamException {
+        int dropped = 0;
+        while (nextChild(xml)) {
+            if ("connection".equals(xml.getLocalName())) {
+                String from = xml.getAttributeValue(null, "from");
+                String to = xml.getAttributeValue(null, "to");
+                String distance = xml.getAttributeValue(null, "distance");
+                if (from == null || to == null || distance == null) {
+                    throw new XMLStreamException("<connection> requiere from, to y distance", xml.getLocation());
+                }
+                boolean directed = Boolean.parseBoolean(xml.getAttributeValue(null, "directed"));
+                Connection c = new Connection(from.trim(), to.trim(), Double.parseDouble(distance.trim()), directed);
+                if (!c.applyTo(nodes, openEdges)) dropped++;
+            }
+            skipElement(xml);
+        }
+        if (dropped > 0) {
+            LOGGER.warning(dropped + " conexiones con estación de origen inexistente descartadas");
+        }
+    }
+
+    /**
+     * @param inline Conexiones v3 pendientes: recibe las de esta estación y le entrega
+     *               los sentidos de vuelta que la esperaban
+     */
+    private Node readNode(XMLStreamReader xml, InlineConnections inline) throws XMLStreamException {
+        Node node = new Node();
+        List<Edge> edges = new ArrayList<>();
+        List<Connection> connections = new ArrayList<>();
+        while (nextChild(xml)) {
+            switch (xml.getLocalName()) {
+                case "id" -> node.setId(xml.getElementText().trim());
+                case "name" -> node.setName(xml.getElementText());
+                case "latitude" -> node.setLatitude(parseDouble(xml.getElementText()));
+                case "longitude" -> node.setLongitude(parseDouble(xml.getElementText()));
+                case "edges" -> {
+                    while (nextChild(xml)) {
+                        if ("edge".equals(xml.getLocalName())) {
+                            edges.add(readEdge(xml));
+                        } else {
+                            skipElement(xml);
+                        }
+                    }
+                }
+                case "connection" -> {
+                    connections.add(readInlineConnection(xml));
+                    skipElement(xml);
+                }
+                default -> skipElement(xml);
+            }
+        }
+        for (Edge e : edges) {
+            if (e.getFromId() == null) e.setFromId(node.getId());
+        }
+        node.setEdges(edges);
+        inline.apply(node, connections);
+        return node;
+    }
+
+    /** Conexión v3 dentro de una estación; el origen es la propia estación */
+    private static Connection readInlineConnection(XMLStreamReader xml) throws XMLStreamException {
+        String to = xml.getAttributeValue(null, "to");
+        String distance = xml.getAttributeValue(null, "distance");
+        if (to == null || distance == null) {
+            throw new XMLStreamException("<connection> requiere to y distance", xml.getLocation());
+        }
+        boolean directed = Boolean.parseBoolean(xml.getAttributeValue(null, "directed"));
+        return new Connection(null, to.trim(), Double.parseDouble(distance.trim()), directed);
+    }
+
+    private Edge readEdge(XMLStreamReader xml) throws XMLStreamException {
+        Edge edge = new Edge();
+        while (nextChild(xml)) {
+            switch (xml.getLocalName()) {
+                case "fromId" -> edge.setFromId(xml.getElementText().trim());
+                case "toId" -> edge.setToId(xml.getElementText().trim());
+                case "distance" -> {
+                    Double d = parseDouble(xml.getElementText());
+                    if (d != null) edge.setDistance(d);
+                }
+                default -> skipElement(xml);
+            }
+        }
+        return edge;
+    }
+
+    private static Double parseDouble(String text) {
+        String t = text.trim();
+        return t.isEmpty() ? null : Double.valueOf(t);
+    }
+
+    /** Avanza hasta el primer elemento del documento */
+    private static void nextStart(XMLStreamReader xml) throws XMLStreamException {
+        while (xml.hasNext()) {
+            if (xml.next() == XMLStreamConstants.START_ELEMENT) return;
+        }
+        throw new XMLStreamException("Documento vacío");
+    }
+
+    /**
+     * Avanza al siguiente hijo del elemento actual.
+     *
+     * @return {@code true} si se posicionó en el inicio de un hijo; {@code false} si
+     *         llegó al cierre del elemento actual
+     */
+    private static boolean nextChild(XMLStreamReader xml) throws XMLStreamException {
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) return true;
+            if (event == XMLStreamConstants.END_ELEMENT) return false;
+        }
+        return false;
+    }
+
+    /** Consume el elemento actual y todo su contenido */
+    private static void skipElement(XMLStreamReader xml) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) depth++;
+            else if (event == XMLStreamConstants.END_ELEMENT) depth--;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package co.edu.uptc.persistence;
+
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.Node;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Orden de escritura de las estaciones que mantiene juntas a las estaciones conectadas
+ * (orden de Cuthill-McKee).
+ *
+ * <p>Al leer un archivo v3 en flujo, cada conexión no dirigida deja apartado su sentido
+ * de vuelta desde su primera estación hasta la segunda ({@code InlineConnections}). Lo
+ * apartado en un momento dado son las conexiones que cruzan ese punto del archivo: con
+ * las estaciones en el orden de un {@code HashMap} son casi la mitad de la red, sea
+ * cual sea la zona que se quiere cargar. Este orden recorre cada componente en anchura
+ * desde una estación de grado mínimo, visitando antes las vecinas con menos conexiones,
+ * así que las dos estaciones de cada conexión quedan cerca y lo apartado se limita al
+ * frente del recorrido (en una red de transporte, del orden de las estaciones de un
+ * corte transversal y no del total).</p>
+ *
+ * <p>Las conexiones se consideran en los dos sentidos; las que van a estaciones que no
+ * están en la lista se ignoran. El resultado solo depende de las estaciones y sus
+ * conexiones, no del orden de entrada.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public final class StreamOrder {
+
+    private StreamOrder() { }
+
+    /**
+     * @param nodes Estaciones a escribir (IDs únicos)
+     * @return Las mismas estaciones en orden de escritura
+     */
+    public static List<Node> of(Collection<Node> nodes) {
+        Map<String, Node> byId = new HashMap<>(nodes.size() * 2);
+        for (Node n : nodes) {
+            if (n != null && n.getId() != null) byId.putIfAbsent(n.getId(), n);
+        }
+
+        // Vecinas en los dos sentidos, sin repetir
+        Map<String, Set<String>> neighbours = new HashMap<>(byId.size() * 2);
+        for (Node n : byId.values()) {
+            neighbours.computeIfAbsent(n.getId(), k -> new LinkedHashSet<>());
+            for (Edge e : n.getEdges()) {
+                String to = e.getToId();
+                if (to == null || to.equals(n.getId()) || !byId.containsKey(to)) continue;
+                neighbours.get(n.getId()).add(to);
+                neighbours.computeIfAbsent(to, k -> new LinkedHashSet<>()).add(n.getId());
+            }
+        }
+        Comparator<String> fewestFirst = Comparator
+                .comparingInt((String id) -> neighbours.get(id).size())
+                .thenComparing(Comparator.naturalOrder());
+
+        List<String> starts = new ArrayList<>(byId.keySet());
+        starts.sort(fewestFirst);
+
+        List<Node> ordered = new ArrayList<>(byId.size());
+        Set<String> visited = new HashSet<>(byId.size() * 2);
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        List<String> next = new ArrayList<>();
+        for (String start : starts) {
+            if (!visited.add(start)) continue;
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                String id = queue.poll();
+                ordered.add(byId.get(id));
+                next.clear();
+                for (String to : neighbours.get(id)) {
+                    if (visited.add(to)) next.add(to);
+                }
+                next.sort(fewestFirst);
+                queue.addAll(next);
+            }
+        }
+
+        // Estaciones sin ID (o repetidas) al final, en su orden
+        if (ordered.size() < nodes.size()) {
+            Set<Node> placed = Collections.newSetFromMap(new IdentityHashMap<>());
+            placed.addAll(ordered);
+            for (Node n : nodes) {
+                if (n != null && !placed.contains(n)) ordered.add(n);
+            }
+        }
+        return ordered;
+    }
+}
@@ -1,6 +1,22 @@
 package co.edu.uptc.persistence;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -8,31 +24,69 @@ import co.edu.uptc.model.GraphData;
 import co.edu.uptc.model.Node;
 import co.edu.uptc.model.Edge;
 import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Marshaller;
 import jakarta.xml.bind.Unmarshaller;
 
+/**
+ * DAO XML basado en JAXB.
+ *
+ * <p>El {@link JAXBContext} se crea una sola vez, la primera vez que se usa, y se
+ * comparte entre todas las instancias (crearlo implica introspección de las clases del
+ * modelo y es lo más costoso de una carga pequeña). Los {@link Marshaller} y
+ * {@link Unmarshaller} no son seguros entre hilos, así que se reutilizan a través de
+ * pools: cada operación toma uno, lo usa en exclusiva y lo devuelve.</p>
+ *
+ * <p>Escribe el esquema v3 ({@link GraphData#toSchemaV3}), igual que
+ * {@link StaxRouteDAO}, y lee los tres esquemas.</p>
+ *
+ * <p>{@link #loadAll} y {@link #saveAll} procesan muchos archivos en paralelo. Los
+ * archivos gzip se leen y escriben de forma transparente ({@link GraphFiles}).</p>
+ */
 public class XmlRouteDAO implements RouteDAO {
 
     private static final Logger LOGGER = Logger.getLogger(XmlRouteDAO.class.getName());
 
+    /** Objetos inactivos que se conservan en cada pool */
+    private static final int MAX_POOLED = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final ConcurrentLinkedQueue<Marshaller> MARSHALLERS = new ConcurrentLinkedQueue<>();
+    private static final ConcurrentLinkedQueue<Unmarshaller> UNMARSHALLERS = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger MARSHALLERS_IDLE = new AtomicInteger();
+    private static final AtomicInteger UNMARSHALLERS_IDLE = new AtomicInteger();
+
+    /** Inicialización perezosa y segura entre hilos a cargo de la JVM */
+    private static final class ContextHolder {
+        // IMPORTANTE: Node.class y Edge.class deben estar en el contexto
+        static final JAXBContext CONTEXT = createContext();
+
+        private static JAXBContext createContext() {
+            try {
+                return JAXBContext.newInstance(GraphData.class, Node.class, Edge.class);
+            } catch (JAXBException e) {
+                throw new PersistenceException("Error creando el contexto JAXB: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    static JAXBContext context() {
+        return ContextHolder.CONTEXT;
+    }
+
     @Override
     public void save(GraphData tree, String filePath) {
         try {
             if (tree == null) {
                 throw new PersistenceException("RouteTree nulo al intentar guardar.");
             }
-            // IMPORTANTE: Agregar Node.class y Edge.class al contexto
-            JAXBContext context = JAXBContext.newInstance(GraphData.class, Node.class, Edge.class);
-            Marshaller marshaller = context.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-
-            File out = new File(filePath);
-            File parent = out.getParentFile();
-            if (parent != null && !parent.exists()) {
-                parent.mkdirs();
+            Marshaller marshaller = acquireMarshaller();
+            try {
+                // Temporal + fsync + renombrado: un fallo a mitad no corrompe el archivo anterior
+                GraphData v3 = tree.toSchemaV3();
+                GraphFiles.write(Paths.get(filePath), out -> marshaller.marshal(v3, out));
+            } finally {
+                releaseMarshaller(marshaller);
             }
-
-            marshaller.marshal(tree, out);
         } catch (PersistenceException p) {
             throw p;
         } catch (Exception e) {
@@ -43,22 +97,193 @@ public class XmlRouteDAO implements RouteDAO {
 
     @Override
     public GraphData load(String filePath) {
-        try {
-            File f = new File(filePath);
-            if (!f.exists()) {
-                LOGGER.log(Level.INFO, "Archivo de persistencia no existe: " + filePath);
-                return null;
-            }
+        return load(filePath, LoadProgress.NONE);
+    }
 
-            // IMPORTANTE: Agregar Node.class y Edge.class al contexto
-            JAXBContext context = JAXBContext.newInstance(GraphData.class, Node.class, Edge.class);
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            return (GraphData) unmarshaller.unmarshal(f);
+    /**
+     * Carga el grafo leyendo el archivo como flujo, de modo que el avance se
+     * informa en bytes y en estaciones mientras JAXB procesa el documento.
+     */
+    @Override
+    public GraphData load(String filePath, LoadProgress progress) {
+        File f = new File(filePath);
+        if (!f.exists()) {
+            LOGGER.log(Level.INFO, "Archivo de persistencia no existe: " + filePath);
+            return null;
+        }
+
+        try (ProgressInputStream counter = GraphFiles.openInput(f, progress);
+             InputStream in = new BufferedInputStream(counter, GraphFiles.BUFFER_BYTES)) {
+            Unmarshaller unmarshaller = acquireUnmarshaller();
+            try {
+                unmarshaller.setListener(new Unmarshaller.Listener() {
+                    @Override
+                    public void afterUnmarshal(Object target, Object parent) {
+                        if (target instanceof Node) counter.nodeRead();
+                    }
+                });
+                GraphData data = (GraphData) unmarshaller.unmarshal(in);
+                counter.finish();
+                return data;
+            } finally {
+                releaseUnmarshaller(unmarshaller);
+            }
         } catch (PersistenceException p) {
             throw p;
         } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error cargando RouteTree desde XML: " + e.getMessage(), e);
-            throw new PersistenceException("Error cargando RouteTree desde XML: " + e.getMessage(), e);
+            if (progress.isCancelled()) {
+                LOGGER.log(Level.INFO, "Carga cancelada: " + filePath);
+                throw new CancellationException("Carga cancelada: " + filePath);
+            }
+            String message = describe(e);
+            LOGGER.log(Level.SEVERE, "Error cargando RouteTree desde XML: " + message, e);
+            throw new PersistenceException("Error cargando RouteTree desde XML: " + message, e);
+        }
+    }
+
+    /**
+     * Carga el documento completo y entrega sus estaciones y sus aristas abiertas
+     * ({@link GraphData#getOpenEdges()}).
+     */
+    @Override
+    public boolean load(String filePath, LoadProgress progress, Consumer<Node> sink, Consumer<Edge> openEdges) {
+        GraphData data = load(filePath, progress);
+        if (data == null || data.getNodes() == null) return false;
+        data.getNodes().forEach(sink);
+        data.getOpenEdges().forEach(openEdges);
+        return true;
+    }
+
+    /**
+     * JAXB envuelve los errores de {@code afterUnmarshal} en excepciones sin mensaje:
+     * se usa el de la primera causa que lo tenga.
+     */
+    private static String describe(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t.getMessage() != null) return t.getMessage();
+        }
+        return e.toString();
+    }
+
+    // ---- Operaciones por lotes ----
+
+    /**
+     * Carga varios archivos en paralelo.
+     *
+     * @param filePaths Archivos a cargar
+     * @param parallelism Número máximo de archivos procesados a la vez
+     * @return Grafo de cada archivo, en el orden recibido (null si el archivo no existe)
+     * @throws PersistenceException si falla algún archivo; los demás errores se
+     *         adjuntan como suprimidos
+     */
+    public Map<String, GraphData> loadAll(List<String> filePaths, int parallelism) {
+        List<GraphData> loaded = runAll(filePaths, parallelism, this::load);
+        Map<String, GraphData> result = new LinkedHashMap<>();
+        for (int i = 0; i < filePaths.size(); i++) {
+            result.put(filePaths.get(i), loaded.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Guarda varios grafos en paralelo, cada uno en su archivo.
+     *
+     * @param graphs Grafo a guardar por ruta de destino
+     * @param parallelism Número máximo de archivos procesados a la vez
+     * @throws PersistenceException si falla algún archivo; los demás errores se
+     *         adjuntan como suprimidos
+     */
+    public void saveAll(Map<String, GraphData> graphs, int parallelism) {
+        runAll(new ArrayList<>(graphs.keySet()), parallelism, path -> {
+            save(graphs.get(path), path);
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta {@code job} para cada ruta en un pool propio y espera a que terminen
+     * todas.
+     *
+     * @return Resultados en el orden de las rutas
+     */
+    private static <T> List<T> runAll(List<String> paths, int parallelism, Function<String, T> job) {
+        List<T> results = new ArrayList<>(paths.size());
+        if (paths.isEmpty()) return results;
+
+        int threads = Math.max(1, Math.min(parallelism, paths.size()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "xml-route-batch");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<T>> futures = new ArrayList<>(paths.size());
+            for (String path : paths) {
+                futures.add(pool.submit(() -> job.apply(path)));
+            }
+
+            PersistenceException failure = null;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    results.add(null);
+                    Throwable cause = e.getCause();
+                    if (failure == null) {
+                        failure = new PersistenceException("Error procesando " + paths.get(i) + ": "
+                                + cause.getMessage(), cause);
+                    } else {
+                        failure.addSuppressed(cause);
+                    }
+                }
+            }
+            if (failure != null) throw failure;
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Operación por lotes interrumpida");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ---- Pools ----
+
+    private static Marshaller acquireMarshaller() throws JAXBException {
+        Marshaller m = MARSHALLERS.poll();
+        if (m != null) {
+            MARSHALLERS_IDLE.decrementAndGet();
+            return m;
+        }
+        m = context().createMarshaller();
+        m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        return m;
+    }
+
+    private static void releaseMarshaller(Marshaller m) {
+        if (MARSHALLERS_IDLE.incrementAndGet() <= MAX_POOLED) {
+            MARSHALLERS.offer(m);
+        } else {
+            MARSHALLERS_IDLE.decrementAndGet();
+        }
+    }
+
+    private static Unmarshaller acquireUnmarshaller() throws JAXBException {
+        Unmarshaller u = UNMARSHALLERS.poll();
+        if (u != null) {
+            UNMARSHALLERS_IDLE.decrementAndGet();
+            return u;
+        }
+        return context().createUnmarshaller();
+    }
+
+    private static void releaseUnmarshaller(Unmarshaller u) {
+        // El listener retiene el contador de la carga anterior
+        u.setListener(null);
+        if (UNMARSHALLERS_IDLE.incrementAndGet() <= MAX_POOLED) {
+            UNMARSHALLERS.offer(u);
+        } else {
+            UNMARSHALLERS_IDLE.decrementAndGet();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,293 @@
+package co.edu.uptc.search;
+
+import co.edu.uptc.model.Node;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de búsqueda de estaciones por ID y nombre, para listas que se filtran mientras
+ * se escribe.
+ *
+ * <p>Los textos se normalizan sin acentos ni mayúsculas ({@code "Cardio Infantil"},
+ * {@code "cardió infantil"} y {@code "CARDIO INFANTIL"} son iguales) y se indexan por
+ * trigramas: cada trigrama apunta a las estaciones que lo contienen. Una búsqueda de
+ * tres o más caracteres solo revisa las estaciones del trigrama menos frecuente de la
+ * consulta; las más cortas recorren todas las estaciones, lo que sigue siendo barato
+ * porque solo se comparan textos ya normalizados.</p>
+ *
+ * <p>Los cambios se aplican al momento: las listas de trigramas solo crecen, y las
+ * entradas de estaciones borradas o renombradas se descartan al comprobar cada
+ * candidata. Cuando acumulan demasiadas, las listas se reconstruyen.</p>
+ *
+ * <p>Los resultados se ordenan por relevancia: ID exacto, ID que empieza por la
+ * consulta, nombre que empieza por ella, palabra del nombre que empieza por ella y, por
+ * último, cualquier coincidencia. A igualdad, las coincidencias por ID van en orden de
+ * ID y las demás, de nombre más corto a más largo.</p>
+ *
+ * <p>No es seguro para varios hilos: se usa desde el hilo que edita el grafo.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public final class StationSearchIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private static final Comparator<Hit> BEST_FIRST = Comparator
+            .comparingInt((Hit h) -> h.rank)
+            .thenComparingInt(h -> h.rank <= 1 ? 0 : h.entry.name.length())
+            .thenComparing(h -> h.entry.id);
+    private static final Comparator<Hit> BY_ID = Comparator.comparing(h -> h.entry.id);
+
+    /** Estación indexada, con sus textos normalizados */
+    private record Entry(String id, String normId, String name) { }
+
+    private record Hit(Entry entry, int rank) { }
+
+    private Entry[] slots = new Entry[16];
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private int[] free = new int[16];
+    private int freeCount;
+    private int used;
+
+    private final Map<Long, IntList> postings = new HashMap<>();
+
+    /** Entradas de las listas que corresponden a estaciones indexadas */
+    private long liveGrams;
+
+    /** Entradas de las listas que ya no corresponden a su estación */
+    private long garbage;
+
+    /** Índice vacío */
+    public StationSearchIndex() { }
+
+    /**
+     * @return Índice con las estaciones indicadas
+     */
+    public static StationSearchIndex of(Collection<Node> nodes) {
+        StationSearchIndex index = new StationSearchIndex();
+        for (Node n : nodes) {
+            index.add(n);
+        }
+        return index;
+    }
+
+    /**
+     * Quita acentos, pasa a minúsculas y reduce los espacios a uno.
+     *
+     * @return Texto normalizado ("" si es null)
+     */
+    public static String normalize(String text) {
+        if (text == null) return "";
+        String plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(plain.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+
+    /**
+     * Indexa una estación, o actualiza su nombre si ya estaba indexada.
+     */
+    public void add(Node n) {
+        if (n == null || n.getId() == null) return;
+        Entry entry = new Entry(n.getId(), normalize(n.getId()), normalize(n.getName()));
+        Integer slot = slotById.get(n.getId());
+        if (slot == null) {
+            slot = freeCount > 0 ? free[--freeCount] : used++;
+            if (slot == slots.length) slots = Arrays.copyOf(slots, slots.length * 2);
+            slotById.put(n.getId(), slot);
+        } else {
+            Entry previous = slots[slot];
+            if (previous.equals(entry)) return;
+            garbage += gramCount(previous);
+            liveGrams -= gramCount(previous);
+        }
+        slots[slot] = entry;
+        liveGrams += gramCount(entry);
+        post(entry, slot);
+        compactIfNeeded();
+    }
+
+    /**
+     * Quita una estación del índice.
+     *
+     * @return {@code true} si estaba indexada
+     */
+    public boolean remove(String id) {
+        Integer slot = id == null ? null : slotById.remove(id);
+        if (slot == null) return false;
+        garbage += gramCount(slots[slot]);
+        liveGrams -= gramCount(slots[slot]);
+        slots[slot] = null;
+        if (freeCount == free.length) free = Arrays.copyOf(free, free.length * 2);
+        free[freeCount++] = slot;
+        compactIfNeeded();
+        return true;
+    }
+
+    public void clear() {
+        slots = new Entry[16];
+        slotById.clear();
+        freeCount = 0;
+        used = 0;
+        postings.clear();
+        liveGrams = 0;
+        garbage = 0;
+    }
+
+    /** @return Estaciones indexadas */
+    public int size() {
+        return slotById.size();
+    }
+
+    /**
+     * Busca estaciones cuyo ID o nombre contenga la consulta.
+     *
+     * @param query Texto buscado; vacío para listar estaciones por orden de ID
+     * @param limit Número máximo de resultados
+     * @return IDs de las mejores coincidencias, de más a menos relevante
+     */
+    public List<String> search(String query, int limit) {
+        if (limit <= 0) return List.of();
+        String q = normalize(query);
+        Comparator<Hit> order = q.isEmpty() ? BY_ID : BEST_FIRST;
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, order.reversed());
+        forCandidates(q, entry -> offer(best, order, entry, q, limit));
+        return ids(new ArrayList<>(best), order);
+    }
+
+    /**
+     * Como {@link #search}, pero sin límite: todas las coincidencias, para filtrar una
+     * tabla completa en lugar de sugerir unas pocas.
+     *
+     * @param query Texto buscado; vacío para listar todas las estaciones por orden de ID
+     * @return IDs de todas las coincidencias, de más a menos relevante
+     */
+    public List<String> searchAll(String query) {
+        String q = normalize(query);
+        List<Hit> hits = new ArrayList<>();
+        forCandidates(q, entry -> {
+            int rank = rank(entry, q);
+            if (rank >= 0) hits.add(new Hit(entry, rank));
+        });
+        return ids(hits, q.isEmpty() ? BY_ID : BEST_FIRST);
+    }
+
+    /** Entrega cada estación que puede coincidir con la consulta normalizada, una vez */
+    private void forCandidates(String q, Consumer<Entry> action) {
+        if (q.length() < 3) {
+            for (int slot = 0; slot < used; slot++) {
+                if (slots[slot] != null) action.accept(slots[slot]);
+            }
+            return;
+        }
+        IntList candidates = rarestGram(q);
+        if (candidates == null) return;
+        BitSet seen = new BitSet(used);
+        for (int i = 0; i < candidates.size; i++) {
+            int slot = candidates.values[i];
+            if (seen.get(slot)) continue;
+            seen.set(slot);
+            if (slots[slot] != null) action.accept(slots[slot]);
+        }
+    }
+
+    private static List<String> ids(List<Hit> hits, Comparator<Hit> order) {
+        hits.sort(order);
+        List<String> ids = new ArrayList<>(hits.size());
+        for (Hit h : hits) {
+            ids.add(h.entry.id);
+        }
+        return ids;
+    }
+
+    /** Añade la estación a los mejores resultados si coincide y tiene sitio */
+    private static void offer(PriorityQueue<Hit> best, Comparator<Hit> order, Entry entry, String q, int limit) {
+        int rank = rank(entry, q);
+        if (rank < 0) return;
+        Hit hit = new Hit(entry, rank);
+        if (best.size() < limit) {
+            best.add(hit);
+        } else if (order.compare(hit, best.peek()) < 0) {
+            best.poll();
+            best.add(hit);
+        }
+    }
+
+    /** @return Relevancia (menor es mejor), o -1 si no coincide */
+    private static int rank(Entry e, String q) {
+        if (q.isEmpty()) return 0;
+        if (e.normId.equals(q)) return 0;
+        if (e.normId.startsWith(q)) return 1;
+        if (e.name.startsWith(q)) return 2;
+        int at = e.name.indexOf(q);
+        if (at > 0 && e.name.charAt(at - 1) == ' ') return 3;
+        if (at >= 0 || e.normId.contains(q)) return 4;
+        return -1;
+    }
+
+    // ---- Trigramas ----
+
+    /** @return Lista más corta entre los trigramas de la consulta, o null si alguno falta */
+    private IntList rarestGram(String q) {
+        IntList rarest = null;
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            IntList list = postings.get(gram(q, i));
+            if (list == null) return null;
+            if (rarest == null || list.size < rarest.size) rarest = list;
+        }
+        return rarest;
+    }
+
+    private void post(Entry entry, int slot) {
+        postText(entry.normId, slot);
+        postText(entry.name, slot);
+    }
+
+    private void postText(String text, int slot) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            postings.computeIfAbsent(gram(text, i), g -> new IntList()).add(slot);
+        }
+    }
+
+    private static long gram(String s, int at) {
+        return ((long) s.charAt(at) << 32) | ((long) s.charAt(at + 1) << 16) | s.charAt(at + 2);
+    }
+
+    private static int gramCount(Entry e) {
+        return Math.max(0, e.normId.length() - 2) + Math.max(0, e.name.length() - 2);
+    }
+
+    /** Reconstruye las listas cuando tienen más entradas obsoletas que válidas */
+    private void compactIfNeeded() {
+        if (garbage < 4096 || garbage <= liveGrams) return;
+        postings.clear();
+        garbage = 0;
+        for (int slot = 0; slot < used; slot++) {
+            if (slots[slot] != null) post(slots[slot], slot);
+        }
+    }
+
+    /** Lista de enteros que solo crece */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+    }
+}
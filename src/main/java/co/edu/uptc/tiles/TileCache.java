@@ -0,0 +1,287 @@
+package co.edu.uptc.tiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.*;
+import java.sql.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caché de tiles del mapa en tres niveles: memoria (LRU), disco y red.
+ *
+ * <p>Orden de búsqueda de un tile {@code z/x/y}:</p>
+ * <ol>
+ *   <li>Memoria: LRU limitada por bytes</li>
+ *   <li>Archivo MBTiles (SQLite) si se configuró y hay un driver JDBC de SQLite disponible</li>
+ *   <li>Directorio local con la estructura estándar {@code z/x/y.png}</li>
+ *   <li>Servidor de tiles remoto, solo si no se está en modo offline; el resultado
+ *       se guarda en el directorio local</li>
+ * </ol>
+ *
+ * <p>Las descargas concurrentes del mismo tile se comparten, de modo que la precarga
+ * y la vista del mapa nunca piden dos veces el mismo tile.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class TileCache {
+
+    private static final Logger LOGGER = Logger.getLogger(TileCache.class.getName());
+
+    /** Presupuesto por defecto de la caché en memoria */
+    public static final long DEFAULT_MEMORY_BYTES = 64L * 1024 * 1024;
+
+    /** Servidor remoto usado cuando se permite acceso a la red */
+    public static final String DEFAULT_UPSTREAM = "https://tile.openstreetmap.org/{z}/{x}/{y}.png";
+
+    /**
+     * Dominio de los servidores públicos de OpenStreetMap, cuya política de uso prohíbe
+     * descargar tiles en bloque: solo se les piden los que muestra el mapa.
+     */
+    private static final String PUBLIC_OSM_DOMAIN = "openstreetmap.org";
+
+    private final Path directory;
+    private final Path mbtiles;
+    private final String upstream;
+    private final boolean offline;
+    private final long memoryBudget;
+
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private long memoryBytes = 0;
+
+    private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private HttpClient httpClient;
+    private Connection mbtilesConnection;
+    private boolean mbtilesUnavailable;
+
+    /**
+     * @param directory Directorio de tiles {@code z/x/y.png} (se crea si no existe)
+     * @param mbtiles Archivo MBTiles opcional (puede ser null)
+     * @param upstream Plantilla del servidor remoto con {@code {z}}, {@code {x}} y {@code {y}}
+     * @param offline {@code true} para no acceder nunca a la red
+     * @param memoryBudget Bytes máximos en memoria
+     */
+    public TileCache(Path directory, Path mbtiles, String upstream, boolean offline, long memoryBudget) {
+        this.directory = directory;
+        this.mbtiles = mbtiles;
+        this.upstream = upstream;
+        this.offline = offline;
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Crea la caché con la configuración de las propiedades del sistema:
+     * {@code tiles.dir}, {@code tiles.mbtiles}, {@code tiles.upstream} y {@code tiles.offline}.
+     */
+    public static TileCache fromSystemProperties() {
+        Path dir = Paths.get(System.getProperty("tiles.dir",
+                Paths.get(System.getProperty("user.home"), ".transportroutes", "tiles").toString()));
+        String mb = System.getProperty("tiles.mbtiles");
+        return new TileCache(
+                dir,
+                mb == null || mb.isBlank() ? null : Paths.get(mb),
+                System.getProperty("tiles.upstream", DEFAULT_UPSTREAM),
+                Boolean.getBoolean("tiles.offline"),
+                DEFAULT_MEMORY_BYTES);
+    }
+
+    /**
+     * Obtiene un tile.
+     *
+     * @return Bytes PNG del tile, o null si no está disponible en ningún nivel
+     */
+    public byte[] get(int z, int x, int y) {
+        if (!isValid(z, x, y)) return null;
+        String key = key(z, x, y);
+
+        byte[] data = fromMemory(key);
+        if (data != null) return data;
+
+        data = fromMbtiles(z, x, y);
+        if (data == null) data = fromDisk(z, x, y);
+        if (data == null && !offline) data = fromUpstream(z, x, y, key);
+
+        if (data != null) toMemory(key, data);
+        return data;
+    }
+
+    /**
+     * Indica si el tile ya está disponible sin acceder a la red.
+     */
+    public boolean isCachedLocally(int z, int x, int y) {
+        if (fromMemory(key(z, x, y)) != null) return true;
+        return Files.isRegularFile(tilePath(z, x, y));
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Indica si se pueden descargar tiles que el mapa aún no ha pedido (precarga): solo
+     * con acceso a la red y un servidor remoto propio ({@code tiles.upstream}), nunca con
+     * los servidores públicos de OpenStreetMap.
+     */
+    public boolean allowsBulkDownload() {
+        if (offline || upstream == null) return false;
+        String host = host(upstream);
+        return host != null && !host.equals(PUBLIC_OSM_DOMAIN) && !host.endsWith("." + PUBLIC_OSM_DOMAIN);
+    }
+
+    /** Nombre del servidor de una plantilla de URL, o null si no tiene */
+    private static String host(String template) {
+        int start = template.indexOf("://");
+        if (start < 0) return null;
+        start += 3;
+        int end = start;
+        while (end < template.length() && "/:?#".indexOf(template.charAt(end)) < 0) end++;
+        String host = template.substring(start, end);
+        int userInfo = host.lastIndexOf('@');
+        if (userInfo >= 0) host = host.substring(userInfo + 1);
+        return host.isEmpty() ? null : host.toLowerCase(Locale.ROOT);
+    }
+
+    // ---- Memoria ----
+
+    private synchronized byte[] fromMemory(String key) {
+        return memory.get(key);
+    }
+
+    private synchronized void toMemory(String key, byte[] data) {
+        byte[] previous = memory.put(key, data);
+        if (previous != null) memoryBytes -= previous.length;
+        memoryBytes += data.length;
+
+        Iterator<Map.Entry<String, byte[]>> it = memory.entrySet().iterator();
+        while (memoryBytes > memoryBudget && it.hasNext()) {
+            Map.Entry<String, byte[]> eldest = it.next();
+            if (eldest.getKey().equals(key)) continue;
+            memoryBytes -= eldest.getValue().length;
+            it.remove();
+        }
+    }
+
+    synchronized long memoryBytes() {
+        return memoryBytes;
+    }
+
+    // ---- MBTiles ----
+
+    private synchronized byte[] fromMbtiles(int z, int x, int y) {
+        if (mbtiles == null || mbtilesUnavailable) return null;
+        try {
+            if (mbtilesConnection == null) {
+                if (!Files.isRegularFile(mbtiles)) {
+                    mbtilesUnavailable = true;
+                    return null;
+                }
+                mbtilesConnection = DriverManager.getConnection("jdbc:sqlite:" + mbtiles.toAbsolutePath());
+            }
+            // MBTiles usa el esquema TMS: la fila se cuenta desde el sur
+            int tmsRow = (1 << z) - 1 - y;
+            try (PreparedStatement ps = mbtilesConnection.prepareStatement(
+                    "SELECT tile_data FROM tiles WHERE zoom_level = ? AND tile_column = ? AND tile_row = ?")) {
+                ps.setInt(1, z);
+                ps.setInt(2, x);
+                ps.setInt(3, tmsRow);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getBytes(1) : null;
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "MBTiles no disponible (" + mbtiles + "): " + e.getMessage());
+            mbtilesUnavailable = true;
+            return null;
+        }
+    }
+
+    // ---- Disco ----
+
+    private byte[] fromDisk(int z, int x, int y) {
+        Path p = tilePath(z, x, y);
+        try {
+            return Files.isRegularFile(p) ? Files.readAllBytes(p) : null;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "No se pudo leer el tile " + p + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void toDisk(int z, int x, int y, byte[] data) {
+        Path p = tilePath(z, x, y);
+        try {
+            Files.createDirectories(p.getParent());
+            Path tmp = Files.createTempFile(p.getParent(), "tile", ".tmp");
+            Files.write(tmp, data);
+            Files.move(tmp, p, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "No se pudo guardar el tile " + p + ": " + e.getMessage());
+        }
+    }
+
+    private Path tilePath(int z, int x, int y) {
+        return directory.resolve(Integer.toString(z)).resolve(Integer.toString(x)).resolve(y + ".png");
+    }
+
+    // ---- Red ----
+
+    private byte[] fromUpstream(int z, int x, int y, String key) {
+        CompletableFuture<byte[]> own = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) return existing.join();
+
+        byte[] data = null;
+        try {
+            String url = upstream.replace("{z}", Integer.toString(z))
+                                 .replace("{x}", Integer.toString(x))
+                                 .replace("{y}", Integer.toString(y));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("User-Agent", "TransportRoutes/1.0 (tile cache)")
+                    .GET()
+                    .build();
+            HttpResponse<byte[]> response = client().send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 200) {
+                data = response.body();
+                toDisk(z, x, y, data);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Tile remoto no disponible " + key + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.remove(key);
+            own.complete(data);
+        }
+        return data;
+    }
+
+    private synchronized HttpClient client() {
+        if (httpClient == null) {
+            httpClient = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+        }
+        return httpClient;
+    }
+
+    private static boolean isValid(int z, int x, int y) {
+        if (z < 0 || z > 22) return false;
+        int max = 1 << z;
+        return x >= 0 && x < max && y >= 0 && y < max;
+    }
+
+    private static String key(int z, int x, int y) {
+        return z + "/" + x + "/" + y;
+    }
+}
@@ -0,0 +1,189 @@
+package co.edu.uptc.tiles;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Servidor HTTP embebido (solo en la interfaz local) que entrega al WebView los
+ * tiles del mapa desde la {@link TileCache}.
+ *
+ * <p>Leaflet pide los tiles a {@code http://127.0.0.1:<puerto>/tiles/{z}/{x}/{y}.png},
+ * de modo que el mapa funciona sin red si los tiles están en caché, y sin latencia
+ * de red cuando ya se descargaron.</p>
+ *
+ * <p>Opcionalmente precarga los tiles del área del grafo cargado para los niveles de
+ * zoom de trabajo habituales. La precarga se activa con {@code tiles.prefetch=true} y
+ * solo funciona con un servidor remoto propio ({@link TileCache#allowsBulkDownload()}):
+ * con el servidor por defecto de OpenStreetMap solo se descargan los tiles que el mapa
+ * pide.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class TileServer {
+
+    private static final Logger LOGGER = Logger.getLogger(TileServer.class.getName());
+
+    /** Rango de zoom que se precarga para el área del grafo */
+    public static final int PREFETCH_MIN_ZOOM = 10;
+    public static final int PREFETCH_MAX_ZOOM = 15;
+
+    /** Límite de tiles por precarga, para no saturar el servidor remoto */
+    public static final int MAX_PREFETCH_TILES = 3000;
+
+    /** Propiedad del sistema que activa la precarga */
+    public static final String PREFETCH_PROPERTY = "tiles.prefetch";
+
+    private static TileServer instance;
+
+    private final TileCache cache;
+    private final boolean prefetchEnabled;
+    private HttpServer server;
+    private final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "tile-prefetch");
+        t.setDaemon(true);
+        return t;
+    });
+    private Future<?> prefetchTask;
+
+    /**
+     * @param cache Caché de tiles
+     * @param prefetchRequested {@code true} si se pidió la precarga; se ignora si el
+     *        servidor remoto no la admite
+     */
+    TileServer(TileCache cache, boolean prefetchRequested) {
+        this.cache = cache;
+        this.prefetchEnabled = prefetchRequested && cache.allowsBulkDownload();
+        if (prefetchRequested && !prefetchEnabled && !cache.isOffline()) {
+            LOGGER.warning("Precarga de tiles desactivada: requiere un servidor propio en tiles.upstream");
+        }
+    }
+
+    public static synchronized TileServer getInstance() {
+        if (instance == null) {
+            instance = new TileServer(TileCache.fromSystemProperties(), Boolean.getBoolean(PREFETCH_PROPERTY));
+        }
+        return instance;
+    }
+
+    /**
+     * @return {@code true} si {@link #prefetch} descarga tiles
+     */
+    public boolean isPrefetchEnabled() {
+        return prefetchEnabled;
+    }
+
+    /**
+     * Inicia el servidor si aún no está en marcha.
+     *
+     * @return {@code true} si el servidor está disponible
+     */
+    public synchronized boolean start() {
+        if (server != null) return true;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/tiles/", this::handle);
+            server.setExecutor(Executors.newFixedThreadPool(4, r -> {
+                Thread t = new Thread(r, "tile-server");
+                t.setDaemon(true);
+                return t;
+            }));
+            server.start();
+            LOGGER.info("Servidor de tiles en " + getUrlTemplate());
+            return true;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "No se pudo iniciar el servidor de tiles: " + e.getMessage(), e);
+            server = null;
+            return false;
+        }
+    }
+
+    /**
+     * @return Plantilla de URL para {@code L.tileLayer}, o null si el servidor no está iniciado
+     */
+    public synchronized String getUrlTemplate() {
+        if (server == null) return null;
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/tiles/{z}/{x}/{y}.png";
+    }
+
+    /**
+     * Precarga en segundo plano los tiles que cubren un rectángulo geográfico.
+     *
+     * <p>No hace nada salvo que la precarga esté activada ({@link #isPrefetchEnabled()}).
+     * Una nueva precarga cancela la anterior y los tiles ya presentes en disco se
+     * omiten.</p>
+     */
+    public synchronized void prefetch(double south, double west, double north, double east) {
+        if (!prefetchEnabled) return;
+        if (prefetchTask != null) prefetchTask.cancel(true);
+
+        prefetchTask = prefetchExecutor.submit(() -> {
+            int fetched = 0;
+            for (int z = PREFETCH_MIN_ZOOM; z <= PREFETCH_MAX_ZOOM; z++) {
+                int minX = tileX(west, z), maxX = tileX(east, z);
+                int minY = tileY(north, z), maxY = tileY(south, z);
+                for (int x = minX; x <= maxX; x++) {
+                    for (int y = minY; y <= maxY; y++) {
+                        if (Thread.currentThread().isInterrupted() || fetched >= MAX_PREFETCH_TILES) return;
+                        if (cache.isCachedLocally(z, x, y)) continue;
+                        cache.get(z, x, y);
+                        fetched++;
+                    }
+                }
+            }
+            LOGGER.info("Precarga de tiles terminada: " + fetched + " tiles descargados");
+        });
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            // /tiles/{z}/{x}/{y}.png
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            byte[] data = null;
+            if (parts.length == 5 && parts[4].endsWith(".png")) {
+                try {
+                    int z = Integer.parseInt(parts[2]);
+                    int x = Integer.parseInt(parts[3]);
+                    int y = Integer.parseInt(parts[4].substring(0, parts[4].length() - 4));
+                    data = cache.get(z, x, y);
+                } catch (NumberFormatException ignored) {
+                    // ruta inválida: 404
+                }
+            }
+
+            if (data == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "image/png");
+            exchange.getResponseHeaders().set("Cache-Control", "max-age=86400");
+            exchange.sendResponseHeaders(200, data.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(data);
+            }
+        }
+    }
+
+    static int tileX(double lng, int z) {
+        int n = 1 << z;
+        return Math.max(0, Math.min(n - 1, (int) Math.floor((lng + 180.0) / 360.0 * n)));
+    }
+
+    static int tileY(double lat, int z) {
+        int n = 1 << z;
+        double rad = Math.toRadians(Math.max(-85.05112878, Math.min(85.05112878, lat)));
+        double y = (1 - Math.log(Math.tan(rad) + 1 / Math.cos(rad)) / Math.PI) / 2 * n;
+        return Math.max(0, Math.min(n - 1, (int) Math.floor(y)));
+    }
+}
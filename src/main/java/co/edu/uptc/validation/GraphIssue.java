@@ -0,0 +1,37 @@
+package co.edu.uptc.validation;
+
+/**
+ * Problema de integridad encontrado por {@link GraphValidator}.
+ *
+ * @param type Tipo de problema
+ * @param nodeId Estación afectada (la de salida, si es una arista)
+ * @param otherId Otra estación implicada: destino de la arista o estación con el mismo
+ *                nombre; null si no hay
+ * @param detail Descripción legible
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public record GraphIssue(Type type, String nodeId, String otherId, String detail) {
+
+    public enum Type {
+        /** Arista hacia una estación que no existe */
+        DANGLING_EDGE,
+        /** Arista de una estación a sí misma */
+        SELF_LOOP,
+        /** Distancia nula, negativa o no numérica */
+        INVALID_DISTANCE,
+        /** Los dos sentidos de una conexión tienen distancias distintas */
+        ASYMMETRIC_DISTANCE,
+        /** Latitud o longitud fuera de rango o no numérica */
+        COORDINATE_OUT_OF_RANGE,
+        /** Dos estaciones con el mismo nombre (sin distinguir mayúsculas) */
+        DUPLICATE_NAME
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + nodeId + (otherId != null ? " → " + otherId : "") + ": " + detail;
+    }
+}
@@ -0,0 +1,72 @@
+package co.edu.uptc.validation;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de {@link GraphValidator#validate}: los problemas encontrados, ordenados por
+ * tipo y estación, y cuántos se corrigieron.
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public final class GraphReport {
+
+    private final List<GraphIssue> issues;
+    private final Map<GraphIssue.Type, Integer> counts = new EnumMap<>(GraphIssue.Type.class);
+    private final int nodeCount;
+    private final long edgeCount;
+    private final long elapsedNanos;
+    private final int repaired;
+
+    GraphReport(List<GraphIssue> issues, int nodeCount, long edgeCount, long elapsedNanos, int repaired) {
+        this.issues = Collections.unmodifiableList(issues);
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.elapsedNanos = elapsedNanos;
+        this.repaired = repaired;
+        for (GraphIssue issue : issues) {
+            counts.merge(issue.type(), 1, Integer::sum);
+        }
+    }
+
+    public List<GraphIssue> getIssues() {
+        return issues;
+    }
+
+    /** @return Problemas de un tipo */
+    public int count(GraphIssue.Type type) {
+        return counts.getOrDefault(type, 0);
+    }
+
+    /** @return {@code true} si no se encontró ningún problema */
+    public boolean isClean() {
+        return issues.isEmpty();
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public long getEdgeCount() {
+        return edgeCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /** @return Problemas corregidos (0 si no se pidió reparar) */
+    public int getRepaired() {
+        return repaired;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GraphReport[%d estaciones, %d aristas, %d problemas %s, %d corregidos, %d ms]",
+                nodeCount, edgeCount, issues.size(), counts, repaired, getElapsedMillis());
+    }
+}
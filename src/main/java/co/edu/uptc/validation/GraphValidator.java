@@ -0,0 +1,248 @@
+package co.edu.uptc.validation;
+
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.Node;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Comprueba la integridad de un grafo completo, por ejemplo recién cargado o importado.
+ *
+ * <p>Donde {@link StationValidator} revisa un formulario, este validador recorre todas
+ * las estaciones y aristas en dos pasadas fork-join sobre un {@link ForkJoinPool}:</p>
+ * <ol>
+ *   <li>Asigna cada nombre (sin distinguir mayúsculas) a la estación de menor ID que lo
+ *       usa, para que el resultado no dependa del reparto entre hilos.</li>
+ *   <li>Revisa cada estación y sus aristas: destinos inexistentes, bucles, distancias no
+ *       válidas, distancias distintas en los dos sentidos, coordenadas fuera de rango y
+ *       nombres repetidos.</li>
+ * </ol>
+ *
+ * <p>Las pasadas solo leen el grafo, así que no debe modificarse mientras tanto. Con
+ * {@code repair} se corrigen después, en un solo hilo, los problemas que tienen
+ * arreglo seguro: se eliminan las aristas rotas, los dos sentidos de una conexión se
+ * igualan a la distancia menor y las coordenadas no válidas se quitan. Los nombres
+ * repetidos solo se informan.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public final class GraphValidator {
+
+    /** Estaciones que revisa cada tarea sin dividirse más */
+    static final int THRESHOLD = 2048;
+
+    private static final Comparator<String> IDS = Comparator.nullsFirst(Comparator.naturalOrder());
+    private static final Comparator<GraphIssue> ORDER = Comparator
+            .comparing(GraphIssue::type)
+            .thenComparing(GraphIssue::nodeId, IDS)
+            .thenComparing(GraphIssue::otherId, IDS);
+
+    private final ForkJoinPool pool;
+
+    /** Validador sobre el pool común */
+    public GraphValidator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public GraphValidator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Valida un grafo y, si se pide, corrige lo que tiene arreglo seguro.
+     *
+     * @param nodes Estaciones por ID
+     * @param repair {@code true} para corregir los problemas encontrados
+     * @return Informe con los problemas encontrados (antes de corregir)
+     */
+    public GraphReport validate(Map<String, Node> nodes, boolean repair) {
+        long start = System.nanoTime();
+        Node[] all = nodes.values().toArray(new Node[0]);
+
+        Map<String, String> names = new ConcurrentHashMap<>(Math.max(16, all.length * 2));
+        pool.invoke(new NamePass(all, 0, all.length, names));
+        Partial result = pool.invoke(new CheckPass(all, 0, all.length, nodes, names));
+
+        result.issues.sort(ORDER);
+        int repaired = repair ? repair(nodes, result.issues) : 0;
+        return new GraphReport(result.issues, all.length, result.edges, System.nanoTime() - start, repaired);
+    }
+
+    // ---- Pasadas ----
+
+    /** Asigna cada nombre a la estación de menor ID */
+    private static final class NamePass extends RecursiveAction {
+        private final Node[] all;
+        private final int from;
+        private final int to;
+        private final Map<String, String> names;
+
+        NamePass(Node[] all, int from, int to, Map<String, String> names) {
+            this.all = all;
+            this.from = from;
+            this.to = to;
+            this.names = names;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new NamePass(all, from, mid, names), new NamePass(all, mid, to, names));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                Node n = all[i];
+                String key = nameKey(n);
+                if (key != null) {
+                    names.merge(key, n.getId(), (a, b) -> a.compareTo(b) <= 0 ? a : b);
+                }
+            }
+        }
+    }
+
+    /** Revisa estaciones y aristas */
+    private static final class CheckPass extends RecursiveTask<Partial> {
+        private final Node[] all;
+        private final int from;
+        private final int to;
+        private final Map<String, Node> nodes;
+        private final Map<String, String> names;
+
+        CheckPass(Node[] all, int from, int to, Map<String, Node> nodes, Map<String, String> names) {
+            this.all = all;
+            this.from = from;
+            this.to = to;
+            this.nodes = nodes;
+            this.names = names;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from > THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                CheckPass left = new CheckPass(all, from, mid, nodes, names);
+                left.fork();
+                Partial right = new CheckPass(all, mid, to, nodes, names).compute();
+                return left.join().merge(right);
+            }
+            Partial partial = new Partial();
+            for (int i = from; i < to; i++) {
+                check(all[i], partial);
+            }
+            return partial;
+        }
+
+        private void check(Node n, Partial out) {
+            String id = n.getId();
+            Double lat = n.getLatitude();
+            Double lng = n.getLongitude();
+            if ((lat != null && !(lat >= -90 && lat <= 90)) || (lng != null && !(lng >= -180 && lng <= 180))) {
+                out.add(GraphIssue.Type.COORDINATE_OUT_OF_RANGE, id, null, "Coordenadas " + lat + ", " + lng);
+            }
+
+            String key = nameKey(n);
+            if (key != null) {
+                String owner = names.get(key);
+                if (!id.equals(owner)) {
+                    out.add(GraphIssue.Type.DUPLICATE_NAME, id, owner, "Nombre repetido: " + n.getName());
+                }
+            }
+
+            for (Edge e : n.getEdges()) {
+                out.edges++;
+                String toId = e.getToId();
+                double d = e.getDistance();
+                Node target = toId != null ? nodes.get(toId) : null;
+                if (target == null) {
+                    out.add(GraphIssue.Type.DANGLING_EDGE, id, toId, "Destino inexistente");
+                } else if (toId.equals(id)) {
+                    out.add(GraphIssue.Type.SELF_LOOP, id, toId, "Arista a sí misma");
+                } else if (!validDistance(d)) {
+                    out.add(GraphIssue.Type.INVALID_DISTANCE, id, toId, "Distancia " + d);
+                } else if (id.compareTo(toId) < 0) {
+                    // Cada conexión se compara una vez, desde la estación de menor ID
+                    Edge back = target.getEdgeTo(id);
+                    if (back != null && validDistance(back.getDistance()) && back.getDistance() != d) {
+                        out.add(GraphIssue.Type.ASYMMETRIC_DISTANCE, id, toId,
+                                "Distancias " + d + " y " + back.getDistance());
+                    }
+                }
+            }
+        }
+    }
+
+    /** Problemas y aristas contadas por una tarea */
+    private static final class Partial {
+        final List<GraphIssue> issues = new ArrayList<>();
+        long edges;
+
+        void add(GraphIssue.Type type, String nodeId, String otherId, String detail) {
+            issues.add(new GraphIssue(type, nodeId, otherId, detail));
+        }
+
+        Partial merge(Partial other) {
+            issues.addAll(other.issues);
+            edges += other.edges;
+            return this;
+        }
+    }
+
+    // ---- Reparación ----
+
+    /**
+     * @return Problemas corregidos
+     */
+    private static int repair(Map<String, Node> nodes, List<GraphIssue> issues) {
+        int repaired = 0;
+        for (GraphIssue issue : issues) {
+            Node n = nodes.get(issue.nodeId());
+            if (n == null) continue;
+            switch (issue.type()) {
+                case DANGLING_EDGE, SELF_LOOP, INVALID_DISTANCE -> {
+                    if (issue.otherId() != null) {
+                        n.removeEdgeTo(issue.otherId());
+                    } else {
+                        n.setEdges(n.getEdges().stream().filter(e -> e.getToId() != null).toList());
+                    }
+                    repaired++;
+                }
+                case ASYMMETRIC_DISTANCE -> {
+                    Edge there = n.getEdgeTo(issue.otherId());
+                    Edge back = nodes.get(issue.otherId()).getEdgeTo(n.getId());
+                    double d = Math.min(there.getDistance(), back.getDistance());
+                    there.setDistance(d);
+                    back.setDistance(d);
+                    repaired++;
+                }
+                case COORDINATE_OUT_OF_RANGE -> {
+                    n.setLatitude(null);
+                    n.setLongitude(null);
+                    repaired++;
+                }
+                case DUPLICATE_NAME -> { }
+            }
+        }
+        return repaired;
+    }
+
+    private static String nameKey(Node n) {
+        String name = n.getName();
+        if (name == null || name.isBlank() || n.getId() == null) return null;
+        return name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean validDistance(double d) {
+        return d > 0 && d < Double.POSITIVE_INFINITY;
+    }
+}
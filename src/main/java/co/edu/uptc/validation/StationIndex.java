@@ -0,0 +1,107 @@
+package co.edu.uptc.validation;
+
+import co.edu.uptc.model.Node;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Índices de IDs y nombres de estación sin distinguir mayúsculas, para que
+ * {@link StationValidator} compruebe duplicados sin recorrer la red.
+ *
+ * <p>{@code GraphController} mantiene el índice del grafo actual al añadir, editar y
+ * borrar estaciones. Se cuentan las apariciones de cada clave porque un archivo
+ * cargado puede traer IDs o nombres repetidos.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public final class StationIndex {
+
+    /** Clave del nombre de cada estación indexada, por ID exacto */
+    private final Map<String, String> nameById = new HashMap<>();
+    private final Map<String, Integer> idCounts = new HashMap<>();
+    private final Map<String, Integer> nameCounts = new HashMap<>();
+
+    /** Índice vacío */
+    public StationIndex() { }
+
+    /**
+     * @return Índice con las estaciones indicadas
+     */
+    public static StationIndex of(Collection<Node> nodes) {
+        StationIndex index = new StationIndex();
+        for (Node n : nodes) {
+            index.add(n);
+        }
+        return index;
+    }
+
+    /**
+     * Indexa una estación. Si ya estaba indexada, se actualiza su nombre.
+     */
+    public void add(Node n) {
+        if (n == null || n.getId() == null) return;
+        remove(n.getId());
+        String nameKey = key(n.getName());
+        nameById.put(n.getId(), nameKey);
+        idCounts.merge(key(n.getId()), 1, Integer::sum);
+        if (nameKey != null) nameCounts.merge(nameKey, 1, Integer::sum);
+    }
+
+    /**
+     * Quita una estación del índice.
+     *
+     * @param id ID exacto de la estación
+     * @return {@code true} si estaba indexada
+     */
+    public boolean remove(String id) {
+        if (id == null || !nameById.containsKey(id)) return false;
+        String nameKey = nameById.remove(id);
+        decrement(idCounts, key(id));
+        if (nameKey != null) decrement(nameCounts, nameKey);
+        return true;
+    }
+
+    public void clear() {
+        nameById.clear();
+        idCounts.clear();
+        nameCounts.clear();
+    }
+
+    /** @return Estaciones indexadas */
+    public int size() {
+        return nameById.size();
+    }
+
+    /**
+     * @return {@code true} si alguna estación tiene ese ID, sin distinguir mayúsculas
+     */
+    public boolean containsId(String id) {
+        return id != null && idCounts.containsKey(key(id));
+    }
+
+    /**
+     * @param name Nombre buscado, sin distinguir mayúsculas
+     * @param exceptId Estación que no cuenta (la que se está editando), o null
+     * @return {@code true} si otra estación usa ese nombre
+     */
+    public boolean containsName(String name, String exceptId) {
+        String nameKey = key(name);
+        if (nameKey == null) return false;
+        int count = nameCounts.getOrDefault(nameKey, 0);
+        if (exceptId != null && nameKey.equals(nameById.get(exceptId))) count--;
+        return count > 0;
+    }
+
+    private static void decrement(Map<String, Integer> counts, String key) {
+        counts.computeIfPresent(key, (k, c) -> c > 1 ? c - 1 : null);
+    }
+
+    private static String key(String s) {
+        return s == null ? null : s.toLowerCase(Locale.ROOT);
+    }
+}
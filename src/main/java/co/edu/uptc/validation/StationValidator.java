@@ -1,10 +1,25 @@
 package co.edu.uptc.validation;
 
 import co.edu.uptc.model.Node;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.ResourceBundle;
+import java.util.regex.Pattern;
 
 public class StationValidator {
 
+    private static final Pattern ID_PATTERN = Pattern.compile("EST\\d{3}");
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-zÁÉÍÓÚÜáéíóúüÑñ0-9 ]+");
+
+    /**
+     * Estación rechazada por {@link #validateAll}.
+     *
+     * @param index Posición en la lista validada
+     * @param id ID de la estación
+     * @param message Mensaje traducido del primer error encontrado
+     */
+    public record Rejection(int index, String id, String message) { }
+
     public static void validate(
             String id,
             String name,
@@ -14,41 +29,25 @@ public class StationValidator {
             List<Node> existingNodes,
             java.util.ResourceBundle bundle
     ) throws Exception {
+        validate(id, name, latS, lngS, originalId, StationIndex.of(existingNodes), bundle);
+    }
 
-        // === ID ===
-        if (id == null || id.isBlank()) {
-            throw new Exception(bundle.getString("error.id.empty"));
-        }
-
-        if (!id.matches("EST\\d{3}")) {
-            throw new Exception(bundle.getString("error.id.invalid"));
-        }
-
-        if (originalId == null || !originalId.equalsIgnoreCase(id)) {
-            boolean duplicateId = existingNodes.stream()
-                    .anyMatch(n -> n.getId().equalsIgnoreCase(id));
-            if (duplicateId) {
-                throw new Exception(bundle.getString("error.id.duplicate"));
-            }
-        }
-
-        // === NAME ===
-        if (name == null || name.isBlank()) {
-            throw new Exception(bundle.getString("error.name.empty"));
-        }
-
-        if (!name.matches("[A-Za-zÁÉÍÓÚÜáéíóúüÑñ0-9 ]+")) {
-            throw new Exception(bundle.getString("error.name.invalid"));
-        }
-
-        if (name.length() < 3 || name.length() > 50) {
-            throw new Exception(bundle.getString("error.name.invalid_length"));
-        }
-
-        boolean duplicateName = existingNodes.stream()
-                .anyMatch(n -> n.getName().equalsIgnoreCase(name));
-        if (duplicateName) {
-            throw new Exception(bundle.getString("error.duplicate.name"));
+    /**
+     * Valida el formulario de una estación contra el índice del grafo
+     * ({@code GraphController#getStationIndex}), sin recorrer la red.
+     */
+    public static void validate(
+            String id,
+            String name,
+            String latS,
+            String lngS,
+            String originalId,
+            StationIndex existing,
+            ResourceBundle bundle
+    ) throws Exception {
+        String error = checkIdAndName(id, name, originalId, existing, null);
+        if (error != null) {
+            throw new Exception(bundle.getString(error));
         }
 
         // === LATITUDE ===
@@ -73,4 +72,83 @@ public class StationValidator {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Valida de una vez muchas estaciones nuevas, por ejemplo de una importación.
+     *
+     * <p>Cada estación se compara con el índice del grafo y con las aceptadas antes en
+     * la misma lista, así que el coste crece con el tamaño de la lista y no con su
+     * cuadrado. El índice del grafo no se modifica.</p>
+     *
+     * @param stations Estaciones a añadir
+     * @param existing Índice del grafo actual
+     * @return Estaciones rechazadas, en el orden de la lista (vacía si todas son válidas)
+     */
+    public static List<Rejection> validateAll(List<Node> stations, StationIndex existing, ResourceBundle bundle) {
+        List<Rejection> rejected = new ArrayList<>();
+        StationIndex accepted = new StationIndex();
+        for (int i = 0; i < stations.size(); i++) {
+            Node n = stations.get(i);
+            String error = n == null ? "error.id.empty"
+                    : checkIdAndName(n.getId(), n.getName(), null, existing, accepted);
+            if (error == null) error = checkCoordinates(n.getLatitude(), n.getLongitude());
+            if (error != null) {
+                rejected.add(new Rejection(i, n == null ? null : n.getId(), bundle.getString(error)));
+            } else {
+                accepted.add(n);
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * @param batch Estaciones ya aceptadas en el mismo lote, o null
+     * @return Clave del mensaje de error, o null si el ID y el nombre son válidos
+     */
+    private static String checkIdAndName(String id, String name, String originalId,
+                                         StationIndex existing, StationIndex batch) {
+        // === ID ===
+        if (id == null || id.isBlank()) {
+            return "error.id.empty";
+        }
+
+        if (!ID_PATTERN.matcher(id).matches()) {
+            return "error.id.invalid";
+        }
+
+        if (originalId == null || !originalId.equalsIgnoreCase(id)) {
+            if (existing.containsId(id) || (batch != null && batch.containsId(id))) {
+                return "error.id.duplicate";
+            }
+        }
+
+        // === NAME ===
+        if (name == null || name.isBlank()) {
+            return "error.name.empty";
+        }
+
+        if (!NAME_PATTERN.matcher(name).matches()) {
+            return "error.name.invalid";
+        }
+
+        if (name.length() < 3 || name.length() > 50) {
+            return "error.name.invalid_length";
+        }
+
+        // La estación que se edita puede conservar su nombre
+        if (existing.containsName(name, originalId) || (batch != null && batch.containsName(name, null))) {
+            return "error.duplicate.name";
+        }
+        return null;
+    }
+
+    private static String checkCoordinates(Double lat, Double lng) {
+        if (lat != null && !(lat >= -90 && lat <= 90)) {
+            return lat.isNaN() ? "error.lat.invalid_format" : "error.lat.out_of_range";
+        }
+        if (lng != null && !(lng >= -180 && lng <= 180)) {
+            return lng.isNaN() ? "error.lon.invalid_format" : "error.lon.out_of_range";
+        }
+        return null;
+    }
+}
@@ -5,14 +5,17 @@ import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import co.edu.uptc.controller.GraphController;
+import co.edu.uptc.controller.GraphListener;
 import co.edu.uptc.model.Edge;
 import co.edu.uptc.model.Node;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-public class ConnectionsController {
+public class ConnectionsController implements GraphListener {
 
     @FXML private TableView<Edge> connectionsTable;
     @FXML private TableColumn<Edge, String> colFrom, colTo, colDistance, colTime;
@@ -50,6 +53,8 @@ public class ConnectionsController {
         });
         colDistance.setCellValueFactory(cd -> new SimpleStringProperty(String.valueOf(cd.getValue().getDistance())));
         
+        StationComboSearch.install(cmbFrom, graphController);
+        StationComboSearch.install(cmbTo, graphController);
         refreshData();
 
         connectionsTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSel, newSel) -> {
@@ -65,13 +70,13 @@ public class ConnectionsController {
         List<Edge> edges = graphController.getAllEdges();
         connectionsTable.getItems().setAll(edges);
 
-        List<String> ids = graphController.getAllNodes()
-                .stream()
-                .map(n -> n.getId())
-                .collect(Collectors.toList());
+        StationComboSearch.refresh(cmbFrom, graphController);
+        StationComboSearch.refresh(cmbTo, graphController);
+    }
 
-        cmbFrom.getItems().setAll(ids);
-        cmbTo.getItems().setAll(ids);
+    @Override
+    public void graphChanged() {
+        refreshData();
     }
 
     @FXML
@@ -96,15 +101,14 @@ public class ConnectionsController {
 
     @FXML
     private void onSearch() {
-        String q = searchField.getText().trim().toLowerCase();
+        String q = searchField.getText().trim();
         List<Edge> edges = graphController.getAllEdges();
 
         if (!q.isEmpty()) {
+            // Estaciones que coinciden por ID o nombre; luego, sus conexiones
+            Set<String> ids = new HashSet<>(graphController.searchNodeIds(q));
             edges = edges.stream()
-                    .filter(e ->
-                            e.getFromId().toLowerCase().contains(q) ||
-                            e.getToId().toLowerCase().contains(q)
-                    )
+                    .filter(e -> ids.contains(e.getFromId()) || ids.contains(e.getToId()))
                     .collect(Collectors.toList());
         }
 
@@ -113,8 +117,8 @@ public class ConnectionsController {
 
     @FXML
     private void onSaveConnection() {
-        String from = cmbFrom.getValue();
-        String to = cmbTo.getValue();
+        String from = StationComboSearch.selectedId(cmbFrom, graphController);
+        String to = StationComboSearch.selectedId(cmbTo, graphController);
         String distS = distanceField.getText().trim();
 
         // === VALIDACIONES ===
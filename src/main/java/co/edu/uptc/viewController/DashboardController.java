@@ -3,11 +3,12 @@ package co.edu.uptc.viewController;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import co.edu.uptc.controller.GraphController;
+import co.edu.uptc.controller.GraphListener;
 import co.edu.uptc.model.Edge;
 
 import java.util.ResourceBundle;
 
-public class DashboardController {
+public class DashboardController implements GraphListener {
 
     @FXML private Label lblStationCount;
     @FXML private Label lblConnectionCount;
@@ -29,17 +30,7 @@ public class DashboardController {
         bundle = ResourceBundle.getBundle("co.edu.uptc.i18n.messages");
         graphController = GraphController.getInstance();
 
-        // Actualizar estadísticas cada 2 segundos
-        javafx.animation.Timeline timeline = new javafx.animation.Timeline(
-             new javafx.animation.KeyFrame(
-                  javafx.util.Duration.seconds(2),
-                  event -> updateStatistics()
-             )
-        );
-        timeline.setCycleCount(javafx.animation.Timeline.INDEFINITE);
-        timeline.play();
-
-        // Actualización inicial
+        // Actualización inicial; después, solo cuando el grafo notifica un cambio
         updateStatistics();
     }
 
@@ -66,6 +57,11 @@ public class DashboardController {
         updateStatistics();
     }
 
+    @Override
+    public void graphChanged() {
+        updateStatistics();
+    }
+
     // 🔹 Quick Actions
     @FXML
     private void addStation() {
@@ -0,0 +1,58 @@
+package co.edu.uptc.viewController;
+
+import co.edu.uptc.controller.GraphController;
+import co.edu.uptc.controller.GraphController.LoadedGraph;
+import co.edu.uptc.persistence.LoadProgress;
+import co.edu.uptc.persistence.PersistenceException;
+import javafx.concurrent.Task;
+
+import java.util.ResourceBundle;
+
+/**
+ * Tarea de fondo que lee un archivo de grafo sin bloquear la interfaz.
+ *
+ * <p>El archivo se lee en un grafo nuevo ({@link GraphController#readGraph}); el grafo
+ * actual sigue en uso hasta que quien lanzó la tarea instala el resultado con
+ * {@link GraphController#replaceGraph} al terminar. El avance se publica en
+ * {@link #progressProperty()} (bytes leídos) y {@link #messageProperty()}
+ * (estaciones y megabytes). {@link #cancel()} interrumpe la lectura.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+public class GraphLoadTask extends Task<LoadedGraph> {
+
+    private final String path;
+    private final ResourceBundle bundle;
+
+    public GraphLoadTask(String path, ResourceBundle bundle) {
+        this.path = path;
+        this.bundle = bundle;
+    }
+
+    @Override
+    protected LoadedGraph call() {
+        updateMessage(bundle.getString("info.load.started"));
+
+        LoadedGraph loaded = GraphController.getInstance().readGraph(path, new LoadProgress() {
+            @Override
+            public void update(long nodesRead, long bytesRead, long totalBytes) {
+                if (totalBytes > 0) updateProgress(bytesRead, totalBytes);
+                updateMessage(String.format("%s: %,d · %.1f / %.1f MB",
+                        bundle.getString("graph.nodes"), nodesRead,
+                        bytesRead / 1048576.0, Math.max(totalBytes, 0) / 1048576.0));
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return GraphLoadTask.this.isCancelled();
+            }
+        });
+
+        if (loaded == null) {
+            throw new PersistenceException("No se pudo cargar el grafo: " + path);
+        }
+        return loaded;
+    }
+}
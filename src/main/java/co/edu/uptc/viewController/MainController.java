@@ -6,18 +6,28 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.HBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import co.edu.uptc.controller.AutosaveService;
+import co.edu.uptc.controller.DatabaseSyncService;
 import co.edu.uptc.controller.GraphController;
+import co.edu.uptc.controller.GraphListener;
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.RouteResult;
+import co.edu.uptc.persistence.BinaryRouteDAO;
+import co.edu.uptc.persistence.JdbcRouteDAO;
+import co.edu.uptc.persistence.PersistenceManager;
+import co.edu.uptc.validation.GraphReport;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
-import java.util.Locale;
-import java.util.MissingResourceException;
-import java.util.ResourceBundle;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
-public class MainController {
+public class MainController implements GraphListener {
 
     @FXML private TabPane mainTabPane;
     @FXML private AnchorPane dashboardContainer, stationsContainer, connectionsContainer, 
@@ -25,11 +35,44 @@ public class MainController {
     @FXML private ComboBox<Locale> cmbLocale;
     @FXML private Button btnLoadXml, btnSaveXml;
     @FXML private Label lblLanguage;
+    @FXML private HBox loadProgressBox;
+    @FXML private ProgressBar loadProgressBar;
+    @FXML private Label lblLoadProgress;
+    @FXML private Button btnCancelLoad;
 
     private ResourceBundle bundle;
     private Stage stage;
     private GraphController graphController;
-    private DashboardController dashboardController;
+    private Locale currentLocale;
+
+    /** Diario y guardado automático del archivo de trabajo (el último cargado o guardado), si no es una base */
+    private AutosaveService autosave;
+
+    /** Sincronización fila a fila cuando el archivo de trabajo es una base H2 */
+    private DatabaseSyncService databaseSync;
+
+    /** Carga de grafo en curso (la más reciente; una nueva carga cancela la anterior) */
+    private GraphLoadTask loadTask;
+
+    /** Ruta a mostrar en el mapa (se aplica también a vistas del mapa cargadas más tarde) */
+    private RouteResult routeForMap;
+
+    /** Vista cargada de una pestaña: su contenido y su controlador */
+    private record TabView(Node content, Object controller) { }
+
+    /** FXML y contenedor de cada pestaña */
+    private final Map<Tab, String> tabFxml = new HashMap<>();
+    private final Map<Tab, AnchorPane> tabContainers = new HashMap<>();
+
+    /**
+     * Vistas ya cargadas por idioma. Cada pestaña se carga la primera vez que se
+     * selecciona y se reutiliza después; al volver a un idioma no se vuelve a leer
+     * ningún FXML.
+     */
+    private final Map<Locale, Map<Tab, TabView>> viewCache = new HashMap<>();
+
+    /** Idiomas con vistas en caché que se perdieron cambios del grafo mientras estaban inactivas */
+    private final Set<Locale> staleLocales = new HashSet<>();
 
     @FXML private Tab tabDashboard;
     @FXML private Tab tabStations;
@@ -41,25 +84,32 @@ public class MainController {
 
     public void postLoadInit(Stage stage) {
         this.stage = stage;
+        // Escribir los cambios pendientes antes de salir
+        stage.setOnHidden(e -> {
+            autosave.close();
+            databaseSync.close();
+        });
     }
 
     @FXML
     public void initialize() {
         loadBundle();
         graphController = GraphController.getInstance();
+        graphController.addGraphListener(this);
+        autosave = new AutosaveService(graphController, PersistenceManager.getInstance().getRouteDAO(),
+                Platform::runLater, AutosaveService.DEFAULT_COMPACT_THRESHOLD);
+        graphController.addGraphListener(autosave);
+        databaseSync = new DatabaseSyncService(graphController, PersistenceManager.getInstance().getDatabaseDAO(),
+                Platform::runLater);
+        graphController.addGraphListener(databaseSync);
         autoLoadGraph();
 
-        // 🔹 Cargar vistas y pasar referencia
-        dashboardController = loadTabContentWithController("/co/edu/uptc/view/DashboardView.fxml", dashboardContainer);
-        if (dashboardController != null) {
-            dashboardController.setMainController(this);
-        }
-
-        loadTabContent("/co/edu/uptc/view/StationsView.fxml", stationsContainer);
-        loadTabContent("/co/edu/uptc/view/ConnectionsView.fxml", connectionsContainer);
-        loadTabContent("/co/edu/uptc/view/RoutesView.fxml", routesContainer);
-        loadTabContent("/co/edu/uptc/view/MapView.fxml", mapContainer);
-        loadTabContent("/co/edu/uptc/view/SettingsView.fxml", settingsContainer);
+        registerTab(tabDashboard, "/co/edu/uptc/view/DashboardView.fxml", dashboardContainer);
+        registerTab(tabStations, "/co/edu/uptc/view/StationsView.fxml", stationsContainer);
+        registerTab(tabConnections, "/co/edu/uptc/view/ConnectionsView.fxml", connectionsContainer);
+        registerTab(tabRoutes, "/co/edu/uptc/view/RoutesView.fxml", routesContainer);
+        registerTab(tabMap, "/co/edu/uptc/view/MapView.fxml", mapContainer);
+        registerTab(tabSettings, "/co/edu/uptc/view/SettingsView.fxml", settingsContainer);
 
         setupLanguageSelector();
 
@@ -73,12 +123,92 @@ public class MainController {
             btnSaveXml.setText(getString("button.save.xml"));
         }
 
-        // Listener para ejecutar código al seleccionar el tab de mapa
-        tabMap.selectedProperty().addListener((obs, wasSelected, isNowSelected) -> {
-            if (isNowSelected) {
-                reloadApplication();
+        // 🔹 Solo se carga la pestaña visible; las demás, al seleccionarlas
+        mainTabPane.getSelectionModel().selectedItemProperty()
+                .addListener((obs, oldTab, newTab) -> showTab(newTab));
+        showTab(mainTabPane.getSelectionModel().getSelectedItem());
+    }
+
+    private void registerTab(Tab tab, String fxmlPath, AnchorPane container) {
+        tabFxml.put(tab, fxmlPath);
+        tabContainers.put(tab, container);
+    }
+
+    /**
+     * Muestra la vista de una pestaña para el idioma actual, cargándola si es la
+     * primera vez que se necesita.
+     */
+    private void showTab(Tab tab) {
+        if (tab == null || !tabFxml.containsKey(tab)) return;
+        AnchorPane container = tabContainers.get(tab);
+
+        Map<Tab, TabView> views = viewCache.computeIfAbsent(currentLocale, l -> new HashMap<>());
+        TabView view = views.get(tab);
+        if (view == null) {
+            view = loadView(tabFxml.get(tab), container);
+            if (view == null) return;
+            views.put(tab, view);
+            if (view.controller() instanceof DashboardController dashboard) {
+                dashboard.setMainController(this);
+            } else if (view.controller() instanceof RoutesController routes) {
+                routes.setMainController(this);
             }
-        });
+        }
+
+        if (container.getChildren().size() == 1 && container.getChildren().get(0) == view.content()) return;
+        attach(container, view.content());
+        if (view.controller() instanceof MapController map) {
+            map.showRoute(routeForMap);
+        }
+    }
+
+    /**
+     * @return Controlador de la pestaña para el idioma actual, o null si aún no se cargó
+     */
+    private <T> T cachedController(Tab tab, Class<T> type) {
+        Map<Tab, TabView> views = viewCache.get(currentLocale);
+        TabView view = views == null ? null : views.get(tab);
+        return view != null && type.isInstance(view.controller()) ? type.cast(view.controller()) : null;
+    }
+
+    /**
+     * Muestra una ruta calculada en el mapa y selecciona la pestaña del mapa.
+     */
+    public void showRouteOnMap(RouteResult route) {
+        routeForMap = route;
+        MapController map = cachedController(tabMap, MapController.class);
+        if (tabMap.isSelected() && map != null) {
+            map.showRoute(route);
+        } else {
+            // Al mostrarse, la pestaña aplica routeForMap
+            selectTab("map");
+        }
+    }
+
+    // ---- Cambios del grafo: solo se notifican las vistas cargadas del idioma actual ----
+
+    @Override public void nodeAdded(co.edu.uptc.model.Node node) { forwardToViews(l -> l.nodeAdded(node)); }
+    @Override public void nodeUpdated(co.edu.uptc.model.Node node) { forwardToViews(l -> l.nodeUpdated(node)); }
+    @Override public void nodeRemoved(String nodeId) { forwardToViews(l -> l.nodeRemoved(nodeId)); }
+    @Override public void edgeAdded(Edge edge) { forwardToViews(l -> l.edgeAdded(edge)); }
+    @Override public void edgeUpdated(Edge edge) { forwardToViews(l -> l.edgeUpdated(edge)); }
+    @Override public void edgeRemoved(Edge edge) { forwardToViews(l -> l.edgeRemoved(edge)); }
+    @Override public void graphReloaded() { forwardToViews(GraphListener::graphReloaded); }
+
+    /**
+     * Entrega un cambio a los controladores de las vistas activas. Las vistas en caché
+     * de otros idiomas no se actualizan ahora: se marcan y se refrescan al volver a ese idioma.
+     */
+    private void forwardToViews(Consumer<GraphListener> event) {
+        for (Map.Entry<Locale, Map<Tab, TabView>> entry : viewCache.entrySet()) {
+            if (!entry.getKey().equals(currentLocale)) {
+                if (!entry.getValue().isEmpty()) staleLocales.add(entry.getKey());
+                continue;
+            }
+            for (TabView view : entry.getValue().values()) {
+                if (view.controller() instanceof GraphListener listener) event.accept(listener);
+            }
+        }
     }
 
     public void selectTab(String tabId) {
@@ -109,10 +239,12 @@ public class MainController {
             bundle = ResourceBundle.getBundle("co.edu.uptc.i18n.messages",
                     Locale.getDefault(),
                     Thread.currentThread().getContextClassLoader());
+            currentLocale = Locale.getDefault();
         } catch (MissingResourceException mre) {
             System.err.println("⚠️ Resource bundle not found, using English fallback");
             bundle = ResourceBundle.getBundle("co.edu.uptc.i18n.messages", Locale.ENGLISH,
                     Thread.currentThread().getContextClassLoader());
+            currentLocale = Locale.ENGLISH;
         }
     }
 
@@ -180,23 +312,29 @@ public class MainController {
         });
     }
 
+    /**
+     * Aplica el idioma actual: usa las vistas en caché de ese idioma (refrescándolas si
+     * el grafo cambió mientras estaban inactivas) y carga solo la pestaña visible.
+     */
     private void reloadApplication() {
         try {
             // Recargar el ResourceBundle
             bundle = ResourceBundle.getBundle("co.edu.uptc.i18n.messages",
                     Locale.getDefault(),
                     Thread.currentThread().getContextClassLoader());
-            
-            // Recargar todas las vistas
-            dashboardController = loadTabContentWithController("/co/edu/uptc/view/DashboardView.fxml", dashboardContainer);
-            if (dashboardController != null) {
-                dashboardController.setMainController(this);
+            currentLocale = Locale.getDefault();
+
+            if (staleLocales.remove(currentLocale)) {
+                for (TabView view : viewCache.get(currentLocale).values()) {
+                    if (view.controller() instanceof GraphListener listener) listener.graphReloaded();
+                }
             }
-            loadTabContent("/co/edu/uptc/view/StationsView.fxml", stationsContainer);
-            loadTabContent("/co/edu/uptc/view/ConnectionsView.fxml", connectionsContainer);
-            loadTabContent("/co/edu/uptc/view/RoutesView.fxml", routesContainer);
-            loadTabContent("/co/edu/uptc/view/MapView.fxml", mapContainer);
-            loadTabContent("/co/edu/uptc/view/SettingsView.fxml", settingsContainer);
+
+            // Las demás pestañas se muestran (o cargan) al seleccionarlas
+            for (AnchorPane container : tabContainers.values()) {
+                container.getChildren().clear();
+            }
+            showTab(mainTabPane.getSelectionModel().getSelectedItem());
             
             // Actualizar título de la ventana
             if (stage != null) {
@@ -218,6 +356,9 @@ public class MainController {
             if (btnSaveXml != null) {
                 btnSaveXml.setText(getString("button.save.xml"));
             }
+            if (btnCancelLoad != null) {
+                btnCancelLoad.setText(getString("button.cancel"));
+            }
 
         } catch (Exception e) {
             showError("❌ Error al recargar la aplicación: " + e.getMessage());
@@ -258,63 +399,41 @@ public class MainController {
         }
     }
 
-    private void loadTabContent(String fxmlPath, AnchorPane container) {
+    /**
+     * Carga una vista FXML con el bundle actual.
+     *
+     * @return Vista y controlador, o null si no se pudo cargar (el error se muestra en el contenedor)
+     */
+    private TabView loadView(String fxmlPath, AnchorPane container) {
         try {
             URL resource = getClass().getResource(fxmlPath);
             if (resource == null) {
                 String errorMsg = "❌ No se encontró: " + fxmlPath;
                 System.err.println(errorMsg);
                 showErrorInContainer(container, errorMsg);
-                return;
+                return null;
             }
             
             FXMLLoader loader = new FXMLLoader(resource, bundle);
             Node content = loader.load();
-            
-            container.getChildren().clear();
-            container.getChildren().add(content);
-            AnchorPane.setTopAnchor(content, 0.0);
-            AnchorPane.setBottomAnchor(content, 0.0);
-            AnchorPane.setLeftAnchor(content, 0.0);
-            AnchorPane.setRightAnchor(content, 0.0);
-            
             System.out.println("✓ Vista cargada exitosamente: " + fxmlPath);
+            return new TabView(content, loader.getController());
             
         } catch (IOException e) {
             String errorMsg = "❌ Error cargando: " + fxmlPath + "\n" + e.getMessage();
             System.err.println(errorMsg);
             e.printStackTrace();
             showErrorInContainer(container, errorMsg);
+            return null;
         }
     }
 
-    private <T> T loadTabContentWithController(String fxmlPath, AnchorPane container) {
-        try {
-            URL resource = getClass().getResource(fxmlPath);
-            if (resource == null) {
-                System.err.println("❌ No se encontró: " + fxmlPath);
-                return null;
-            }
-            
-            FXMLLoader loader = new FXMLLoader(resource, bundle);
-            Node content = loader.load();
-            
-            container.getChildren().clear();
-            container.getChildren().add(content);
-            AnchorPane.setTopAnchor(content, 0.0);
-            AnchorPane.setBottomAnchor(content, 0.0);
-            AnchorPane.setLeftAnchor(content, 0.0);
-            AnchorPane.setRightAnchor(content, 0.0);
-            
-            System.out.println("✓ Vista cargada exitosamente: " + fxmlPath);
-            
-            return loader.getController();
-            
-        } catch (IOException e) {
-            System.err.println("❌ Error cargando: " + fxmlPath);
-            e.printStackTrace();
-            return null;
-        }
+    private void attach(AnchorPane container, Node content) {
+        container.getChildren().setAll(content);
+        AnchorPane.setTopAnchor(content, 0.0);
+        AnchorPane.setBottomAnchor(content, 0.0);
+        AnchorPane.setLeftAnchor(content, 0.0);
+        AnchorPane.setRightAnchor(content, 0.0);
     }
 
     private void showErrorInContainer(AnchorPane container, String errorMsg) {
@@ -333,23 +452,20 @@ public class MainController {
         try {
             FileChooser fileChooser = new FileChooser();
             fileChooser.setTitle(bundle.getString("graph.load.dialog"));
-            fileChooser.getExtensionFilters().add(
-                new FileChooser.ExtensionFilter("XML Files", "*.xml")
+            fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Graph Files", "*.xml", "*.xml.gz", "*" + BinaryRouteDAO.EXTENSION,
+                        "*" + JdbcRouteDAO.H2_EXTENSION),
+                new FileChooser.ExtensionFilter("XML Files", "*.xml", "*.xml.gz"),
+                new FileChooser.ExtensionFilter("Binary Graph Files", "*" + BinaryRouteDAO.EXTENSION),
+                new FileChooser.ExtensionFilter("H2 Database Files", "*" + JdbcRouteDAO.H2_EXTENSION)
             );
             
             File file = fileChooser.showOpenDialog(stage);
             if (file != null) {
-                graphController.loadGraph(file.getAbsolutePath());
-                showInfo("✅ " + bundle.getString("graph.loaded"));
-                
-                // Actualizar dashboard
-                if (dashboardController != null) {
-                    dashboardController.refresh();
-                }
+                loadGraphInBackground(file, true);
             } else {
                 showInfo(bundle.getString("graph.load.cancelled"));
             }
-            reloadApplication();
         } catch (Exception e) {
             showError(bundle.getString("graph.load.error") + ": " + e.getMessage());
             e.printStackTrace();
@@ -358,18 +474,84 @@ public class MainController {
 
     @FXML
     private void autoLoadGraph() {
-        try {    
-            File file = new File("src/main/resources/co/edu/uptc/network_example.xml");
-            graphController.loadGraph(file.getAbsolutePath());
-            
-            // Actualizar dashboard
-            if (dashboardController != null) {
-                dashboardController.refresh();
+        File file = new File("src/main/resources/co/edu/uptc/network_example.xml");
+        if (file.exists()) {
+            loadGraphInBackground(file, false);
+        }
+    }
+
+    /**
+     * Lee un grafo en segundo plano mostrando el avance en la barra de herramientas.
+     * 
+     * <p>El grafo actual sigue disponible mientras se lee el nuevo, que se instala
+     * de una vez al terminar; las vistas se actualizan por la notificación
+     * {@code graphReloaded}.</p>
+     * 
+     * @param userOpened {@code true} si el usuario eligió el archivo: se avisa al terminar o
+     *                   cancelar y el archivo pasa a ser el archivo de trabajo
+     *                   ({@link #setWorkingFile}).
+     *                   El ejemplo que se carga al iniciar no lo es, para no escribir en los
+     *                   recursos de la aplicación.
+     */
+    private void loadGraphInBackground(File file, boolean userOpened) {
+        if (loadTask != null && loadTask.isRunning()) {
+            loadTask.cancel();
+        }
+
+        GraphLoadTask task = new GraphLoadTask(file.getAbsolutePath(), bundle);
+        loadTask = task;
+        loadProgressBar.progressProperty().bind(task.progressProperty());
+        lblLoadProgress.textProperty().bind(task.messageProperty());
+        loadProgressBox.setVisible(true);
+        loadProgressBox.setManaged(true);
+
+        task.setOnSucceeded(e -> {
+            if (task != loadTask) return;
+            finishLoading();
+            graphController.replaceGraph(task.getValue());
+            if (userOpened) {
+                setWorkingFile(file.getAbsolutePath());
+                showInfo("✅ " + bundle.getString("graph.loaded") + integritySummary());
             }
-            reloadApplication();
-        } catch (Exception e) {
-            showError(bundle.getString("graph.load.error") + ": " + e.getMessage());
-            e.printStackTrace();
+        });
+        task.setOnFailed(e -> {
+            if (task != loadTask) return;
+            finishLoading();
+            Throwable ex = task.getException();
+            showError(bundle.getString("graph.load.error") + ": " + ex.getMessage());
+            ex.printStackTrace();
+        });
+        task.setOnCancelled(e -> {
+            if (task != loadTask) return;
+            finishLoading();
+            if (userOpened) showInfo(bundle.getString("graph.load.cancelled"));
+        });
+
+        Thread loader = new Thread(task, "graph-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /** Resumen del informe de integridad del grafo recién instalado, o vacío si está limpio */
+    private String integritySummary() {
+        GraphReport report = graphController.getLastReport();
+        if (report == null || report.isClean()) return "";
+        return "\n⚠️ " + bundle.getString("graph.integrity") + ": " + report.getIssues().size()
+                + (report.getRepaired() > 0 ? " (" + report.getRepaired() + " ✔)" : "");
+    }
+
+    private void finishLoading() {
+        loadTask = null;
+        loadProgressBar.progressProperty().unbind();
+        lblLoadProgress.textProperty().unbind();
+        loadProgressBox.setVisible(false);
+        loadProgressBox.setManaged(false);
+    }
+
+    @FXML
+    private void onCancelLoad() {
+        if (loadTask != null) {
+            loadTask.cancel();
         }
     }
 
@@ -378,15 +560,25 @@ public class MainController {
         try {
             FileChooser fileChooser = new FileChooser();
             fileChooser.setTitle(bundle.getString("graph.save.dialog"));
-            fileChooser.getExtensionFilters().add(
-                new FileChooser.ExtensionFilter("XML Files", "*.xml")
+            fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("XML Files", "*.xml"),
+                new FileChooser.ExtensionFilter("Compressed XML Files", "*.xml.gz"),
+                new FileChooser.ExtensionFilter("Binary Graph Files", "*" + BinaryRouteDAO.EXTENSION),
+                new FileChooser.ExtensionFilter("H2 Database Files", "*" + JdbcRouteDAO.H2_EXTENSION)
             );
             fileChooser.setInitialFileName("transport_network.xml");
             
             File file = fileChooser.showSaveDialog(stage);
             if (file != null) {
-                graphController.saveGraph(file.getAbsolutePath());
-                showInfo("✅ " + bundle.getString("graph.saved"));
+                // Se escribe en segundo plano; la edición puede continuar mientras tanto
+                saveWorkingFile(file.getAbsolutePath()).whenComplete((ok, error) -> Platform.runLater(() -> {
+                    if (error == null) {
+                        showInfo("✅ " + bundle.getString("graph.saved"));
+                    } else {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        showError(bundle.getString("graph.save.error") + ": " + cause.getMessage());
+                    }
+                }));
             } else {
                 showInfo(bundle.getString("graph.save.cancelled"));
             }
@@ -396,6 +588,38 @@ public class MainController {
         }
     }
 
+    /**
+     * Convierte el archivo en el destino de los cambios del editor: una base H2 se
+     * actualiza fila a fila ({@link DatabaseSyncService}) y cualquier otro archivo con
+     * diario y guardado automático ({@link AutosaveService}). El otro servicio se detiene.
+     */
+    private void setWorkingFile(String path) {
+        if (isDatabase(path)) {
+            autosave.setTarget(null);
+            databaseSync.setTarget(path);
+        } else {
+            databaseSync.setTarget(null);
+            autosave.setTarget(path);
+        }
+    }
+
+    /**
+     * Escribe el grafo completo en segundo plano y convierte el archivo en el archivo de
+     * trabajo, como {@link #setWorkingFile}.
+     */
+    private CompletableFuture<Void> saveWorkingFile(String path) {
+        if (isDatabase(path)) {
+            autosave.setTarget(null);
+            return databaseSync.saveNow(path);
+        }
+        databaseSync.setTarget(null);
+        return autosave.saveNow(path);
+    }
+
+    private static boolean isDatabase(String path) {
+        return path.toLowerCase(Locale.ROOT).endsWith(JdbcRouteDAO.H2_EXTENSION);
+    }
+
     private void showError(String msg) {
         Alert a = new Alert(Alert.AlertType.ERROR);
         a.setTitle("❌ Error");
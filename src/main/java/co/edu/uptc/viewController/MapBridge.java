@@ -0,0 +1,59 @@
+package co.edu.uptc.viewController;
+
+/**
+ * Puente JavaScript → Java expuesto a la página del mapa como {@code window.javaBridge}.
+ *
+ * <p>WebView invoca estos métodos por reflexión desde el hilo de JavaFX, por lo que
+ * la clase y sus métodos deben ser públicos. El controlador que crea el puente debe
+ * mantener una referencia fuerte a él mientras la página esté cargada.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ * @see MapController
+ */
+public class MapBridge {
+
+    /**
+     * Receptor de los eventos emitidos por la página del mapa.
+     */
+    public interface Listener {
+        /**
+         * Leaflet terminó de crear el mapa ({@code map.whenReady}); desde este momento
+         * la página acepta comandos.
+         */
+        void onMapReady();
+
+        /**
+         * La vista visible del mapa cambió (evento {@code moveend} de Leaflet).
+         */
+        void onViewportChanged(double south, double west, double north, double east, int zoom);
+    }
+
+    private final Listener listener;
+
+    public MapBridge(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Llamado desde JavaScript cuando el mapa está listo para recibir comandos.
+     */
+    public void onMapReady() {
+        listener.onMapReady();
+    }
+
+    /**
+     * Llamado desde JavaScript al terminar cada desplazamiento o zoom del mapa.
+     */
+    public void onViewportChanged(double south, double west, double north, double east, double zoom) {
+        listener.onViewportChanged(south, west, north, east, (int) Math.round(zoom));
+    }
+
+    /**
+     * Permite a la página escribir en la consola de Java (la consola de WebView no es visible).
+     */
+    public void log(String message) {
+        System.out.println("🗺️ " + message);
+    }
+}
@@ -0,0 +1,137 @@
+package co.edu.uptc.viewController;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.scene.web.WebEngine;
+import javafx.util.Duration;
+
+import java.util.*;
+
+/**
+ * Cola de comandos JavaScript hacia la página del mapa.
+ *
+ * <p>Los comandos se acumulan y se ejecutan juntos en una sola llamada a
+ * {@code executeScript} en el siguiente pulso del hilo de JavaFX:</p>
+ * <ul>
+ *   <li><b>Coalescencia</b>: un comando con clave reemplaza al pendiente con la misma
+ *       clave (por ejemplo, la red o la ruta: solo importa la última versión)</li>
+ *   <li><b>Debounce</b>: {@link #enqueueDebounced} espera a que dejen de llegar
+ *       comandos con esa clave (por ejemplo, redimensionar la ventana)</li>
+ *   <li><b>Lotes</b>: cada ejecución envía como máximo {@link #MAX_FLUSH_CHARS}
+ *       caracteres; el resto queda para el siguiente pulso y la interfaz sigue respondiendo</li>
+ *   <li><b>Disponibilidad</b>: nada se ejecuta hasta que la página confirma que
+ *       Leaflet está listo ({@link #setReady})</li>
+ * </ul>
+ *
+ * <p>Todos los métodos deben llamarse desde el hilo de JavaFX.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ * @see MapController
+ */
+public class MapCommandQueue {
+
+    /** Tamaño máximo de script por ejecución */
+    public static final int MAX_FLUSH_CHARS = 512 * 1024;
+
+    private final WebEngine engine;
+
+    /** Comandos pendientes en orden de llegada; los anónimos reciben una clave única */
+    private final LinkedHashMap<String, String> pending = new LinkedHashMap<>();
+    private final Map<String, PauseTransition> debouncers = new HashMap<>();
+    private long anonymousCounter = 0;
+    private boolean flushScheduled = false;
+    private boolean ready = false;
+
+    public MapCommandQueue(WebEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Encola un comando que se ejecuta en orden y nunca se reemplaza.
+     */
+    public void enqueue(String script) {
+        pending.put("#" + (anonymousCounter++), script);
+        scheduleFlush();
+    }
+
+    /**
+     * Encola un comando que reemplaza al pendiente con la misma clave, conservando
+     * la posición del primero.
+     */
+    public void enqueue(String key, String script) {
+        pending.put(key, script);
+        scheduleFlush();
+    }
+
+    /**
+     * Como {@link #enqueue(String, String)}, pero el comando pasa al final de la cola:
+     * para los que anulan a los pendientes anteriores (por ejemplo, borrar todos los
+     * marcadores), que no deben ejecutarse antes que ellos.
+     */
+    public void enqueueLast(String key, String script) {
+        pending.remove(key);
+        pending.put(key, script);
+        scheduleFlush();
+    }
+
+    /**
+     * Encola un comando con clave solo cuando pasa {@code delay} sin nuevas llamadas
+     * con esa misma clave.
+     */
+    public void enqueueDebounced(String key, String script, Duration delay) {
+        PauseTransition pause = debouncers.computeIfAbsent(key, k -> new PauseTransition(delay));
+        pause.setOnFinished(e -> enqueue(key, script));
+        pause.playFromStart();
+    }
+
+    /**
+     * Marca la página como lista (o no) para recibir comandos.
+     */
+    public void setReady(boolean ready) {
+        this.ready = ready;
+        if (ready) scheduleFlush();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Descarta los comandos pendientes (por ejemplo, al recargar la página).
+     */
+    public void clear() {
+        pending.clear();
+        debouncers.values().forEach(PauseTransition::stop);
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled || !ready || pending.isEmpty()) return;
+        flushScheduled = true;
+        Platform.runLater(this::flush);
+    }
+
+    private void flush() {
+        flushScheduled = false;
+        if (!ready || pending.isEmpty()) return;
+
+        StringBuilder script = new StringBuilder();
+        Iterator<String> it = pending.values().iterator();
+        while (it.hasNext()) {
+            String next = it.next();
+            if (script.length() > 0 && script.length() + next.length() > MAX_FLUSH_CHARS) break;
+            // Cada comando aislado: un error no impide ejecutar los siguientes
+            script.append("try{").append(next).append("}catch(e){console.error(e);}\n");
+            it.remove();
+        }
+
+        try {
+            engine.executeScript(script.toString());
+        } catch (Exception e) {
+            System.err.println("❌ Error ejecutando comandos del mapa: " + e.getMessage());
+        }
+
+        scheduleFlush();
+    }
+}
@@ -4,13 +4,18 @@ import javafx.concurrent.Worker;
 import javafx.fxml.FXML;
 import javafx.scene.web.WebEngine;
 import javafx.scene.web.WebView;
+import javafx.util.Duration;
 import co.edu.uptc.controller.GraphController;
+import co.edu.uptc.controller.GraphListener;
+import co.edu.uptc.geo.ClusterIndex;
+import co.edu.uptc.geo.ClusterIndex.Cluster;
+import co.edu.uptc.geo.PolylineSimplifier;
 import co.edu.uptc.model.Node;
-import javafx.application.Platform;
+import co.edu.uptc.model.RouteResult;
+import co.edu.uptc.tiles.TileServer;
+import netscape.javascript.JSObject;
 
-import java.util.List;
-import java.util.ResourceBundle;
-import java.util.stream.Collectors;
+import java.util.*;
 
 /**
  * Controlador para la vista del mapa interactivo.
@@ -20,8 +25,19 @@ import java.util.stream.Collectors;
  * 
  * <p>Características principales:</p>
  * <ul>
- *   <li>Inicialización segura del mapa evitando problemas de timing</li>
- *   <li>Carga dinámica de estaciones desde el controlador del grafo</li>
+ *   <li>Inicialización por eventos: la página avisa por {@link MapBridge} cuando Leaflet
+ *       está listo, y todos los scripts pasan por una {@link MapCommandQueue} que los
+ *       agrupa, reemplaza los obsoletos y nunca bloquea el hilo de JavaFX</li>
+ *   <li>Carga por ventana visible: la página pide por {@link MapBridge} solo las
+ *       estaciones dentro de sus límites y Java responde con diferencias en lotes</li>
+ *   <li>Nivel de detalle: hasta {@link ClusterIndex#MAX_CLUSTER_ZOOM} se envían solo
+ *       centroides y conteos de grupos, dibujados con el renderer canvas de Leaflet</li>
+ *   <li>Tiles servidos por el {@link TileServer} local (caché en memoria y disco)
+ *       para trabajar sin red y sin latencia</li>
+ *   <li>Conexiones y ruta calculada como polilíneas en arreglos planos de coordenadas,
+ *       simplificadas con Douglas–Peucker según el zoom y recortadas a la vista</li>
+ *   <li>Actualización por notificaciones del grafo ({@link GraphListener}) en lugar
+ *       de recrear el WebView</li>
  *   <li>Manejo de redimensionamiento automático del mapa</li>
  *   <li>Gestión de errores de JavaScript</li>
  * </ul>
@@ -30,7 +46,16 @@ import java.util.stream.Collectors;
  * @version 1.0
  * @since 2025-01-01
  */
-public class MapController {
+public class MapController implements MapBridge.Listener, GraphListener {
+
+    /** Número máximo de estaciones por comando {@code addStations} */
+    private static final int BATCH_SIZE = 500;
+
+    /** Espera tras el último cambio de tamaño antes de pedir a Leaflet que se redibuje */
+    private static final Duration RESIZE_DEBOUNCE = Duration.millis(150);
+
+    /** Margen añadido a la ventana visible para no recargar en desplazamientos cortos */
+    private static final double VIEWPORT_PADDING = 0.25;
 
     /** WebView que contiene el mapa de Leaflet */
     @FXML 
@@ -45,9 +70,30 @@ public class MapController {
     /** Bundle de recursos para internacionalización */
     private ResourceBundle bundle;
     
-    /** Flag para evitar múltiples inicializaciones */
+    /** Indica si Leaflet confirmó que el mapa está listo */
     private boolean mapInitialized = false;
 
+    /** Cola de scripts hacia la página */
+    private MapCommandQueue commands;
+
+    /** Puente expuesto a JavaScript (referencia fuerte para que no sea recolectado) */
+    private final MapBridge bridge = new MapBridge(this);
+
+    /** Claves (ID de estación o de grupo) de los marcadores presentes en la página */
+    private final Set<String> markersOnMap = new HashSet<>();
+
+    /** Último zoom informado por la página */
+    private int currentZoom = 12;
+
+    /** Polilíneas de la red enviadas por última vez (para no reenviar si no cambian) */
+    private List<double[]> networkOnMap = Collections.emptyList();
+
+    /** Coordenadas planas de la ruta a resaltar, o null si no hay ruta */
+    private double[] routeCoords;
+
+    /** Zoom con el que se envió la ruta por última vez (-1 si hay que enviarla) */
+    private int routeZoomOnMap = -1;
+
     /**
      * Inicializa el controlador después de que se hayan inyectado los elementos FXML.
      * 
@@ -68,6 +114,7 @@ public class MapController {
         
         // Habilitar JavaScript (por defecto está habilitado, pero es buena práctica)
         engine.setJavaScriptEnabled(true);
+        commands = new MapCommandQueue(engine);
         
         // Cargar el HTML del mapa
         String mapUrl = getClass().getResource("/co/edu/uptc/view/map_template.html").toExternalForm();
@@ -90,54 +137,24 @@ public class MapController {
     /**
      * Método ejecutado cuando la página HTML se ha cargado exitosamente.
      * 
-     * <p>Este método:</p>
-     * <ol>
-     *   <li>Espera un pequeño delay para asegurar que todo esté renderizado</li>
-     *   <li>Inicializa el mapa de Leaflet</li>
-     *   <li>Carga las estaciones desde el GraphController</li>
-     *   <li>Fuerza un redibujo del mapa</li>
-     * </ol>
+     * <p>Instala el puente Java y llama a {@code initMap()}. No espera a que Leaflet
+     * termine: la página responde con {@link #onMapReady()} cuando el mapa está listo,
+     * y solo entonces se envían comandos.</p>
      */
     private void onPageLoadSucceeded() {
-        // Esperar un pequeño delay para asegurar que el DOM esté completamente listo
-        Platform.runLater(() -> {
-            try {
-                // Delay adicional para asegurar renderizado
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-            
-            initializeMap();
-            sendStationsToMap();
-            
-            // Forzar redibujo después de cargar estaciones
-            Platform.runLater(() -> {
-                try {
-                    Thread.sleep(200);
-                    invalidateMapSize();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            });
-        });
-    }
-
-    /**
-     * Inicializa el mapa de Leaflet en el WebView.
-     * 
-     * <p>Solo inicializa el mapa una vez para evitar múltiples instancias.
-     * La función JavaScript {@code initMap()} debe estar definida en el HTML.</p>
-     */
-    private void initializeMap() {
         if (mapInitialized) {
             return;
         }
         
         try {
-            engine.executeScript("initMap();");
-            mapInitialized = true;
-            System.out.println("✅ Mapa inicializado correctamente");
+            JSObject window = (JSObject) engine.executeScript("window");
+            window.setMember("javaBridge", bridge);
+
+            TileServer tiles = TileServer.getInstance();
+            String tileUrl = tiles.start() ? tiles.getUrlTemplate() : null;
+            StringBuilder js = new StringBuilder("initMap(");
+            if (tileUrl != null) appendJsString(js, tileUrl);
+            engine.executeScript(js.append(");").toString());
         } catch (Exception e) {
             System.err.println("❌ Error al inicializar mapa: " + e.getMessage());
             e.printStackTrace();
@@ -145,89 +162,301 @@ public class MapController {
     }
 
     /**
-     * Envía las estaciones al mapa de Leaflet para su visualización.
+     * Llamado por la página cuando Leaflet terminó de crear el mapa.
      * 
-     * <p>Este método:</p>
-     * <ul>
-     *   <li>Obtiene todas las estaciones del GraphController</li>
-     *   <li>Filtra solo las que tienen coordenadas válidas</li>
-     *   <li>Convierte los datos a formato JSON</li>
-     *   <li>Ejecuta JavaScript para añadir los marcadores al mapa</li>
-     * </ul>
+     * <p>Habilita la cola de comandos, ajusta la vista a la extensión del grafo
+     * (la página pedirá entonces sus estaciones), dibuja la ruta pendiente y
+     * fuerza un redibujo del mapa.</p>
      */
-    private void sendStationsToMap() {
-        List<Node> nodes = graphController.getAllNodes();
-        
-        // Construir JSON manualmente para evitar problemas de escape
-        String json = nodes.stream()
-            .filter(n -> n.getLatitude() != null && n.getLongitude() != null)
-            .map(n -> String.format(
-                "{id:'%s', name:'%s', lat:%s, lng:%s}",
-                escape(n.getId()), 
-                escape(n.getName()), 
-                n.getLatitude(), 
-                n.getLongitude()
-            ))
-            .collect(Collectors.joining(", ", "[", "]"));
+    @Override
+    public void onMapReady() {
+        if (mapInitialized) {
+            return;
+        }
+        mapInitialized = true;
+        commands.setReady(true);
+        System.out.println("✅ Mapa inicializado correctamente");
 
-        try {
-            engine.executeScript("loadStations(" + json + ");");
-            System.out.println("✅ Estaciones cargadas en el mapa: " + nodes.size());
-        } catch (Exception e) {
-            System.err.println("❌ Error al cargar estaciones: " + e.getMessage());
-            e.printStackTrace();
+        fitMapToGraph();
+        if (routeCoords != null) sendRoute(true);
+        commands.enqueue("invalidateSize", "if (map) { map.invalidateSize(); }");
+    }
+
+    /**
+     * Centra el mapa en la extensión de las estaciones con coordenadas y, si la
+     * precarga está activada ({@link TileServer#isPrefetchEnabled()}), descarga en
+     * segundo plano los tiles de esa extensión.
+     * 
+     * <p>El {@code moveend} resultante hace que la página solicite sus estaciones
+     * mediante {@link #onViewportChanged}.</p>
+     */
+    private void fitMapToGraph() {
+        double south = Double.POSITIVE_INFINITY, west = Double.POSITIVE_INFINITY;
+        double north = Double.NEGATIVE_INFINITY, east = Double.NEGATIVE_INFINITY;
+        for (Node n : graphController.getAllNodes()) {
+            if (n.getLatitude() == null || n.getLongitude() == null) continue;
+            south = Math.min(south, n.getLatitude());
+            north = Math.max(north, n.getLatitude());
+            west = Math.min(west, n.getLongitude());
+            east = Math.max(east, n.getLongitude());
+        }
+
+        if (!Double.isInfinite(south)) {
+            TileServer.getInstance().prefetch(south, west, north, east);
+        }
+
+        if (Double.isInfinite(south)) {
+            commands.enqueue("view", "requestViewport();");
+        } else {
+            commands.enqueue("view", "fitToBounds(" + south + "," + west + "," + north + "," + east + ");");
         }
     }
 
     /**
-     * Fuerza el redibujo del mapa de Leaflet.
+     * Responde a un cambio de la ventana visible enviando solo las diferencias.
      * 
-     * <p>Este método es útil cuando:</p>
-     * <ul>
-     *   <li>El tamaño del WebView cambia</li>
-     *   <li>La pestaña se hace visible después de estar oculta</li>
-     *   <li>Se necesita corregir problemas de renderizado</li>
-     * </ul>
+     * <p>Con zoom lejano se consultan los grupos precalculados del {@link ClusterIndex};
+     * con zoom cercano, las estaciones del índice espacial. Ninguno de los dos recorre
+     * todo el grafo. Primero se eliminan los marcadores que quedaron fuera y después se
+     * añaden los nuevos en lotes de {@link #BATCH_SIZE}; la {@link MapCommandQueue}
+     * reparte los comandos entre pulsos para no bloquear el hilo de JavaFX.</p>
+     */
+    @Override
+    public void onViewportChanged(double south, double west, double north, double east, int zoom) {
+        currentZoom = zoom;
+
+        double padLat = (north - south) * VIEWPORT_PADDING;
+        double padLng = (east - west) * VIEWPORT_PADDING;
+        List<Cluster> visible = queryMarkers(
+                south - padLat, west - padLng, north + padLat, east + padLng, zoom);
+
+        Set<String> visibleKeys = new HashSet<>(visible.size() * 2);
+        List<Cluster> toAdd = new ArrayList<>();
+        for (Cluster c : visible) {
+            visibleKeys.add(c.key());
+            if (!markersOnMap.contains(c.key())) toAdd.add(c);
+        }
+
+        List<String> toRemove = new ArrayList<>();
+        for (String key : markersOnMap) {
+            if (!visibleKeys.contains(key)) toRemove.add(key);
+        }
+
+        if (!toRemove.isEmpty()) {
+            StringBuilder js = new StringBuilder(toRemove.size() * 10).append("removeStations([");
+            for (int i = 0; i < toRemove.size(); i++) {
+                if (i > 0) js.append(',');
+                appendJsString(js, toRemove.get(i));
+            }
+            js.append("]);");
+            commands.enqueue(js.toString());
+            markersOnMap.removeAll(toRemove);
+        }
+
+        for (int from = 0; from < toAdd.size(); from += BATCH_SIZE) {
+            sendMarkerBatch(toAdd.subList(from, Math.min(from + BATCH_SIZE, toAdd.size())));
+        }
+
+        sendNetwork(graphController.getNetworkGeometry().query(
+                south - padLat, west - padLng, north + padLat, east + padLng, zoom));
+        sendRoute(false);
+    }
+
+    /**
+     * Envía las polilíneas de la red visibles como {@code setNetwork([[lat, lng, ...], ...])}.
+     * Si el conjunto es el mismo que ya se envió (mismas cadenas y mismo nivel de
+     * simplificación), no se reenvía; si hay uno pendiente, lo reemplaza.
+     */
+    private void sendNetwork(List<double[]> network) {
+        if (sameArrays(network, networkOnMap)) return;
+
+        int points = 0;
+        for (double[] line : network) points += line.length;
+        StringBuilder js = new StringBuilder(points * 10 + 32).append("setNetwork([");
+        for (int i = 0; i < network.size(); i++) {
+            if (i > 0) js.append(',');
+            appendFlatCoords(js, network.get(i));
+        }
+        js.append("]);");
+        commands.enqueue("network", js.toString());
+        networkOnMap = network;
+    }
+
+    /**
+     * Resalta una ruta calculada en el mapa.
+     * 
+     * <p>Si el mapa aún no está listo, la ruta se dibuja al terminar la inicialización.</p>
+     * 
+     * @param route Ruta a mostrar (null o vacía para quitar la ruta actual)
+     */
+    public void showRoute(RouteResult route) {
+        List<Node> path = route == null ? Collections.emptyList() : route.getPath();
+        List<Node> located = new ArrayList<>(path.size());
+        for (Node n : path) {
+            if (n.getLatitude() != null && n.getLongitude() != null) located.add(n);
+        }
+
+        if (located.isEmpty()) {
+            routeCoords = null;
+        } else {
+            routeCoords = new double[located.size() * 2];
+            for (int i = 0; i < located.size(); i++) {
+                routeCoords[2 * i] = located.get(i).getLatitude();
+                routeCoords[2 * i + 1] = located.get(i).getLongitude();
+            }
+        }
+        routeZoomOnMap = -1;
+        if (mapInitialized) sendRoute(true);
+    }
+
+    /**
+     * Envía la ruta simplificada para el zoom actual, solo si el zoom cambió.
+     * 
+     * @param fit {@code true} para ajustar la vista a la ruta
+     */
+    private void sendRoute(boolean fit) {
+        if (routeZoomOnMap == currentZoom && !fit) return;
+        if (routeCoords == null) {
+            if (routeZoomOnMap != -2) commands.enqueue("route", "clearRoute();");
+            routeZoomOnMap = -2;
+            return;
+        }
+
+        double[] simplified = PolylineSimplifier.simplify(routeCoords,
+                PolylineSimplifier.toleranceForZoom(currentZoom));
+        StringBuilder js = new StringBuilder(simplified.length * 10 + 32).append("showRoute(");
+        appendFlatCoords(js, simplified);
+        js.append(',').append(fit).append(");");
+        commands.enqueue("route", js.toString());
+        routeZoomOnMap = currentZoom;
+    }
+
+    /** Escribe un arreglo plano de coordenadas redondeadas a 5 decimales (~1 m) */
+    private static void appendFlatCoords(StringBuilder js, double[] coords) {
+        js.append('[');
+        for (int i = 0; i < coords.length; i++) {
+            if (i > 0) js.append(',');
+            js.append(Math.round(coords[i] * 1e5) / 1e5);
+        }
+        js.append(']');
+    }
+
+    private static boolean sameArrays(List<double[]> a, List<double[]> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene los marcadores para una ventana: grupos si el zoom lo permite,
+     * estaciones individuales en otro caso.
+     */
+    private List<Cluster> queryMarkers(double south, double west, double north, double east, int zoom) {
+        if (zoom <= ClusterIndex.MAX_CLUSTER_ZOOM) {
+            return graphController.getClusterIndex().query(south, west, north, east, zoom);
+        }
+        List<Node> nodes = graphController.findNodesInBounds(south, west, north, east);
+        List<Cluster> singles = new ArrayList<>(nodes.size());
+        for (Node n : nodes) {
+            singles.add(new Cluster(n.getId(), n.getLatitude(), n.getLongitude(), 1, n));
+        }
+        return singles;
+    }
+
+    /**
+     * Envía un lote de marcadores como arreglo compacto {@code [clave, nombre, lat, lng, conteo]}.
+     * Los grupos van sin nombre; las estaciones individuales tienen conteo 1.
+     */
+    private void sendMarkerBatch(List<Cluster> batch) {
+        StringBuilder js = new StringBuilder(batch.size() * 48).append("addStations([");
+        boolean first = true;
+        for (Cluster c : batch) {
+            if (!markersOnMap.add(c.key())) continue;
+            if (!first) js.append(',');
+            first = false;
+            js.append('[');
+            appendJsString(js, c.key());
+            js.append(',');
+            appendJsString(js, c.isSingle() ? c.station().getName() : null);
+            js.append(',').append(c.latitude()).append(',').append(c.longitude())
+              .append(',').append(c.count()).append(']');
+        }
+        js.append("]);");
+        if (!first) commands.enqueue(js.toString());
+    }
+
+    /**
+     * Fuerza el redibujo del mapa de Leaflet cuando cambia el tamaño del WebView
+     * (también al mostrar la pestaña, que le da su tamaño real). Los cambios del grafo
+     * no lo necesitan.
+     * 
+     * <p>Durante un arrastre de la ventana llegan decenas de cambios de tamaño; solo
+     * se envía uno cuando pasan {@link #RESIZE_DEBOUNCE} sin cambios.</p>
      */
     private void invalidateMapSize() {
         if (!mapInitialized) {
             return;
         }
-        
-        Platform.runLater(() -> {
-            try {
-                engine.executeScript("if (map) { map.invalidateSize(); }");
-            } catch (Exception e) {
-                // Silenciar errores si el mapa aún no está listo
-                System.err.println("⚠️ No se pudo invalidar tamaño del mapa: " + e.getMessage());
-            }
-        });
+        commands.enqueueDebounced("invalidateSize", "if (map) { map.invalidateSize(); }", RESIZE_DEBOUNCE);
     }
 
     /**
-     * Escapa caracteres especiales para uso seguro en JavaScript.
+     * Añade una cadena JavaScript entre comillas simples, escapando caracteres especiales.
      * 
-     * @param s Cadena a escapar
-     * @return Cadena con caracteres especiales escapados
+     * @param js Destino
+     * @param s Cadena a escapar (null se envía como cadena vacía)
      */
-    private String escape(String s) {
-        if (s == null) return "";
-        return s.replace("\\", "\\\\")
-                .replace("'", "\\'")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r");
+    private static void appendJsString(StringBuilder js, String s) {
+        js.append('\'');
+        if (s != null) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '\\' -> js.append("\\\\");
+                    case '\'' -> js.append("\\'");
+                    case '"' -> js.append("\\\"");
+                    case '\n' -> js.append("\\n");
+                    case '\r' -> js.append("\\r");
+                    case '<' -> js.append("\\x3c");
+                    default -> js.append(c);
+                }
+            }
+        }
+        js.append('\'');
     }
 
     /**
      * Método público para recargar las estaciones en el mapa.
      * 
-     * <p>Útil para actualizar el mapa cuando se añaden o modifican estaciones.</p>
+     * <p>Útil para actualizar el mapa cuando se añaden o modifican estaciones. Una
+     * ráfaga de cambios deja un solo recargado pendiente; el tamaño del mapa no cambia,
+     * así que no se invalida (eso lo hacen los cambios de tamaño del WebView).</p>
      */
     public void refreshStations() {
         if (mapInitialized) {
-            sendStationsToMap();
-            invalidateMapSize();
+            markersOnMap.clear();
+            networkOnMap = Collections.emptyList();
+            // Al final: los marcadores encolados antes quedan borrados
+            commands.enqueueLast("refresh", "clearMarkers(); requestViewport();");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Cualquier cambio de estaciones o conexiones invalida marcadores y red.
+     */
+    @Override
+    public void graphChanged() {
+        refreshStations();
+    }
+
+    /**
+     * Con un grafo nuevo, además se ajusta la vista a su extensión.
+     */
+    @Override
+    public void graphReloaded() {
+        refreshStations();
+        if (mapInitialized) fitMapToGraph();
+    }
+}
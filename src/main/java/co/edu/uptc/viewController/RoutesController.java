@@ -3,13 +3,15 @@ package co.edu.uptc.viewController;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import co.edu.uptc.controller.GraphController;
+import co.edu.uptc.controller.GraphListener;
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.Node;
 import co.edu.uptc.controller.RouteController;
 import co.edu.uptc.model.RouteResult;
 
-import java.util.List;
 import java.util.ResourceBundle;
 
-public class RoutesController {
+public class RoutesController implements GraphListener {
 
      @FXML private ComboBox<String> cmbFrom, cmbTo, cmbCriteria;
      @FXML private ListView<String> resultList;
@@ -18,6 +20,14 @@ public class RoutesController {
      private GraphController graphController;
      private RouteController routeController;
      private ResourceBundle bundle;
+     private MainController mainController;
+
+     /** Última ruta calculada, para mostrarla en el mapa */
+     private RouteResult lastRoute;
+
+     public void setMainController(MainController mainController) {
+          this.mainController = mainController;
+     }
 
      @FXML
      public void initialize() {
@@ -31,19 +41,30 @@ public class RoutesController {
                bundle.getString("criteria.transfers")
           );
 
-          refreshNodes();
+          StationComboSearch.install(cmbFrom, graphController);
+          StationComboSearch.install(cmbTo, graphController);
      }
 
      private void refreshNodes() {
-          List<String> ids = graphController.getAllNodes().stream().map(n -> n.getId()).toList();
-          cmbFrom.getItems().setAll(ids);
-          cmbTo.getItems().setAll(ids);
+          StationComboSearch.refresh(cmbFrom, graphController);
+          StationComboSearch.refresh(cmbTo, graphController);
+     }
+
+     // Los selectores buscan al escribir: solo importan altas y bajas de estaciones
+     @Override public void nodeUpdated(Node node) { }
+     @Override public void edgeAdded(Edge edge) { }
+     @Override public void edgeUpdated(Edge edge) { }
+     @Override public void edgeRemoved(Edge edge) { }
+
+     @Override
+     public void graphChanged() {
+          refreshNodes();
      }
 
      @FXML
      private void onCalculate() {
-          String from = cmbFrom.getValue();
-          String to = cmbTo.getValue();
+          String from = StationComboSearch.selectedId(cmbFrom, graphController);
+          String to = StationComboSearch.selectedId(cmbTo, graphController);
           String crit = cmbCriteria.getValue();
           if (from == null || to == null || crit == null) {
                showAlert(Alert.AlertType.WARNING, bundle.getString("error.select.route.params"));
@@ -57,6 +78,7 @@ public class RoutesController {
           }
 
 
+          lastRoute = rr;
           if (rr == null || rr.getPath().isEmpty()) {
                showAlert(Alert.AlertType.INFORMATION, bundle.getString("info.no.route"));
                resultList.getItems().clear();
@@ -91,8 +113,13 @@ public class RoutesController {
 
      @FXML
      private void onShowOnMap() {
-          // Lógica para notificar a MapView y centrar/mostrar ruta
-          showAlert(Alert.AlertType.INFORMATION, bundle.getString("info.map.show"));
+          if (lastRoute == null || lastRoute.getPath().isEmpty()) {
+               showAlert(Alert.AlertType.WARNING, bundle.getString("info.no.route"));
+               return;
+          }
+          if (mainController != null) {
+               mainController.showRouteOnMap(lastRoute);
+          }
      }
 
      @FXML
@@ -0,0 +1,59 @@
+package co.edu.uptc.viewController;
+
+import co.edu.uptc.controller.GraphController;
+import javafx.scene.control.ComboBox;
+
+/**
+ * Selector de estaciones con búsqueda mientras se escribe.
+ *
+ * <p>En lugar de listar todos los IDs, el selector pasa a ser editable y muestra las
+ * {@link #LIMIT} estaciones que mejor coinciden con lo escrito, por ID o por nombre
+ * ({@link GraphController#searchNodeIds}). Con el campo vacío muestra las primeras por
+ * ID.</p>
+ *
+ * @author Sistema de Transporte Público
+ * @version 1.0
+ * @since 2025-01-01
+ */
+final class StationComboSearch {
+
+    /** Opciones que muestra la lista desplegable */
+    static final int LIMIT = 200;
+
+    private StationComboSearch() { }
+
+    /**
+     * Hace editable el selector y filtra sus opciones con cada tecla.
+     */
+    static void install(ComboBox<String> combo, GraphController graph) {
+        combo.setEditable(true);
+        combo.getEditor().textProperty().addListener((obs, old, text) -> {
+            // Al elegir una opción el campo muestra su ID: no se vuelve a filtrar
+            if (!combo.getEditor().isFocused() || (text != null && text.equals(combo.getValue()))) return;
+            combo.getItems().setAll(graph.searchNodeIds(text, LIMIT));
+            if (!combo.getItems().isEmpty()) combo.show();
+        });
+        refresh(combo, graph);
+    }
+
+    /**
+     * Vuelve a cargar las opciones (por ejemplo, tras cambiar el grafo).
+     */
+    static void refresh(ComboBox<String> combo, GraphController graph) {
+        combo.getItems().setAll(graph.searchNodeIds("", LIMIT));
+    }
+
+    /**
+     * Solo cuenta un ID exacto, escrito o elegido en la lista: lo escrito a medias no se
+     * completa con la mejor coincidencia, para no usar una estación que el usuario no
+     * eligió.
+     *
+     * @return ID de la estación elegida, o null si el valor no es el ID de una estación
+     */
+    static String selectedId(ComboBox<String> combo, GraphController graph) {
+        String value = combo.getValue();
+        if (value == null || value.isBlank()) return null;
+        value = value.trim();
+        return graph.existsNode(value) ? value : null;
+    }
+}
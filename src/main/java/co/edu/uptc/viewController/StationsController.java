@@ -5,13 +5,14 @@ import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import co.edu.uptc.controller.GraphController;
+import co.edu.uptc.controller.GraphListener;
+import co.edu.uptc.model.Edge;
 import co.edu.uptc.validation.StationValidator;
 
 import java.util.List;
 import java.util.ResourceBundle;
-import java.util.stream.Collectors;
 
-public class StationsController {
+public class StationsController implements GraphListener {
 
      @FXML private TableView<co.edu.uptc.model.Node> stationsTable;
      @FXML private TableColumn<co.edu.uptc.model.Node, String> colId, colName, colLat, colLng;
@@ -70,6 +71,16 @@ public class StationsController {
           stationsTable.getItems().setAll(all);
      }
 
+     // La tabla solo muestra estaciones: los cambios de conexiones no le afectan
+     @Override public void edgeAdded(Edge edge) { }
+     @Override public void edgeUpdated(Edge edge) { }
+     @Override public void edgeRemoved(Edge edge) { }
+
+     @Override
+     public void graphChanged() {
+          refreshTable();
+     }
+
      @FXML
      private void onNewStation() {
           clearForm();
@@ -84,7 +95,7 @@ public class StationsController {
 
           try {
                StationValidator.validate(id, name, latS, lngS, originalId,
-                    graphController.getAllNodes(), 
+                    graphController.getStationIndex(),
                     bundle);
           } catch (Exception e) {
                showAlert(Alert.AlertType.ERROR, e.getMessage());
@@ -135,13 +146,10 @@ public class StationsController {
 
      @FXML
      private void onSearch() {
-          String q = searchField.getText().trim().toLowerCase();
-          List<co.edu.uptc.model.Node> list = graphController.getAllNodes();
-          if (!q.isEmpty()) {
-               list = list.stream()
-                         .filter(n -> n.getName().toLowerCase().contains(q) || n.getId().toLowerCase().contains(q))
-                         .collect(Collectors.toList());
-          }
+          String q = searchField.getText().trim();
+          List<co.edu.uptc.model.Node> list = q.isEmpty()
+                    ? graphController.getAllNodes()
+                    : graphController.searchNodes(q);
           stationsTable.getItems().setAll(list);
      }
 
@@ -2,9 +2,15 @@ module co.edu.uptc {
     requires javafx.controls;
     requires javafx.fxml;
     requires javafx.web;
+    requires jdk.jsobject;
     requires javafx.graphics;
     requires jakarta.xml.bind;
     requires java.logging;
+    requires java.xml;
+    requires java.net.http;
+    requires java.sql;
+    requires com.h2database;
+    requires jdk.httpserver;
 
     // Abrir paquetes a JavaFX FXML
     opens co.edu.uptc to javafx.fxml;
@@ -15,10 +21,18 @@ module co.edu.uptc {
     opens co.edu.uptc.validation;
     opens co.edu.uptc.persistence;
     opens co.edu.uptc.controller;
+    opens co.edu.uptc.geo;
+    opens co.edu.uptc.tiles;
+    opens co.edu.uptc.importer;
+    opens co.edu.uptc.search;
 
     // Exports para otros módulos
     exports co.edu.uptc;
     exports co.edu.uptc.controller;
+    exports co.edu.uptc.geo;
+    exports co.edu.uptc.tiles;
+    exports co.edu.uptc.importer;
+    exports co.edu.uptc.search;
     exports co.edu.uptc.persistence;
     exports co.edu.uptc.model;  
     exports co.edu.uptc.viewController;
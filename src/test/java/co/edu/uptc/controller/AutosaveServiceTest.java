@@ -0,0 +1,109 @@
+package co.edu.uptc.controller;
+
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.Node;
+import co.edu.uptc.persistence.GraphJournal;
+import co.edu.uptc.persistence.JournalRecord;
+import co.edu.uptc.persistence.XmlRouteDAO;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para AutosaveService
+ */
+class AutosaveServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private GraphController graph;
+    private AutosaveService autosave;
+    private String file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        graph = GraphController.getInstance();
+        graph.clearGraph();
+        file = dir.resolve("red.xml").toString();
+        autosave = new AutosaveService(graph, new XmlRouteDAO(), Runnable::run, 3);
+        graph.addGraphListener(autosave);
+        autosave.saveNow(file).get();
+    }
+
+    @AfterEach
+    void tearDown() {
+        graph.removeGraphListener(autosave);
+        autosave.close();
+        graph.clearGraph();
+    }
+
+    @Test
+    @DisplayName("Debería registrar cada cambio en el diario sin reescribir el grafo")
+    void testChangesGoToJournal() throws Exception {
+        graph.addNode(new Node("A", "Estación A"));
+        graph.addNode(new Node("B", "Estación B"));
+        flush();
+
+        List<JournalRecord> records = GraphJournal.read(file);
+        assertEquals(2, records.size());
+        assertEquals(JournalRecord.Op.ADD_NODE, records.get(0).op());
+        assertEquals("B", records.get(1).id());
+        assertTrue(autosave.isDirty());
+    }
+
+    @Test
+    @DisplayName("Debería compactar el diario en un checkpoint al superar el umbral")
+    void testCompaction() throws Exception {
+        graph.addNode(new Node("A", "Estación A"));
+        graph.addNode(new Node("B", "Estación B"));
+        graph.addEdge(new Edge("A", "B", 2.5));
+        flush();
+        flush();
+
+        assertTrue(GraphJournal.read(file).isEmpty());
+        assertEquals(2, new XmlRouteDAO().load(file).getNodes().size());
+        assertFalse(autosave.isDirty());
+    }
+
+    @Test
+    @DisplayName("Debería recuperar el checkpoint más el diario al cargar")
+    void testReplayOnLoad() throws Exception {
+        graph.addNode(new Node("A", "Estación A"));
+        graph.addNode(new Node("B", "Estación B"));
+        flush();
+        graph.removeGraphListener(autosave);
+
+        graph.clearGraph();
+        graph.loadGraph(file);
+
+        assertEquals("Estación B", graph.getNode("B").getName());
+        assertEquals(2, graph.getAllNodes().size());
+    }
+
+    @Test
+    @DisplayName("Debería escribir un checkpoint ante un cambio que el diario no expresa")
+    void testCheckpointOnGraphChanged() throws Exception {
+        graph.addNode(new Node("A", "Estación A"));
+        graph.addNode(new Node("B", "Estación B"));
+        flush();
+        graph.getNode("A").addEdge("B", 4.0);
+
+        autosave.graphChanged();
+        flush();
+
+        assertTrue(GraphJournal.read(file).isEmpty());
+        assertEquals(4.0, new XmlRouteDAO().load(file).getNodes().stream()
+                .filter(n -> n.getId().equals("A")).findFirst().orElseThrow().getEdgeTo("B").getDistance());
+        assertNull(graph.getEdge("B", "A"));
+    }
+
+    /** Espera a que el hilo del servicio procese lo encolado */
+    private void flush() throws Exception {
+        autosave.awaitPendingWrites();
+    }
+}
@@ -0,0 +1,140 @@
+package co.edu.uptc.controller;
+
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.GraphData;
+import co.edu.uptc.model.Node;
+import co.edu.uptc.persistence.JdbcRouteDAO;
+import co.edu.uptc.persistence.JournalRecord;
+import co.edu.uptc.persistence.PersistenceException;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para DatabaseSyncService
+ */
+class DatabaseSyncServiceTest {
+
+    /** DAO que registra las llamadas en lugar de usar una base de datos */
+    private static class RecordingDAO extends JdbcRouteDAO {
+        final List<JournalRecord> applied = new ArrayList<>();
+        GraphData saved;
+        int failures;
+
+        RecordingDAO() {
+            super(JdbcRouteDAO.H2_PREFIX);
+        }
+
+        @Override
+        public void save(GraphData tree, String filePath) {
+            saved = tree;
+        }
+
+        @Override
+        public void apply(String filePath, List<JournalRecord> changes) {
+            if (failures > 0) {
+                failures--;
+                throw new PersistenceException("Base no disponible");
+            }
+            applied.addAll(changes);
+        }
+    }
+
+    private GraphController graph;
+    private RecordingDAO dao;
+    private DatabaseSyncService sync;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        graph = GraphController.getInstance();
+        graph.clearGraph();
+        graph.addNode(new Node("A", "Estación A"));
+        dao = new RecordingDAO();
+        sync = new DatabaseSyncService(graph, dao, Runnable::run);
+        graph.addGraphListener(sync);
+        sync.saveNow("red").get();
+    }
+
+    @AfterEach
+    void tearDown() {
+        graph.removeGraphListener(sync);
+        sync.close();
+        graph.clearGraph();
+    }
+
+    @Test
+    @DisplayName("Debería escribir el grafo completo al guardar")
+    void testSaveNow() {
+        assertEquals(1, dao.saved.getNodes().size());
+        assertEquals("red", sync.getTarget());
+    }
+
+    @Test
+    @DisplayName("Debería aplicar cada cambio como filas, en orden")
+    void testChangesApplied() throws Exception {
+        graph.addNode(new Node("B", "Estación B"));
+        graph.addEdge(new Edge("A", "B", 2.5));
+        graph.editNode("B", "Estación B2", 4.6, -74.1);
+        graph.deleteNode("A");
+
+        assertEquals(0, sync.pendingChanges());
+        assertEquals(4, dao.applied.size());
+        assertEquals(JournalRecord.Op.ADD_NODE, dao.applied.get(0).op());
+        assertEquals(JournalRecord.Op.ADD_EDGE, dao.applied.get(1).op());
+        assertEquals(2.5, dao.applied.get(1).distance());
+        assertEquals("Estación B2", dao.applied.get(2).name());
+        assertEquals(JournalRecord.Op.DELETE_NODE, dao.applied.get(3).op());
+    }
+
+    @Test
+    @DisplayName("Debería reintentar los cambios de una transacción fallida")
+    void testRetryAfterFailure() throws Exception {
+        dao.failures = 1;
+        graph.addNode(new Node("B", "Estación B"));
+        assertEquals(1, sync.pendingChanges());
+
+        graph.addNode(new Node("C", "Estación C"));
+
+        assertEquals(0, sync.pendingChanges());
+        assertEquals(List.of("B", "C"), dao.applied.stream().map(JournalRecord::id).toList());
+    }
+
+    @Test
+    @DisplayName("Debería reescribir la base completa si los cambios fallan demasiadas veces")
+    void testResyncAfterMaxAttempts() throws Exception {
+        dao.failures = Integer.MAX_VALUE;
+        // Un cambio por transacción: esperar a cada una antes del siguiente
+        for (int i = 0; i < DatabaseSyncService.MAX_ATTEMPTS - 1; i++) {
+            graph.addNode(new Node("B" + i, "Estación B" + i));
+            assertEquals(i + 1, sync.pendingChanges());
+        }
+
+        graph.addNode(new Node("C", "Estación C"));
+
+        assertEquals(0, sync.pendingChanges());
+        // La reescritura se encola al descartar: la segunda consulta espera a que termine
+        sync.pendingChanges();
+        assertTrue(dao.applied.isEmpty());
+        assertEquals(DatabaseSyncService.MAX_ATTEMPTS + 1, dao.saved.getNodes().size());
+        assertEquals("red", sync.getTarget());
+
+        dao.failures = 0;
+        graph.addNode(new Node("D", "Estación D"));
+        assertEquals(0, sync.pendingChanges());
+        assertEquals(List.of("D"), dao.applied.stream().map(JournalRecord::id).toList());
+    }
+
+    @Test
+    @DisplayName("Debería dejar de sincronizar cuando se reemplaza el grafo")
+    void testStopsOnReload() throws Exception {
+        graph.clearGraph();
+        graph.addNode(new Node("X", "Estación X"));
+
+        assertEquals(0, sync.pendingChanges());
+        assertNull(sync.getTarget());
+        assertTrue(dao.applied.isEmpty());
+    }
+}
@@ -2,7 +2,20 @@ package co.edu.uptc.controller;
 
 import co.edu.uptc.model.Edge;
 import co.edu.uptc.model.Node;
+import co.edu.uptc.persistence.GraphJournal;
+import co.edu.uptc.persistence.JournalRecord;
+import co.edu.uptc.persistence.LoadProgress;
+import co.edu.uptc.persistence.PersistenceException;
+import co.edu.uptc.persistence.PersistenceManager;
+import co.edu.uptc.persistence.ShardManifest;
+import co.edu.uptc.validation.GraphIssue;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -192,5 +205,399 @@ class GraphControllerTest {
         controller.setDefaultSpeed(50.0);
         assertEquals(50.0, controller.getDefaultSpeed());
     }
-}
 
+    @Test
+    @DisplayName("Debería notificar a los receptores solo los cambios realizados")
+    void testGraphListenerNotifications() {
+        java.util.List<String> events = new ArrayList<>();
+        GraphListener listener = new GraphListener() {
+            @Override public void nodeAdded(Node node) { events.add("nodeAdded:" + node.getId()); }
+            @Override public void nodeRemoved(String nodeId) { events.add("nodeRemoved:" + nodeId); }
+            @Override public void graphChanged() { events.add("changed"); }
+        };
+        controller.addGraphListener(listener);
+        try {
+            controller.addNode(new Node("A", "A"));
+            controller.addNode(new Node("B", "B"));
+            controller.addNode(new Node("A", "duplicado"));
+            controller.addEdge(new Edge("A", "B", 1.0));
+            controller.deleteNode("B");
+            controller.deleteNode("X");
+        } finally {
+            controller.removeGraphListener(listener);
+        }
+
+        assertEquals(java.util.List.of("nodeAdded:A", "nodeAdded:B", "changed", "nodeRemoved:B"), events);
+    }
+
+    @Test
+    @DisplayName("Debería cargar solo las estaciones dentro de un rectángulo")
+    void testReadRegionBounds(@TempDir Path dir) {
+        String file = saveChain(dir);
+        
+        controller.loadRegion(file, Region.bounds(4.605, -74.1, 4.625, -74.0));
+        
+        assertEquals(2, controller.getAllNodes().size());
+        assertTrue(controller.existsNode("B"));
+        assertTrue(controller.existsNode("C"));
+        assertNotNull(controller.getEdge("B", "C"));
+        assertNull(controller.getEdge("B", "A"));
+        // B→A y C→D salen de la zona
+        List<Edge> boundary = controller.getBoundaryEdges();
+        assertEquals(2, boundary.size());
+        assertTrue(boundary.stream().anyMatch(e -> e.getFromId().equals("B") && e.getToId().equals("A")));
+        assertTrue(boundary.stream().anyMatch(e -> e.getFromId().equals("C") && e.getToId().equals("D")));
+    }
+    
+    @Test
+    @DisplayName("Debería cargar las estaciones a un número de saltos de las indicadas")
+    void testReadRegionAround(@TempDir Path dir) {
+        String file = saveChain(dir);
+        
+        GraphController.LoadedGraph loaded = controller.readRegion(file, Region.around(Set.of("E"), 2),
+                LoadProgress.NONE);
+        controller.replaceGraph(loaded);
+        
+        assertEquals(3, loaded.nodeCount());
+        assertTrue(controller.existsNode("C"));
+        assertTrue(controller.existsNode("D"));
+        assertTrue(controller.existsNode("E"));
+        assertFalse(controller.existsNode("B"));
+        assertEquals(1, controller.getBoundaryEdges().size());
+        assertEquals("B", controller.getBoundaryEdges().get(0).getToId());
+        
+        controller.clearGraph();
+        assertTrue(controller.getBoundaryEdges().isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Con cero saltos debería cargar solo las estaciones indicadas")
+    void testReadRegionAroundZeroHops(@TempDir Path dir) {
+        String file = saveChain(dir);
+        
+        controller.loadRegion(file, Region.around(Set.of("A", "C", "NOEXISTE"), 0));
+        
+        assertEquals(2, controller.getAllNodes().size());
+        assertEquals(3, controller.getBoundaryEdges().size());
+    }
+    
+    @Test
+    @DisplayName("Debería leer una zona de un archivo guardado con el formato por defecto sin retener toda la red")
+    void testReadRegionStreamsDefaultFormat(@TempDir Path dir) {
+        int count = 3000;
+        for (int i = 0; i < count; i++) {
+            controller.addNode(new Node(String.format("EST%05d", i), "Estación " + i, 4.0 + i * 1e-3, -74.08));
+            if (i > 0) controller.addEdge(new Edge(String.format("EST%05d", i - 1), String.format("EST%05d", i), 1.0));
+        }
+        String file = dir.resolve("red.xml").toString();
+        controller.saveGraph(file);
+        controller.clearGraph();
+        
+        // El mismo lector que usa readRegion: cada estación debe llegar antes de leer las 1000 siguientes
+        long[] reported = new long[1];
+        int[] delivered = new int[1];
+        PersistenceManager.getInstance().getRouteDAO().load(file,
+                (nodes, bytes, total) -> reported[0] = Math.max(reported[0], nodes), n -> {
+                    delivered[0]++;
+                    assertTrue(reported[0] <= delivered[0] + 1000,
+                            "Estación " + delivered[0] + " entregada tras leer " + reported[0]);
+                });
+        assertEquals(count, delivered[0]);
+        
+        controller.loadRegion(file, Region.bounds(5.4995, -74.1, 5.5025, -74.0));
+        
+        assertEquals(3, controller.getAllNodes().size());
+        assertNotNull(controller.getEdge("EST01500", "EST01501"));
+        assertNotNull(controller.getEdge("EST01501", "EST01500"));
+        assertNotNull(controller.getEdge("EST01502", "EST01501"));
+        List<Edge> boundary = controller.getBoundaryEdges();
+        assertEquals(2, boundary.size());
+        assertTrue(boundary.stream().anyMatch(e -> e.getFromId().equals("EST01500") && e.getToId().equals("EST01499")));
+        assertTrue(boundary.stream().anyMatch(e -> e.getFromId().equals("EST01502") && e.getToId().equals("EST01503")));
+    }
+    
+    @Test
+    @DisplayName("Debería combinar un archivo aplicando solo las diferencias")
+    void testMergeGraph(@TempDir Path dir) {
+        String file = saveChain(dir);
+        controller.loadGraph(file);
+        // Cambios hechos sobre la copia cargada que el archivo no tiene
+        controller.editNode("A", "Renombrada", 4.60, -74.08);
+        controller.deleteEdge(new Edge("D", "E", 1.0));
+        controller.editEdge("B", "C", 3.0);
+        controller.addNode(new Node("Z", "Sobrante"));
+        
+        List<String> events = new ArrayList<>();
+        GraphListener listener = new GraphListener() {
+            @Override public void nodeUpdated(Node node) { events.add("nodeUpdated:" + node.getId()); }
+            @Override public void nodeRemoved(String nodeId) { events.add("nodeRemoved:" + nodeId); }
+            @Override public void edgeAdded(Edge edge) { events.add("edgeAdded"); }
+            @Override public void edgeUpdated(Edge edge) { events.add("edgeUpdated"); }
+            @Override public void graphChanged() { events.add("changed"); }
+        };
+        controller.addGraphListener(listener);
+        GraphDiff diff;
+        try {
+            diff = controller.mergeGraph(file);
+        } finally {
+            controller.removeGraphListener(listener);
+        }
+        
+        assertEquals(List.of("Z"), diff.getRemovedNodes());
+        assertEquals(1, diff.getChangedNodes().size());
+        assertEquals(2, diff.getAddedEdges().size());
+        assertEquals(2, diff.getChangedEdges().size());
+        assertTrue(events.containsAll(List.of("nodeRemoved:Z", "nodeUpdated:A", "edgeAdded", "edgeUpdated")));
+        assertFalse(events.contains("changed"));
+        assertEquals("Estación A", controller.getNode("A").getName());
+        assertEquals(1.0, controller.getEdge("C", "B").getDistance());
+        assertNotNull(controller.getEdge("E", "D"));
+        assertTrue(controller.diffGraph(file, LoadProgress.NONE).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Debería aplicar el diario del archivo al combinar con un único aviso")
+    void testMergeGraphJournal(@TempDir Path dir) throws Exception {
+        String file = saveChain(dir);
+        controller.loadGraph(file);
+        try (GraphJournal journal = GraphJournal.open(file)) {
+            journal.append(JournalRecord.addNode(new Node("F", "Estación F")));
+            journal.append(JournalRecord.addEdge(new Edge("E", "F", 2.0)));
+            journal.append(JournalRecord.editNode(new Node("A", "Renombrada")));
+        }
+        
+        List<String> events = new ArrayList<>();
+        GraphListener listener = new GraphListener() {
+            @Override public void nodeAdded(Node node) { events.add("nodeAdded:" + node.getId()); }
+            @Override public void nodeUpdated(Node node) { events.add("nodeUpdated:" + node.getId()); }
+            @Override public void edgeAdded(Edge edge) { events.add("edgeAdded"); }
+            @Override public void graphChanged() { events.add("changed"); }
+        };
+        controller.addGraphListener(listener);
+        GraphDiff diff;
+        try {
+            diff = controller.mergeGraph(file);
+        } finally {
+            controller.removeGraphListener(listener);
+        }
+        
+        assertTrue(diff.isEmpty());
+        assertEquals(List.of("changed"), events);
+        assertTrue(controller.existsNode("F"));
+        assertEquals(2.0, controller.getEdge("F", "E").getDistance());
+        assertEquals("Renombrada", controller.getNode("A").getName());
+    }
+    
+    @Test
+    @DisplayName("Debería combinar conexiones de un solo sentido con un único aviso")
+    void testMergeDirectedEdges(@TempDir Path dir) {
+        String file = saveChain(dir);
+        controller.loadGraph(file);
+        controller.getNode("E").addEdge("A", 7.0);
+        String directed = dir.resolve("dirigida.xml").toString();
+        controller.saveGraph(directed);
+        controller.loadGraph(file);
+        
+        List<String> events = new ArrayList<>();
+        GraphListener listener = new GraphListener() {
+            @Override public void edgeAdded(Edge edge) { events.add("edgeAdded"); }
+            @Override public void graphChanged() { events.add("changed"); }
+        };
+        controller.addGraphListener(listener);
+        try {
+            controller.mergeGraph(directed);
+        } finally {
+            controller.removeGraphListener(listener);
+        }
+        
+        assertEquals(List.of("changed"), events);
+        assertEquals(7.0, controller.getEdge("E", "A").getDistance());
+        assertNull(controller.getEdge("A", "E"));
+        assertTrue(controller.diffGraph(directed, LoadProgress.NONE).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Debería cargar una red repartida en varios archivos sin invertir las conexiones dirigidas")
+    void testLoadShards(@TempDir Path dir) throws Exception {
+        controller.addNode(new Node("A", "Estación A", 4.60, -74.08));
+        controller.addNode(new Node("B", "Estación B", 4.61, -74.08));
+        controller.addEdge(new Edge("A", "B", 1.0));
+        // Conexión dirigida hacia una estación del otro archivo
+        controller.getNode("B").addEdge("C", 2.0);
+        controller.saveGraph(dir.resolve("norte.xml").toString());
+        controller.clearGraph();
+        controller.addNode(new Node("C", "Estación C", 4.62, -74.08));
+        controller.addNode(new Node("D", "Estación D", 4.63, -74.08));
+        controller.addNode(new Node("B", "Repetida", 4.61, -74.08));
+        controller.addEdge(new Edge("C", "D", 1.0));
+        controller.addEdge(new Edge("B", "D", 3.0));
+        controller.saveGraph(dir.resolve("sur.xml").toString());
+        controller.clearGraph();
+        String manifest = dir.resolve("red" + ShardManifest.EXTENSION).toString();
+        ShardManifest.write(manifest, List.of("# Red de prueba", "norte.xml", "", "sur.xml"));
+        
+        long[] lastNodes = new long[1];
+        GraphController.LoadedGraph loaded = controller.readShards(manifest,
+                (nodesRead, bytesRead, totalBytes) -> lastNodes[0] = nodesRead, 2);
+        controller.replaceGraph(loaded);
+        
+        assertEquals(5, lastNodes[0]);
+        assertEquals(4, controller.getAllNodes().size());
+        assertEquals("Estación B", controller.getNode("B").getName());
+        assertEquals(3.0, controller.getEdge("B", "D").getDistance());
+        assertEquals(2.0, controller.getEdge("B", "C").getDistance());
+        assertNull(controller.getEdge("C", "B"));
+        assertEquals(1.0, controller.getEdge("B", "A").getDistance());
+        assertSame(controller.getNode("C").getId(), controller.getEdge("B", "C").getToId());
+    }
+    
+    @Test
+    @DisplayName("Debería coser el sentido de vuelta de una conexión v2 hacia otro archivo")
+    void testLoadShardsStitchesOpenConnections(@TempDir Path dir) throws Exception {
+        Files.writeString(dir.resolve("norte.xml"), """
+                <graphData version="2">
+                  <nodes>
+                    <node><id>A</id><name>Estación A</name></node>
+                    <node><id>B</id><name>Estación B</name></node>
+                  </nodes>
+                  <connections>
+                    <connection from="A" to="B" distance="1.0"/>
+                    <connection from="B" to="C" distance="2.0"/>
+                    <connection from="B" to="D" distance="4.0" directed="true"/>
+                    <connection from="A" to="Z" distance="5.0"/>
+                  </connections>
+                </graphData>
+                """);
+        Files.writeString(dir.resolve("sur.xml"), """
+                <graphData version="2">
+                  <nodes>
+                    <node><id>C</id><name>Estación C</name></node>
+                    <node><id>D</id><name>Estación D</name></node>
+                  </nodes>
+                  <connections>
+                    <connection from="C" to="D" distance="3.0"/>
+                  </connections>
+                </graphData>
+                """);
+        String manifest = dir.resolve("red" + ShardManifest.EXTENSION).toString();
+        ShardManifest.write(manifest, List.of("norte.xml", "sur.xml"));
+        
+        controller.replaceGraph(controller.readShards(manifest, LoadProgress.NONE, 2));
+        
+        assertEquals(2.0, controller.getEdge("C", "B").getDistance());
+        assertSame(controller.getNode("B").getId(), controller.getEdge("C", "B").getToId());
+        assertEquals(4.0, controller.getEdge("B", "D").getDistance());
+        assertNull(controller.getEdge("D", "B"));
+        assertEquals(5.0, controller.getEdge("A", "Z").getDistance());
+        assertNull(controller.getNode("Z"));
+    }
+    
+    @Test
+    @DisplayName("Debería fallar si falta un archivo del manifiesto")
+    void testLoadShardsMissingFile(@TempDir Path dir) throws Exception {
+        String file = saveChain(dir);
+        String manifest = dir.resolve("red" + ShardManifest.EXTENSION).toString();
+        ShardManifest.write(manifest, List.of(file, "no-existe.xml"));
+        
+        assertThrows(PersistenceException.class, () -> controller.readShards(manifest, LoadProgress.NONE, 2));
+        assertNull(controller.readShards(dir.resolve("otro.shards").toString(), LoadProgress.NONE, 2));
+    }
+    
+    @Test
+    @DisplayName("Debería validar el grafo al cargarlo y corregirlo solo si se pide")
+    void testLoadValidatesGraph(@TempDir Path dir) {
+        String file = saveChain(dir);
+        controller.loadGraph(file);
+        controller.getNode("A").addEdge("FANTASMA", 1.0);
+        controller.getEdge("B", "C").setDistance(4.0);
+        String broken = dir.resolve("rota.xml").toString();
+        controller.saveGraph(broken);
+        
+        assertFalse(controller.isRepairOnLoad());
+        controller.loadGraph(broken);
+        assertEquals(2, controller.getLastReport().getIssues().size());
+        assertEquals(0, controller.getLastReport().getRepaired());
+        assertNotNull(controller.getEdge("A", "FANTASMA"));
+        assertEquals(4.0, controller.getEdge("B", "C").getDistance());
+        
+        controller.setRepairOnLoad(true);
+        try {
+            controller.loadGraph(broken);
+            assertEquals(2, controller.getLastReport().getRepaired());
+            assertNull(controller.getEdge("A", "FANTASMA"));
+            assertEquals(1.0, controller.getEdge("B", "C").getDistance());
+            assertTrue(controller.validateGraph().isClean());
+        } finally {
+            controller.setRepairOnLoad(false);
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería validar también las zonas cargadas")
+    void testReadRegionValidates(@TempDir Path dir) {
+        String file = saveChain(dir);
+        controller.loadGraph(file);
+        controller.getEdge("B", "C").setDistance(4.0);
+        String broken = dir.resolve("rota.xml").toString();
+        controller.saveGraph(broken);
+        
+        controller.loadRegion(broken, Region.around(Set.of("B"), 1));
+        
+        assertEquals(1, controller.getLastReport().count(GraphIssue.Type.ASYMMETRIC_DISTANCE));
+        assertEquals(0, controller.getLastReport().getRepaired());
+    }
+    
+    @Test
+    @DisplayName("Debería mantener el índice de IDs y nombres al editar")
+    void testStationIndex(@TempDir Path dir) {
+        controller.addNode(new Node("EST001", "Central"));
+        assertTrue(controller.getStationIndex().containsId("est001"));
+        assertTrue(controller.getStationIndex().containsName("CENTRAL", null));
+        
+        controller.editNode("EST001", "Terminal", null, null);
+        assertFalse(controller.getStationIndex().containsName("Central", null));
+        assertTrue(controller.getStationIndex().containsName("terminal", null));
+        
+        controller.deleteNode("EST001");
+        assertEquals(0, controller.getStationIndex().size());
+        
+        String file = saveChain(dir);
+        controller.loadGraph(file);
+        assertEquals(5, controller.getStationIndex().size());
+        assertTrue(controller.getStationIndex().containsName("estación c", null));
+    }
+    
+    @Test
+    @DisplayName("Debería buscar estaciones por nombre sin acentos tras editar y cargar")
+    void testSearchNodes(@TempDir Path dir) {
+        controller.addNode(new Node("EST001", "Cardio Infantil"));
+        controller.addNode(new Node("EST002", "Calle 100"));
+        assertEquals("EST001", controller.searchNodes("cardió", 10).get(0).getId());
+        
+        controller.editNode("EST001", "Clínica Shaio", null, null);
+        assertTrue(controller.searchNodeIds("cardio", 10).isEmpty());
+        assertEquals(List.of("EST001"), controller.searchNodeIds("clinica", 10));
+        
+        controller.deleteNode("EST002");
+        assertTrue(controller.searchNodeIds("calle", 10).isEmpty());
+        
+        String file = saveChain(dir);
+        controller.loadGraph(file);
+        assertEquals(List.of("C"), controller.searchNodeIds("estacion c", 10));
+    }
+    
+    /** Guarda la cadena A-B-C-D-E (de sur a norte) y vacía el grafo */
+    private String saveChain(Path dir) {
+        String[] ids = {"A", "B", "C", "D", "E"};
+        for (int i = 0; i < ids.length; i++) {
+            controller.addNode(new Node(ids[i], "Estación " + ids[i], 4.60 + i * 0.01, -74.08));
+        }
+        for (int i = 1; i < ids.length; i++) {
+            controller.addEdge(new Edge(ids[i - 1], ids[i], 1.0));
+        }
+        String file = dir.resolve("cadena.xml").toString();
+        controller.saveGraph(file);
+        controller.clearGraph();
+        return file;
+    }
+}
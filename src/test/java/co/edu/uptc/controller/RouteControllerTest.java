@@ -3,7 +3,11 @@ package co.edu.uptc.controller;
 import co.edu.uptc.model.Edge;
 import co.edu.uptc.model.Node;
 import co.edu.uptc.model.RouteResult;
+import co.edu.uptc.persistence.BinaryRouteDAO;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -112,4 +116,63 @@ class RouteControllerTest {
         // 1 transbordo directo (EST001 -> EST004)
         assertEquals(1, result.getTransfers());
     }
-}
\ No newline at end of file
+    
+    @Test
+    @DisplayName("Debería calcular ruta entre coordenadas con tramos a pie")
+    void testRouteBetweenCoordinates() {
+        graphController.addNode(new Node("EST010", "Portal Norte", 4.7627, -74.0464));
+        graphController.addNode(new Node("EST011", "Toberin", 4.7481, -74.0471));
+        graphController.addNode(new Node("EST012", "Calle 100", 4.6850, -74.0570));
+        graphController.addEdge(new Edge("EST010", "EST011", 1.8));
+        graphController.addEdge(new Edge("EST011", "EST012", 7.2));
+        
+        RouteResult result = routeController.findRouteBetweenCoordinates(
+                4.7630, -74.0460, 4.6845, -74.0575, true);
+        
+        assertNotNull(result);
+        assertEquals("EST010", result.getPath().get(0).getId());
+        assertEquals("EST012", result.getPath().get(result.getPath().size() - 1).getId());
+        assertTrue(result.getAccessDistance() > 0);
+        assertTrue(result.getEgressDistance() > 0);
+        assertEquals(9.0 + result.getAccessDistance() + result.getEgressDistance(),
+                result.getDistance(), 0.01);
+    }
+    
+    @Test
+    @DisplayName("Debería retornar null si no hay estaciones con coordenadas")
+    void testRouteBetweenCoordinatesWithoutGeoNodes() {
+        assertNull(routeController.findRouteBetweenCoordinates(4.70, -74.05, 4.60, -74.10, false));
+    }
+    
+    @Test
+    @DisplayName("Debería calcular las mismas rutas sobre un grafo proyectado en memoria")
+    void testRoutesOnMappedGraph(@TempDir Path dir) {
+        String file = dir.resolve("red" + BinaryRouteDAO.EXTENSION).toString();
+        new BinaryRouteDAO().save(graphController.snapshot(), file);
+        RouteResult byDistance = routeController.findShortestByDistance("EST001", "EST004");
+        RouteResult byTransfers = routeController.findFewestTransfers("EST001", "EST004");
+        
+        graphController.mapGraph(file);
+        try {
+            assertTrue(graphController.isReadOnly());
+            assertFalse(graphController.addNode(new Node("EST099", "Nueva")));
+            
+            RouteResult mapped = routeController.findShortestByDistance("EST001", "EST004");
+            assertEquals(byDistance.getDistance(), mapped.getDistance(), 0.01);
+            assertEquals(ids(byDistance), ids(mapped));
+            
+            RouteResult mappedTransfers = routeController.findFewestTransfers("EST001", "EST004");
+            assertEquals(byTransfers.getTransfers(), mappedTransfers.getTransfers());
+            assertEquals(50.0, mappedTransfers.getDistance(), 0.01);
+            
+            assertNull(routeController.findShortestByTime("EST001", "NO_EXISTE"));
+        } finally {
+            graphController.clearGraph();
+        }
+        assertFalse(graphController.isReadOnly());
+    }
+    
+    private static List<String> ids(RouteResult result) {
+        return result.getPath().stream().map(Node::getId).toList();
+    }
+}
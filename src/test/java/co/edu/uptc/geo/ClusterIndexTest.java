@@ -0,0 +1,66 @@
+package co.edu.uptc.geo;
+
+import co.edu.uptc.geo.ClusterIndex.Cluster;
+import co.edu.uptc.model.Node;
+import org.junit.jupiter.api.*;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para ClusterIndex
+ */
+class ClusterIndexTest {
+
+    private ClusterIndex index;
+
+    @BeforeEach
+    void setUp() {
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(new Node("EST001", "Portal Norte", 4.7627, -74.0464));
+        nodes.add(new Node("EST002", "Toberin", 4.7481, -74.0471));
+        nodes.add(new Node("EST003", "Calle 100", 4.6850, -74.0570));
+        nodes.add(new Node("EST004", "Medellín", 6.2442, -75.5812));
+        nodes.add(new Node("EST005", "Sin Coordenadas"));
+        index = ClusterIndex.build(nodes);
+    }
+
+    @Test
+    @DisplayName("Debería conservar el total de estaciones en todos los niveles")
+    void testCountsAddUpAtEveryZoom() {
+        for (int z = 0; z <= ClusterIndex.MAX_CLUSTER_ZOOM; z++) {
+            int total = index.query(-85, -180, 85, 180, z).stream().mapToInt(Cluster::count).sum();
+            assertEquals(4, total, "zoom " + z);
+        }
+    }
+
+    @Test
+    @DisplayName("Debería agrupar estaciones cercanas con zoom lejano")
+    void testGroupsAtLowZoom() {
+        List<Cluster> clusters = index.query(-85, -180, 85, 180, 3);
+
+        assertTrue(clusters.size() < 4);
+        assertTrue(clusters.stream().anyMatch(c -> c.count() > 1));
+    }
+
+    @Test
+    @DisplayName("Debería separar estaciones con zoom cercano usando su ID como clave")
+    void testSinglesAtHighZoom() {
+        List<Cluster> clusters = index.query(4.6, -74.1, 4.8, -74.0, ClusterIndex.MAX_CLUSTER_ZOOM);
+
+        Set<String> keys = new HashSet<>();
+        clusters.forEach(c -> keys.add(c.key()));
+        assertEquals(Set.of("EST001", "EST002", "EST003"), keys);
+        assertTrue(clusters.stream().allMatch(Cluster::isSingle));
+    }
+
+    @Test
+    @DisplayName("Debería calcular el centroide del grupo")
+    void testCentroid() {
+        Cluster all = index.query(-85, -180, 85, 180, 0).stream()
+                .filter(c -> c.count() == 4)
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals((4.7627 + 4.7481 + 4.6850 + 6.2442) / 4, all.latitude(), 1e-9);
+    }
+}
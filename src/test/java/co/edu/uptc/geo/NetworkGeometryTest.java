@@ -0,0 +1,70 @@
+package co.edu.uptc.geo;
+
+import co.edu.uptc.model.Node;
+import org.junit.jupiter.api.*;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para NetworkGeometry
+ */
+class NetworkGeometryTest {
+
+    private List<Node> nodes;
+
+    @BeforeEach
+    void setUp() {
+        // Línea A-B-C-D con un ramal C-E
+        Node a = new Node("EST001", "A", 4.60, -74.10);
+        Node b = new Node("EST002", "B", 4.61, -74.10);
+        Node c = new Node("EST003", "C", 4.62, -74.10);
+        Node d = new Node("EST004", "D", 4.63, -74.10);
+        Node e = new Node("EST005", "E", 4.62, -74.05);
+        connect(a, b);
+        connect(b, c);
+        connect(c, d);
+        connect(c, e);
+        nodes = List.of(a, b, c, d, e);
+    }
+
+    private static void connect(Node x, Node y) {
+        x.addEdge(y.getId(), 1.0);
+        y.addEdge(x.getId(), 1.0);
+    }
+
+    @Test
+    @DisplayName("Debería unir los nodos de grado 2 en una sola cadena")
+    void testBuildsChains() {
+        NetworkGeometry geometry = NetworkGeometry.build(nodes);
+
+        // A-B-C, C-D y C-E
+        assertEquals(3, geometry.size());
+        int points = geometry.query(-90, -180, 90, 180, 18).stream().mapToInt(l -> l.length / 2).sum();
+        assertEquals(7, points);
+    }
+
+    @Test
+    @DisplayName("Debería descartar cadenas fuera de la vista")
+    void testCullsByBounds() {
+        NetworkGeometry geometry = NetworkGeometry.build(nodes);
+
+        assertEquals(1, geometry.query(4.615, -74.07, 4.625, -74.04, 18).size());
+        assertTrue(geometry.query(10, 10, 11, 11, 18).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería dibujar un ciclo como una sola cadena")
+    void testCycle() {
+        Node a = new Node("EST001", "A", 0.0, 0.0);
+        Node b = new Node("EST002", "B", 0.0, 1.0);
+        Node c = new Node("EST003", "C", 1.0, 0.0);
+        connect(a, b);
+        connect(b, c);
+        connect(c, a);
+
+        NetworkGeometry geometry = NetworkGeometry.build(List.of(a, b, c));
+
+        assertEquals(1, geometry.size());
+        assertEquals(8, geometry.query(-90, -180, 90, 180, 18).get(0).length);
+    }
+}
@@ -0,0 +1,43 @@
+package co.edu.uptc.geo;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para PolylineSimplifier
+ */
+class PolylineSimplifierTest {
+
+    @Test
+    @DisplayName("Debería eliminar vértices casi colineales")
+    void testRemovesCollinearPoints() {
+        double[] line = {0, 0, 1, 0.0001, 2, 0, 3, 0.0001, 4, 0};
+
+        double[] result = PolylineSimplifier.simplify(line, 0.01);
+
+        assertArrayEquals(new double[] {0, 0, 4, 0}, result);
+    }
+
+    @Test
+    @DisplayName("Debería conservar vértices que superan la tolerancia")
+    void testKeepsSignificantPoints() {
+        double[] line = {0, 0, 1, 1, 2, 0};
+
+        assertArrayEquals(line, PolylineSimplifier.simplify(line, 0.5));
+    }
+
+    @Test
+    @DisplayName("No debería simplificar con tolerancia cero")
+    void testZeroToleranceKeepsEverything() {
+        double[] line = {0, 0, 1, 0, 2, 0};
+
+        assertSame(line, PolylineSimplifier.simplify(line, PolylineSimplifier.toleranceForZoom(18)));
+    }
+
+    @Test
+    @DisplayName("Debería reducir la tolerancia a la mitad en cada nivel de zoom")
+    void testToleranceHalvesPerZoom() {
+        assertEquals(PolylineSimplifier.toleranceForZoom(10) / 2,
+                PolylineSimplifier.toleranceForZoom(11), 1e-12);
+    }
+}
@@ -0,0 +1,109 @@
+package co.edu.uptc.geo;
+
+import co.edu.uptc.model.Node;
+import org.junit.jupiter.api.*;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para SpatialIndex
+ */
+class SpatialIndexTest {
+
+    private SpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SpatialIndex();
+        index.insert(new Node("EST001", "Portal Norte", 4.7627, -74.0464));
+        index.insert(new Node("EST002", "Toberin", 4.7481, -74.0471));
+        index.insert(new Node("EST003", "Calle 100", 4.6850, -74.0570));
+        index.insert(new Node("EST004", "Portal Sur", 4.5960, -74.1790));
+        index.insert(new Node("EST005", "Sin Coordenadas"));
+    }
+
+    @Test
+    @DisplayName("Debería ignorar estaciones sin coordenadas")
+    void testIgnoresNodesWithoutCoordinates() {
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    @DisplayName("Debería encontrar las estaciones más cercanas en orden")
+    void testNearest() {
+        List<Node> result = index.nearest(4.7600, -74.0460, 2);
+
+        assertEquals(2, result.size());
+        assertEquals("EST001", result.get(0).getId());
+        assertEquals("EST002", result.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Debería encontrar estaciones lejanas aunque estén en otras celdas")
+    void testNearestFarAway() {
+        List<Node> result = index.nearest(4.0, -75.0, 1);
+
+        assertEquals(1, result.size());
+        assertEquals("EST004", result.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Debería coincidir con una búsqueda exhaustiva")
+    void testNearestMatchesBruteForce() {
+        SpatialIndex big = new SpatialIndex();
+        List<Node> all = new ArrayList<>();
+        Random rnd = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            Node n = new Node("N" + i, "Nodo " + i, 4.5 + rnd.nextDouble() * 0.4, -74.2 + rnd.nextDouble() * 0.3);
+            big.insert(n);
+            all.add(n);
+        }
+
+        double lat = 4.63, lng = -74.08;
+        all.sort(Comparator.comparingDouble(n -> GeoUtils.haversineKm(lat, lng, n.getLatitude(), n.getLongitude())));
+
+        assertEquals(all.subList(0, 10), big.nearest(lat, lng, 10));
+    }
+
+    @Test
+    @DisplayName("Debería devolver las estaciones dentro de un rectángulo")
+    void testWithinBounds() {
+        List<Node> result = index.withinBounds(4.70, -74.10, 4.80, -74.00);
+
+        Set<String> ids = new HashSet<>();
+        result.forEach(n -> ids.add(n.getId()));
+        assertEquals(Set.of("EST001", "EST002"), ids);
+    }
+
+    @Test
+    @DisplayName("Debería reubicar una estación al reinsertarla")
+    void testReinsertMovesNode() {
+        Node moved = new Node("EST004", "Portal Sur", 4.7600, -74.0460);
+        index.insert(moved);
+
+        assertEquals(4, index.size());
+        assertEquals("EST004", index.nearest(4.7600, -74.0460, 1).get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Debería eliminar estaciones del índice")
+    void testRemove() {
+        assertTrue(index.remove("EST001"));
+        assertFalse(index.remove("EST001"));
+        assertEquals("EST002", index.nearest(4.7627, -74.0464, 1).get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Debería calcular distancias de haversine")
+    void testHaversine() {
+        assertEquals(0.0, GeoUtils.haversineKm(4.65, -74.05, 4.65, -74.05), 1e-9);
+        assertEquals(111.2, GeoUtils.haversineKm(0, 0, 1, 0), 0.1);
+    }
+
+    @Test
+    @DisplayName("Debería usar el mismo radio en la cota de búsqueda que en haversine")
+    void testKmPerDegreeMatchesHaversine() {
+        // Si la constante superara la distancia real, la cota podría descartar estaciones más cercanas
+        assertEquals(GeoUtils.haversineKm(0, 0, 1, 0), GeoUtils.KM_PER_DEGREE, 1e-9);
+    }
+}
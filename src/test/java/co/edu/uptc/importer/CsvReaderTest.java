@@ -0,0 +1,91 @@
+package co.edu.uptc.importer;
+
+import co.edu.uptc.persistence.PersistenceException;
+import org.junit.jupiter.api.*;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para CsvReader
+ */
+class CsvReaderTest {
+    
+    private static CsvReader reader(String text) {
+        return new CsvReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    @Test
+    @DisplayName("Debería leer la cabecera y los campos por columna")
+    void testHeaderAndFields() throws IOException {
+        try (CsvReader csv = reader("stop_id,stop_name\nA,Portal Norte\nB,Calle 100\n")) {
+            csv.readHeader();
+            int id = csv.requireColumn("stop_id");
+            int name = csv.requireColumn("stop_name");
+            
+            assertTrue(csv.next());
+            assertEquals("A", csv.get(id));
+            assertEquals("Portal Norte", csv.get(name));
+            assertTrue(csv.next());
+            assertEquals("B", csv.get(id));
+            assertFalse(csv.next());
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería manejar comillas, comillas escapadas, CRLF y BOM")
+    void testQuotesCrlfAndBom() throws IOException {
+        String text = "﻿id,name\r\n1,\"Calle 26, \"\"El Dorado\"\"\"\r\n\r\n2,\"multi\nlínea\"";
+        try (CsvReader csv = reader(text)) {
+            csv.readHeader();
+            assertEquals(0, csv.column("id"));
+            
+            assertTrue(csv.next());
+            assertEquals("Calle 26, \"El Dorado\"", csv.get(1));
+            assertTrue(csv.next());
+            assertEquals("2", csv.get(0));
+            assertEquals("multi\nlínea", csv.get(1));
+            assertFalse(csv.next());
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería interpretar números y horas GTFS sin crear cadenas")
+    void testNumbersAndTimes() throws IOException {
+        try (CsvReader csv = reader("a,b,c,d\n12,25:30:15,4.5,\n")) {
+            csv.readHeader();
+            assertTrue(csv.next());
+            assertEquals(12, csv.getInt(0, -1));
+            assertEquals(25 * 3600 + 30 * 60 + 15, csv.getTimeSeconds(1));
+            assertEquals(4.5, csv.getDouble(2));
+            assertEquals(-1, csv.getTimeSeconds(3));
+            assertEquals(7, csv.getInt(3, 7));
+            assertEquals(-1, csv.getInt(1, -1));
+            assertTrue(csv.fieldEquals(0, "12".getBytes(StandardCharsets.UTF_8)));
+            assertEquals("", csv.get(10));
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería leer registros más largos que el búfer inicial")
+    void testRecordLargerThanBuffer() throws IOException {
+        String longField = "x".repeat(200_000);
+        try (CsvReader csv = reader("a,b\n" + longField + ",fin\n")) {
+            csv.readHeader();
+            assertTrue(csv.next());
+            assertEquals(longField, csv.get(0));
+            assertEquals("fin", csv.get(1));
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería fallar si falta una columna obligatoria")
+    void testMissingColumn() throws IOException {
+        try (CsvReader csv = reader("a,b\n")) {
+            csv.readHeader();
+            assertEquals(-1, csv.column("c"));
+            assertThrows(PersistenceException.class, () -> csv.requireColumn("c"));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package co.edu.uptc.importer;
+
+import co.edu.uptc.controller.GraphController;
+import co.edu.uptc.model.Node;
+import co.edu.uptc.persistence.PersistenceException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para GtfsImporter
+ */
+class GtfsImporterTest {
+    
+    @TempDir
+    Path dir;
+    
+    private GraphController graphController;
+    private double previousSpeed;
+    
+    @BeforeEach
+    void setUp() {
+        graphController = GraphController.getInstance();
+        graphController.clearGraph();
+        previousSpeed = graphController.getDefaultSpeed();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        graphController.clearGraph();
+        graphController.setDefaultSpeed(previousSpeed);
+    }
+    
+    @Test
+    @DisplayName("Debería crear estaciones y tramos entre paradas consecutivas")
+    void testImportsStopsAndSegments() throws IOException {
+        Path feed = createFeed();
+        
+        GtfsImporter.Result result = new GtfsImporter(2, Set.of()).importInto(graphController, feed);
+        
+        assertEquals(3, result.stops());
+        assertEquals(3, result.trips());
+        assertEquals(8, result.stopTimes());
+        assertEquals(3, result.segments());
+        assertEquals(3, graphController.getAllNodes().size());
+        Node a = graphController.getNode("A");
+        assertEquals("Portal Norte", a.getName());
+        assertNotNull(a.getEdgeTo("B"));
+        assertNotNull(graphController.getNode("B").getEdgeTo("C"));
+        assertNotNull(graphController.getNode("C").getEdgeTo("B"));
+        assertNull(a.getEdgeTo("C"));
+        // Aproximadamente 1,11 km entre A y B (0,01° de latitud)
+        assertEquals(1.112, a.getEdgeTo("B").getDistance(), 0.001);
+    }
+    
+    @Test
+    @DisplayName("Debería ordenar por stop_sequence y calcular la velocidad media")
+    void testSequenceOrderAndSpeed() throws IOException {
+        Path feed = createFeed();
+        
+        GtfsImporter.Result result = new GtfsImporter(1, Set.of()).importInto(graphController, feed);
+        
+        // Todos los tramos cronometrados miden ~1,112 km y duran 2 min → ~33,4 km/h
+        assertEquals(33.4, result.averageSpeedKmh(), 0.1);
+        assertEquals(33.4, graphController.getDefaultSpeed(), 0.1);
+    }
+    
+    @Test
+    @DisplayName("Debería importar solo los viajes de las rutas indicadas")
+    void testRouteFilter() throws IOException {
+        Path feed = createFeed();
+        
+        GtfsImporter.Result result = new GtfsImporter(2, Set.of("R2")).read(feed);
+        
+        assertEquals(1, result.trips());
+        assertEquals(1, result.segments());
+        assertEquals(3, result.graph().nodeCount());
+    }
+    
+    @Test
+    @DisplayName("Debería dar el mismo resultado con cualquier número de hilos")
+    void testManyTripsParallel() throws IOException {
+        StringBuilder stopTimes = new StringBuilder("trip_id,arrival_time,departure_time,stop_id,stop_sequence\n");
+        int trips = GtfsImporter.TRIPS_PER_BATCH * 5 + 7;
+        for (int t = 0; t < trips; t++) {
+            String trip = "T" + t;
+            String[] order = t % 2 == 0 ? new String[] {"A", "B", "C"} : new String[] {"C", "B", "A"};
+            for (int i = 0; i < order.length; i++) {
+                stopTimes.append(trip).append(",08:0").append(2 * i).append(":00,08:0").append(2 * i)
+                        .append(":00,").append(order[i]).append(',').append(i + 1).append('\n');
+            }
+        }
+        Path feed = writeFeed(Map.of("stops.txt", stops(), "stop_times.txt", stopTimes.toString()));
+        
+        GtfsImporter.Result single = new GtfsImporter(1, Set.of()).read(feed);
+        GtfsImporter.Result parallel = new GtfsImporter(4, Set.of()).read(feed);
+        
+        assertEquals(trips, parallel.trips());
+        assertEquals(trips * 3L, parallel.stopTimes());
+        assertEquals(4, parallel.segments());
+        assertEquals(single.segments(), parallel.segments());
+        assertEquals(single.averageSpeedKmh(), parallel.averageSpeedKmh(), 1e-9);
+    }
+    
+    @Test
+    @DisplayName("Debería fallar si el feed no tiene stop_times.txt")
+    void testMissingFile() throws IOException {
+        Path feed = writeFeed(Map.of("stops.txt", stops()));
+        
+        assertThrows(PersistenceException.class, () -> new GtfsImporter().read(feed));
+    }
+    
+    // ---- Utilidades ----
+    
+    private static String stops() {
+        return "stop_id,stop_name,stop_lat,stop_lon,location_type\n"
+                + "A,Portal Norte,4.60,-74.08,0\n"
+                + "B,\"Calle 100, Norte\",4.61,-74.08,\n"
+                + "C,Calle 76,4.62,-74.08,0\n"
+                + "P,Estación padre,4.61,-74.08,1\n";
+    }
+    
+    private Path createFeed() throws IOException {
+        String trips = "route_id,service_id,trip_id\n"
+                + "R1,S,T1\nR1,S,T2\nR2,S,T3\n";
+        // T2 viene desordenado por stop_sequence; T3 va en sentido contrario y sin horarios
+        String stopTimes = "trip_id,arrival_time,departure_time,stop_id,stop_sequence\n"
+                + "T1,08:00:00,08:00:00,A,1\n"
+                + "T1,08:02:00,08:02:00,B,2\n"
+                + "T1,08:04:00,08:04:00,C,3\n"
+                + "T2,09:04:00,09:04:00,C,3\n"
+                + "T2,09:00:00,09:00:00,A,1\n"
+                + "T2,09:02:00,09:02:00,B,2\n"
+                + "T3,,,C,1\n"
+                + "T3,,,B,2\n";
+        return writeFeed(Map.of("stops.txt", stops(), "trips.txt", trips, "stop_times.txt", stopTimes));
+    }
+    
+    private Path writeFeed(Map<String, String> files) throws IOException {
+        Path zip = dir.resolve("feed.zip");
+        try (OutputStream out = Files.newOutputStream(zip); ZipOutputStream zos = new ZipOutputStream(out)) {
+            for (Map.Entry<String, String> file : files.entrySet()) {
+                zos.putNextEntry(new ZipEntry(file.getKey()));
+                zos.write(file.getValue().getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
+            }
+        }
+        return zip;
+    }
+}
@@ -0,0 +1,131 @@
+package co.edu.uptc.importer;
+
+import co.edu.uptc.controller.GraphController;
+import co.edu.uptc.model.Node;
+import co.edu.uptc.persistence.PersistenceException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para OsmImporter
+ */
+class OsmImporterTest {
+    
+    @TempDir
+    Path dir;
+    
+    private GraphController graphController;
+    
+    @BeforeEach
+    void setUp() {
+        graphController = GraphController.getInstance();
+        graphController.clearGraph();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        graphController.clearGraph();
+    }
+    
+    @Test
+    @DisplayName("Debería crear estaciones de paradas y tramos de las rutas")
+    void testImportsStopsAndRoutes() throws IOException {
+        Path osm = writeOsm();
+        
+        OsmImporter.Result result = new OsmImporter().importInto(graphController, osm);
+        
+        // 1, 2 y 3 son paradas de la ruta; 4 es un andén sin ruta; 5 no es de transporte
+        assertEquals(4, result.stops());
+        assertEquals(1, result.routes());
+        assertEquals(2, result.segments());
+        assertNull(graphController.getNode("N5"));
+        Node first = graphController.getNode("N1");
+        assertEquals("Portal Norte", first.getName());
+        assertEquals(4.60, first.getLatitude(), 1e-9);
+        assertEquals(1.112, first.getEdgeTo("N2").getDistance(), 0.001);
+        assertNotNull(graphController.getNode("N2").getEdgeTo("N3"));
+        assertNull(graphController.getNode("N2").getEdgeTo("N1"));
+        // Sin nombre se usa ref y, si tampoco hay, el ID
+        assertEquals("B-12", graphController.getNode("N3").getName());
+        assertEquals("N4", graphController.getNode("N4").getName());
+        assertTrue(graphController.getNode("N4").getEdges().isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Debería cortar la secuencia en paradas fuera del extracto")
+    void testMissingMembers() throws IOException {
+        Path osm = dir.resolve("clip.osm");
+        Files.writeString(osm, """
+                <osm version="0.6">
+                  <node id="1" lat="4.60" lon="-74.08"><tag k="public_transport" v="stop_position"/></node>
+                  <node id="3" lat="4.62" lon="-74.08"><tag k="public_transport" v="stop_position"/></node>
+                  <relation id="100">
+                    <member type="node" ref="1" role="stop"/>
+                    <member type="node" ref="2" role="stop"/>
+                    <member type="node" ref="3" role="stop"/>
+                    <tag k="type" v="route"/>
+                  </relation>
+                </osm>
+                """);
+        
+        OsmImporter.Result result = new OsmImporter().read(osm);
+        
+        assertEquals(2, result.stops());
+        assertEquals(0, result.segments());
+    }
+    
+    @Test
+    @DisplayName("Debería fallar si el archivo no existe")
+    void testMissingFile() {
+        assertThrows(PersistenceException.class, () -> new OsmImporter().read(dir.resolve("nada.osm")));
+    }
+    
+    private Path writeOsm() throws IOException {
+        Path osm = dir.resolve("city.osm");
+        Files.writeString(osm, """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <osm version="0.6" generator="test">
+                  <bounds minlat="4.5" minlon="-74.2" maxlat="4.7" maxlon="-74.0"/>
+                  <node id="1" lat="4.60" lon="-74.08">
+                    <tag k="public_transport" v="stop_position"/>
+                    <tag k="name" v="Portal Norte"/>
+                  </node>
+                  <node id="2" lat="4.61" lon="-74.08">
+                    <tag k="name" v="Calle 100"/>
+                  </node>
+                  <node id="3" lat="4.62" lon="-74.08">
+                    <tag k="public_transport" v="stop_position"/>
+                    <tag k="ref" v="B-12"/>
+                  </node>
+                  <node id="4" lat="4.63" lon="-74.08">
+                    <tag k="public_transport" v="platform"/>
+                  </node>
+                  <node id="5" lat="4.64" lon="-74.08"/>
+                  <way id="50">
+                    <nd ref="1"/>
+                    <nd ref="5"/>
+                    <tag k="highway" v="primary"/>
+                  </way>
+                  <relation id="100">
+                    <member type="way" ref="50" role=""/>
+                    <member type="node" ref="1" role="stop"/>
+                    <member type="node" ref="4" role="platform"/>
+                    <member type="node" ref="2" role="stop_entry_only"/>
+                    <member type="node" ref="3" role="stop"/>
+                    <tag k="type" v="route"/>
+                    <tag k="route" v="bus"/>
+                  </relation>
+                  <relation id="200">
+                    <member type="node" ref="5" role="stop"/>
+                    <member type="node" ref="1" role="stop"/>
+                    <tag k="type" v="multipolygon"/>
+                  </relation>
+                </osm>
+                """);
+        return osm;
+    }
+}
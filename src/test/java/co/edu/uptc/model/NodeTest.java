@@ -1,6 +1,7 @@
 package co.edu.uptc.model;
 
 import org.junit.jupiter.api.*;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -77,4 +78,17 @@ class NodeTest {
         assertEquals(15.0, node.getEdgeTo("EST002").getDistance());
         assertEquals(1, node.getEdges().size());
     }
-}
\ No newline at end of file
+    
+    @Test
+    @DisplayName("Debería devolver una vista de solo lectura que refleja los cambios")
+    void testEdgesReadOnlyView() {
+        Node node = new Node("EST001", "Estación 1");
+        List<Edge> edges = node.getEdges();
+        node.addEdge("EST002", 10.0);
+        
+        assertEquals(1, edges.size());
+        assertThrows(UnsupportedOperationException.class, () -> edges.add(new Edge("EST001", "EST003", 1.0)));
+        node.removeEdgeTo("EST002");
+        assertTrue(edges.isEmpty());
+    }
+}
@@ -0,0 +1,138 @@
+package co.edu.uptc.persistence;
+
+import co.edu.uptc.model.*;
+import org.junit.jupiter.api.*;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para BinaryRouteDAO
+ */
+class BinaryRouteDAOTest {
+    
+    private BinaryRouteDAO dao;
+    private String testFilePath = "test_graph" + BinaryRouteDAO.EXTENSION;
+    
+    @BeforeEach
+    void setUp() {
+        dao = new BinaryRouteDAO();
+        new File(testFilePath).delete();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        new File(testFilePath).delete();
+    }
+    
+    @Test
+    @DisplayName("Debería guardar y cargar estaciones, coordenadas y conexiones")
+    void testRoundTrip() {
+        dao.save(createTestGraphData(), testFilePath);
+        
+        GraphData loaded = dao.load(testFilePath);
+        
+        assertEquals(3, loaded.getNodes().size());
+        Node first = loaded.getNodes().get(0);
+        assertEquals("EST001", first.getId());
+        assertEquals("Estación 1", first.getName());
+        assertEquals(4.6097100, first.getLatitude(), 1e-7);
+        assertEquals(-74.0817500, first.getLongitude(), 1e-7);
+        assertEquals(2, first.getEdges().size());
+        assertEquals("EST001", first.getEdges().get(0).getFromId());
+        assertEquals(10.5, first.getEdgeTo("EST002").getDistance());
+    }
+    
+    @Test
+    @DisplayName("Debería conservar valores nulos y destinos fuera del grafo")
+    void testNullsAndDanglingTargets() {
+        dao.save(createTestGraphData(), testFilePath);
+        
+        GraphData loaded = dao.load(testFilePath);
+        
+        Node third = loaded.getNodes().get(2);
+        assertNull(third.getName());
+        assertNull(third.getLatitude());
+        assertNull(third.getLongitude());
+        assertEquals(3.0, loaded.getNodes().get(0).getEdgeTo("EXTERNA").getDistance());
+    }
+    
+    @Test
+    @DisplayName("Debería retornar null si archivo no existe")
+    void testLoadNonExistentFile() {
+        assertNull(dao.load("no_existe" + BinaryRouteDAO.EXTENSION));
+    }
+    
+    @Test
+    @DisplayName("Debería detectar un archivo dañado por el CRC")
+    void testCorruptedFile() throws Exception {
+        dao.save(createTestGraphData(), testFilePath);
+        try (RandomAccessFile raf = new RandomAccessFile(testFilePath, "rw")) {
+            raf.seek(40);
+            int b = raf.read();
+            raf.seek(40);
+            raf.write(b ^ 0xFF);
+        }
+        
+        PersistenceException e = assertThrows(PersistenceException.class, () -> dao.load(testFilePath));
+        assertTrue(e.getMessage().contains("CRC"));
+    }
+    
+    @Test
+    @DisplayName("Debería rechazar archivos que no son del formato binario")
+    void testRejectsOtherFormats() throws Exception {
+        new XmlRouteDAO().save(createTestGraphData(), testFilePath);
+        assertThrows(PersistenceException.class, () -> dao.load(testFilePath));
+    }
+    
+    @Test
+    @DisplayName("Debería abandonar la carga cuando se cancela")
+    void testLoadCancelled() {
+        dao.save(createTestGraphData(), testFilePath);
+        LoadProgress cancelled = new LoadProgress() {
+            @Override
+            public void update(long nodesRead, long bytesRead, long totalBytes) { }
+            
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+        };
+        
+        assertThrows(java.util.concurrent.CancellationException.class, () ->
+            dao.load(testFilePath, cancelled)
+        );
+    }
+    
+    @Test
+    @DisplayName("Debería elegir el DAO según la extensión del archivo")
+    void testExtensionRouting() {
+        String xmlPath = "test_graph_routing.xml";
+        ExtensionRouteDAO routing = new ExtensionRouteDAO(new StaxRouteDAO())
+                .register(BinaryRouteDAO.EXTENSION, dao);
+        try {
+            routing.save(createTestGraphData(), testFilePath);
+            routing.save(createTestGraphData(), xmlPath);
+            
+            assertEquals(3, dao.load(testFilePath).getNodes().size());
+            assertEquals(3, new XmlRouteDAO().load(xmlPath).getNodes().size());
+            assertSame(dao, routing.forPath("RED" + BinaryRouteDAO.EXTENSION.toUpperCase()));
+        } finally {
+            new File(xmlPath).delete();
+        }
+    }
+    
+    private GraphData createTestGraphData() {
+        Node node1 = new Node("EST001", "Estación 1", 4.60971, -74.08175);
+        node1.addEdge("EST002", 10.5);
+        node1.addEdge("EXTERNA", 3.0);
+        
+        Node node2 = new Node("EST002", "Estación 2", 4.70, -74.10);
+        node2.addEdge("EST001", 10.5);
+        
+        Node node3 = new Node("EST003", null);
+        
+        return new GraphData(Arrays.asList(node1, node2, node3));
+    }
+}
@@ -0,0 +1,82 @@
+package co.edu.uptc.persistence;
+
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.GraphData;
+import co.edu.uptc.model.Node;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para GraphJournal
+ */
+class GraphJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private String graphFile;
+
+    @BeforeEach
+    void setUp() {
+        graphFile = dir.resolve("red.xml").toString();
+        new XmlRouteDAO().save(new GraphData(new ArrayList<>()), graphFile);
+    }
+
+    @Test
+    @DisplayName("Debería leer los cambios en el mismo orden y con los mismos valores")
+    void testRoundTrip() throws Exception {
+        try (GraphJournal journal = GraphJournal.open(graphFile)) {
+            journal.append(JournalRecord.addNode(new Node("A", "Estación A", 4.6, -74.1)));
+            journal.append(JournalRecord.addNode(new Node("B", "Estación B")));
+            journal.append(JournalRecord.addEdge(new Edge("A", "B", 3.5)));
+            journal.append(JournalRecord.deleteNode("B"));
+        }
+
+        List<JournalRecord> records = GraphJournal.read(graphFile);
+        assertEquals(4, records.size());
+        assertEquals(JournalRecord.addNode(new Node("A", "Estación A", 4.6, -74.1)), records.get(0));
+        assertNull(records.get(1).latitude());
+        assertEquals(3.5, records.get(2).distance());
+        assertEquals(JournalRecord.Op.DELETE_NODE, records.get(3).op());
+    }
+
+    @Test
+    @DisplayName("Debería ignorar y truncar un registro incompleto al final")
+    void testTornTail() throws Exception {
+        try (GraphJournal journal = GraphJournal.open(graphFile)) {
+            journal.append(JournalRecord.deleteNode("A"));
+        }
+        Path journalPath = GraphJournal.pathFor(graphFile);
+        Files.write(journalPath, new byte[] {0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        assertEquals(1, GraphJournal.read(graphFile).size());
+        try (GraphJournal journal = GraphJournal.open(graphFile)) {
+            assertEquals(1, journal.size());
+            journal.append(JournalRecord.deleteNode("B"));
+        }
+        assertEquals(2, GraphJournal.read(graphFile).size());
+    }
+
+    @Test
+    @DisplayName("Debería descartar el diario si el checkpoint cambió")
+    void testStaleJournal() throws Exception {
+        try (GraphJournal journal = GraphJournal.open(graphFile)) {
+            journal.append(JournalRecord.deleteNode("A"));
+        }
+        List<Node> nodes = new ArrayList<>(List.of(new Node("X", "Nueva")));
+        new XmlRouteDAO().save(new GraphData(nodes), graphFile);
+
+        assertTrue(GraphJournal.read(graphFile).isEmpty());
+        try (GraphJournal journal = GraphJournal.open(graphFile)) {
+            assertEquals(0, journal.size());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package co.edu.uptc.persistence;
+
+import co.edu.uptc.model.Edge;
+import co.edu.uptc.model.GraphData;
+import co.edu.uptc.model.Node;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para JdbcRouteDAO, sobre una base H2 en un directorio temporal
+ */
+class JdbcRouteDAOTest {
+    
+    @TempDir
+    Path dir;
+    
+    private JdbcRouteDAO dao;
+    private String db;
+    
+    @BeforeEach
+    void setUp() {
+        dao = new JdbcRouteDAO(JdbcRouteDAO.H2_PREFIX);
+        db = dir.resolve("red").toAbsolutePath().toString();
+    }
+    
+    @Test
+    @DisplayName("Debería guardar y cargar el grafo sin perder datos")
+    void testRoundTrip() {
+        dao.save(createTestGraphData(), db);
+        
+        GraphData loaded = dao.load(db);
+        
+        assertNotNull(loaded);
+        assertEquals(3, loaded.getNodes().size());
+        Node a = loaded.getNodes().get(0);
+        assertEquals("EST001", a.getId());
+        assertEquals("Estación 1", a.getName());
+        assertEquals(4.65, a.getLatitude());
+        assertEquals(-74.05, a.getLongitude());
+        assertEquals(2, a.getEdges().size());
+        assertEquals(10.0, a.getEdgeTo("EST002").getDistance());
+        assertEquals("EST001", a.getEdgeTo("EST003").getFromId());
+        Node c = loaded.getNodes().get(2);
+        assertNull(c.getLatitude());
+        assertNull(c.getLongitude());
+        assertEquals(2.0, c.getEdgeTo("EST001").getDistance());
+    }
+    
+    @Test
+    @DisplayName("Debería abrir y guardar una base por la ruta de su archivo .mv.db")
+    void testDatabaseFileByExtension() {
+        RouteDAO routes = PersistenceManager.getInstance().getRouteDAO();
+        String file = dir.resolve("red" + JdbcRouteDAO.H2_EXTENSION).toString();
+        
+        assertNull(routes.load(file));
+        assertFalse(new File(file).exists());
+        
+        routes.save(createTestGraphData(), file);
+        
+        assertTrue(new File(file).exists());
+        assertEquals(3, routes.load(file).getNodes().size());
+        assertEquals(3, dao.load(db).getNodes().size());
+    }
+    
+    @Test
+    @DisplayName("Debería reemplazar todo el contenido al guardar de nuevo")
+    void testSaveReplaces() {
+        dao.save(createTestGraphData(), db);
+        
+        dao.save(new GraphData(List.of(new Node("EST009", "Otra"))), db);
+        
+        GraphData loaded = dao.load(db);
+        assertEquals(1, loaded.getNodes().size());
+        assertEquals("EST009", loaded.getNodes().get(0).getId());
+    }
+    
+    @Test
+    @DisplayName("Debería entregar las estaciones en flujo e informar el avance")
+    void testLoadStreams() {
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            Node n = new Node(String.format("EST%05d", i), "Estación " + i);
+            if (i > 0) n.addEdge(String.format("EST%05d", i - 1), 1.0);
+            nodes.add(n);
+        }
+        dao.save(new GraphData(nodes), db);
+        
+        List<Long> reports = new ArrayList<>();
+        int[] delivered = new int[1];
+        assertTrue(dao.load(db, (read, bytes, total) -> reports.add(read), n -> {
+            delivered[0]++;
+            assertEquals(n.getId().equals("EST00000") ? 0 : 1, n.getEdges().size());
+        }));
+        
+        assertEquals(2500, delivered[0]);
+        assertEquals(List.of(1000L, 2000L, 2500L), reports);
+    }
+    
+    @Test
+    @DisplayName("Debería indicar que no hay grafo en una base sin tablas")
+    void testLoadWithoutSchema() {
+        assertNull(dao.load(db));
+        assertTrue(dao.loadBounds(db, 0, 0, 1, 1).isEmpty());
+        assertTrue(dao.loadByIds(db, List.of("EST001")).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Debería leer solo las estaciones dentro de un rectángulo, con sus conexiones salientes")
+    void testLoadBounds() {
+        dao.save(createTestGraphData(), db);
+        
+        List<Node> inside = dao.loadBounds(db, 4.6, -74.06, 4.66, -74.0);
+        
+        assertEquals(1, inside.size());
+        Node a = inside.get(0);
+        assertEquals("EST001", a.getId());
+        assertEquals(2, a.getEdges().size());
+        assertNotNull(a.getEdgeTo("EST002"));
+    }
+    
+    @Test
+    @DisplayName("Debería leer las estaciones indicadas e ignorar los IDs inexistentes")
+    void testLoadByIds() {
+        dao.save(createTestGraphData(), db);
+        
+        List<Node> found = dao.loadByIds(db, List.of("EST002", "EST003", "NOEXISTE"));
+        
+        assertEquals(2, found.size());
+        Node b = found.stream().filter(n -> n.getId().equals("EST002")).findFirst().orElseThrow();
+        assertEquals(1, b.getEdges().size());
+        assertEquals(10.0, b.getEdgeTo("EST001").getDistance());
+        assertTrue(dao.loadByIds(db, List.of()).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Debería leer más IDs de los que caben en una consulta")
+    void testLoadByManyIds() {
+        List<Node> nodes = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            nodes.add(new Node(String.format("EST%05d", i), "Estación " + i));
+            ids.add(String.format("EST%05d", i));
+        }
+        dao.save(new GraphData(nodes), db);
+        
+        assertEquals(1200, dao.loadByIds(db, ids).size());
+    }
+    
+    @Test
+    @DisplayName("Debería aplicar los cambios del editor fila a fila")
+    void testApply() {
+        dao.save(createTestGraphData(), db);
+        
+        dao.apply(db, List.of(
+            JournalRecord.addNode(new Node("EST004", "Estación 4", 4.8, -74.2)),
+            JournalRecord.addEdge(new Edge("EST004", "EST002", 3.0)),
+            JournalRecord.editNode(new Node("EST002", "Renombrada", 4.71, -74.11)),
+            JournalRecord.editEdge(new Edge("EST001", "EST002", 7.5)),
+            JournalRecord.deleteEdge(new Edge("EST003", "EST001", 0)),
+            JournalRecord.deleteNode("EST003")));
+        
+        Map<String, Node> byId = new HashMap<>();
+        dao.load(db).getNodes().forEach(n -> byId.put(n.getId(), n));
+        assertEquals(Set.of("EST001", "EST002", "EST004"), byId.keySet());
+        assertEquals("Renombrada", byId.get("EST002").getName());
+        assertEquals(4.71, byId.get("EST002").getLatitude());
+        assertEquals(7.5, byId.get("EST001").getEdgeTo("EST002").getDistance());
+        assertEquals(7.5, byId.get("EST002").getEdgeTo("EST001").getDistance());
+        assertEquals(3.0, byId.get("EST002").getEdgeTo("EST004").getDistance());
+        assertEquals(3.0, byId.get("EST004").getEdgeTo("EST002").getDistance());
+        assertNull(byId.get("EST001").getEdgeTo("EST003"));
+    }
+    
+    @Test
+    @DisplayName("Debería deshacer todos los cambios si uno falla")
+    void testApplyIsAtomic() {
+        dao.save(createTestGraphData(), db);
+        
+        assertThrows(PersistenceException.class, () -> dao.apply(db, List.of(
+            JournalRecord.addNode(new Node("EST004", "Estación 4")),
+            new JournalRecord(JournalRecord.Op.ADD_NODE, null, null, "Sin ID", null, null, 0))));
+        
+        assertEquals(3, dao.load(db).getNodes().size());
+        assertTrue(dao.loadByIds(db, List.of("EST004")).isEmpty());
+    }
+    
+    private GraphData createTestGraphData() {
+        Node node1 = new Node("EST001", "Estación 1", 4.65, -74.05);
+        Node node2 = new Node("EST002", "Estación 2", 4.70, -74.10);
+        Node node3 = new Node("EST003", "Estación 3");
+        node1.addEdge("EST002", 10.0);
+        node2.addEdge("EST001", 10.0);
+        node1.addEdge("EST003", 2.0);
+        node3.addEdge("EST001", 2.0);
+        return new GraphData(Arrays.asList(node1, node2, node3));
+    }
+}
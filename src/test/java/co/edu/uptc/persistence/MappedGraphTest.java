@@ -0,0 +1,107 @@
+package co.edu.uptc.persistence;
+
+import co.edu.uptc.model.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para MappedGraph
+ */
+class MappedGraphTest {
+    
+    @TempDir
+    Path dir;
+    
+    private String file;
+    
+    @BeforeEach
+    void setUp() {
+        file = dir.resolve("red" + BinaryRouteDAO.EXTENSION).toString();
+        
+        Node b = new Node("B", "Beta", 4.70, -74.10);
+        b.addEdge("A", 2.0);
+        b.addEdge("Ω", 7.0);
+        Node a = new Node("A", "Alfa", 4.60, -74.05);
+        a.addEdge("B", 2.0);
+        Node omega = new Node("Ω", null);
+        omega.addEdge("FUERA", 1.5);
+        
+        new BinaryRouteDAO().save(new GraphData(Arrays.asList(b, a, omega)), file);
+    }
+    
+    @Test
+    @DisplayName("Debería buscar estaciones por ID en el archivo proyectado")
+    void testIndexOf() throws Exception {
+        MappedGraph graph = MappedGraph.open(file);
+        
+        assertEquals(3, graph.nodeCount());
+        assertEquals(4, graph.edgeCount());
+        assertEquals("A", graph.id(graph.indexOf("A")));
+        assertEquals("B", graph.id(graph.indexOf("B")));
+        assertEquals("Ω", graph.id(graph.indexOf("Ω")));
+        assertEquals(-1, graph.indexOf("C"));
+        assertEquals(-1, graph.indexOf(null));
+    }
+    
+    @Test
+    @DisplayName("Debería leer adyacencia, nombres y coordenadas del mapeo")
+    void testAdjacencyAndAttributes() throws Exception {
+        MappedGraph graph = MappedGraph.open(file);
+        int b = graph.indexOf("B");
+        
+        assertEquals("Beta", graph.name(b));
+        assertEquals(4.70, graph.latitude(b), 1e-7);
+        assertEquals(2, graph.edgeEnd(b) - graph.edgeStart(b));
+        int first = graph.edgeStart(b);
+        assertEquals(graph.indexOf("A"), graph.edgeTarget(first));
+        assertEquals(2.0, graph.edgeDistance(first));
+        
+        int omega = graph.indexOf("Ω");
+        assertNull(graph.name(omega));
+        assertFalse(graph.hasCoordinates(omega));
+        int dangling = graph.edgeStart(omega);
+        assertTrue(graph.edgeTarget(dangling) < 0);
+        assertEquals("FUERA", graph.edgeTargetId(dangling));
+    }
+    
+    @Test
+    @DisplayName("Debería crear copias de las estaciones con sus conexiones")
+    void testNodeCopy() throws Exception {
+        MappedGraph graph = MappedGraph.open(file);
+        
+        Node a = graph.node(graph.indexOf("A"));
+        
+        assertEquals("Alfa", a.getName());
+        assertEquals(-74.05, a.getLongitude(), 1e-7);
+        assertEquals(2.0, a.getEdgeTo("B").getDistance());
+        assertEquals("A", a.getEdgeTo("B").getFromId());
+    }
+    
+    @Test
+    @DisplayName("Debería encontrar las estaciones más cercanas sin cargar el grafo")
+    void testNearest() throws Exception {
+        MappedGraph graph = MappedGraph.open(file);
+        
+        int[] nearest = graph.nearest(4.61, -74.05, 5);
+        
+        assertEquals(2, nearest.length);
+        assertEquals("A", graph.id(nearest[0]));
+        assertEquals("B", graph.id(nearest[1]));
+        assertArrayEquals(new int[] {graph.indexOf("B")}, graph.withinBounds(4.65, -74.2, 4.75, -74.08));
+    }
+    
+    @Test
+    @DisplayName("Debería verificar el CRC bajo demanda y rechazar archivos truncados")
+    void testVerifyAndTruncated() throws Exception {
+        assertTrue(MappedGraph.open(file).verify());
+        
+        byte[] bytes = Files.readAllBytes(Path.of(file));
+        Path truncated = dir.resolve("truncado" + BinaryRouteDAO.EXTENSION);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 10));
+        assertThrows(PersistenceException.class, () -> MappedGraph.open(truncated.toString()));
+    }
+}
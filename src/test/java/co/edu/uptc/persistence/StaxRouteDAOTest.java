@@ -0,0 +1,327 @@
+package co.edu.uptc.persistence;
+
+import co.edu.uptc.model.*;
+import org.junit.jupiter.api.*;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para StaxRouteDAO
+ */
+class StaxRouteDAOTest {
+    
+    private StaxRouteDAO dao;
+    private String testFilePath = "test_graph_stax.xml";
+    
+    @BeforeEach
+    void setUp() {
+        dao = new StaxRouteDAO();
+        new File(testFilePath).delete();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        new File(testFilePath).delete();
+    }
+    
+    @Test
+    @DisplayName("Debería guardar y cargar el grafo sin perder datos")
+    void testRoundTrip() {
+        dao.save(createTestGraphData(), testFilePath);
+        
+        GraphData loaded = dao.load(testFilePath);
+        
+        assertNotNull(loaded);
+        assertEquals(2, loaded.getNodes().size());
+        Node first = loaded.getNodes().get(0);
+        assertEquals("EST001", first.getId());
+        assertEquals("Estación 1", first.getName());
+        assertEquals(4.65, first.getLatitude());
+        assertEquals(-74.05, first.getLongitude());
+        assertEquals(1, first.getEdges().size());
+        assertNotNull(first.getEdgeTo("EST002"));
+        assertEquals(10.0, first.getEdgeTo("EST002").getDistance());
+    }
+    
+    @Test
+    @DisplayName("Debería leer archivos escritos por XmlRouteDAO y viceversa")
+    void testCompatibleWithJaxb() {
+        new XmlRouteDAO().save(createTestGraphData(), testFilePath);
+        GraphData fromJaxb = dao.load(testFilePath);
+        assertEquals(2, fromJaxb.getNodes().size());
+        assertEquals("EST001", fromJaxb.getNodes().get(1).getEdges().get(0).getToId());
+        
+        dao.save(fromJaxb, testFilePath);
+        GraphData back = new XmlRouteDAO().load(testFilePath);
+        assertEquals(2, back.getNodes().size());
+        assertEquals(10.0, back.getNodes().get(0).getEdges().get(0).getDistance());
+    }
+    
+    @Test
+    @DisplayName("Debería ignorar elementos desconocidos")
+    void testSkipsUnknownElements() throws Exception {
+        Files.writeString(Paths.get(testFilePath),
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<graphData><meta><a><b/></a></meta><nodes>"
+            + "<node><id>A</id><extra>x<y/></extra><name>Alfa</name>"
+            + "<edges><edge><toId>B</toId><distance>2.5</distance></edge></edges></node>"
+            + "<node><id>B</id><name>Beta</name></node>"
+            + "</nodes></graphData>");
+        
+        GraphData loaded = dao.load(testFilePath);
+        
+        assertEquals(2, loaded.getNodes().size());
+        Node a = loaded.getNodes().get(0);
+        assertEquals("Alfa", a.getName());
+        assertEquals("A", a.getEdges().get(0).getFromId());
+        assertEquals(2.5, a.getEdgeTo("B").getDistance());
+    }
+    
+    @Test
+    @DisplayName("Debería escribir cada conexión bidireccional una sola vez, dentro de su estación (esquema v3)")
+    void testWritesSchemaV3() throws Exception {
+        Node a = new Node("A", "Alfa");
+        Node b = new Node("B", "Beta");
+        a.addEdge("B", 1.0);
+        b.addEdge("A", 1.0);
+        a.addEdge("C", 2.0);
+        Node c = new Node("C", "Gamma");
+        c.addEdge("B", 3.0);
+        dao.save(new GraphData(Arrays.asList(a, b, c)), testFilePath);
+        
+        String xml = Files.readString(Paths.get(testFilePath));
+        assertTrue(xml.contains("<graphData version=\"3\">"));
+        assertFalse(xml.contains("<edge>"));
+        assertFalse(xml.contains("<connections>"));
+        assertTrue(xml.contains("<connection to=\"B\" distance=\"1.0\"/>"));
+        assertTrue(xml.contains("<connection to=\"C\" distance=\"2.0\" directed=\"true\"/>"));
+        assertTrue(xml.contains("<connection to=\"B\" distance=\"3.0\" directed=\"true\"/>"));
+        assertFalse(xml.contains("<connection to=\"A\""));
+        
+        for (RouteDAO reader : List.of(dao, new XmlRouteDAO())) {
+            GraphData loaded = reader.load(testFilePath);
+            Node la = loaded.getNodes().get(0);
+            Node lb = loaded.getNodes().get(1);
+            Node lc = loaded.getNodes().get(2);
+            assertEquals(2, la.getEdges().size());
+            assertEquals(1.0, lb.getEdgeTo("A").getDistance());
+            assertEquals(1, lb.getEdges().size());
+            assertEquals(3.0, lc.getEdgeTo("B").getDistance());
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería entregar cada estación v3 completa sin retener el resto del archivo")
+    void testSchemaV3Streams() {
+        int count = 3000;
+        List<Node> chain = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Node n = new Node(String.format("EST%05d", i), "Estación " + i);
+            if (i > 0) {
+                n.addEdge(chain.get(i - 1).getId(), 1.0);
+                chain.get(i - 1).addEdge(n.getId(), 1.0);
+            }
+            chain.add(n);
+        }
+        dao.save(new GraphData(chain), testFilePath);
+        
+        // Como al cargar una región: solo se conservan unas pocas estaciones
+        long[] reported = new long[1];
+        int[] delivered = new int[1];
+        List<Node> kept = new ArrayList<>();
+        dao.load(testFilePath, (nodes, bytes, total) -> reported[0] = Math.max(reported[0], nodes), n -> {
+            delivered[0]++;
+            // El lector avisa cada 1000 estaciones: no puede ir más adelantado que eso
+            assertTrue(reported[0] <= delivered[0] + 1000,
+                    "Estación " + delivered[0] + " entregada tras leer " + reported[0]);
+            int i = Integer.parseInt(n.getId().substring(3));
+            assertEquals(i == 0 || i == count - 1 ? 1 : 2, n.getEdges().size(), n.getId());
+            if (i % 1000 == 500) kept.add(n);
+        });
+        
+        assertEquals(count, delivered[0]);
+        assertEquals(3, kept.size());
+        assertEquals(1.0, kept.get(0).getEdgeTo("EST00499").getDistance());
+        assertEquals(1.0, kept.get(0).getEdgeTo("EST00501").getDistance());
+    }
+    
+    @Test
+    @DisplayName("Debería rechazar una conexión v3 no dirigida escrita en la segunda de sus estaciones")
+    void testRejectsConnectionUnderLaterStation() throws Exception {
+        Files.writeString(Paths.get(testFilePath),
+            "<graphData version=\"3\"><nodes>"
+            + "<node><id>A</id><name>Alfa</name></node>"
+            + "<node><id>B</id><name>Beta</name><connection to=\"A\" distance=\"1.0\"/></node>"
+            + "</nodes></graphData>");
+        
+        PersistenceException e = assertThrows(PersistenceException.class, () -> dao.load(testFilePath));
+        assertTrue(e.getMessage().contains("de B a A"), e.getMessage());
+    }
+    
+    @Test
+    @DisplayName("Debería rechazar una conexión v3 no dirigida hacia una estación que no está en el archivo")
+    void testRejectsUndirectedConnectionOutsideFile() throws Exception {
+        Files.writeString(Paths.get(testFilePath),
+            "<graphData version=\"3\"><nodes>"
+            + "<node><id>A</id><name>Alfa</name><connection to=\"X\" distance=\"1.0\"/>"
+            + "<connection to=\"Y\" distance=\"2.0\" directed=\"true\"/></node>"
+            + "</nodes></graphData>");
+        
+        for (RouteDAO reader : List.of(dao, new XmlRouteDAO())) {
+            PersistenceException e = assertThrows(PersistenceException.class, () -> reader.load(testFilePath));
+            assertTrue(e.getMessage().contains("de A a X"), e.getMessage());
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería leer el esquema v2 con conexiones dirigidas y con distancias distintas por sentido")
+    void testReadsSchemaV2() throws Exception {
+        Files.writeString(Paths.get(testFilePath),
+            "<graphData version=\"2\"><nodes>"
+            + "<node><id>A</id><name>Alfa</name></node>"
+            + "<node><id>B</id><name>Beta</name></node>"
+            + "</nodes><connections>"
+            + "<connection from=\"A\" to=\"B\" distance=\"3.0\" directed=\"true\"/>"
+            + "<connection from=\"B\" to=\"A\" distance=\"4.0\" directed=\"true\"/>"
+            + "<connection from=\"X\" to=\"A\" distance=\"1.0\"/>"
+            + "</connections></graphData>");
+        
+        for (RouteDAO reader : List.of(dao, new XmlRouteDAO())) {
+            GraphData loaded = reader.load(testFilePath);
+            assertEquals(2, loaded.getNodes().size());
+            assertEquals(3.0, loaded.getNodes().get(0).getEdgeTo("B").getDistance());
+            assertEquals(4.0, loaded.getNodes().get(1).getEdgeTo("A").getDistance());
+            assertEquals(1, loaded.getNodes().get(1).getEdges().size());
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería reducir el tamaño de un archivo v1 al guardarlo como v3")
+    void testSchemaV3IsSmaller() throws Exception {
+        GraphData data = createTestGraphData();
+        // Documento v1, como lo escribía XmlRouteDAO: una arista por sentido
+        jakarta.xml.bind.Marshaller v1Writer = XmlRouteDAO.context().createMarshaller();
+        v1Writer.setProperty(jakarta.xml.bind.Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        v1Writer.marshal(data, new File(testFilePath));
+        long v1 = new File(testFilePath).length();
+        assertTrue(Files.readString(Paths.get(testFilePath)).contains("<edge>"));
+        
+        dao.save(dao.load(testFilePath), testFilePath);
+        
+        assertTrue(new File(testFilePath).length() < v1);
+        assertEquals(10.0, dao.load(testFilePath).getNodes().get(1).getEdgeTo("EST001").getDistance());
+    }
+    
+    @Test
+    @DisplayName("Debería escribir y leer archivos comprimidos con gzip")
+    void testGzipRoundTrip() throws Exception {
+        String gzPath = testFilePath + ".gz";
+        GraphData data = createLargeGraphData(2000);
+        try {
+            dao.save(data, testFilePath);
+            dao.save(data, gzPath);
+            
+            byte[] head = Arrays.copyOf(Files.readAllBytes(Paths.get(gzPath)), 2);
+            assertArrayEquals(new byte[] {(byte) 0x1f, (byte) 0x8b}, head);
+            assertTrue(new File(gzPath).length() * 4 < new File(testFilePath).length());
+            
+            long size = new File(gzPath).length();
+            long[] last = new long[2];
+            GraphData loaded = dao.load(gzPath, (nodes, bytes, total) -> {
+                last[0] = nodes;
+                last[1] = bytes;
+                assertEquals(size, total);
+            });
+            assertEquals(2000, loaded.getNodes().size());
+            assertEquals(2000, last[0]);
+            assertTrue(last[1] > 0 && last[1] <= size);
+            assertEquals(2000, new XmlRouteDAO().load(gzPath).getNodes().size());
+        } finally {
+            new File(gzPath).delete();
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería detectar la compresión por los bytes mágicos y no por el nombre")
+    void testGzipDetectedByMagic() throws Exception {
+        String gzPath = testFilePath + ".gz";
+        try {
+            dao.save(createTestGraphData(), gzPath);
+            Files.move(Paths.get(gzPath), Paths.get(testFilePath));
+            
+            GraphData loaded = dao.load(testFilePath);
+            
+            assertEquals(2, loaded.getNodes().size());
+        } finally {
+            new File(gzPath).delete();
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería cancelar la lectura comprimida al interrumpir el hilo")
+    void testGzipCancelledByInterrupt() {
+        String gzPath = testFilePath + ".gz";
+        try {
+            dao.save(createLargeGraphData(500), gzPath);
+            Thread.currentThread().interrupt();
+            assertThrows(java.util.concurrent.CancellationException.class, () -> dao.load(gzPath));
+        } finally {
+            Thread.interrupted();
+            new File(gzPath).delete();
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería retornar null si archivo no existe")
+    void testLoadNonExistentFile() {
+        assertNull(dao.load("no_existe.xml"));
+    }
+    
+    @Test
+    @DisplayName("Debería lanzar PersistenceException con XML mal formado")
+    void testMalformedFile() throws Exception {
+        Files.writeString(Paths.get(testFilePath), "<graphData><nodes><node>");
+        assertThrows(PersistenceException.class, () -> dao.load(testFilePath));
+    }
+    
+    @Test
+    @DisplayName("Debería informar el avance final de la carga")
+    void testLoadReportsProgress() {
+        dao.save(createTestGraphData(), testFilePath);
+        long size = new File(testFilePath).length();
+        long[] last = new long[3];
+        
+        dao.load(testFilePath, (nodes, bytes, total) -> {
+            last[0] = nodes;
+            last[1] = bytes;
+            last[2] = total;
+        });
+        
+        assertEquals(2, last[0]);
+        assertEquals(size, last[1]);
+        assertEquals(size, last[2]);
+    }
+    
+    private GraphData createLargeGraphData(int count) {
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Node n = new Node(String.format("EST%05d", i), "Estación " + i, 4.6 + i * 1e-4, -74.1);
+            if (i > 0) n.addEdge(String.format("EST%05d", i - 1), 1.0);
+            nodes.add(n);
+        }
+        return new GraphData(nodes);
+    }
+    
+    private GraphData createTestGraphData() {
+        Node node1 = new Node("EST001", "Estación 1", 4.65, -74.05);
+        node1.addEdge("EST002", 10.0);
+        
+        Node node2 = new Node("EST002", "Estación 2", 4.70, -74.10);
+        node2.addEdge("EST001", 10.0);
+        
+        return new GraphData(Arrays.asList(node1, node2));
+    }
+}
@@ -0,0 +1,99 @@
+package co.edu.uptc.persistence;
+
+import co.edu.uptc.model.*;
+import org.junit.jupiter.api.*;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para StreamOrder
+ */
+class StreamOrderTest {
+    
+    private static final int SIDE = 100;
+    
+    @Test
+    @DisplayName("Debería mantener pocos sentidos de vuelta apartados al leer en flujo")
+    void testBoundsPendingBackEdges() {
+        List<Node> shuffled = createGrid();
+        Collections.shuffle(shuffled, new Random(7));
+        
+        int unordered = maxPending(shuffled);
+        int ordered = maxPending(StreamOrder.of(shuffled));
+        
+        assertTrue(unordered > 5000, "sin orden: " + unordered);
+        assertTrue(ordered <= 3 * SIDE, "en orden de escritura: " + ordered);
+    }
+    
+    @Test
+    @DisplayName("Debería conservar todas las estaciones una sola vez")
+    void testKeepsEveryStation() {
+        List<Node> shuffled = createGrid();
+        Collections.shuffle(shuffled, new Random(11));
+        Node withoutId = new Node();
+        shuffled.add(withoutId);
+        
+        List<Node> ordered = StreamOrder.of(shuffled);
+        
+        assertEquals(shuffled.size(), ordered.size());
+        assertEquals(new HashSet<>(shuffled), new HashSet<>(ordered));
+        assertSame(withoutId, ordered.get(ordered.size() - 1));
+    }
+    
+    @Test
+    @DisplayName("Debería dar el mismo orden sea cual sea el orden de entrada")
+    void testIndependentOfInputOrder() {
+        List<Node> first = createGrid();
+        List<Node> second = new ArrayList<>(first);
+        Collections.shuffle(second, new Random(3));
+        
+        assertEquals(ids(StreamOrder.of(first)), ids(StreamOrder.of(second)));
+    }
+    
+    /**
+     * Reproduce la lectura en flujo de un archivo v3 escrito en el orden dado y devuelve
+     * el máximo de sentidos de vuelta apartados a la vez.
+     */
+    private int maxPending(List<Node> nodes) {
+        Map<String, Integer> positions = Connection.positions(nodes);
+        InlineConnections inline = new InlineConnections();
+        int max = 0;
+        for (Node n : nodes) {
+            inline.apply(new Node(n.getId(), n.getName()), Connection.fromNode(nodes, positions, n));
+            max = Math.max(max, inline.pending());
+        }
+        inline.finish();
+        return max;
+    }
+    
+    private List<Node> createGrid() {
+        Node[][] grid = new Node[SIDE][SIDE];
+        List<Node> nodes = new ArrayList<>(SIDE * SIDE);
+        for (int r = 0; r < SIDE; r++) {
+            for (int c = 0; c < SIDE; c++) {
+                grid[r][c] = new Node("EST" + r + "_" + c, "Estación " + r + "," + c);
+                nodes.add(grid[r][c]);
+            }
+        }
+        for (int r = 0; r < SIDE; r++) {
+            for (int c = 0; c < SIDE; c++) {
+                if (c + 1 < SIDE) link(grid[r][c], grid[r][c + 1]);
+                if (r + 1 < SIDE) link(grid[r][c], grid[r + 1][c]);
+            }
+        }
+        return nodes;
+    }
+    
+    private void link(Node a, Node b) {
+        a.addEdge(new Edge(a.getId(), b.getId(), 1.0));
+        b.addEdge(new Edge(b.getId(), a.getId(), 1.0));
+    }
+    
+    private List<String> ids(List<Node> nodes) {
+        List<String> ids = new ArrayList<>();
+        for (Node n : nodes) {
+            ids.add(n.getId());
+        }
+        return ids;
+    }
+}
@@ -49,6 +49,42 @@ class XmlRouteDAOTest {
         assertEquals(original.getNodes().size(), loaded.getNodes().size());
     }
     
+    @Test
+    @DisplayName("Debería escribir el esquema v3, con cada conexión bidireccional una sola vez")
+    void testWritesSchemaV3() throws Exception {
+        GraphData data = createTestGraphData();
+        data.getNodes().get(0).addEdge("EST003", 2.0);
+        dao.save(data, testFilePath);
+        
+        String xml = java.nio.file.Files.readString(java.nio.file.Paths.get(testFilePath));
+        assertTrue(xml.contains("version=\"3\""));
+        assertFalse(xml.contains("<edge"));
+        assertFalse(xml.contains("from="));
+        assertEquals(1, xml.split("to=\"EST002\"", -1).length - 1);
+        assertFalse(xml.contains("to=\"EST001\""));
+        assertTrue(xml.contains("to=\"EST003\" distance=\"2.0\" directed=\"true\""));
+        
+        for (RouteDAO reader : List.of(dao, new StaxRouteDAO())) {
+            GraphData loaded = reader.load(testFilePath);
+            assertEquals(10.0, loaded.getNodes().get(1).getEdgeTo("EST001").getDistance());
+            assertEquals(2, loaded.getNodes().get(0).getEdges().size());
+            assertEquals(1, loaded.getNodes().get(1).getEdges().size());
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería rechazar una conexión v3 no dirigida escrita en la segunda de sus estaciones")
+    void testRejectsConnectionUnderLaterStation() throws Exception {
+        java.nio.file.Files.writeString(java.nio.file.Paths.get(testFilePath),
+            "<graphData version=\"3\"><nodes>"
+            + "<node><id>A</id><name>Alfa</name></node>"
+            + "<node><id>B</id><name>Beta</name><connection to=\"A\" distance=\"1.0\"/></node>"
+            + "</nodes></graphData>");
+        
+        PersistenceException e = assertThrows(PersistenceException.class, () -> dao.load(testFilePath));
+        assertTrue(e.getMessage().contains("de B a A"), e.getMessage());
+    }
+    
     @Test
     @DisplayName("Debería retornar null si archivo no existe")
     void testLoadNonExistentFile() {
@@ -64,6 +100,119 @@ class XmlRouteDAOTest {
         );
     }
     
+    @Test
+    @DisplayName("Debería informar el avance final de la carga en estaciones y bytes")
+    void testLoadReportsProgress() {
+        dao.save(createTestGraphData(), testFilePath);
+        long size = new File(testFilePath).length();
+        long[] last = new long[3];
+        
+        GraphData loaded = dao.load(testFilePath, (nodes, bytes, total) -> {
+            last[0] = nodes;
+            last[1] = bytes;
+            last[2] = total;
+        });
+        
+        assertEquals(2, loaded.getNodes().size());
+        assertEquals(2, last[0]);
+        assertEquals(size, last[1]);
+        assertEquals(size, last[2]);
+    }
+    
+    @Test
+    @DisplayName("Debería abandonar la carga cuando se cancela")
+    void testLoadCancelled() {
+        dao.save(createTestGraphData(), testFilePath);
+        LoadProgress cancelled = new LoadProgress() {
+            @Override
+            public void update(long nodesRead, long bytesRead, long totalBytes) { }
+            
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+        };
+        
+        assertThrows(java.util.concurrent.CancellationException.class, () ->
+            dao.load(testFilePath, cancelled)
+        );
+    }
+    
+    @Test
+    @DisplayName("Debería reemplazar el archivo sin dejar temporales")
+    void testSaveReplacesAtomically() {
+        dao.save(createTestGraphData(), testFilePath);
+        dao.save(new GraphData(new ArrayList<>()), testFilePath);
+        
+        File dir = new File(testFilePath).getAbsoluteFile().getParentFile();
+        String[] leftovers = dir.list((d, name) -> name.startsWith("." + testFilePath) && name.endsWith(".tmp"));
+        assertEquals(0, leftovers.length);
+        assertTrue(dao.load(testFilePath).getNodes() == null || dao.load(testFilePath).getNodes().isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Debería guardar y cargar varios archivos en paralelo")
+    void testSaveAndLoadAll() {
+        Map<String, GraphData> graphs = new LinkedHashMap<>();
+        for (int i = 0; i < 8; i++) {
+            graphs.put("test_graph_batch_" + i + ".xml", createTestGraphData());
+        }
+        try {
+            dao.saveAll(graphs, 4);
+            
+            List<String> paths = new ArrayList<>(graphs.keySet());
+            paths.add("no_existe.xml");
+            Map<String, GraphData> loaded = dao.loadAll(paths, 4);
+            
+            assertEquals(paths, new ArrayList<>(loaded.keySet()));
+            assertNull(loaded.get("no_existe.xml"));
+            for (String path : graphs.keySet()) {
+                assertEquals(2, loaded.get(path).getNodes().size());
+            }
+        } finally {
+            graphs.keySet().forEach(path -> new File(path).delete());
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería informar los archivos que fallan en una carga por lotes")
+    void testLoadAllReportsFailures() throws Exception {
+        dao.save(createTestGraphData(), testFilePath);
+        String broken = "test_graph_broken.xml";
+        java.nio.file.Files.writeString(java.nio.file.Paths.get(broken), "<graphData><nodes>");
+        try {
+            PersistenceException e = assertThrows(PersistenceException.class, () ->
+                dao.loadAll(List.of(testFilePath, broken), 2)
+            );
+            assertTrue(e.getMessage().contains(broken));
+        } finally {
+            new File(broken).delete();
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería permitir cargas concurrentes con el mismo DAO")
+    void testConcurrentLoads() throws Exception {
+        dao.save(createTestGraphData(), testFilePath);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 8; i++) {
+            Thread t = new Thread(() -> {
+                try {
+                    for (int j = 0; j < 10; j++) {
+                        assertEquals(2, dao.load(testFilePath).getNodes().size());
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) t.join();
+        assertTrue(errors.isEmpty(), () -> errors.toString());
+    }
+    
     private GraphData createTestGraphData() {
         Node node1 = new Node("EST001", "Estación 1", 4.65, -74.05);
         node1.addEdge("EST002", 10.0);
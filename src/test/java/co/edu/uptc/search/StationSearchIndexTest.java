@@ -0,0 +1,111 @@
+package co.edu.uptc.search;
+
+import co.edu.uptc.model.Node;
+import org.junit.jupiter.api.*;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para StationSearchIndex
+ */
+class StationSearchIndexTest {
+    
+    private StationSearchIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = StationSearchIndex.of(List.of(
+            new Node("EST001", "Cardio Infantil"),
+            new Node("EST002", "Calle 100"),
+            new Node("EST003", "Infantería"),
+            new Node("EST010", "Portal Norte"),
+            new Node("EST100", "Héroes")
+        ));
+    }
+    
+    @Test
+    @DisplayName("Debería normalizar sin acentos, mayúsculas ni espacios repetidos")
+    void testNormalize() {
+        assertEquals("cardio infantil", StationSearchIndex.normalize("  CÁRDIO   Infantil "));
+        assertEquals("nino", StationSearchIndex.normalize("Niño"));
+        assertEquals("", StationSearchIndex.normalize(null));
+    }
+    
+    @Test
+    @DisplayName("Debería encontrar estaciones por nombre sin acentos y ordenarlas por relevancia")
+    void testSearchByName() {
+        assertEquals(List.of("EST003", "EST001"), index.search("infant", 10));
+        assertEquals(List.of("EST001"), index.search("cardió INF", 10));
+        assertEquals(List.of("EST100"), index.search("heroes", 10));
+        assertEquals(List.of(), index.search("metro", 10));
+    }
+    
+    @Test
+    @DisplayName("Debería priorizar el ID exacto y limitar los resultados")
+    void testSearchById() {
+        assertEquals(List.of("EST010"), index.search("est010", 10));
+        assertEquals("EST100", index.search("EST100", 10).get(0));
+        assertEquals(List.of("EST001", "EST002"), index.search("EST00", 2));
+        assertEquals(List.of("EST001", "EST002", "EST003"), index.search("", 3));
+        assertEquals(5, index.search("e", 10).size());
+    }
+    
+    @Test
+    @DisplayName("Debería devolver todas las coincidencias sin límite, en el mismo orden")
+    void testSearchAll() {
+        assertEquals(index.search("EST00", 10), index.searchAll("EST00"));
+        assertEquals(List.of("EST003", "EST001"), index.searchAll("infant"));
+        assertEquals(5, index.searchAll("").size());
+        assertEquals(List.of(), index.searchAll("metro"));
+    }
+    
+    @Test
+    @DisplayName("Debería reflejar altas, cambios de nombre y bajas al momento")
+    void testIncrementalUpdates() {
+        index.add(new Node("EST200", "Museo Nacional"));
+        assertEquals(List.of("EST200"), index.search("museo", 10));
+        
+        index.add(new Node("EST200", "Parque Nacional"));
+        assertEquals(List.of(), index.search("museo", 10));
+        assertEquals(List.of("EST200"), index.search("parque", 10));
+        
+        assertTrue(index.remove("EST200"));
+        assertFalse(index.remove("EST200"));
+        assertEquals(List.of(), index.search("parque", 10));
+        
+        // El hueco se reutiliza sin arrastrar coincidencias del nombre anterior
+        index.add(new Node("EST201", "Usaquén"));
+        assertEquals(List.of("EST201"), index.search("usaquen", 10));
+        assertEquals(List.of(), index.search("parque", 10));
+        assertEquals(6, index.size());
+    }
+    
+    @Test
+    @DisplayName("Debería seguir respondiendo bien tras muchos cambios de nombre")
+    void testManyRenames() {
+        for (int i = 0; i < 5000; i++) {
+            index.add(new Node("EST050", "Nombre Temporal " + i));
+        }
+        assertEquals(List.of("EST050"), index.search("temporal 4999", 10));
+        assertEquals(List.of(), index.search("temporal 4998", 10));
+        assertEquals(List.of("EST001"), index.search("cardio", 10));
+    }
+    
+    @Test
+    @DisplayName("Debería buscar entre 100.000 estaciones")
+    void testLargeIndex() {
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            nodes.add(new Node(String.format("N%06d", i), "Estación Número " + i));
+        }
+        nodes.add(new Node("X1", "Cardio Infantil"));
+        StationSearchIndex large = StationSearchIndex.of(nodes);
+        
+        assertEquals(100_001, large.size());
+        assertEquals(List.of("X1"), large.search("infantil", 10));
+        assertEquals(10, large.search("numero 99", 10).size());
+        assertEquals(10, large.search("n", 10).size());
+        assertEquals(100_000, large.searchAll("numero").size());
+        assertEquals(11, large.searchAll("numero 9999").size());
+    }
+}
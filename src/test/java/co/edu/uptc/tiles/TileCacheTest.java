@@ -0,0 +1,77 @@
+package co.edu.uptc.tiles;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para TileCache (siempre en modo offline)
+ */
+class TileCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private void writeTile(int z, int x, int y, byte[] data) throws Exception {
+        Path p = tempDir.resolve(z + "/" + x + "/" + y + ".png");
+        Files.createDirectories(p.getParent());
+        Files.write(p, data);
+    }
+
+    @Test
+    @DisplayName("Debería servir tiles desde el directorio local")
+    void testReadsFromDisk() throws Exception {
+        writeTile(12, 1205, 1979, new byte[] {1, 2, 3});
+        TileCache cache = new TileCache(tempDir, null, TileCache.DEFAULT_UPSTREAM, true, 1024);
+
+        assertArrayEquals(new byte[] {1, 2, 3}, cache.get(12, 1205, 1979));
+        assertTrue(cache.isCachedLocally(12, 1205, 1979));
+    }
+
+    @Test
+    @DisplayName("Debería permitir la precarga solo con un servidor remoto propio")
+    void testBulkDownloadOnlyFromOwnUpstream() {
+        String own = "https://tiles.example.org:8443/osm/{z}/{x}/{y}.png";
+
+        assertFalse(new TileCache(tempDir, null, TileCache.DEFAULT_UPSTREAM, false, 1024).allowsBulkDownload());
+        assertFalse(new TileCache(tempDir, null, "https://a.tile.openstreetmap.org/{z}/{x}/{y}.png", false, 1024)
+                .allowsBulkDownload());
+        assertFalse(new TileCache(tempDir, null, own, true, 1024).allowsBulkDownload());
+        assertTrue(new TileCache(tempDir, null, own, false, 1024).allowsBulkDownload());
+
+        assertFalse(new TileServer(new TileCache(tempDir, null, TileCache.DEFAULT_UPSTREAM, false, 1024), true)
+                .isPrefetchEnabled());
+        assertFalse(new TileServer(new TileCache(tempDir, null, own, false, 1024), false).isPrefetchEnabled());
+        assertTrue(new TileServer(new TileCache(tempDir, null, own, false, 1024), true).isPrefetchEnabled());
+    }
+
+    @Test
+    @DisplayName("Debería retornar null en modo offline si el tile no existe")
+    void testMissingTileOffline() {
+        TileCache cache = new TileCache(tempDir, null, TileCache.DEFAULT_UPSTREAM, true, 1024);
+
+        assertNull(cache.get(3, 1, 1));
+        assertNull(cache.get(3, 99, 1)); // fuera de rango
+    }
+
+    @Test
+    @DisplayName("Debería mantener la caché en memoria dentro del presupuesto")
+    void testMemoryBudget() throws Exception {
+        for (int x = 0; x < 4; x++) writeTile(2, x, 0, new byte[400]);
+        TileCache cache = new TileCache(tempDir, null, TileCache.DEFAULT_UPSTREAM, true, 1000);
+
+        for (int x = 0; x < 4; x++) assertNotNull(cache.get(2, x, 0));
+
+        assertTrue(cache.memoryBytes() <= 1000);
+    }
+
+    @Test
+    @DisplayName("Debería calcular los índices de tile de Web Mercator")
+    void testTileIndices() {
+        assertEquals(0, TileServer.tileX(-180, 1));
+        assertEquals(1, TileServer.tileX(10, 1));
+        assertEquals(0, TileServer.tileY(45, 1));
+        assertEquals(1, TileServer.tileY(-45, 1));
+    }
+}
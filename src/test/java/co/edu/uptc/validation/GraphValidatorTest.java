@@ -0,0 +1,114 @@
+package co.edu.uptc.validation;
+
+import co.edu.uptc.model.Node;
+import org.junit.jupiter.api.*;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para GraphValidator
+ */
+class GraphValidatorTest {
+    
+    private GraphValidator validator;
+    private Map<String, Node> nodes;
+    
+    @BeforeEach
+    void setUp() {
+        validator = new GraphValidator();
+        nodes = new HashMap<>();
+        add(new Node("A", "Centro", 4.60, -74.08));
+        add(new Node("B", "Norte", 4.70, -74.05));
+        add(new Node("C", "centro ", 4.65, -74.06));
+        add(new Node("D", "Sur", 95.0, -74.10));
+        nodes.get("A").addEdge("B", 2.0);
+        nodes.get("B").addEdge("A", 3.0);
+        nodes.get("B").addEdge("C", 1.0);
+        nodes.get("C").addEdge("B", 1.0);
+        nodes.get("C").addEdge("X", 1.0);
+        nodes.get("D").addEdge("D", 1.0);
+        nodes.get("A").addEdge("C", 1.0);
+        nodes.get("A").getEdgeTo("C").setDistance(-1.0);
+    }
+    
+    @Test
+    @DisplayName("Debería encontrar cada tipo de problema")
+    void testValidate() {
+        GraphReport report = validator.validate(nodes, false);
+        
+        assertEquals(4, report.getNodeCount());
+        assertEquals(7, report.getEdgeCount());
+        assertEquals(1, report.count(GraphIssue.Type.DANGLING_EDGE));
+        assertEquals(1, report.count(GraphIssue.Type.SELF_LOOP));
+        assertEquals(1, report.count(GraphIssue.Type.INVALID_DISTANCE));
+        assertEquals(1, report.count(GraphIssue.Type.ASYMMETRIC_DISTANCE));
+        assertEquals(1, report.count(GraphIssue.Type.COORDINATE_OUT_OF_RANGE));
+        assertEquals(1, report.count(GraphIssue.Type.DUPLICATE_NAME));
+        assertEquals(0, report.getRepaired());
+        
+        GraphIssue duplicate = report.getIssues().stream()
+                .filter(i -> i.type() == GraphIssue.Type.DUPLICATE_NAME).findFirst().orElseThrow();
+        assertEquals("C", duplicate.nodeId());
+        assertEquals("A", duplicate.otherId());
+        // Sin reparar, el grafo no cambia
+        assertNotNull(nodes.get("C").getEdgeTo("X"));
+    }
+    
+    @Test
+    @DisplayName("Debería corregir los problemas con arreglo seguro")
+    void testRepair() {
+        GraphReport report = validator.validate(nodes, true);
+        
+        assertEquals(5, report.getRepaired());
+        assertNull(nodes.get("C").getEdgeTo("X"));
+        assertNull(nodes.get("D").getEdgeTo("D"));
+        assertNull(nodes.get("A").getEdgeTo("C"));
+        assertEquals(2.0, nodes.get("A").getEdgeTo("B").getDistance());
+        assertEquals(2.0, nodes.get("B").getEdgeTo("A").getDistance());
+        assertNull(nodes.get("D").getLatitude());
+        
+        GraphReport after = validator.validate(nodes, false);
+        assertEquals(List.of(GraphIssue.Type.DUPLICATE_NAME),
+                after.getIssues().stream().map(GraphIssue::type).toList());
+    }
+    
+    @Test
+    @DisplayName("Debería aceptar un grafo correcto y estaciones sin coordenadas")
+    void testCleanGraph() {
+        Map<String, Node> clean = new HashMap<>();
+        clean.put("A", new Node("A", "Uno"));
+        clean.put("B", new Node("B", "Dos", 4.6, -74.1));
+        clean.get("A").addEdge("B", 1.5);
+        clean.get("B").addEdge("A", 1.5);
+        
+        assertTrue(validator.validate(clean, true).isClean());
+        assertTrue(validator.validate(new HashMap<>(), false).isClean());
+    }
+    
+    @Test
+    @DisplayName("Debería validar 100.000 estaciones repartidas entre varias tareas")
+    void testLargeGraph() {
+        Map<String, Node> large = new HashMap<>();
+        int count = 100_000;
+        for (int i = 0; i < count; i++) {
+            String id = "N" + i;
+            large.put(id, new Node(id, "Estación " + i, 4.0 + i * 1e-5, -74.0));
+        }
+        for (int i = 1; i < count; i++) {
+            large.get("N" + (i - 1)).addEdge("N" + i, 0.5);
+            large.get("N" + i).addEdge("N" + (i - 1), 0.5);
+        }
+        large.get("N500").getEdgeTo("N501").setDistance(0.7);
+        
+        GraphReport report = validator.validate(large, false);
+        
+        assertEquals(count, report.getNodeCount());
+        assertEquals(2L * (count - 1), report.getEdgeCount());
+        assertEquals(1, report.getIssues().size());
+        assertEquals("N500", report.getIssues().get(0).nodeId());
+    }
+    
+    private void add(Node n) {
+        nodes.put(n.getId(), n);
+    }
+}
@@ -161,4 +161,62 @@ class StationValidatorTest {
             )
         );
     }
+    
+    @Test
+    @DisplayName("Debería permitir editar una estación conservando su nombre")
+    void testEditKeepSameName() {
+        StationIndex index = StationIndex.of(existingNodes);
+        assertDoesNotThrow(() ->
+            StationValidator.validate(
+                "EST001", "EXISTENTE 1", "4.65", "-74.05",
+                "EST001", index, bundle
+            )
+        );
+        Exception exception = assertThrows(Exception.class, () ->
+            StationValidator.validate(
+                "EST001", "existente 2", "4.65", "-74.05",
+                "EST001", index, bundle
+            )
+        );
+        assertEquals(bundle.getString("error.duplicate.name"), exception.getMessage());
+    }
+    
+    @Test
+    @DisplayName("Debería detectar IDs repetidos sin distinguir mayúsculas con el índice")
+    void testIndexDuplicateId() {
+        StationIndex index = StationIndex.of(existingNodes);
+        index.add(new Node("EST010", "Otra"));
+        index.remove("EST001");
+        
+        assertTrue(index.containsId("est010"));
+        assertFalse(index.containsId("EST001"));
+        assertFalse(index.containsName("Existente 1", null));
+        Exception exception = assertThrows(Exception.class, () ->
+            StationValidator.validate(
+                "EST010", "Nombre", "", "",
+                null, index, bundle
+            )
+        );
+        assertEquals(bundle.getString("error.id.duplicate"), exception.getMessage());
+    }
+    
+    @Test
+    @DisplayName("Debería validar un lote de estaciones en una pasada")
+    void testValidateAll() {
+        List<Node> batch = List.of(
+            new Node("EST003", "Nueva 3", 4.6, -74.0),
+            new Node("EST001", "Otra"),
+            new Node("EST004", "nueva 3"),
+            new Node("EST005", "Lejana", 95.0, -74.0),
+            new Node("EST006", "Nueva 6")
+        );
+        
+        List<StationValidator.Rejection> rejected =
+            StationValidator.validateAll(batch, StationIndex.of(existingNodes), bundle);
+        
+        assertEquals(List.of(1, 2, 3), rejected.stream().map(StationValidator.Rejection::index).toList());
+        assertEquals(bundle.getString("error.id.duplicate"), rejected.get(0).message());
+        assertEquals(bundle.getString("error.duplicate.name"), rejected.get(1).message());
+        assertEquals(bundle.getString("error.lat.out_of_range"), rejected.get(2).message());
+    }
 }
\ No newline at end of file